@@ -2,6 +2,11 @@ package com.jnape.palatable.shoki.api;
 
 import com.jnape.palatable.shoki.api.SizeInfo.Known;
 
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * A known-sized {@link Sequence}.
  *
@@ -33,4 +38,47 @@ public interface Collection<Size extends Number, A> extends Sequence<A>, Sizable
     default boolean isEmpty() {
         return sizeInfo().getSize().intValue() == 0;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * {@link Collection} implementations by default use {@link Collection#sizeInfo()} to report a
+     * {@link Spliterator#SIZED sized} {@link Spliterator} over this collection's
+     * {@link Collection#iterator() iterator}.
+     */
+    @Override
+    default Spliterator<A> spliterator() {
+        return Spliterators.spliterator(iterator(), sizeInfo().getSize().longValue(), 0);
+    }
+
+    /**
+     * Create a sequential {@link Stream} of the elements of this collection.
+     *
+     * @return the {@link Stream}
+     * @see Collection#spliterator()
+     */
+    default Stream<A> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Create a possibly parallel {@link Stream} of the elements of this collection.
+     *
+     * @return the {@link Stream}
+     * @see Collection#spliterator()
+     */
+    default Stream<A> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * View this collection as a read-only {@link java.util.Collection}, delegating directly to this collection rather
+     * than copying its elements. Any attempted mutation throws an {@link UnsupportedOperationException}.
+     * <code>O(1)</code>.
+     *
+     * @return the {@link java.util.Collection} view
+     */
+    default java.util.Collection<A> asJavaCollection() {
+        return new CollectionView<>(this);
+    }
 }
@@ -0,0 +1,43 @@
+package com.jnape.palatable.shoki.api;
+
+import java.util.AbstractCollection;
+import java.util.Iterator;
+
+/**
+ * A read-only {@link java.util.Collection} view of a {@link Collection}, delegating {@link #size() size},
+ * {@link #isEmpty() isEmpty}, and {@link #iterator() iteration} directly to it without copying any elements. Every
+ * mutation throws an {@link UnsupportedOperationException}.
+ *
+ * @param <A> the element type
+ */
+final class CollectionView<A> extends AbstractCollection<A> {
+
+    private final Collection<?, A> collection;
+
+    CollectionView(Collection<?, A> collection) {
+        this.collection = collection;
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return collection.iterator();
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(collection);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return collection.isEmpty();
+    }
+
+    /**
+     * The size of <code>collection</code> as an <code>int</code>, saturating at {@link Integer#MAX_VALUE} as required
+     * by {@link java.util.Collection#size()}.
+     */
+    static int sizeOf(Collection<?, ?> collection) {
+        return (int) Math.min(collection.sizeInfo().getSize().longValue(), Integer.MAX_VALUE);
+    }
+}
@@ -82,14 +82,16 @@ public interface EquivalenceRelation<A> extends BiPredicate<A, A> {
     }
 
     /**
-     * An {@link EquivalenceRelation} implemented in terms of {@link Objects#equals(Object, Object)}.
+     * An {@link EquivalenceRelation} implemented in terms of {@link Objects#equals(Object, Object)}. Every call returns
+     * the same instance.
      *
      * @param <A> the type to equate
      * @return the {@link EquivalenceRelation}
      * @see Objects#equals(Object, Object)
      */
+    @SuppressWarnings("unchecked")
     static <A> EquivalenceRelation<A> objectEquals() {
-        return Objects::equals;
+        return (EquivalenceRelation<A>) (EquivalenceRelation<?>) ObjectEquals.OBJECT_EQUALS;
     }
 
     /**
@@ -4,22 +4,39 @@ import com.jnape.palatable.lambda.functions.Fn1;
 import com.jnape.palatable.lambda.functor.Applicative;
 
 import java.util.Objects;
+import java.util.function.ToIntFunction;
 
 /**
  * A {@link HashingAlgorithm hashing algorithm} is an {@link Fn1 arrow} <code>A -&gt; Integer</code>. Good
  * hashing algorithms are generally fast and uniformly distribute values of type <code>A</code> across values of type
  * {@link Integer} (modulo cardinality differences where <code>A</code>'s cardinality exceeds {@link Integer}'s).
+ * <p>
+ * Hash-based collections compute hashes via {@link HashingAlgorithm#hashInt(Object) hashInt}, which the built-in
+ * algorithms (and those constructed via {@link HashingAlgorithm#hashingAlgorithm(ToIntFunction)}) implement without
+ * boxing the hash.
  *
  * @param <A> the type to hash
  */
 public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
 
+    /**
+     * Compute the hash of <code>a</code> as a primitive <code>int</code>. By default, this unboxes the result of
+     * {@link HashingAlgorithm#apply(Object) apply}; algorithms that can produce an <code>int</code> directly should
+     * override it.
+     *
+     * @param a the value
+     * @return the hash
+     */
+    default int hashInt(A a) {
+        return apply(a);
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     default HashingAlgorithm<A> local(Fn1<? super A, ? extends A> fn) {
-        return Fn1.super.local(fn)::apply;
+        return hashingAlgorithm(a -> hashInt(fn.apply(a)));
     }
 
     /**
@@ -43,7 +60,7 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      */
     @Override
     default <Z> HashingAlgorithm<Z> diMapL(Fn1<? super Z, ? extends A> fn) {
-        return Fn1.super.diMapL(fn)::apply;
+        return contraMap(fn);
     }
 
     /**
@@ -51,7 +68,83 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      */
     @Override
     default <Z> HashingAlgorithm<Z> contraMap(Fn1<? super Z, ? extends A> fn) {
-        return Fn1.super.contraMap(fn)::apply;
+        return hashingAlgorithm(z -> hashInt(fn.apply(z)));
+    }
+
+    /**
+     * A {@link HashingAlgorithm} that passes the hashes produced by this {@link HashingAlgorithm} through the
+     * <a href="https://github.com/aappleby/smhasher/wiki/MurmurHash3" target="_new">murmur3</a> finalizer, so that
+     * every bit of the original hash affects every bit of the spread hash. Hash-based collections index their tries
+     * by the lowest bits of each hash first, so spreading keeps keys whose hashes only differ in their higher bits
+     * (e.g. shifted sequential identifiers, or {@link Double#hashCode() doubles}) from clustering into deep branches.
+     * <p>
+     * Spreading is a bijection, so values whose original hashes are equal still have equal spread hashes.
+     *
+     * @return the spread {@link HashingAlgorithm}
+     */
+    default HashingAlgorithm<A> spread() {
+        return seeded(0);
+    }
+
+    /**
+     * A {@link HashingAlgorithm} that {@link HashingAlgorithm#spread() spreads} the hashes produced by this
+     * {@link HashingAlgorithm} after mixing in <code>seed</code>, so that which values' spread hashes share their
+     * lower bits depends on the seed. For any one seed this is still a bijection, so values whose original hashes are
+     * equal have equal seeded hashes under every seed.
+     *
+     * @param seed the seed
+     * @return the seeded {@link HashingAlgorithm}
+     */
+    default HashingAlgorithm<A> seeded(int seed) {
+        return new SpreadHashingAlgorithm<>(this, seed);
+    }
+
+    /**
+     * A {@link HashingAlgorithm} {@link HashingAlgorithm#seeded(int) seeded} with a seed chosen at random once per
+     * process, so that which keys' hashes share only some of their lower bits, and so which keys cluster into the same
+     * branches of a trie, differs from process to process. This does not randomize full collisions: keys whose
+     * original hashes are equal still collide under every seed, so it offers no protection against keys chosen to
+     * collide outright. Those are instead bounded by keeping large collision buckets of {@link Comparable} keys
+     * sorted, or avoided by hashing with a 64-bit {@link LongHashingAlgorithm}. Hashes produced this way differ
+     * between processes, and so should not be persisted or shared.
+     *
+     * @return the randomly seeded {@link HashingAlgorithm}
+     */
+    default HashingAlgorithm<A> randomlySeeded() {
+        return seeded(SpreadHashingAlgorithm.PROCESS_SEED);
+    }
+
+    /**
+     * A {@link HashingAlgorithm} for composite values, combining the hashes produced by each of
+     * <code>components</code> in order, as per {@link java.util.Arrays#hashCode(Object[])}. Components are typically
+     * {@link HashingAlgorithm#contraMap(Fn1) contraMapped} onto the parts of the composite value.
+     *
+     * @param components the {@link HashingAlgorithm HashingAlgorithms} for each component
+     * @param <A>        the type to hash
+     * @return the composite {@link HashingAlgorithm}
+     */
+    @SafeVarargs
+    static <A> HashingAlgorithm<A> composite(HashingAlgorithm<? super A>... components) {
+        HashingAlgorithm<? super A>[] copy = components.clone();
+        return hashingAlgorithm(a -> {
+            int hash = 1;
+            for (HashingAlgorithm<? super A> component : copy) {
+                hash = 31 * hash + component.hashInt(a);
+            }
+            return hash;
+        });
+    }
+
+    /**
+     * A {@link HashingAlgorithm} implemented in terms of a primitive hash function, whose
+     * {@link HashingAlgorithm#hashInt(Object) hashInt} never boxes.
+     *
+     * @param hashFn the hash function
+     * @param <A>    the type to hash
+     * @return the {@link HashingAlgorithm}
+     */
+    static <A> HashingAlgorithm<A> hashingAlgorithm(ToIntFunction<? super A> hashFn) {
+        return new PrimitiveHashingAlgorithm<>(hashFn);
     }
 
     /**
@@ -60,8 +153,9 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      * @param <A> the type to hash
      * @return a {@link HashingAlgorithm} implemented in terms of {@link Objects#hashCode(Object)}.
      */
+    @SuppressWarnings("unchecked")
     static <A> HashingAlgorithm<A> objectHashCode() {
-        return Objects::hashCode;
+        return (HashingAlgorithm<A>) PrimitiveHashingAlgorithm.OBJECT_HASH_CODE;
     }
 
     /**
@@ -70,8 +164,9 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      * @param <A> the type to hash
      * @return a {@link HashingAlgorithm} implemented in terms of {@link System#identityHashCode(Object)}.
      */
+    @SuppressWarnings("unchecked")
     static <A> HashingAlgorithm<A> identityHashCode() {
-        return System::identityHashCode;
+        return (HashingAlgorithm<A>) PrimitiveHashingAlgorithm.IDENTITY_HASH_CODE;
     }
 
 
@@ -81,8 +176,9 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      * @param <A> the array component type
      * @return a {@link HashingAlgorithm} implemented in terms of {@link java.util.Arrays#hashCode(Object[])}.
      */
+    @SuppressWarnings("unchecked")
     static <A> HashingAlgorithm<A[]> arraysHashCode() {
-        return java.util.Arrays::hashCode;
+        return (HashingAlgorithm<A[]>) (HashingAlgorithm<?>) PrimitiveHashingAlgorithm.ARRAYS_HASH_CODE;
     }
 
     /**
@@ -91,7 +187,7 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      * @return a {@link HashingAlgorithm} implemented in terms of {@link java.util.Arrays#deepHashCode(Object[])}.
      */
     static HashingAlgorithm<Object[]> arraysDeepHashCode() {
-        return java.util.Arrays::deepHashCode;
+        return PrimitiveHashingAlgorithm.ARRAYS_DEEP_HASH_CODE;
     }
 
     /**
@@ -103,6 +199,6 @@ public interface HashingAlgorithm<A> extends Fn1<A, Integer> {
      * @return the hash
      */
     static <A> int hash(HashingAlgorithm<? super A> hashingAlgorithm, A a) {
-        return hashingAlgorithm.apply(a);
+        return hashingAlgorithm.hashInt(a);
     }
 }
@@ -0,0 +1,93 @@
+package com.jnape.palatable.shoki.api;
+
+import com.jnape.palatable.lambda.functions.Fn1;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link HashingAlgorithm} that produces a 64-bit hash via {@link LongHashingAlgorithm#hashLong(Object) hashLong},
+ * and whose {@link HashingAlgorithm#hashInt(Object) hashInt} is the lower 32 bits of that hash.
+ * <p>
+ * Hash-based collections populated with a {@link LongHashingAlgorithm} continue to distinguish keys by the upper 32
+ * bits of their hashes once the lower 32 bits are exhausted, so that keys are only compared one by one if all 64 bits
+ * of their hashes are equal. This keeps lookups logarithmic for collections far larger than the range over which
+ * 32-bit hashes are likely to be unique.
+ *
+ * @param <A> the type to hash
+ */
+@FunctionalInterface
+public interface LongHashingAlgorithm<A> extends HashingAlgorithm<A> {
+
+    /**
+     * Compute the 64-bit hash of <code>a</code>.
+     *
+     * @param a the value
+     * @return the hash
+     */
+    long hashLong(A a);
+
+    /**
+     * The lower 32 bits of {@link LongHashingAlgorithm#hashLong(Object) hashLong}.
+     *
+     * @param a the value
+     * @return the hash
+     */
+    @Override
+    default int hashInt(A a) {
+        return (int) hashLong(a);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default Integer checkedApply(A a) {
+        return hashInt(a);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default LongHashingAlgorithm<A> local(Fn1<? super A, ? extends A> fn) {
+        return a -> hashLong(fn.apply(a));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default <Z> LongHashingAlgorithm<Z> diMapL(Fn1<? super Z, ? extends A> fn) {
+        return contraMap(fn);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    default <Z> LongHashingAlgorithm<Z> contraMap(Fn1<? super Z, ? extends A> fn) {
+        return z -> hashLong(fn.apply(z));
+    }
+
+    /**
+     * A {@link LongHashingAlgorithm} implemented in terms of a primitive 64-bit hash function.
+     *
+     * @param hashFn the hash function
+     * @param <A>    the type to hash
+     * @return the {@link LongHashingAlgorithm}
+     */
+    static <A> LongHashingAlgorithm<A> longHashingAlgorithm(ToLongFunction<? super A> hashFn) {
+        return hashFn::applyAsLong;
+    }
+
+    /**
+     * A {@link LongHashingAlgorithm} implementing the 64-bit
+     * <a href="http://www.isthe.com/chongo/tech/comp/fnv/" target="_new">FNV-1a</a> hash over the <code>char</code>s of
+     * a {@link CharSequence}.
+     *
+     * @return the {@link LongHashingAlgorithm}
+     */
+    static LongHashingAlgorithm<CharSequence> charSequenceFnv1a() {
+        return PrimitiveHashingAlgorithm.CHAR_SEQUENCE_FNV_1A;
+    }
+}
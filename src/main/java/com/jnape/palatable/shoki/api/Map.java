@@ -7,10 +7,10 @@ import com.jnape.palatable.lambda.semigroup.Semigroup;
 import static com.jnape.palatable.lambda.functions.Fn2.curried;
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
-import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
 import static com.jnape.palatable.lambda.monoid.builtin.And.and;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hashingAlgorithm;
 
 /**
  * A {@link Collection} of key/value {@link Tuple2 pairs} supporting {@link RandomAccess random access} from a key to
@@ -126,6 +126,17 @@ public interface Map<Size extends Number, K, V> extends
         return foldLeft(Map<Size, K, V>::remove, this, keys);
     }
 
+    /**
+     * View this {@link Map} as a read-only {@link java.util.Map}, delegating lookups, size, and iteration directly to
+     * this {@link Map} rather than copying its entries. Any attempted mutation throws an
+     * {@link UnsupportedOperationException}. <code>O(1)</code>.
+     *
+     * @return the {@link java.util.Map} view
+     */
+    default java.util.Map<K, V> asJavaMap() {
+        return new MapView<>(this);
+    }
+
     /**
      * Common {@link EquivalenceRelation}s between {@link Map}s.
      */
@@ -187,9 +198,12 @@ public interface Map<Size extends Number, K, V> extends
         public static <K, V, M extends Map<?, K, V>> HashingAlgorithm<M> entries(
                 HashingAlgorithm<? super K> keyHashingAlgorithm,
                 HashingAlgorithm<? super V> valueHashingAlgorithm) {
-            return m -> foldLeft(Integer::sum, 0,
-                                 map(into((K k, V v) -> keyHashingAlgorithm.apply(k)
-                                         ^ valueHashingAlgorithm.apply(v)), m));
+            return hashingAlgorithm(m -> {
+                int hash = 0;
+                for (Tuple2<K, V> kv : m)
+                    hash += keyHashingAlgorithm.hashInt(kv._1()) ^ valueHashingAlgorithm.hashInt(kv._2());
+                return hash;
+            });
         }
     }
 }
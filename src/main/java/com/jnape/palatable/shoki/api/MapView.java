@@ -0,0 +1,78 @@
+package com.jnape.palatable.shoki.api;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Objects;
+
+import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
+import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
+import static com.jnape.palatable.shoki.api.CollectionView.sizeOf;
+
+/**
+ * A read-only {@link java.util.Map} view of a {@link Map}, delegating {@link #get(Object) get},
+ * {@link #containsKey(Object) containsKey}, {@link #size() size}, and iteration directly to it without copying any
+ * entries. Every mutation throws an {@link UnsupportedOperationException}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class MapView<K, V> extends AbstractMap<K, V> {
+
+    private final Map<?, K, V> map;
+
+    MapView(Map<?, K, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return map.get((K) key).orElse(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean containsKey(Object key) {
+        return map.contains((K) key);
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(map);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    @Override
+    public java.util.Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return map(into((K k, V v) -> (Entry<K, V>) new SimpleImmutableEntry<>(k, v)), map).iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry<?, ?>))
+                    return false;
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                return containsKey(entry.getKey()) && Objects.equals(get(entry.getKey()), entry.getValue());
+            }
+
+            @Override
+            public int size() {
+                return MapView.this.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return map.isEmpty();
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package com.jnape.palatable.shoki.api;
+
+import java.util.Objects;
+
+/**
+ * The {@link EquivalenceRelation} implemented in terms of {@link Objects#equals(Object, Object)}. It is a single shared
+ * instance, so that collections can recognize it by reference and call {@link Object#equals(Object)} directly.
+ */
+final class ObjectEquals implements EquivalenceRelation<Object> {
+
+    static final ObjectEquals OBJECT_EQUALS = new ObjectEquals();
+
+    private ObjectEquals() {
+    }
+
+    @Override
+    public Boolean checkedApply(Object x, Object y) {
+        return Objects.equals(x, y);
+    }
+}
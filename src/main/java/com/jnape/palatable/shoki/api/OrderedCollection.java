@@ -1,8 +1,8 @@
 package com.jnape.palatable.shoki.api;
 
-import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.ZipWith.zipWith;
 import static com.jnape.palatable.lambda.monoid.builtin.And.and;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hashingAlgorithm;
 
 /**
  * A {@link Collection} that supports stable ordering of the contained elements.
@@ -69,7 +69,12 @@ public interface OrderedCollection<Size extends Number, A> extends Collection<Si
          */
         public static <A, OC extends OrderedCollection<?, A>> HashingAlgorithm<OC> elementsInOrder(
                 HashingAlgorithm<? super A> elementHashAlg) {
-            return xs -> foldLeft((hash, x) -> (hash * 31) + elementHashAlg.apply(x), 0, xs);
+            return hashingAlgorithm(xs -> {
+                int hash = 0;
+                for (A x : xs)
+                    hash = (hash * 31) + elementHashAlg.hashInt(x);
+                return hash;
+            });
         }
     }
 }
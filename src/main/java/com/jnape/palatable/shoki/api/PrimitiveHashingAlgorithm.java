@@ -0,0 +1,51 @@
+package com.jnape.palatable.shoki.api;
+
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * A {@link HashingAlgorithm} backed by a primitive hash function, so that
+ * {@link HashingAlgorithm#hashInt(Object) hashInt} never boxes. The built-in algorithms are shared instances, so that
+ * collections populated with them continue to recognize each other's algorithms as equal.
+ *
+ * @param <A> the type to hash
+ */
+final class PrimitiveHashingAlgorithm<A> implements HashingAlgorithm<A> {
+
+    static final HashingAlgorithm<Object>   OBJECT_HASH_CODE      =
+            new PrimitiveHashingAlgorithm<>(Objects::hashCode);
+    static final HashingAlgorithm<Object>   IDENTITY_HASH_CODE    =
+            new PrimitiveHashingAlgorithm<>(System::identityHashCode);
+    static final HashingAlgorithm<Object[]> ARRAYS_HASH_CODE      =
+            new PrimitiveHashingAlgorithm<>(java.util.Arrays::hashCode);
+    static final HashingAlgorithm<Object[]> ARRAYS_DEEP_HASH_CODE =
+            new PrimitiveHashingAlgorithm<>(java.util.Arrays::deepHashCode);
+
+    static final LongHashingAlgorithm<CharSequence> CHAR_SEQUENCE_FNV_1A =
+            PrimitiveHashingAlgorithm::fnv1a;
+
+    private final ToIntFunction<? super A> hashFn;
+
+    PrimitiveHashingAlgorithm(ToIntFunction<? super A> hashFn) {
+        this.hashFn = hashFn;
+    }
+
+    @Override
+    public Integer checkedApply(A a) {
+        return hashFn.applyAsInt(a);
+    }
+
+    @Override
+    public int hashInt(A a) {
+        return hashFn.applyAsInt(a);
+    }
+
+    private static long fnv1a(CharSequence charSequence) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < charSequence.length(); i++) {
+            hash ^= charSequence.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
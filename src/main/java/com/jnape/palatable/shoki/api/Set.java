@@ -87,6 +87,17 @@ public interface Set<Size extends Number, A> extends Collection<Size, A>, Member
         return difference(other).union(other.difference(this));
     }
 
+    /**
+     * View this {@link Set} as a read-only {@link java.util.Set}, delegating membership, size, and iteration directly
+     * to this {@link Set} rather than copying its elements. Any attempted mutation throws an
+     * {@link UnsupportedOperationException}. <code>O(1)</code>.
+     *
+     * @return the {@link java.util.Set} view
+     */
+    default java.util.Set<A> asJavaSet() {
+        return new SetView<>(this);
+    }
+
     /**
      * Common {@link EquivalenceRelation}s between {@link Set}s.
      */
@@ -0,0 +1,43 @@
+package com.jnape.palatable.shoki.api;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+
+import static com.jnape.palatable.shoki.api.CollectionView.sizeOf;
+
+/**
+ * A read-only {@link java.util.Set} view of a {@link Set}, delegating {@link #contains(Object) membership},
+ * {@link #size() size}, and {@link #iterator() iteration} directly to it without copying any elements. Every mutation
+ * throws an {@link UnsupportedOperationException}.
+ *
+ * @param <A> the element type
+ */
+final class SetView<A> extends AbstractSet<A> {
+
+    private final Set<?, A> set;
+
+    SetView(Set<?, A> set) {
+        this.set = set;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+        return set.contains((A) o);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return set.iterator();
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(set);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return set.isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.jnape.palatable.shoki.api;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link HashingAlgorithm} that passes the hashes of another {@link HashingAlgorithm}, combined with a seed, through
+ * the <a href="https://github.com/aappleby/smhasher/wiki/MurmurHash3" target="_new">murmur3</a> finalizer. Since
+ * both the seed mixing and the finalizer are bijections, the seed only changes which hashes share some of their bits,
+ * never whether two hashes are equal. Two instances spreading equal algorithms with equal seeds are equal, so that
+ * collections populated with separately constructed but identical algorithms continue to recognize each other's
+ * algorithms as equal.
+ *
+ * @param <A> the type to hash
+ */
+final class SpreadHashingAlgorithm<A> implements HashingAlgorithm<A> {
+
+    static final int PROCESS_SEED = new SplittableRandom().nextInt();
+
+    private final HashingAlgorithm<A> hashingAlgorithm;
+    private final int                 seed;
+
+    SpreadHashingAlgorithm(HashingAlgorithm<A> hashingAlgorithm, int seed) {
+        this.hashingAlgorithm = hashingAlgorithm;
+        this.seed             = seed;
+    }
+
+    @Override
+    public Integer checkedApply(A a) {
+        return hashInt(a);
+    }
+
+    @Override
+    public int hashInt(A a) {
+        return fmix32(hashingAlgorithm.hashInt(a) ^ seed);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof SpreadHashingAlgorithm<?>) {
+            SpreadHashingAlgorithm<?> spread = (SpreadHashingAlgorithm<?>) other;
+            return seed == spread.seed && Objects.equals(hashingAlgorithm, spread.hashingAlgorithm);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * hashingAlgorithm.hashCode() + seed;
+    }
+
+    static int fmix32(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,802 @@
+package com.jnape.palatable.shoki.impl;
+
+import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.lambda.functions.Fn0;
+import com.jnape.palatable.shoki.api.Collection;
+import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.OrderedCollection;
+import com.jnape.palatable.shoki.api.Queue;
+import com.jnape.palatable.shoki.api.RandomAccess;
+import com.jnape.palatable.shoki.api.SizeInfo.Known;
+import com.jnape.palatable.shoki.api.Stack;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import static com.jnape.palatable.lambda.adt.Maybe.just;
+import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
+import static com.jnape.palatable.lambda.functions.builtin.fn1.Downcast.downcast;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
+import static com.jnape.palatable.shoki.api.OrderedCollection.EquivalenceRelations.elementsInOrder;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
+import static java.util.Arrays.copyOf;
+import static java.util.Arrays.copyOfRange;
+
+/**
+ * A persistent double-ended sequence, implemented as a
+ * <a href="http://www.staff.city.ac.uk/~ross/papers/FingerTree.html">2-3 finger tree</a> annotated with subtree sizes.
+ * <p>
+ * Each level of the tree keeps one to four elements (or, at deeper levels, 2-3 nodes of elements) on either end in a
+ * <em>digit</em>, and defers the rest to a lazily-evaluated tree one level deeper. Because overflowing a digit only
+ * pushes a node into a deeper level that is not forced until it is needed, {@link FingerTree#cons(Object) cons},
+ * {@link FingerTree#snoc(Object) snoc}, {@link FingerTree#tail() tail}, and {@link FingerTree#init() init} are
+ * amortized <code>O(1)</code>, even when persistent versions are reused, and {@link FingerTree#head() head} and
+ * {@link FingerTree#last() last} are <code>O(1)</code>. Since every node caches its size,
+ * {@link FingerTree#concat(FingerTree) concat}, {@link FingerTree#splitAt(Natural) splitAt}, and
+ * {@link FingerTree#get(Natural) get} are <code>O(log2min(i, n - i))</code>, sharing all untouched structure.
+ *
+ * @param <A> the element type
+ * @see Vector
+ * @see StrictQueue
+ */
+public final class FingerTree<A> implements RandomAccess<Natural, Maybe<A>>, Stack<Natural, A>, Queue<Natural, A> {
+
+    private static final Object[]      NO_ELEMENTS = new Object[0];
+    private static final FingerTree<?> EMPTY       = new FingerTree<>(Empty.INSTANCE);
+
+    private final Tree tree;
+
+    private volatile Integer hashCode;
+
+    private FingerTree(Tree tree) {
+        this.tree = tree;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(log2min(i, n - i))</code>.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Maybe<A> get(Natural index) {
+        return contains(index) ? just((A) find(tree, index.intValue())) : nothing();
+    }
+
+    /**
+     * <code>True</code> if <code>index</code> is less than the size of this {@link FingerTree}; <code>false</code>
+     * otherwise. <code>O(1)</code>.
+     *
+     * @param index the index
+     * @return whether <code>index</code> is in bounds
+     */
+    @Override
+    public boolean contains(Natural index) {
+        return index.longValue() < tree.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Maybe<A> head() {
+        return tree == Empty.INSTANCE ? nothing() : just((A) tree.head());
+    }
+
+    /**
+     * The last element of this {@link FingerTree}, if there is one. <code>O(1)</code>.
+     *
+     * @return {@link Maybe} the last element
+     */
+    @SuppressWarnings("unchecked")
+    public Maybe<A> last() {
+        return tree == Empty.INSTANCE ? nothing() : just((A) tree.last());
+    }
+
+    /**
+     * The remaining elements after removing the head of this {@link FingerTree}, or an empty {@link FingerTree} if
+     * there are no elements. Amortized <code>O(1)</code>.
+     *
+     * @return the tail of this {@link FingerTree}
+     */
+    @Override
+    public FingerTree<A> tail() {
+        return tree == Empty.INSTANCE ? this : new FingerTree<>(tree.tail());
+    }
+
+    /**
+     * The remaining elements after removing the last element of this {@link FingerTree}, or an empty
+     * {@link FingerTree} if there are no elements. Amortized <code>O(1)</code>.
+     *
+     * @return the init of this {@link FingerTree}
+     */
+    public FingerTree<A> init() {
+        return tree == Empty.INSTANCE ? this : new FingerTree<>(tree.init());
+    }
+
+    /**
+     * Produce a new {@link FingerTree} instance with <code>a</code> added to the front. Amortized <code>O(1)</code>.
+     *
+     * @param a the element
+     * @return the new {@link FingerTree}
+     */
+    @Override
+    public FingerTree<A> cons(A a) {
+        return new FingerTree<>(tree.cons(a));
+    }
+
+    /**
+     * Produce a new {@link FingerTree} instance with <code>a</code> added to the back. Amortized <code>O(1)</code>.
+     *
+     * @param a the element
+     * @return the new {@link FingerTree}
+     */
+    @Override
+    public FingerTree<A> snoc(A a) {
+        return new FingerTree<>(tree.snoc(a));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Amortized <code>O(k)</code>.
+     */
+    @Override
+    public FingerTree<A> consAll(Collection<Natural, A> other) {
+        return (FingerTree<A>) Stack.super.consAll(other);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If <code>collection</code> is a {@link FingerTree}, the two are
+     * {@link FingerTree#concat(FingerTree) concatenated} in <code>O(log2min(n, k))</code>; otherwise, amortized
+     * <code>O(k)</code>.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public FingerTree<A> snocAll(Collection<Natural, A> collection) {
+        return collection instanceof FingerTree<?>
+               ? concat((FingerTree<A>) collection)
+               : (FingerTree<A>) Queue.super.snocAll(collection);
+    }
+
+    /**
+     * Produce a new {@link FingerTree} of the elements of this {@link FingerTree} followed by the elements of
+     * <code>other</code>, rebuilding only the nodes between the inner digits of the two trees.
+     * <code>O(log2min(n, k))</code>.
+     *
+     * @param other the {@link FingerTree} to append
+     * @return the concatenated {@link FingerTree}
+     */
+    public FingerTree<A> concat(FingerTree<A> other) {
+        return new FingerTree<>(concat(tree, NO_ELEMENTS, other.tree));
+    }
+
+    /**
+     * Split this {@link FingerTree} into the elements before <code>index</code> and the elements from
+     * <code>index</code> onwards. If <code>index</code> is not less than the size of this {@link FingerTree}, the
+     * second {@link FingerTree} is empty. <code>O(log2min(i, n - i))</code>.
+     *
+     * @param index the index of the first element of the second {@link FingerTree}
+     * @return the two {@link FingerTree FingerTrees}
+     */
+    public Tuple2<FingerTree<A>, FingerTree<A>> splitAt(Natural index) {
+        if (!contains(index))
+            return tuple(this, fingerTree());
+
+        int i = index.intValue();
+        if (i == 0)
+            return tuple(fingerTree(), this);
+
+        Split split = split(tree, i);
+        return tuple(new FingerTree<>(split.left), new FingerTree<>(split.right.cons(split.item)));
+    }
+
+    /**
+     * The first <code>count</code> elements of this {@link FingerTree}, or all of them if there are fewer.
+     * <code>O(log2min(i, n - i))</code>.
+     *
+     * @param count the number of elements to retain
+     * @return the retained elements
+     */
+    public FingerTree<A> take(Natural count) {
+        return splitAt(count)._1();
+    }
+
+    /**
+     * The elements of this {@link FingerTree} after the first <code>count</code>, or an empty {@link FingerTree} if
+     * there are not more than <code>count</code>. <code>O(log2min(i, n - i))</code>.
+     *
+     * @param count the number of elements to drop
+     * @return the remaining elements
+     */
+    public FingerTree<A> drop(Natural count) {
+        return splitAt(count)._2();
+    }
+
+    /**
+     * Reverse this {@link FingerTree}. <code>O(n)</code>.
+     *
+     * @return this {@link FingerTree}, reversed
+     */
+    @Override
+    public FingerTree<A> reverse() {
+        Tree reversed = Empty.INSTANCE;
+        for (A a : this)
+            reversed = reversed.cons(a);
+        return new FingerTree<>(reversed);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    public Known<Natural> sizeInfo() {
+        return known(atLeastZero(tree.size()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    public boolean isEmpty() {
+        return tree == Empty.INSTANCE;
+    }
+
+    /**
+     * Produce an {@link Iterator} of the elements in this {@link FingerTree}, from front to back. Amortized
+     * <code>O(1)</code> per element.
+     *
+     * @return the {@link Iterator}
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private Object[] pending = {tree};
+            private int      depth   = 1;
+            private boolean  ready;
+            private Object   next;
+
+            @Override
+            public boolean hasNext() {
+                while (!ready && depth > 0) {
+                    Object top = pending[--depth];
+                    pending[depth] = null;
+                    if (top instanceof Deep) {
+                        Deep deep = (Deep) top;
+                        pushAll(deep.suffix);
+                        push(deep.middle.force());
+                        pushAll(deep.prefix);
+                    } else if (top instanceof Single) {
+                        push(((Single) top).item);
+                    } else if (top instanceof Node) {
+                        pushAll(((Node) top).children);
+                    } else if (top != Empty.INSTANCE) {
+                        next  = top;
+                        ready = true;
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public A next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                ready = false;
+                return (A) next;
+            }
+
+            private void pushAll(Object[] items) {
+                for (int i = items.length - 1; i >= 0; i--)
+                    push(items[i]);
+            }
+
+            private void push(Object item) {
+                if (depth == pending.length)
+                    pending = copyOf(pending, depth * 2 + 4);
+                pending[depth++] = item;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} is {@link Spliterator#ORDERED ordered}, {@link Spliterator#IMMUTABLE immutable},
+     * {@link Spliterator#SIZED sized}, and {@link Spliterator#SUBSIZED subsized}. <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return Spliterators.spliterator(iterator(), tree.size(), Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Returns true if <code>other</code> is a {@link FingerTree} with exactly the same elements in the same order as
+     * this {@link FingerTree}, regardless of how either tree is shaped; otherwise, returns false. <code>O(n)</code>.
+     *
+     * @param other the reference object with which to compare
+     * @return true if the compared to a value-equal {@link FingerTree}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FingerTree<?> &&
+                equivalent(elementsInOrder(objectEquals()), this, downcast(other));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Amortized <code>O(1)</code>.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        Integer hashCode = this.hashCode;
+        if (hashCode == null) {
+            synchronized (this) {
+                hashCode = this.hashCode;
+                if (hashCode == null) {
+                    this.hashCode = hashCode = hash(
+                            OrderedCollection.HashingAlgorithms.<A, FingerTree<A>>elementsInOrder(objectHashCode()),
+                            this);
+                }
+            }
+        }
+        return hashCode;
+    }
+
+    /**
+     * Provide a debug-friendly string representation of this {@link FingerTree}. <code>O(n)</code>
+     *
+     * @return the string representation of this {@link FingerTree}
+     */
+    @Override
+    public String toString() {
+        StringBuilder toString = new StringBuilder("FingerTree[");
+
+        Iterator<A> it = iterator();
+        while (it.hasNext()) {
+            toString.append(it.next());
+            if (it.hasNext())
+                toString.append(", ");
+        }
+
+        return toString.append("]").toString();
+    }
+
+    /**
+     * Create a {@link FingerTree} of zero or more elements, in the order given. Amortized <code>O(n)</code>.
+     *
+     * @param as  the elements
+     * @param <A> the element type
+     * @return the {@link FingerTree}
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <A> FingerTree<A> fingerTree(A... as) {
+        if (as.length == 0)
+            return (FingerTree<A>) EMPTY;
+
+        Tree tree = Empty.INSTANCE;
+        for (A a : as)
+            tree = tree.snoc(a);
+        return new FingerTree<>(tree);
+    }
+
+    /*
+     * Items at the top level of the tree are elements, each of size 1; at every deeper level they are nodes, which
+     * callers can never observe, so the two can be told apart by type alone.
+     */
+    private static int measure(Object item) {
+        return item instanceof Node ? ((Node) item).size : 1;
+    }
+
+    private static int measure(Object[] digit) {
+        int size = 0;
+        for (Object item : digit)
+            size += measure(item);
+        return size;
+    }
+
+    private static Object find(Tree tree, int i) {
+        while (tree instanceof Deep) {
+            Deep deep       = (Deep) tree;
+            int  prefixSize = measure(deep.prefix);
+            if (i < prefixSize)
+                return find(deep.prefix, i);
+
+            Tree middle = deep.middle.force();
+            i -= prefixSize;
+            if (i >= middle.size())
+                return find(deep.suffix, i - middle.size());
+            tree = middle;
+        }
+
+        Object item = ((Single) tree).item;
+        return item instanceof Node ? find(((Node) item).children, i) : item;
+    }
+
+    private static Object find(Object[] items, int i) {
+        for (Object item : items) {
+            int size = measure(item);
+            if (i < size)
+                return item instanceof Node ? find(((Node) item).children, i) : item;
+            i -= size;
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
+    private static Tree concat(Tree left, Object[] between, Tree right) {
+        if (left == Empty.INSTANCE) {
+            for (int i = between.length - 1; i >= 0; i--)
+                right = right.cons(between[i]);
+            return right;
+        }
+        if (right == Empty.INSTANCE) {
+            for (Object item : between)
+                left = left.snoc(item);
+            return left;
+        }
+        if (left instanceof Single)
+            return concat(Empty.INSTANCE, between, right).cons(((Single) left).item);
+        if (right instanceof Single)
+            return concat(left, between, Empty.INSTANCE).snoc(((Single) right).item);
+
+        Deep     l    = (Deep) left;
+        Deep     r    = (Deep) right;
+        Object[] seam = new Object[l.suffix.length + between.length + r.prefix.length];
+        System.arraycopy(l.suffix, 0, seam, 0, l.suffix.length);
+        System.arraycopy(between, 0, seam, l.suffix.length, between.length);
+        System.arraycopy(r.prefix, 0, seam, l.suffix.length + between.length, r.prefix.length);
+        return new Deep(l.size + measure(between) + r.size,
+                        l.prefix,
+                        Suspension.evaluated(concat(l.middle.force(), nodes(seam), r.middle.force())),
+                        r.suffix);
+    }
+
+    private static Object[] nodes(Object[] items) {
+        Object[] nodes = new Object[(items.length + 2) / 3];
+        int      i     = 0;
+        int      n     = 0;
+        while (items.length - i > 4) {
+            nodes[n++] = new Node(items[i], items[i + 1], items[i + 2]);
+            i += 3;
+        }
+        switch (items.length - i) {
+            case 2:
+                nodes[n] = new Node(items[i], items[i + 1]);
+                break;
+            case 3:
+                nodes[n] = new Node(items[i], items[i + 1], items[i + 2]);
+                break;
+            default:
+                nodes[n]     = new Node(items[i], items[i + 1]);
+                nodes[n + 1] = new Node(items[i + 2], items[i + 3]);
+        }
+        return nodes;
+    }
+
+    /*
+     * Precondition: 0 <= i < tree.size(). The item of the split is the one containing the i-th element, and the left
+     * tree holds exactly the items before it.
+     */
+    private static Split split(Tree tree, int i) {
+        if (tree instanceof Single)
+            return new Split(Empty.INSTANCE, ((Single) tree).item, Empty.INSTANCE);
+
+        Deep deep       = (Deep) tree;
+        int  prefixSize = measure(deep.prefix);
+        if (i < prefixSize) {
+            int      k          = splitIndex(deep.prefix, i);
+            Object[] before     = copyOfRange(deep.prefix, 0, k);
+            int      beforeSize = measure(before);
+            return new Split(toTree(before),
+                             deep.prefix[k],
+                             deepL(copyOfRange(deep.prefix, k + 1, deep.prefix.length), deep.middle, deep.suffix,
+                                   deep.size - beforeSize - measure(deep.prefix[k])));
+        }
+
+        Tree middle = deep.middle.force();
+        if (i < prefixSize + middle.size()) {
+            Split    inner      = split(middle, i - prefixSize);
+            Object[] children   = ((Node) inner.item).children;
+            int      k          = splitIndex(children, i - prefixSize - inner.left.size());
+            Object[] before     = copyOfRange(children, 0, k);
+            Object[] after      = copyOfRange(children, k + 1, children.length);
+            int      leftSize   = prefixSize + inner.left.size() + measure(before);
+            return new Split(deepR(deep.prefix, Suspension.evaluated(inner.left), before, leftSize),
+                             children[k],
+                             deepL(after, Suspension.evaluated(inner.right), deep.suffix,
+                                   deep.size - leftSize - measure(children[k])));
+        }
+
+        int      k          = splitIndex(deep.suffix, i - prefixSize - middle.size());
+        Object[] before     = copyOfRange(deep.suffix, 0, k);
+        Object[] after      = copyOfRange(deep.suffix, k + 1, deep.suffix.length);
+        int      afterSize  = measure(after);
+        return new Split(deepR(deep.prefix, deep.middle, before,
+                               deep.size - afterSize - measure(deep.suffix[k])),
+                         deep.suffix[k],
+                         toTree(after));
+    }
+
+    private static int splitIndex(Object[] items, int i) {
+        int k = 0;
+        while (i >= measure(items[k]))
+            i -= measure(items[k++]);
+        return k;
+    }
+
+    private static Tree toTree(Object[] digit) {
+        Tree tree = Empty.INSTANCE;
+        for (Object item : digit)
+            tree = tree.snoc(item);
+        return tree;
+    }
+
+    private static Tree deepL(Object[] prefix, Suspension middle, Object[] suffix, int size) {
+        if (prefix.length > 0)
+            return new Deep(size, prefix, middle, suffix);
+
+        Tree forced = middle.force();
+        return forced == Empty.INSTANCE
+               ? toTree(suffix)
+               : new Deep(size, ((Node) forced.head()).children, Suspension.suspended(forced::tail), suffix);
+    }
+
+    private static Tree deepR(Object[] prefix, Suspension middle, Object[] suffix, int size) {
+        if (suffix.length > 0)
+            return new Deep(size, prefix, middle, suffix);
+
+        Tree forced = middle.force();
+        return forced == Empty.INSTANCE
+               ? toTree(prefix)
+               : new Deep(size, prefix, Suspension.suspended(forced::init), ((Node) forced.last()).children);
+    }
+
+    private static Object[] prepend(Object item, Object[] digit) {
+        Object[] prepended = new Object[digit.length + 1];
+        prepended[0] = item;
+        System.arraycopy(digit, 0, prepended, 1, digit.length);
+        return prepended;
+    }
+
+    private static Object[] append(Object[] digit, Object item) {
+        Object[] appended = copyOf(digit, digit.length + 1);
+        appended[digit.length] = item;
+        return appended;
+    }
+
+    private abstract static class Tree {
+        abstract int size();
+
+        abstract Object head();
+
+        abstract Object last();
+
+        abstract Tree tail();
+
+        abstract Tree init();
+
+        abstract Tree cons(Object item);
+
+        abstract Tree snoc(Object item);
+    }
+
+    private static final class Empty extends Tree {
+        private static final Empty INSTANCE = new Empty();
+
+        @Override
+        int size() {
+            return 0;
+        }
+
+        @Override
+        Object head() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        Object last() {
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        Tree tail() {
+            return this;
+        }
+
+        @Override
+        Tree init() {
+            return this;
+        }
+
+        @Override
+        Tree cons(Object item) {
+            return new Single(item);
+        }
+
+        @Override
+        Tree snoc(Object item) {
+            return new Single(item);
+        }
+    }
+
+    private static final class Single extends Tree {
+        private final Object item;
+
+        private Single(Object item) {
+            this.item = item;
+        }
+
+        @Override
+        int size() {
+            return measure(item);
+        }
+
+        @Override
+        Object head() {
+            return item;
+        }
+
+        @Override
+        Object last() {
+            return item;
+        }
+
+        @Override
+        Tree tail() {
+            return Empty.INSTANCE;
+        }
+
+        @Override
+        Tree init() {
+            return Empty.INSTANCE;
+        }
+
+        @Override
+        Tree cons(Object item) {
+            return new Deep(measure(item) + size(), new Object[]{item}, Suspension.EMPTY, new Object[]{this.item});
+        }
+
+        @Override
+        Tree snoc(Object item) {
+            return new Deep(size() + measure(item), new Object[]{this.item}, Suspension.EMPTY, new Object[]{item});
+        }
+    }
+
+    private static final class Deep extends Tree {
+        private final int        size;
+        private final Object[]   prefix;
+        private final Suspension middle;
+        private final Object[]   suffix;
+
+        private Deep(int size, Object[] prefix, Suspension middle, Object[] suffix) {
+            this.size   = size;
+            this.prefix = prefix;
+            this.middle = middle;
+            this.suffix = suffix;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        Object head() {
+            return prefix[0];
+        }
+
+        @Override
+        Object last() {
+            return suffix[suffix.length - 1];
+        }
+
+        @Override
+        Tree tail() {
+            return deepL(copyOfRange(prefix, 1, prefix.length), middle, suffix, size - measure(prefix[0]));
+        }
+
+        @Override
+        Tree init() {
+            return deepR(prefix, middle, copyOfRange(suffix, 0, suffix.length - 1),
+                         size - measure(suffix[suffix.length - 1]));
+        }
+
+        @Override
+        Tree cons(Object item) {
+            if (prefix.length < 4)
+                return new Deep(measure(item) + size, prepend(item, prefix), middle, suffix);
+
+            Tree middle = this.middle.force();
+            Node node   = new Node(prefix[1], prefix[2], prefix[3]);
+            return new Deep(measure(item) + size, new Object[]{item, prefix[0]},
+                            Suspension.suspended(() -> middle.cons(node)), suffix);
+        }
+
+        @Override
+        Tree snoc(Object item) {
+            if (suffix.length < 4)
+                return new Deep(size + measure(item), prefix, middle, append(suffix, item));
+
+            Tree middle = this.middle.force();
+            Node node   = new Node(suffix[0], suffix[1], suffix[2]);
+            return new Deep(size + measure(item), prefix,
+                            Suspension.suspended(() -> middle.snoc(node)), new Object[]{suffix[3], item});
+        }
+    }
+
+    private static final class Node {
+        private final Object[] children;
+        private final int      size;
+
+        private Node(Object... children) {
+            this.children = children;
+            this.size     = measure(children);
+        }
+    }
+
+    /**
+     * A memoized, possibly-deferred middle {@link Tree}, shared by every version of a {@link Deep} tree that has not
+     * changed it, so that it is computed at most once. A suspension is only ever created over an already-forced
+     * tree, so forcing one never forces a chain of others at the same level, and the call depth stays logarithmic.
+     */
+    private static final class Suspension {
+        private static final Suspension EMPTY = evaluated(Empty.INSTANCE);
+
+        private volatile Tree     tree;
+        private          Fn0<Tree> thunk;
+
+        private Suspension(Fn0<Tree> thunk) {
+            this.thunk = thunk;
+        }
+
+        private Tree force() {
+            Tree tree = this.tree;
+            if (tree == null) {
+                synchronized (this) {
+                    tree = this.tree;
+                    if (tree == null) {
+                        this.tree = tree = thunk.apply();
+                        thunk     = null;
+                    }
+                }
+            }
+            return tree;
+        }
+
+        private static Suspension suspended(Fn0<Tree> thunk) {
+            return new Suspension(thunk);
+        }
+
+        private static Suspension evaluated(Tree tree) {
+            Suspension suspension = new Suspension(null);
+            suspension.tree = tree;
+            return suspension;
+        }
+    }
+
+    private static final class Split {
+        private final Tree   left;
+        private final Object item;
+        private final Tree   right;
+
+        private Split(Tree left, Object item, Tree right) {
+            this.left  = left;
+            this.item  = item;
+            this.right = right;
+        }
+    }
+}
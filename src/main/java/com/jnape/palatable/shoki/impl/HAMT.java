@@ -1,19 +1,30 @@
 package com.jnape.palatable.shoki.impl;
 
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
-import com.jnape.palatable.lambda.adt.product.Product2;
+import com.jnape.palatable.lambda.functions.Fn1;
+import com.jnape.palatable.lambda.functions.Fn2;
+import com.jnape.palatable.lambda.semigroup.Semigroup;
 import com.jnape.palatable.shoki.api.EquivalenceRelation;
 import com.jnape.palatable.shoki.api.HashingAlgorithm;
+import com.jnape.palatable.shoki.api.LongHashingAlgorithm;
+import com.jnape.palatable.shoki.api.Natural;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
-import static com.jnape.palatable.lambda.functions.builtin.fn1.Flatten.flatten;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Eq.eq;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Find.find;
-import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
 import static com.jnape.palatable.shoki.api.Natural.one;
 import static com.jnape.palatable.shoki.impl.Bitmap32.bitIsSet;
@@ -22,222 +33,1674 @@ import static com.jnape.palatable.shoki.impl.Bitmap32.setBit;
 import static com.jnape.palatable.shoki.impl.Bitmap32.unsetBit;
 import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
 import static java.lang.Integer.bitCount;
-import static java.util.Arrays.asList;
-import static java.util.Collections.singleton;
+import static java.lang.Integer.numberOfTrailingZeros;
 
+/**
+ * A <a href="https://michael.steindorfer.name/publications/oopsla15.pdf" target="_new">compressed hash-array mapped
+ * prefix-tree</a> (CHAMP). Every {@link Node} keeps two disjoint bitmaps: a <code>dataMap</code> marking the slots
+ * whose key/value pairs are stored inline in the node's table, and a <code>nodeMap</code> marking the slots that are
+ * occupied by a nested {@link HAMT} (a sub-{@link Node}, a {@link Collision}, a {@link SortedCollision}, or an
+ * {@link Extension}). The table is laid out as all inline keys and values (in bitmap order, alternating key and
+ * value) followed by all nested tries (in bitmap order).
+ * <p>
+ * Nodes are kept in a compacted form: a nested trie is never left holding a single entry. Buckets of colliding keys
+ * are not canonical, however: a {@link Collision} keeps its entries in an order that depends on the order they were
+ * put in, and the same entries may be held by a {@link Collision} or a {@link SortedCollision} depending on the
+ * history of the bucket, so two tries with the same entries are not necessarily structurally identical.
+ * <p>
+ * Both {@link HAMT#put put} and {@link HAMT#remove remove} optionally accept an <code>owner</code> token. Nodes
+ * created during an operation are tagged with the token they were created under, and any subsequent operation
+ * presenting the same (non-<code>null</code>) token is permitted to mutate those nodes in place rather than copying
+ * them. Nodes tagged with a different token, or with no token at all, are never mutated. This allows a single owner
+ * (e.g. a {@link HashMap.Builder}) to perform a batch of updates without path-copying on every operation, as long as
+ * the token is discarded before the resulting trie is shared.
+ * <p>
+ * Bulk operations on a root {@link Node} may optionally be given a {@link ForkJoinPool}, in which case the sub-tries
+ * occupying its top-level slots are processed as independent tasks on that pool, and their results reassembled into
+ * a root in bitmap order.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
 interface HAMT<K, V> extends Iterable<Tuple2<K, V>> {
 
+    /**
+     * Compare <code>key</code> and <code>otherKey</code> under <code>keyEqRel</code>. When <code>keyEqRel</code> is
+     * {@link EquivalenceRelation#objectEquals() objectEquals}, the keys are compared by calling
+     * {@link Objects#equals(Object, Object)} directly, so that the common case does not dispatch through a call site
+     * shared with every custom relation in the application; any other relation is applied as usual.
+     *
+     * @param keyEqRel the key {@link EquivalenceRelation}
+     * @param key      the key
+     * @param otherKey the other key
+     * @param <K>      the key type
+     * @return whether the keys are equivalent
+     */
+    static <K> boolean keysEquivalent(EquivalenceRelation<? super K> keyEqRel, K key, K otherKey) {
+        return keyEqRel == EquivalenceRelation.objectEquals()
+               ? Objects.equals(key, otherKey)
+               : keyEqRel.apply(key, otherKey);
+    }
+
+    /**
+     * Hash <code>key</code> under <code>keyHashAlg</code>, calling {@link Objects#hashCode(Object)} directly when
+     * <code>keyHashAlg</code> is {@link HashingAlgorithm#objectHashCode() objectHashCode}, for the same reason as
+     * {@link HAMT#keysEquivalent(EquivalenceRelation, Object, Object) keysEquivalent}.
+     *
+     * @param keyHashAlg the key {@link HashingAlgorithm}
+     * @param key        the key
+     * @param <K>        the key type
+     * @return the hash
+     */
+    static <K> int keyHash(HashingAlgorithm<? super K> keyHashAlg, K key) {
+        return keyHashAlg == HashingAlgorithm.objectHashCode() ? Objects.hashCode(key) : keyHashAlg.hashInt(key);
+    }
+
     int LEVEL_SIZE = 5;
+    int MAX_SHIFT  = 30;
+    int MAX_DEPTH  = MAX_SHIFT / LEVEL_SIZE + 1;
+
+    /**
+     * The number of entries at which a {@link Collision} whose keys are all mutually {@link Comparable} is converted
+     * into a {@link SortedCollision}.
+     */
+    int SORTED_COLLISION_THRESHOLD = 8;
 
     HAMT<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
-                   HashingAlgorithm<? super K> keyHashAlg, int shift);
+                   HashingAlgorithm<? super K> keyHashAlg, int shift, Object owner);
 
     V get(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift);
 
-    HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift);
+    HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift, Object owner);
+
+    <W> HAMT<K, W> mapValues(Fn1<? super V, ? extends W> fn);
+
+    HAMT<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate);
+
+    void forEach(BiConsumer<? super K, ? super V> action);
+
+    int size();
+
+    /**
+     * The sum of <code>keyHash ^ Objects.hashCode(value)</code> over every entry, where each <code>keyHash</code> is
+     * produced by <code>keyHashAlg</code> (the {@link HashingAlgorithm} this {@link HAMT} was populated with), as per
+     * {@link com.jnape.palatable.shoki.api.Map.HashingAlgorithms#entries(HashingAlgorithm, HashingAlgorithm)} with
+     * {@link HashingAlgorithm#objectHashCode()} for values.
+     */
+    int hash(HashingAlgorithm<? super K> keyHashAlg);
+
+    default HAMT<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
+                           HashingAlgorithm<? super K> keyHashAlg, int shift) {
+        return put(key, value, keyHash, keyEqRel, keyHashAlg, shift, null);
+    }
+
+    default HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
+        return remove(key, keyHash, keyEqRel, shift, null);
+    }
 
     final class Node<K, V> implements HAMT<K, V> {
 
-        private static final Node<?, ?> ROOT = new Node<>(0, new Object[0]);
+        private static final int[]      NO_HASHES = new int[0];
+        private static final Node<?, ?> ROOT      = new Node<>(0, 0, new Object[0], NO_HASHES, null, 0);
 
-        private final int      bitmap;
-        private final Object[] table;
+        private final Object   owner;
+        private       int      dataMap;
+        private       int      nodeMap;
+        private       Object[] table;
+        private       int[]    hashes;
+        private       int      size;
+        private       int      hash;
+        private       boolean  hashIsZero;
 
-        public Node(int bitmap, Object[] table) {
-            this.bitmap = bitmap;
-            this.table  = table;
+        Node(int dataMap, int nodeMap, Object[] table, int[] hashes) {
+            this(dataMap, nodeMap, table, hashes, null, countEntries(dataMap, nodeMap, table));
+        }
+
+        /**
+         * <code>hashes</code> holds the full hash of the key of each entry, in the same order as the entries of
+         * <code>table</code>, so that keys never need to be re-hashed once stored, and so that keys whose hashes
+         * differ are never compared. <code>hashes</code> is never modified in place, and may be shared.
+         */
+        private Node(int dataMap, int nodeMap, Object[] table, int[] hashes, Object owner, int size) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.table   = table;
+            this.hashes  = hashes;
+            this.owner   = owner;
+            this.size    = size;
         }
 
         @Override
         public V get(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
             int bitmapIndex = bitmapIndex(keyHash, shift);
-            return bitIsSet(bitmap, bitmapIndex)
-                   ? valueAtIndex(tableIndex(bitmapIndex)).get(key, keyHash, keyEqRel, shift + LEVEL_SIZE)
+            if (bitIsSet(dataMap, bitmapIndex)) {
+                int dataIndex = dataIndex(bitmapIndex);
+                return entryMatches(dataIndex, key, keyHash, keyEqRel) ? valueAt(dataIndex) : null;
+            }
+
+            return bitIsSet(nodeMap, bitmapIndex)
+                   ? nodeAt(nodeIndex(bitmapIndex)).get(key, keyHash, keyEqRel, shift + LEVEL_SIZE)
                    : null;
         }
 
         @Override
         public Node<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
                               HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            return put(key, value, keyHash, keyEqRel, keyHashAlg, shift, null);
+        }
+
+        @Override
+        public Node<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
+                              HashingAlgorithm<? super K> keyHashAlg, int shift, Object owner) {
             int bitmapIndex = bitmapIndex(keyHash, shift);
-            int tableIndex  = tableIndex(bitmapIndex);
-            return bitIsSet(bitmap, bitmapIndex)
-                   ? overrideAt(tableIndex,
-                                valueAtIndex(tableIndex).put(key, value, keyHash, keyEqRel, keyHashAlg, shift + LEVEL_SIZE))
-                   : insertAt(tableIndex, bitmapIndex, new Entry<>(key, value));
+            if (bitIsSet(dataMap, bitmapIndex)) {
+                int dataIndex = dataIndex(bitmapIndex);
+                if (entryMatches(dataIndex, key, keyHash, keyEqRel))
+                    return overrideEntryAt(dataIndex, key, value, owner);
+
+                HAMT<K, V> merged = mergeEntries(keyAt(dataIndex), valueAt(dataIndex), hashAt(dataIndex),
+                                                 key, value, keyHash, keyHashAlg, shift + LEVEL_SIZE, owner);
+                return migrateEntryToNode(bitmapIndex, dataIndex, merged, owner);
+            }
+
+            if (bitIsSet(nodeMap, bitmapIndex)) {
+                int        nodeIndex = nodeIndex(bitmapIndex);
+                HAMT<K, V> node      = nodeAt(nodeIndex);
+                int        before    = node.size();
+                HAMT<K, V> updated   = node.put(key, value, keyHash, keyEqRel, keyHashAlg, shift + LEVEL_SIZE, owner);
+                int        delta     = updated.size() - before;
+                return updated == node && delta == 0 ? this : overrideNodeAt(nodeIndex, updated, delta, owner);
+            }
+
+            return insertEntryAt(bitmapIndex, key, value, keyHash, owner);
         }
 
         @Override
-        public Iterator<Tuple2<K, V>> iterator() {
-            @SuppressWarnings("unchecked")
-            List<HAMT<K, V>> bodies = (List<HAMT<K, V>>) (Object) asList(table);
-            return flatten(bodies).iterator();
+        public Node<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
+            return remove(key, keyHash, keyEqRel, shift, null);
         }
 
         @Override
-        public HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
+        public Node<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift,
+                                 Object owner) {
             int bitmapIndex = bitmapIndex(keyHash, shift);
-            if (!bitIsSet(bitmap, bitmapIndex))
+            if (bitIsSet(dataMap, bitmapIndex)) {
+                int dataIndex = dataIndex(bitmapIndex);
+                return entryMatches(dataIndex, key, keyHash, keyEqRel)
+                       ? deleteEntryAt(bitmapIndex, dataIndex, owner)
+                       : this;
+            }
+
+            if (bitIsSet(nodeMap, bitmapIndex)) {
+                int        nodeIndex = nodeIndex(bitmapIndex);
+                HAMT<K, V> node      = nodeAt(nodeIndex);
+                int        before    = node.size();
+                HAMT<K, V> removed   = node.remove(key, keyHash, keyEqRel, shift + LEVEL_SIZE, owner);
+                int        delta     = removed.size() - before;
+                if (removed instanceof Node<?, ?>) {
+                    Node<K, V> removedNode = (Node<K, V>) removed;
+                    if (removedNode.hasSingleEntry())
+                        return migrateNodeToEntry(bitmapIndex, nodeIndex, removedNode.keyAt(0),
+                                                  removedNode.valueAt(0), removedNode.hashAt(0), owner);
+                }
+                return removed == node && delta == 0 ? this : overrideNodeAt(nodeIndex, removed, delta, owner);
+            }
+
+            return this;
+        }
+
+        /**
+         * Structurally merge <code>other</code> into this {@link Node}, combining the values of keys present in both
+         * with <code>semigroup</code>. Slots that are only populated on one side are carried over wholesale, and if
+         * <code>semigroup</code> is idempotent, sub-tries that are shared by reference are reused without being
+         * traversed.
+         */
+        Node<K, V> union(Node<K, V> other, Semigroup<V> semigroup, boolean idempotent,
+                         EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            return union(other, semigroup, idempotent, keyEqRel, keyHashAlg, shift, null);
+        }
+
+        /**
+         * Structurally merge <code>other</code> into this {@link Node} as per
+         * {@link Node#union(Node, Semigroup, boolean, EquivalenceRelation, HashingAlgorithm, int)}, merging the
+         * sub-tries of slots that are nested on both sides as independent tasks on <code>pool</code>, if given.
+         */
+        Node<K, V> union(Node<K, V> other, Semigroup<V> semigroup, boolean idempotent,
+                         EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg, int shift,
+                         ForkJoinPool pool) {
+            if (idempotent && this == other)
+                return this;
+
+            Object[] forked = pool == null ? null : forkSlots(pool, nodeMap & other.nodeMap, bitmapIndex -> union(
+                    nodeAt(nodeIndex(bitmapIndex)), other.nodeAt(other.nodeIndex(bitmapIndex)), semigroup, idempotent,
+                    keyEqRel, keyHashAlg, shift + LEVEL_SIZE));
+
+            Assembly<K, V> assembly = new Assembly<>(this);
+            for (int bitmap = dataMap | nodeMap | other.dataMap | other.nodeMap; bitmap != 0; bitmap &= bitmap - 1) {
+                int bitmapIndex = numberOfTrailingZeros(bitmap);
+                if (bitIsSet(dataMap, bitmapIndex)) {
+                    int dataIndex = dataIndex(bitmapIndex);
+                    K   key       = keyAt(dataIndex);
+                    V   value     = valueAt(dataIndex);
+                    int keyHash   = hashAt(dataIndex);
+                    if (bitIsSet(other.dataMap, bitmapIndex)) {
+                        int otherDataIndex = other.dataIndex(bitmapIndex);
+                        if (other.entryMatches(otherDataIndex, key, keyHash, keyEqRel))
+                            assembly.entry(bitmapIndex, key, semigroup.apply(value, other.valueAt(otherDataIndex)),
+                                           keyHash);
+                        else
+                            assembly.node(bitmapIndex, mergeEntries(key, value, keyHash,
+                                                       other.keyAt(otherDataIndex), other.valueAt(otherDataIndex),
+                                                       other.hashAt(otherDataIndex), keyHashAlg,
+                                                       shift + LEVEL_SIZE, null));
+                    } else if (bitIsSet(other.nodeMap, bitmapIndex)) {
+                        HAMT<K, V> otherNode  = other.nodeAt(other.nodeIndex(bitmapIndex));
+                        V          otherValue = otherNode.get(key, keyHash, keyEqRel, shift + LEVEL_SIZE);
+                        V          merged     = otherValue == null ? value : semigroup.apply(value, otherValue);
+                        assembly.node(bitmapIndex, otherNode.put(key, merged, keyHash, keyEqRel, keyHashAlg,
+                                                                 shift + LEVEL_SIZE));
+                    } else {
+                        assembly.entry(bitmapIndex, key, value, keyHash);
+                    }
+                } else if (bitIsSet(nodeMap, bitmapIndex)) {
+                    HAMT<K, V> node = nodeAt(nodeIndex(bitmapIndex));
+                    if (bitIsSet(other.dataMap, bitmapIndex)) {
+                        int otherDataIndex = other.dataIndex(bitmapIndex);
+                        K   otherKey       = other.keyAt(otherDataIndex);
+                        V   otherValue     = other.valueAt(otherDataIndex);
+                        int keyHash        = other.hashAt(otherDataIndex);
+                        V   value          = node.get(otherKey, keyHash, keyEqRel, shift + LEVEL_SIZE);
+                        V   merged         = value == null ? otherValue : semigroup.apply(value, otherValue);
+                        assembly.node(bitmapIndex, node.put(otherKey, merged, keyHash, keyEqRel, keyHashAlg,
+                                                            shift + LEVEL_SIZE));
+                    } else if (bitIsSet(other.nodeMap, bitmapIndex)) {
+                        assembly.node(bitmapIndex, forked != null
+                                                   ? forkedAt(forked, bitmapIndex)
+                                                   : union(node, other.nodeAt(other.nodeIndex(bitmapIndex)), semigroup,
+                                                           idempotent, keyEqRel, keyHashAlg, shift + LEVEL_SIZE));
+                    } else {
+                        assembly.node(bitmapIndex, node);
+                    }
+                } else if (bitIsSet(other.dataMap, bitmapIndex)) {
+                    int otherDataIndex = other.dataIndex(bitmapIndex);
+                    assembly.entry(bitmapIndex, other.keyAt(otherDataIndex), other.valueAt(otherDataIndex),
+                                   other.hashAt(otherDataIndex));
+                } else {
+                    assembly.node(bitmapIndex, other.nodeAt(other.nodeIndex(bitmapIndex)));
+                }
+            }
+            return assembly.build();
+        }
+
+        /**
+         * Structurally intersect this {@link Node} with <code>other</code>, retaining only the keys present in both,
+         * and combining their values with <code>combine</code>. Only slots populated on both sides are visited, and
+         * if <code>combine</code> is idempotent, sub-tries that are shared by reference are reused without being
+         * traversed.
+         */
+        <W> Node<K, V> intersection(Node<K, W> other, Fn2<? super V, ? super W, ? extends V> combine,
+                                    boolean idempotent, EquivalenceRelation<? super K> keyEqRel,
+                                    HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            if (idempotent && this == other)
                 return this;
 
-            int        tableIndex = tableIndex(bitmapIndex);
-            HAMT<K, V> override   = valueAtIndex(tableIndex).remove(key, keyHash, keyEqRel, shift + LEVEL_SIZE);
-            return override == null ? deleteAt(bitmapIndex, tableIndex) : overrideAt(tableIndex, override);
+            Assembly<K, V> assembly = new Assembly<>(this);
+            for (int bitmap = (dataMap | nodeMap) & (other.dataMap | other.nodeMap);
+                 bitmap != 0;
+                 bitmap &= bitmap - 1) {
+                int bitmapIndex = numberOfTrailingZeros(bitmap);
+                if (bitIsSet(dataMap, bitmapIndex)) {
+                    int dataIndex = dataIndex(bitmapIndex);
+                    K   key       = keyAt(dataIndex);
+                    int keyHash   = hashAt(dataIndex);
+                    W   otherValue;
+                    if (bitIsSet(other.dataMap, bitmapIndex)) {
+                        int otherDataIndex = other.dataIndex(bitmapIndex);
+                        otherValue = other.entryMatches(otherDataIndex, key, keyHash, keyEqRel)
+                                     ? other.valueAt(otherDataIndex)
+                                     : null;
+                    } else {
+                        otherValue = other.nodeAt(other.nodeIndex(bitmapIndex))
+                                .get(key, keyHash, keyEqRel, shift + LEVEL_SIZE);
+                    }
+                    if (otherValue != null)
+                        assembly.entry(bitmapIndex, key, combine.apply(valueAt(dataIndex), otherValue), keyHash);
+                } else {
+                    HAMT<K, V> node = nodeAt(nodeIndex(bitmapIndex));
+                    if (bitIsSet(other.dataMap, bitmapIndex)) {
+                        int otherDataIndex = other.dataIndex(bitmapIndex);
+                        K   otherKey       = other.keyAt(otherDataIndex);
+                        int keyHash        = other.hashAt(otherDataIndex);
+                        V   value          = node.get(otherKey, keyHash, keyEqRel, shift + LEVEL_SIZE);
+                        if (value != null)
+                            assembly.entry(bitmapIndex, otherKey, combine.apply(value, other.valueAt(otherDataIndex)),
+                                           keyHash);
+                    } else {
+                        assembly.compactedNode(bitmapIndex,
+                                               intersection(node, other.nodeAt(other.nodeIndex(bitmapIndex)),
+                                                            combine, idempotent, keyEqRel, keyHashAlg,
+                                                            shift + LEVEL_SIZE));
+                    }
+                }
+            }
+            return assembly.build();
+        }
+
+        /**
+         * Structurally subtract the keys of <code>other</code> from this {@link Node}. If <code>combine</code> is
+         * <code>null</code>, every key present in both is removed, and sub-tries that are shared by reference are
+         * dropped without being traversed; otherwise, <code>combine</code> computes the value retained for each key
+         * present in both, with a <code>null</code> result indicating removal.
+         */
+        <W> Node<K, V> difference(Node<K, W> other, Fn2<? super V, ? super W, ? extends V> combine,
+                                  EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg,
+                                  int shift) {
+            if (combine == null && this == other)
+                return rootNode();
+
+            Assembly<K, V> assembly = new Assembly<>(this);
+            for (int bitmap = dataMap | nodeMap; bitmap != 0; bitmap &= bitmap - 1) {
+                int bitmapIndex = numberOfTrailingZeros(bitmap);
+                if (bitIsSet(dataMap, bitmapIndex)) {
+                    int dataIndex = dataIndex(bitmapIndex);
+                    K   key       = keyAt(dataIndex);
+                    V   value     = valueAt(dataIndex);
+                    int keyHash   = hashAt(dataIndex);
+                    W   otherValue;
+                    if (bitIsSet(other.dataMap, bitmapIndex)) {
+                        int otherDataIndex = other.dataIndex(bitmapIndex);
+                        otherValue = other.entryMatches(otherDataIndex, key, keyHash, keyEqRel)
+                                     ? other.valueAt(otherDataIndex)
+                                     : null;
+                    } else if (bitIsSet(other.nodeMap, bitmapIndex)) {
+                        otherValue = other.nodeAt(other.nodeIndex(bitmapIndex))
+                                .get(key, keyHash, keyEqRel, shift + LEVEL_SIZE);
+                    } else {
+                        otherValue = null;
+                    }
+
+                    V remaining = otherValue == null
+                                  ? value
+                                  : combine == null ? null : combine.apply(value, otherValue);
+                    if (remaining != null)
+                        assembly.entry(bitmapIndex, key, remaining, keyHash);
+                } else {
+                    HAMT<K, V> node = nodeAt(nodeIndex(bitmapIndex));
+                    if (bitIsSet(other.dataMap, bitmapIndex)) {
+                        int otherDataIndex = other.dataIndex(bitmapIndex);
+                        K   otherKey       = other.keyAt(otherDataIndex);
+                        int keyHash        = other.hashAt(otherDataIndex);
+                        V   value          = combine == null ? null : node.get(otherKey, keyHash, keyEqRel,
+                                                                               shift + LEVEL_SIZE);
+                        V remaining = value == null ? null : combine.apply(value, other.valueAt(otherDataIndex));
+                        assembly.compactedNode(bitmapIndex, remaining == null
+                                               ? node.remove(otherKey, keyHash, keyEqRel, shift + LEVEL_SIZE)
+                                               : node.put(otherKey, remaining, keyHash, keyEqRel, keyHashAlg,
+                                                          shift + LEVEL_SIZE));
+                    } else if (bitIsSet(other.nodeMap, bitmapIndex)) {
+                        assembly.compactedNode(bitmapIndex,
+                                               difference(node, other.nodeAt(other.nodeIndex(bitmapIndex)), combine,
+                                                          keyEqRel, keyHashAlg, shift + LEVEL_SIZE));
+                    } else {
+                        assembly.node(bitmapIndex, node);
+                    }
+                }
+            }
+            return assembly.build();
+        }
+
+        @Override
+        public <W> Node<K, W> mapValues(Fn1<? super V, ? extends W> fn) {
+            return mapValues(fn, null);
+        }
+
+        /**
+         * Map the values of this {@link Node} with <code>fn</code>, preserving the shape of the trie without
+         * re-hashing any keys, and mapping the sub-tries of the top-level slots as independent tasks on
+         * <code>pool</code>, if given.
+         */
+        <W> Node<K, W> mapValues(Fn1<? super V, ? extends W> fn, ForkJoinPool pool) {
+            Object[] forked = pool == null
+                              ? null
+                              : forkSlots(pool, nodeMap, bitmapIndex -> nodeAt(nodeIndex(bitmapIndex)).mapValues(fn));
+
+            int      entryCount = bitCount(dataMap);
+            Object[] mapped     = new Object[table.length];
+            for (int dataIndex = 0; dataIndex < entryCount; dataIndex++) {
+                mapped[2 * dataIndex]     = keyAt(dataIndex);
+                mapped[2 * dataIndex + 1] = fn.apply(valueAt(dataIndex));
+            }
+            int nodeIndex = 0;
+            for (int bitmap = nodeMap; bitmap != 0; bitmap &= bitmap - 1, nodeIndex++) {
+                mapped[2 * entryCount + nodeIndex] = forked != null
+                                                     ? forked[numberOfTrailingZeros(bitmap)]
+                                                     : nodeAt(nodeIndex).mapValues(fn);
+            }
+            return new Node<>(dataMap, nodeMap, mapped, hashes, null, size);
+        }
+
+        @Override
+        public Node<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate) {
+            return filter(predicate, null);
+        }
+
+        /**
+         * Retain only the entries of this {@link Node} satisfying <code>predicate</code>, compacting any sub-tries
+         * left with fewer than two entries, and filtering the sub-tries of the top-level slots as independent tasks on
+         * <code>pool</code>, if given.
+         */
+        Node<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate, ForkJoinPool pool) {
+            Object[] forked = pool == null
+                              ? null
+                              : forkSlots(pool, nodeMap,
+                                          bitmapIndex -> nodeAt(nodeIndex(bitmapIndex)).filter(predicate));
+
+            Assembly<K, V> assembly = new Assembly<>(this);
+            for (int bitmap = dataMap | nodeMap; bitmap != 0; bitmap &= bitmap - 1) {
+                int bitmapIndex = numberOfTrailingZeros(bitmap);
+                if (bitIsSet(dataMap, bitmapIndex)) {
+                    int dataIndex = dataIndex(bitmapIndex);
+                    K   key       = keyAt(dataIndex);
+                    V   value     = valueAt(dataIndex);
+                    if (predicate.apply(key, value))
+                        assembly.entry(bitmapIndex, key, value, hashAt(dataIndex));
+                } else {
+                    assembly.compactedNode(bitmapIndex, forked != null
+                                                        ? forkedAt(forked, bitmapIndex)
+                                                        : nodeAt(nodeIndex(bitmapIndex)).filter(predicate));
+                }
+            }
+            return assembly.build();
+        }
+
+        /**
+         * Fold the entries of this {@link Node}, folding the sub-tries of the top-level slots from
+         * <code>identity</code> as independent tasks on <code>pool</code>, and combining their results in bitmap order
+         * with <code>combiner</code>.
+         */
+        <B> B fold(B identity, Fn2<? super B, ? super Tuple2<K, V>, ? extends B> accumulator, Semigroup<B> combiner,
+                   ForkJoinPool pool) {
+            Object[] forked = forkSlots(pool, nodeMap, bitmapIndex -> foldLeft(accumulator, identity,
+                                                                                nodeAt(nodeIndex(bitmapIndex))));
+
+            B result = identity;
+            for (int dataIndex = 0; dataIndex < bitCount(dataMap); dataIndex++) {
+                result = accumulator.apply(result, tuple(keyAt(dataIndex), valueAt(dataIndex)));
+            }
+            for (int bitmap = nodeMap; bitmap != 0; bitmap &= bitmap - 1) {
+                @SuppressWarnings("unchecked") B folded = (B) forked[numberOfTrailingZeros(bitmap)];
+                result = combiner.apply(result, folded);
+            }
+            return result;
+        }
+
+        @Override
+        public Iterator<Tuple2<K, V>> iterator() {
+            return new NodeIterator<>(this);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            int entryCount = bitCount(dataMap);
+            for (int dataIndex = 0; dataIndex < entryCount; dataIndex++) {
+                action.accept(keyAt(dataIndex), valueAt(dataIndex));
+            }
+            int nodeCount = bitCount(nodeMap);
+            for (int nodeIndex = 0; nodeIndex < nodeCount; nodeIndex++) {
+                nodeAt(nodeIndex).forEach(action);
+            }
+        }
+
+        /**
+         * Create a {@link Spliterator} over the entries of this {@link Node}, projected through
+         * <code>projection</code>. The {@link Spliterator} splits on the slots of the node it currently covers,
+         * descending into a nested {@link Node} once it is left covering a single one, and is
+         * {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}, since the cached size of each sub-trie gives the
+         * exact number of entries on either side of a split.
+         */
+        <R> Spliterator<R> spliterator(Fn2<? super K, ? super V, ? extends R> projection, long size,
+                                       int characteristics) {
+            return new NodeSpliterator<>(this, 0, bitCount(dataMap) + bitCount(nodeMap), projection, size,
+                                         characteristics | Spliterator.SIZED | Spliterator.SUBSIZED);
+        }
+
+        /**
+         * The number of entries in this {@link Node} and all of its sub-tries, maintained as the {@link Node} is
+         * updated rather than counted. <code>O(1)</code>.
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * {@inheritDoc}
+         * The hash of each {@link Node} is computed at most once and cached, and since updates copy only the path to
+         * the changed slot, the hash of an updated trie only recomputes the copied {@link Node Nodes}, reusing the
+         * cached hashes of every shared sub-trie. Races between threads computing the same hash are benign.
+         */
+        @Override
+        public int hash(HashingAlgorithm<? super K> keyHashAlg) {
+            int hash = this.hash;
+            if (hash == 0 && !hashIsZero) {
+                int entryCount = bitCount(dataMap);
+                for (int dataIndex = 0; dataIndex < entryCount; dataIndex++) {
+                    hash += hashAt(dataIndex) ^ Objects.hashCode(valueAt(dataIndex));
+                }
+                int nodeCount = bitCount(nodeMap);
+                for (int nodeIndex = 0; nodeIndex < nodeCount; nodeIndex++) {
+                    hash += nodeAt(nodeIndex).hash(keyHashAlg);
+                }
+                if (hash == 0)
+                    hashIsZero = true;
+                else
+                    this.hash = hash;
+            }
+            return hash;
+        }
+
+        boolean isEmpty() {
+            return dataMap == 0 && nodeMap == 0;
         }
 
         @Override
         public boolean equals(Object other) {
             if (other instanceof Node<?, ?>) {
                 Node<?, ?> node = (Node<?, ?>) other;
-                return bitmap == node.bitmap &&
+                return dataMap == node.dataMap &&
+                        nodeMap == node.nodeMap &&
                         java.util.Arrays.equals(table, node.table);
             }
             return false;
         }
 
-        private int tableIndex(int bitmapIndex) {
-            return bitCount(lowerBits(bitmap, bitmapIndex));
+        private boolean isEditableBy(Object owner) {
+            return owner != null && owner == this.owner;
+        }
+
+        private boolean hasSingleEntry() {
+            return nodeMap == 0 && bitCount(dataMap) == 1;
+        }
+
+        private int dataIndex(int bitmapIndex) {
+            return bitCount(lowerBits(dataMap, bitmapIndex));
+        }
+
+        private int nodeIndex(int bitmapIndex) {
+            return bitCount(lowerBits(nodeMap, bitmapIndex));
         }
 
         @SuppressWarnings("unchecked")
-        private HAMT<K, V> valueAtIndex(int tableIndex) {
-            return (HAMT<K, V>) table[tableIndex];
+        private K keyAt(int dataIndex) {
+            return (K) table[2 * dataIndex];
         }
 
-        private Node<K, V> insertAt(int tableIndex, int bitmapIndex, HAMT<K, V> valueForSlot) {
-            return new Node<>(setBit(bitmap, bitmapIndex), Arrays.insertAt(tableIndex, table, valueForSlot));
+        @SuppressWarnings("unchecked")
+        private V valueAt(int dataIndex) {
+            return (V) table[2 * dataIndex + 1];
+        }
+
+        private int hashAt(int dataIndex) {
+            return hashes[dataIndex];
+        }
+
+        @SuppressWarnings("unchecked")
+        private HAMT<K, V> nodeAt(int nodeIndex) {
+            return (HAMT<K, V>) table[2 * bitCount(dataMap) + nodeIndex];
+        }
+
+        /**
+         * Whether the key of the entry at <code>dataIndex</code> is equivalent to <code>key</code>, only consulting
+         * <code>keyEqRel</code> if their hashes are equal.
+         */
+        private boolean entryMatches(int dataIndex, K key, int keyHash, EquivalenceRelation<? super K> keyEqRel) {
+            return hashAt(dataIndex) == keyHash && keysEquivalent(keyEqRel, key, keyAt(dataIndex));
+        }
+
+        private Node<K, V> update(int dataMap, int nodeMap, Object[] table, int[] hashes, int size,
+                                  Object owner) {
+            if (isEditableBy(owner)) {
+                this.dataMap = dataMap;
+                this.nodeMap = nodeMap;
+                this.table   = table;
+                this.hashes  = hashes;
+                this.size    = size;
+                forgetHash();
+                return this;
+            }
+            return new Node<>(dataMap, nodeMap, table, hashes, owner, size);
+        }
+
+        private void forgetHash() {
+            hash       = 0;
+            hashIsZero = false;
+        }
+
+        private Node<K, V> insertEntryAt(int bitmapIndex, K key, V value, int keyHash, Object owner) {
+            int      dataIndex  = dataIndex(bitmapIndex);
+            int      tableIndex = 2 * dataIndex;
+            Object[] copy       = new Object[table.length + 2];
+            System.arraycopy(table, 0, copy, 0, tableIndex);
+            copy[tableIndex]     = key;
+            copy[tableIndex + 1] = value;
+            System.arraycopy(table, tableIndex, copy, tableIndex + 2, table.length - tableIndex);
+            return update(setBit(dataMap, bitmapIndex), nodeMap, copy, insertHash(hashes, dataIndex, keyHash),
+                          size + 1, owner);
+        }
+
+        private Node<K, V> overrideEntryAt(int dataIndex, K key, V value, Object owner) {
+            Object[] target = isEditableBy(owner) ? table : table.clone();
+            target[2 * dataIndex]     = key;
+            target[2 * dataIndex + 1] = value;
+            return update(dataMap, nodeMap, target, hashes, size, owner);
+        }
+
+        private Node<K, V> deleteEntryAt(int bitmapIndex, int dataIndex, Object owner) {
+            int      tableIndex = 2 * dataIndex;
+            Object[] copy       = new Object[table.length - 2];
+            System.arraycopy(table, 0, copy, 0, tableIndex);
+            System.arraycopy(table, tableIndex + 2, copy, tableIndex, table.length - tableIndex - 2);
+            return update(unsetBit(dataMap, bitmapIndex), nodeMap, copy, deleteHash(hashes, dataIndex), size - 1,
+                          owner);
+        }
+
+        private Node<K, V> overrideNodeAt(int nodeIndex, HAMT<K, V> node, int delta, Object owner) {
+            int tableIndex = 2 * bitCount(dataMap) + nodeIndex;
+            int size       = this.size + delta;
+            if (isEditableBy(owner)) {
+                table[tableIndex] = node;
+                this.size         = size;
+                forgetHash();
+                return this;
+            }
+            return new Node<>(dataMap, nodeMap, Arrays.overrideAt(tableIndex, table, node), hashes, owner, size);
         }
 
-        private Node<K, V> overrideAt(int tableIndex, HAMT<K, V> valueForSlot) {
-            return new Node<>(bitmap, Arrays.overrideAt(tableIndex, table, valueForSlot));
+        private Node<K, V> migrateEntryToNode(int bitmapIndex, int dataIndex, HAMT<K, V> node, Object owner) {
+            int      oldTableIndex = 2 * dataIndex;
+            int      newTableIndex = 2 * (bitCount(dataMap) - 1) + nodeIndex(bitmapIndex);
+            Object[] copy          = new Object[table.length - 1];
+            System.arraycopy(table, 0, copy, 0, oldTableIndex);
+            System.arraycopy(table, oldTableIndex + 2, copy, oldTableIndex, newTableIndex - oldTableIndex);
+            copy[newTableIndex] = node;
+            System.arraycopy(table, newTableIndex + 2, copy, newTableIndex + 1, table.length - newTableIndex - 2);
+            return update(unsetBit(dataMap, bitmapIndex), setBit(nodeMap, bitmapIndex), copy,
+                          deleteHash(hashes, dataIndex), size + 1, owner);
         }
 
-        private Node<K, V> deleteAt(int bitmapIndex, int tableIndex) {
-            return new Node<>(unsetBit(bitmap, bitmapIndex), Arrays.deleteAt(tableIndex, table));
+        private Node<K, V> migrateNodeToEntry(int bitmapIndex, int nodeIndex, K key, V value, int keyHash,
+                                              Object owner) {
+            int      dataIndex     = dataIndex(bitmapIndex);
+            int      oldTableIndex = 2 * bitCount(dataMap) + nodeIndex;
+            int      newTableIndex = 2 * dataIndex;
+            Object[] copy          = new Object[table.length + 1];
+            System.arraycopy(table, 0, copy, 0, newTableIndex);
+            copy[newTableIndex]     = key;
+            copy[newTableIndex + 1] = value;
+            System.arraycopy(table, newTableIndex, copy, newTableIndex + 2, oldTableIndex - newTableIndex);
+            System.arraycopy(table, oldTableIndex + 1, copy, oldTableIndex + 2, table.length - oldTableIndex - 1);
+            return update(setBit(dataMap, bitmapIndex), unsetBit(nodeMap, bitmapIndex), copy,
+                          insertHash(hashes, dataIndex, keyHash), size - 1, owner);
+        }
+
+        static <K, V> HAMT<K, V> mergeEntries(K k0, V v0, int keyHash0, K k1, V v1, int keyHash1,
+                                              HashingAlgorithm<? super K> keyHashAlg, int shift, Object owner) {
+            if (shift > MAX_SHIFT)
+                return keyHashAlg instanceof LongHashingAlgorithm<?>
+                       ? Extension.extension(k0, v0, k1, v1, keyHash1,
+                                             (LongHashingAlgorithm<? super K>) keyHashAlg, owner)
+                       : new Collision<>(keyHash1, strictStack(tuple(k0, v0), tuple(k1, v1)));
+
+            int bitmapIndex0 = bitmapIndex(keyHash0, shift);
+            int bitmapIndex1 = bitmapIndex(keyHash1, shift);
+            if (bitmapIndex0 == bitmapIndex1)
+                return new Node<>(0, setBit(0, bitmapIndex0), new Object[]{
+                        mergeEntries(k0, v0, keyHash0, k1, v1, keyHash1, keyHashAlg, shift + LEVEL_SIZE, owner)},
+                                    NO_HASHES, owner, 2);
+
+            int dataMap = setBit(setBit(0, bitmapIndex0), bitmapIndex1);
+            return bitmapIndex0 < bitmapIndex1
+                   ? new Node<>(dataMap, 0, new Object[]{k0, v0, k1, v1}, new int[]{keyHash0, keyHash1}, owner, 2)
+                   : new Node<>(dataMap, 0, new Object[]{k1, v1, k0, v0}, new int[]{keyHash1, keyHash0}, owner, 2);
+        }
+
+        static <K, V> Node<K, V> singletonNode(K key, V value, int keyHash) {
+            return new Node<>(1, 0, new Object[]{key, value}, new int[]{keyHash}, null, 1);
         }
 
         @SuppressWarnings("unchecked")
-        static <K, V> HAMT<K, V> rootNode() {
-            return (HAMT<K, V>) ROOT;
+        static <K, V> Node<K, V> rootNode() {
+            return (Node<K, V>) ROOT;
+        }
+
+        private static int[] insertHash(int[] hashes, int index, int hash) {
+            int[] copy = new int[hashes.length + 1];
+            System.arraycopy(hashes, 0, copy, 0, index);
+            copy[index] = hash;
+            System.arraycopy(hashes, index, copy, index + 1, hashes.length - index);
+            return copy;
+        }
+
+        private static int[] deleteHash(int[] hashes, int index) {
+            int[] copy = new int[hashes.length - 1];
+            System.arraycopy(hashes, 0, copy, 0, index);
+            System.arraycopy(hashes, index + 1, copy, index, hashes.length - index - 1);
+            return copy;
+        }
+
+        private static int countEntries(int dataMap, int nodeMap, Object[] table) {
+            int entryCount = bitCount(dataMap);
+            int size       = entryCount;
+            for (int nodeIndex = 0; nodeIndex < bitCount(nodeMap); nodeIndex++) {
+                size += ((HAMT<?, ?>) table[2 * entryCount + nodeIndex]).size();
+            }
+            return size;
         }
 
         private static int bitmapIndex(int keyHash, int shift) {
             return (keyHash >>> shift) & 31;
         }
+
+        /**
+         * Apply <code>slotFn</code> to every bitmap index set in <code>bitmap</code> as independent tasks on
+         * <code>pool</code>, blocking until all of them complete, and return their results indexed by bitmap index.
+         */
+        private static Object[] forkSlots(ForkJoinPool pool, int bitmap, Fn1<? super Integer, ?> slotFn) {
+            Object[]               results = new Object[32];
+            List<ForkJoinTask<?>> tasks   = new ArrayList<>(bitCount(bitmap));
+            for (; bitmap != 0; bitmap &= bitmap - 1) {
+                int bitmapIndex = numberOfTrailingZeros(bitmap);
+                tasks.add(ForkJoinTask.adapt(() -> {
+                    results[bitmapIndex] = slotFn.apply(bitmapIndex);
+                }));
+            }
+            pool.invoke(ForkJoinTask.adapt(() -> {
+                ForkJoinTask.invokeAll(tasks);
+            }));
+            return results;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K, V> HAMT<K, V> forkedAt(Object[] forked, int bitmapIndex) {
+            return (HAMT<K, V>) forked[bitmapIndex];
+        }
+
+        private static <K, V> HAMT<K, V> union(HAMT<K, V> hamt, HAMT<K, V> other, Semigroup<V> semigroup,
+                                               boolean idempotent, EquivalenceRelation<? super K> keyEqRel,
+                                               HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            if (idempotent && hamt == other)
+                return hamt;
+
+            if (hamt instanceof Node<?, ?> && other instanceof Node<?, ?>)
+                return ((Node<K, V>) hamt).union((Node<K, V>) other, semigroup, idempotent, keyEqRel, keyHashAlg,
+                                                 shift);
+
+            if (hamt instanceof Extension<?, ?> && other instanceof Extension<?, ?>)
+                return ((Extension<K, V>) hamt).union((Extension<K, V>) other, semigroup, idempotent, keyEqRel);
+
+            return foldLeft((acc, kv) -> {
+                int keyHash = keyHash(keyHashAlg, kv._1());
+                V   value   = acc.get(kv._1(), keyHash, keyEqRel, shift);
+                return acc.put(kv._1(), value == null ? kv._2() : semigroup.apply(value, kv._2()),
+                               keyHash, keyEqRel, keyHashAlg, shift);
+            }, hamt, other);
+        }
+
+        private static <K, V, W> HAMT<K, V> intersection(HAMT<K, V> hamt, HAMT<K, W> other,
+                                                         Fn2<? super V, ? super W, ? extends V> combine,
+                                                         boolean idempotent,
+                                                         EquivalenceRelation<? super K> keyEqRel,
+                                                         HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            if (idempotent && hamt == other)
+                return hamt;
+
+            if (hamt instanceof Node<?, ?> && other instanceof Node<?, ?>)
+                return ((Node<K, V>) hamt).intersection((Node<K, W>) other, combine, idempotent, keyEqRel,
+                                                        keyHashAlg, shift);
+
+            if (hamt instanceof Extension<?, ?> && other instanceof Extension<?, ?>)
+                return ((Extension<K, V>) hamt).intersection((Extension<K, W>) other, combine, idempotent, keyEqRel);
+
+            return rebuildBucket(hamt, kv -> {
+                W otherValue = other.get(kv._1(), keyHash(keyHashAlg, kv._1()), keyEqRel, shift);
+                return otherValue == null ? null : combine.apply(kv._2(), otherValue);
+            }, keyEqRel, keyHashAlg, shift);
+        }
+
+        private static <K, V, W> HAMT<K, V> difference(HAMT<K, V> hamt, HAMT<K, W> other,
+                                                       Fn2<? super V, ? super W, ? extends V> combine,
+                                                       EquivalenceRelation<? super K> keyEqRel,
+                                                       HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            if (combine == null && hamt == other)
+                return rootNode();
+
+            if (hamt instanceof Node<?, ?> && other instanceof Node<?, ?>)
+                return ((Node<K, V>) hamt).difference((Node<K, W>) other, combine, keyEqRel, keyHashAlg, shift);
+
+            if (hamt instanceof Extension<?, ?> && other instanceof Extension<?, ?>)
+                return ((Extension<K, V>) hamt).difference((Extension<K, W>) other, combine, keyEqRel);
+
+            return rebuildBucket(hamt, kv -> {
+                W otherValue = other.get(kv._1(), keyHash(keyHashAlg, kv._1()), keyEqRel, shift);
+                return otherValue == null
+                       ? kv._2()
+                       : combine == null ? null : combine.apply(kv._2(), otherValue);
+            }, keyEqRel, keyHashAlg, shift);
+        }
+
+        /**
+         * Rebuild the {@link Collision} or {@link SortedCollision} <code>bucket</code> from the values
+         * <code>retain</code> computes for its entries, dropping those for which it returns <code>null</code>. The
+         * retained entries are put into a fresh {@link Collision} rather than removed from <code>bucket</code> one by
+         * one, since a bucket collapses into a {@link Node} once a single entry is left, and a {@link Node} cannot
+         * index keys past {@link HAMT#MAX_SHIFT}. If a single entry is retained, it is returned as a {@link Node} for
+         * the parent to inline, and if none are, an empty {@link Node} for the parent to drop.
+         */
+        private static <K, V> HAMT<K, V> rebuildBucket(HAMT<K, V> bucket, Fn1<? super Tuple2<K, V>, ? extends V> retain,
+                                                       EquivalenceRelation<? super K> keyEqRel,
+                                                       HashingAlgorithm<? super K> keyHashAlg, int shift) {
+            HAMT<K, V> rebuilt   = null;
+            boolean    unchanged = true;
+            for (Tuple2<K, V> kv : bucket) {
+                V value = retain.apply(kv);
+                unchanged &= value == kv._2();
+                if (value != null) {
+                    int keyHash = keyHash(keyHashAlg, kv._1());
+                    rebuilt = (rebuilt == null ? new Collision<K, V>(keyHash, strictStack()) : rebuilt)
+                            .put(kv._1(), value, keyHash, keyEqRel, keyHashAlg, shift);
+                }
+            }
+
+            if (unchanged)
+                return bucket;
+
+            if (rebuilt == null)
+                return rootNode();
+
+            if (rebuilt.size() == 1) {
+                Tuple2<K, V> kv = rebuilt.iterator().next();
+                return singletonNode(kv._1(), kv._2(), keyHash(keyHashAlg, kv._1()));
+            }
+
+            return rebuilt;
+        }
+
+        /**
+         * A depth-first cursor over a trie of at most {@link HAMT#MAX_DEPTH} levels of {@link Node Nodes}, keeping the
+         * path from the root and the next table index at each level in fixed-size arrays, so that nothing is
+         * allocated per element other than the yielded {@link Tuple2}.
+         */
+        private static final class NodeIterator<K, V> implements Iterator<Tuple2<K, V>> {
+            private final Node<?, ?>[] path    = new Node<?, ?>[MAX_DEPTH];
+            private final int[]        cursors = new int[MAX_DEPTH];
+
+            private int                    depth;
+            private Iterator<Tuple2<K, V>> collision;
+
+            private NodeIterator(Node<K, V> root) {
+                path[0] = root;
+            }
+
+            @Override
+            public boolean hasNext() {
+                if (collision != null) {
+                    if (collision.hasNext())
+                        return true;
+                    collision = null;
+                }
+
+                while (depth >= 0) {
+                    Node<K, V> node       = nodeAt(depth);
+                    int        cursor     = cursors[depth];
+                    int        entryCount = bitCount(node.dataMap);
+                    if (cursor < entryCount)
+                        return true;
+
+                    int nodeIndex = cursor - entryCount;
+                    if (nodeIndex < bitCount(node.nodeMap)) {
+                        cursors[depth]++;
+                        HAMT<K, V> child = node.nodeAt(nodeIndex);
+                        if (child instanceof Node<?, ?>) {
+                            path[++depth]  = (Node<K, V>) child;
+                            cursors[depth] = 0;
+                        } else {
+                            collision = child.iterator();
+                            return true;
+                        }
+                    } else {
+                        path[depth--] = null;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public Tuple2<K, V> next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                if (collision != null)
+                    return collision.next();
+
+                Node<K, V> node      = nodeAt(depth);
+                int        dataIndex = cursors[depth]++;
+                return tuple(node.keyAt(dataIndex), node.valueAt(dataIndex));
+            }
+
+            @SuppressWarnings("unchecked")
+            private Node<K, V> nodeAt(int depth) {
+                return (Node<K, V>) path[depth];
+            }
+        }
+
+        private static final class NodeSpliterator<K, V, R> implements Spliterator<R> {
+            private final Fn2<? super K, ? super V, ? extends R> projection;
+
+            private Node<K, V>             node;
+            private int                    index;
+            private int                    fence;
+            private Iterator<Tuple2<K, V>> nested;
+            private long                   remaining;
+
+            private final int characteristics;
+
+            private NodeSpliterator(Node<K, V> node, int index, int fence,
+                                    Fn2<? super K, ? super V, ? extends R> projection, long remaining,
+                                    int characteristics) {
+                this.node            = node;
+                this.index           = index;
+                this.fence           = fence;
+                this.projection      = projection;
+                this.remaining       = remaining;
+                this.characteristics = characteristics;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                while (true) {
+                    if (nested != null) {
+                        if (nested.hasNext()) {
+                            Tuple2<K, V> kv = nested.next();
+                            consume(action, kv._1(), kv._2());
+                            return true;
+                        }
+                        nested = null;
+                    }
+
+                    if (index >= fence)
+                        return false;
+
+                    int entryCount = bitCount(node.dataMap);
+                    int slot       = index++;
+                    if (slot < entryCount) {
+                        consume(action, node.keyAt(slot), node.valueAt(slot));
+                        return true;
+                    }
+                    nested = node.nodeAt(slot - entryCount).iterator();
+                }
+            }
+
+            @Override
+            public Spliterator<R> trySplit() {
+                if (nested != null)
+                    return null;
+
+                if (fence - index == 1 && index >= bitCount(node.dataMap)) {
+                    HAMT<K, V> child = node.nodeAt(index - bitCount(node.dataMap));
+                    if (child instanceof Node<?, ?>) {
+                        node  = (Node<K, V>) child;
+                        index = 0;
+                        fence = bitCount(node.dataMap) + bitCount(node.nodeMap);
+                    }
+                }
+
+                if (fence - index < 2)
+                    return null;
+
+                int                      mid    = (index + fence) >>> 1;
+                NodeSpliterator<K, V, R> prefix = new NodeSpliterator<>(node, index, mid, projection,
+                                                                        slotsSize(index, mid), characteristics);
+                index = mid;
+                remaining -= prefix.remaining;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return remaining;
+            }
+
+            @Override
+            public int characteristics() {
+                return characteristics;
+            }
+
+            private long slotsSize(int from, int to) {
+                int  entryCount = bitCount(node.dataMap);
+                long size       = 0;
+                for (int slot = from; slot < to; slot++) {
+                    size += slot < entryCount ? 1 : node.nodeAt(slot - entryCount).size();
+                }
+                return size;
+            }
+
+            private void consume(Consumer<? super R> action, K key, V value) {
+                remaining--;
+                action.accept(projection.apply(key, value));
+            }
+        }
+
+        /**
+         * A scratch table for assembling the result of a structural operation, slot by slot in bitmap order. If
+         * every slot of the original {@link Node} is re-appended unchanged, the original {@link Node} is reused.
+         */
+        private static final class Assembly<K, V> {
+            private final Node<K, V> original;
+            private final Object[]   entries = new Object[64];
+            private final int[]      hashes  = new int[32];
+            private final Object[]   nodes   = new Object[32];
+
+            private int     dataMap;
+            private int     nodeMap;
+            private int     entryCount;
+            private int     nodeCount;
+            private int     size;
+            private boolean unchanged = true;
+
+            private Assembly(Node<K, V> original) {
+                this.original = original;
+            }
+
+            private void entry(int bitmapIndex, K key, V value, int keyHash) {
+                unchanged &= entryCount < bitCount(original.dataMap)
+                        && original.keyAt(entryCount) == key && original.valueAt(entryCount) == value;
+                entries[2 * entryCount]     = key;
+                entries[2 * entryCount + 1] = value;
+                hashes[entryCount]          = keyHash;
+                entryCount++;
+                size++;
+                dataMap = setBit(dataMap, bitmapIndex);
+            }
+
+            private void node(int bitmapIndex, HAMT<K, V> node) {
+                unchanged &= nodeCount < bitCount(original.nodeMap) && original.nodeAt(nodeCount) == node;
+                nodes[nodeCount++] = node;
+                size += node.size();
+                nodeMap = setBit(nodeMap, bitmapIndex);
+            }
+
+            private void compactedNode(int bitmapIndex, HAMT<K, V> node) {
+                if (node instanceof Node<?, ?>) {
+                    Node<K, V> compacted = (Node<K, V>) node;
+                    if (compacted.isEmpty())
+                        return;
+                    if (compacted.hasSingleEntry()) {
+                        entry(bitmapIndex, compacted.keyAt(0), compacted.valueAt(0), compacted.hashAt(0));
+                        return;
+                    }
+                }
+                node(bitmapIndex, node);
+            }
+
+            private Node<K, V> build() {
+                if (unchanged && dataMap == original.dataMap && nodeMap == original.nodeMap)
+                    return original;
+
+                Object[] table = new Object[2 * entryCount + nodeCount];
+                System.arraycopy(entries, 0, table, 0, 2 * entryCount);
+                System.arraycopy(nodes, 0, table, 2 * entryCount, nodeCount);
+                return new Node<>(dataMap, nodeMap, table, java.util.Arrays.copyOf(hashes, entryCount), null, size);
+            }
+        }
     }
 
-    final class Entry<K, V> implements HAMT<K, V>, Product2<K, V> {
+    final class Collision<K, V> implements HAMT<K, V> {
+        private final int                       keyHash;
+        private final StrictStack<Tuple2<K, V>> kvPairs;
+        private final boolean                   unsortable;
 
-        private final K k;
-        private final V v;
+        Collision(int keyHash, StrictStack<Tuple2<K, V>> kvPairs) {
+            this(keyHash, kvPairs, false);
+        }
 
-        Entry(K k, V v) {
-            this.k = k;
-            this.v = v;
+        /**
+         * @param unsortable whether the keys are already known not to qualify for a {@link SortedCollision}, which
+         *                   putting more keys cannot change, so that later puts skip attempting to sort them
+         */
+        private Collision(int keyHash, StrictStack<Tuple2<K, V>> kvPairs, boolean unsortable) {
+            this.keyHash    = keyHash;
+            this.kvPairs    = kvPairs;
+            this.unsortable = unsortable;
         }
 
         @Override
-        public K _1() {
-            return k;
+        public HAMT<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
+                              HashingAlgorithm<? super K> keyHashAlg, int shift, Object owner) {
+            StrictStack<Tuple2<K, V>> withKey = foldLeft((s, kv) -> keysEquivalent(keyEqRel, key, kv._1())
+                                                                    ? s
+                                                                    : s.cons(kv),
+                                                         strictStack(tuple(key, value)),
+                                                         kvPairs);
+            if (unsortable || keyEqRel != EquivalenceRelation.objectEquals()
+                    || withKey.saturatedSize() < SORTED_COLLISION_THRESHOLD)
+                return new Collision<>(keyHash, withKey, unsortable);
+
+            SortedCollision<K, V> sorted = SortedCollision.sortedCollision(keyHash, withKey);
+            return sorted != null ? sorted : new Collision<>(keyHash, withKey, true);
         }
 
         @Override
-        public V _2() {
-            return v;
+        public Iterator<Tuple2<K, V>> iterator() {
+            return kvPairs.iterator();
         }
 
         @Override
-        public HAMT<K, V> put(K newKey, V newValue, int keyHash,
-                              EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg,
-                              int shift) {
-            if (keyEqRel.apply(newKey, k))
-                return new Entry<>(newKey, newValue);
-
-            if (shift > 30)
-                return new Collision<>(keyHash, strictStack(this, new Entry<>(newKey, newValue)));
+        public int size() {
+            return kvPairs.sizeInfo().getSize().intValue();
+        }
 
-            Integer existingKeyHash = keyHashAlg.apply(k);
-            return Node.<K, V>rootNode()
-                    .put(k, v, existingKeyHash, keyEqRel, keyHashAlg, shift)
-                    .put(newKey, newValue, keyHash, keyEqRel, keyHashAlg, shift);
+        @Override
+        public int hash(HashingAlgorithm<? super K> keyHashAlg) {
+            int hash = 0;
+            for (Tuple2<K, V> kv : kvPairs) {
+                hash += keyHash ^ Objects.hashCode(kv._2());
+            }
+            return hash;
         }
 
         @Override
-        public Iterator<Tuple2<K, V>> iterator() {
-            return singleton(tuple(k, v)).iterator();
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            for (Tuple2<K, V> kv : kvPairs) {
+                action.accept(kv._1(), kv._2());
+            }
         }
 
         @Override
         public V get(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
-            return keyEqRel.apply(key, k) ? v : null;
+            return keyHash == this.keyHash
+                   ? find(kvPair -> keysEquivalent(keyEqRel, key, kvPair._1()), kvPairs).fmap(Tuple2::_2).orElse(null)
+                   : null;
+        }
+
+        @Override
+        public HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift,
+                                 Object owner) {
+            if (keyHash != this.keyHash)
+                return this;
+
+            StrictStack<Tuple2<K, V>> withoutKey = foldLeft((s, kv) -> keysEquivalent(keyEqRel, key, kv._1())
+                                                                       ? s
+                                                                       : s.cons(kv),
+                                                            strictStack(),
+                                                            kvPairs);
+            Natural remaining = withoutKey.sizeInfo().getSize();
+            if (eq(remaining, kvPairs.sizeInfo().getSize()))
+                return this;
+
+            if (eq(remaining, one())) {
+                Tuple2<K, V> kv = withoutKey.iterator().next();
+                return Node.singletonNode(kv._1(), kv._2(), keyHash);
+            }
+
+            return new Collision<>(keyHash, withoutKey);
         }
 
         @Override
-        public HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
-            return !keyEqRel.apply(key, k) ? this : null;
+        public <W> Collision<K, W> mapValues(Fn1<? super V, ? extends W> fn) {
+            return new Collision<>(keyHash, foldLeft((s, kv) -> s.cons(tuple(kv._1(), fn.apply(kv._2()))),
+                                                     StrictStack.<Tuple2<K, W>>strictStack(),
+                                                     kvPairs).reverse(), unsortable);
+        }
+
+        @Override
+        public HAMT<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate) {
+            StrictStack<Tuple2<K, V>> retained = foldLeft((s, kv) -> predicate.apply(kv._1(), kv._2()) ? s.cons(kv) : s,
+                                                          strictStack(),
+                                                          kvPairs);
+            Natural remaining = retained.sizeInfo().getSize();
+            if (eq(remaining, kvPairs.sizeInfo().getSize()))
+                return this;
+
+            if (retained.isEmpty())
+                return Node.rootNode();
+
+            if (eq(remaining, one())) {
+                Tuple2<K, V> kv = retained.iterator().next();
+                return Node.singletonNode(kv._1(), kv._2(), keyHash);
+            }
+
+            return new Collision<>(keyHash, retained);
         }
 
         @Override
         public boolean equals(Object other) {
-            if (other instanceof Entry<?, ?>) {
-                Entry<?, ?> entry = (Entry<?, ?>) other;
-                return Objects.equals(k, entry.k) && Objects.equals(v, entry.v);
+            if (other instanceof Collision<?, ?>) {
+                Collision<?, ?> collision = (Collision<?, ?>) other;
+                return Objects.equals(keyHash, collision.keyHash) &&
+                        Objects.equals(kvPairs, collision.kvPairs);
             }
             return false;
         }
     }
 
-    final class Collision<K, V> implements HAMT<K, V> {
-        private final int                      keyHash;
-        private final StrictStack<Entry<K, V>> kvPairs;
+    /**
+     * A {@link Collision} whose keys are all non-<code>null</code> instances of the same {@link Comparable} class,
+     * kept in a table of alternating keys and values in ascending key order, so that keys compared by
+     * {@link EquivalenceRelation#objectEquals() objectEquals} are located by binary search in <code>O(log c)</code>
+     * rather than by a linear scan. Since {@link Comparable#compareTo(Object) compareTo} need not be consistent with
+     * {@link Object#equals(Object) equals}, every key comparing as equal to the searched key is checked for equality.
+     * Keys of any other class, or any other {@link EquivalenceRelation}, fall back to a linear scan, and putting such
+     * a key reverts the bucket to an unsorted {@link Collision}.
+     */
+    final class SortedCollision<K, V> implements HAMT<K, V> {
+        private final int      keyHash;
+        private final Class<?> keyClass;
+        private final Object[] table;
 
-        Collision(int keyHash,
-                  StrictStack<Entry<K, V>> kvPairs) {
-            this.keyHash = keyHash;
-            this.kvPairs = kvPairs;
+        private SortedCollision(int keyHash, Class<?> keyClass, Object[] table) {
+            this.keyHash  = keyHash;
+            this.keyClass = keyClass;
+            this.table    = table;
         }
 
         @Override
         public HAMT<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
-                              HashingAlgorithm<? super K> keyHashAlg, int shift) {
-            return new Collision<>(keyHash, foldLeft(((s, kv) -> !keyEqRel.apply(key, kv._1()) ? s.cons(kv) : s),
-                                                     strictStack(new Entry<>(key, value)),
-                                                     kvPairs));
+                              HashingAlgorithm<? super K> keyHashAlg, int shift, Object owner) {
+            if (!isSearchable(key, keyEqRel))
+                return unsorted().put(key, value, keyHash, keyEqRel, keyHashAlg, shift, owner);
+
+            int index = search(key);
+            if (index >= 0) {
+                Object[] copy = table.clone();
+                copy[2 * index]     = key;
+                copy[2 * index + 1] = value;
+                return new SortedCollision<>(keyHash, keyClass, copy);
+            }
+
+            int      tableIndex = 2 * -(index + 1);
+            Object[] copy       = new Object[table.length + 2];
+            System.arraycopy(table, 0, copy, 0, tableIndex);
+            copy[tableIndex]     = key;
+            copy[tableIndex + 1] = value;
+            System.arraycopy(table, tableIndex, copy, tableIndex + 2, table.length - tableIndex);
+            return new SortedCollision<>(keyHash, keyClass, copy);
+        }
+
+        @Override
+        public V get(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
+            if (keyHash != this.keyHash)
+                return null;
+
+            int index = indexOf(key, keyEqRel);
+            return index >= 0 ? valueAt(index) : null;
+        }
+
+        @Override
+        public HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift,
+                                 Object owner) {
+            if (keyHash != this.keyHash)
+                return this;
+
+            int index = indexOf(key, keyEqRel);
+            if (index < 0)
+                return this;
+
+            if (size() == 2)
+                return Node.singletonNode(keyAt(1 - index), valueAt(1 - index), keyHash);
+
+            int      tableIndex = 2 * index;
+            Object[] copy       = new Object[table.length - 2];
+            System.arraycopy(table, 0, copy, 0, tableIndex);
+            System.arraycopy(table, tableIndex + 2, copy, tableIndex, table.length - tableIndex - 2);
+            return new SortedCollision<>(keyHash, keyClass, copy);
+        }
+
+        @Override
+        public <W> SortedCollision<K, W> mapValues(Fn1<? super V, ? extends W> fn) {
+            Object[] mapped = table.clone();
+            for (int i = 0; i < size(); i++) {
+                mapped[2 * i + 1] = fn.apply(valueAt(i));
+            }
+            return new SortedCollision<>(keyHash, keyClass, mapped);
+        }
+
+        @Override
+        public HAMT<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate) {
+            Object[] retained = new Object[table.length];
+            int      count    = 0;
+            int      last     = -1;
+            for (int i = 0; i < size(); i++) {
+                if (predicate.apply(keyAt(i), valueAt(i))) {
+                    retained[2 * count]     = table[2 * i];
+                    retained[2 * count + 1] = table[2 * i + 1];
+                    count++;
+                    last = i;
+                }
+            }
+
+            if (count == size())
+                return this;
+
+            if (count == 0)
+                return Node.rootNode();
+
+            if (count == 1)
+                return Node.singletonNode(keyAt(last), valueAt(last), keyHash);
+
+            return new SortedCollision<>(keyHash, keyClass, java.util.Arrays.copyOf(retained, 2 * count));
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            for (int i = 0; i < size(); i++) {
+                action.accept(keyAt(i), valueAt(i));
+            }
         }
 
         @Override
         public Iterator<Tuple2<K, V>> iterator() {
-            return map(Tuple2::fromEntry, kvPairs).iterator();
+            return new Iterator<Tuple2<K, V>>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size();
+                }
+
+                @Override
+                public Tuple2<K, V> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    Tuple2<K, V> kv = tuple(keyAt(index), valueAt(index));
+                    index++;
+                    return kv;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return table.length / 2;
+        }
+
+        @Override
+        public int hash(HashingAlgorithm<? super K> keyHashAlg) {
+            int hash = 0;
+            for (int i = 0; i < size(); i++) {
+                hash += keyHash ^ Objects.hashCode(valueAt(i));
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (other instanceof SortedCollision<?, ?>) {
+                SortedCollision<?, ?> collision = (SortedCollision<?, ?>) other;
+                return keyHash == collision.keyHash && java.util.Arrays.equals(table, collision.table);
+            }
+            return false;
+        }
+
+        @SuppressWarnings("unchecked")
+        private K keyAt(int index) {
+            return (K) table[2 * index];
+        }
+
+        @SuppressWarnings("unchecked")
+        private V valueAt(int index) {
+            return (V) table[2 * index + 1];
+        }
+
+        private boolean isSearchable(K key, EquivalenceRelation<? super K> keyEqRel) {
+            return keyEqRel == EquivalenceRelation.objectEquals() && key != null && key.getClass() == keyClass;
+        }
+
+        private int indexOf(K key, EquivalenceRelation<? super K> keyEqRel) {
+            if (isSearchable(key, keyEqRel)) {
+                int index = search(key);
+                return index >= 0 ? index : -1;
+            }
+
+            for (int i = 0; i < size(); i++) {
+                if (keysEquivalent(keyEqRel, key, keyAt(i)))
+                    return i;
+            }
+            return -1;
+        }
+
+        /**
+         * The index of the entry whose key is equal to <code>key</code>, or <code>-(insertionPoint + 1)</code> if
+         * there is none, as per {@link java.util.Arrays#binarySearch(Object[], Object)}.
+         */
+        @SuppressWarnings("unchecked")
+        private int search(K key) {
+            Comparable<Object> comparable = (Comparable<Object>) key;
+            int                low        = 0;
+            int                high       = size() - 1;
+            while (low <= high) {
+                int mid        = (low + high) >>> 1;
+                int comparison = comparable.compareTo(table[2 * mid]);
+                if (comparison > 0) {
+                    low = mid + 1;
+                } else if (comparison < 0) {
+                    high = mid - 1;
+                } else {
+                    for (int i = mid; i >= 0 && comparable.compareTo(table[2 * i]) == 0; i--) {
+                        if (key.equals(table[2 * i]))
+                            return i;
+                    }
+                    for (int i = mid + 1; i < size() && comparable.compareTo(table[2 * i]) == 0; i++) {
+                        if (key.equals(table[2 * i]))
+                            return i;
+                    }
+                    return -(mid + 1);
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Collision<K, V> unsorted() {
+            StrictStack<Tuple2<K, V>> kvPairs = strictStack();
+            for (int i = size() - 1; i >= 0; i--) {
+                kvPairs = kvPairs.cons(tuple(keyAt(i), valueAt(i)));
+            }
+            return new Collision<>(keyHash, kvPairs);
+        }
+
+        /**
+         * Sort <code>kvPairs</code> into a {@link SortedCollision}, or return <code>null</code> if their keys are not
+         * all non-<code>null</code> instances of the same class <code>C</code>, where <code>C</code> or one of its
+         * superclasses implements <code>Comparable&lt;T&gt;</code> for some class <code>T</code> that <code>C</code>
+         * is assignable to.
+         */
+        @SuppressWarnings("unchecked")
+        static <K, V> SortedCollision<K, V> sortedCollision(int keyHash, Iterable<Tuple2<K, V>> kvPairs) {
+            List<Tuple2<K, V>> entries  = new ArrayList<>();
+            Class<?>           keyClass = null;
+            for (Tuple2<K, V> kv : kvPairs) {
+                K key = kv._1();
+                if (keyClass == null) {
+                    keyClass = comparableClassOf(key);
+                    if (keyClass == null)
+                        return null;
+                } else if (key == null || key.getClass() != keyClass) {
+                    return null;
+                }
+                entries.add(kv);
+            }
+
+            entries.sort((kv1, kv2) -> ((Comparable<Object>) kv1._1()).compareTo(kv2._1()));
+            Object[] table = new Object[2 * entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                table[2 * i]     = entries.get(i)._1();
+                table[2 * i + 1] = entries.get(i)._2();
+            }
+            return new SortedCollision<>(keyHash, keyClass, table);
+        }
+
+        private static Class<?> comparableClassOf(Object key) {
+            if (!(key instanceof Comparable<?>))
+                return null;
+
+            Class<?> keyClass = key.getClass();
+            if (keyClass == String.class || key instanceof Enum<?>)
+                return keyClass;
+
+            for (Class<?> declaringClass = keyClass; declaringClass != null;
+                 declaringClass = declaringClass.getSuperclass()) {
+                for (Type type : declaringClass.getGenericInterfaces()) {
+                    if (type instanceof ParameterizedType) {
+                        ParameterizedType parameterizedType = (ParameterizedType) type;
+                        if (parameterizedType.getRawType() == Comparable.class) {
+                            Type comparedTo = parameterizedType.getActualTypeArguments()[0];
+                            return comparedTo instanceof Class<?> && ((Class<?>) comparedTo).isAssignableFrom(keyClass)
+                                   ? keyClass
+                                   : null;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A trie of entries whose keys have identical 32-bit hashes under a {@link LongHashingAlgorithm}, keyed instead by
+     * the upper 32 bits of their 64-bit hashes, taking the place of a {@link Collision} once the lower 32 bits are
+     * exhausted. Keys whose 64-bit hashes are also identical end up in a {@link Collision} within the nested trie.
+     */
+    final class Extension<K, V> implements HAMT<K, V> {
+        private final int                         keyHash;
+        private final HashingAlgorithm<? super K> upperKeyHashAlg;
+        private final Node<K, V>                  node;
+
+        private Extension(int keyHash, HashingAlgorithm<? super K> upperKeyHashAlg, Node<K, V> node) {
+            this.keyHash         = keyHash;
+            this.upperKeyHashAlg = upperKeyHashAlg;
+            this.node            = node;
+        }
+
+        @Override
+        public HAMT<K, V> put(K key, V value, int keyHash, EquivalenceRelation<? super K> keyEqRel,
+                              HashingAlgorithm<? super K> keyHashAlg, int shift, Object owner) {
+            Node<K, V> updated = node.put(key, value, upperKeyHashAlg.hashInt(key), keyEqRel, upperKeyHashAlg, 0,
+                                          owner);
+            return updated == node ? this : new Extension<>(this.keyHash, upperKeyHashAlg, updated);
         }
 
         @Override
         public V get(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
-            return keyHash == this.keyHash
-                   ? find(kvPair -> keyEqRel.apply(key, kvPair._1()), kvPairs).fmap(Entry::_2).orElse(null)
-                   : null;
+            return keyHash == this.keyHash ? node.get(key, upperKeyHashAlg.hashInt(key), keyEqRel, 0) : null;
         }
 
         @Override
-        public HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift) {
+        public HAMT<K, V> remove(K key, int keyHash, EquivalenceRelation<? super K> keyEqRel, int shift,
+                                 Object owner) {
             if (keyHash != this.keyHash)
                 return this;
 
-            StrictStack<Entry<K, V>> withoutKey = foldLeft(((s, kv) -> !keyEqRel.apply(key, kv._1()) ? s.cons(kv) : s),
-                                                           strictStack(),
-                                                           kvPairs);
-            return eq(withoutKey.sizeInfo().getSize(), one())
-                   ? withoutKey.iterator().next()
-                   : new Collision<>(keyHash, withoutKey);
+            int        before  = node.size();
+            Node<K, V> removed = node.remove(key, upperKeyHashAlg.hashInt(key), keyEqRel, 0, owner);
+            return removed.size() == before ? this : withNode(removed);
+        }
+
+        /**
+         * Structurally merge <code>other</code>, whose keys share the same 32-bit hash, into this {@link Extension} by
+         * merging their nested tries from the root, as per
+         * {@link Node#union(Node, Semigroup, boolean, EquivalenceRelation, HashingAlgorithm, int)}.
+         */
+        HAMT<K, V> union(Extension<K, V> other, Semigroup<V> semigroup, boolean idempotent,
+                         EquivalenceRelation<? super K> keyEqRel) {
+            return withNode(node.union(other.node, semigroup, idempotent, keyEqRel, upperKeyHashAlg, 0));
+        }
+
+        /**
+         * Structurally intersect this {@link Extension} with <code>other</code>, whose keys share the same 32-bit
+         * hash, by intersecting their nested tries from the root, as per
+         * {@link Node#intersection(Node, Fn2, boolean, EquivalenceRelation, HashingAlgorithm, int)}.
+         */
+        <W> HAMT<K, V> intersection(Extension<K, W> other, Fn2<? super V, ? super W, ? extends V> combine,
+                                    boolean idempotent, EquivalenceRelation<? super K> keyEqRel) {
+            return withNode(node.intersection(other.node, combine, idempotent, keyEqRel, upperKeyHashAlg, 0));
+        }
+
+        /**
+         * Structurally subtract the keys of <code>other</code>, which share the same 32-bit hash, from this
+         * {@link Extension} by subtracting their nested tries from the root, as per
+         * {@link Node#difference(Node, Fn2, EquivalenceRelation, HashingAlgorithm, int)}.
+         */
+        <W> HAMT<K, V> difference(Extension<K, W> other, Fn2<? super V, ? super W, ? extends V> combine,
+                                  EquivalenceRelation<? super K> keyEqRel) {
+            return withNode(node.difference(other.node, combine, keyEqRel, upperKeyHashAlg, 0));
+        }
+
+        @Override
+        public <W> Extension<K, W> mapValues(Fn1<? super V, ? extends W> fn) {
+            return new Extension<>(keyHash, upperKeyHashAlg, node.mapValues(fn));
+        }
+
+        @Override
+        public HAMT<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate) {
+            return withNode(node.filter(predicate));
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            node.forEach(action);
+        }
+
+        @Override
+        public Iterator<Tuple2<K, V>> iterator() {
+            return node.iterator();
+        }
+
+        @Override
+        public int size() {
+            return node.size();
+        }
+
+        @Override
+        public int hash(HashingAlgorithm<? super K> keyHashAlg) {
+            int hash = 0;
+            for (Tuple2<K, V> kv : node) {
+                hash += keyHash ^ Objects.hashCode(kv._2());
+            }
+            return hash;
         }
 
         @Override
         public boolean equals(Object other) {
-            if (other instanceof Collision<?, ?>) {
-                Collision<?, ?> collision = (Collision<?, ?>) other;
-                return Objects.equals(keyHash, collision.keyHash) &&
-                        Objects.equals(kvPairs, collision.kvPairs);
+            if (other instanceof Extension<?, ?>) {
+                Extension<?, ?> extension = (Extension<?, ?>) other;
+                return keyHash == extension.keyHash && node.equals(extension.node);
             }
             return false;
         }
+
+        /**
+         * This {@link Extension} with its nested trie replaced by <code>updated</code>, collapsed into a {@link Node}
+         * for the parent to inline if <code>updated</code> holds a single entry, or to drop if it holds none.
+         */
+        private HAMT<K, V> withNode(Node<K, V> updated) {
+            if (updated == node)
+                return this;
+
+            if (updated.isEmpty())
+                return Node.rootNode();
+
+            return updated.hasSingleEntry()
+                   ? Node.singletonNode(updated.keyAt(0), updated.valueAt(0), keyHash)
+                   : new Extension<>(keyHash, upperKeyHashAlg, updated);
+        }
+
+        static <K, V> Extension<K, V> extension(K k0, V v0, K k1, V v1, int keyHash,
+                                                LongHashingAlgorithm<? super K> keyHashAlg, Object owner) {
+            HashingAlgorithm<K> upperKeyHashAlg = HashingAlgorithm.hashingAlgorithm(
+                    key -> (int) (keyHashAlg.hashLong(key) >>> 32));
+            return new Extension<>(keyHash, upperKeyHashAlg,
+                                   (Node<K, V>) Node.mergeEntries(k0, v0, upperKeyHashAlg.hashInt(k0),
+                                                                  k1, v1, upperKeyHashAlg.hashInt(k1),
+                                                                  upperKeyHashAlg, 0, owner));
+        }
     }
 }
@@ -1,19 +1,27 @@
 package com.jnape.palatable.shoki.impl;
 
 import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.hlist.HList;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
-import com.jnape.palatable.lambda.functions.builtin.fn1.Empty;
+import com.jnape.palatable.lambda.functions.Fn1;
+import com.jnape.palatable.lambda.functions.Fn2;
 import com.jnape.palatable.lambda.functions.builtin.fn1.Head;
 import com.jnape.palatable.lambda.semigroup.Semigroup;
 import com.jnape.palatable.shoki.api.EquivalenceRelation;
 import com.jnape.palatable.shoki.api.HashingAlgorithm;
+import com.jnape.palatable.shoki.api.LongHashingAlgorithm;
 import com.jnape.palatable.shoki.api.Map;
 import com.jnape.palatable.shoki.api.Natural;
 import com.jnape.palatable.shoki.api.Set;
 import com.jnape.palatable.shoki.api.SizeInfo.Known;
+import com.jnape.palatable.shoki.impl.HAMT.Node;
 
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static com.jnape.palatable.lambda.adt.Maybe.maybe;
 import static com.jnape.palatable.lambda.adt.Try.trying;
@@ -25,14 +33,12 @@ import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
-import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
 import static com.jnape.palatable.shoki.api.Map.EquivalenceRelations.entries;
-import static com.jnape.palatable.shoki.api.Map.HashingAlgorithms.entries;
-import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.HAMT.Node.rootNode;
-import static com.jnape.palatable.shoki.impl.HashSet.hashSet;
+import static com.jnape.palatable.shoki.impl.HAMT.keyHash;
 import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
 import static java.lang.String.format;
 import static java.lang.String.join;
@@ -93,6 +99,26 @@ import static java.lang.String.join;
  * populated indices would otherwise distribute across the table space, resulting in an ideally memory efficient space
  * layout.
  * <p>
+ * This implementation takes the idea one step further by adopting the
+ * <a href="https://michael.steindorfer.name/publications/oopsla15.pdf" target="_new">CHAMP</a> encoding: rather than a
+ * single bitmap whose populated indices may be occupied by either values or sub-tries, each trie maintains one bitmap
+ * for the indices occupied by key/value pairs stored inline, and another bitmap for the indices occupied by
+ * sub-tries. Inline keys and values are grouped together at the front of the array, followed by all sub-tries, so
+ * the trie from above would actually be laid out as:
+ * <pre>
+ * Trie={dataMap: 0b01,
+ *       nodeMap: 0b10,
+ *       arr: [Key=1, Value="foo",
+ *             Trie={dataMap: 0b11,
+ *                   nodeMap: 0b00,
+ *                   arr: [Key=2, Value="bar", Key=3, Value="baz"]
+ *                  }
+ *            ]
+ *      }
+ * </pre>
+ * This eliminates the need for a dedicated object per key/value pair, and keeps all of a trie's inline entries
+ * contiguous in memory, improving both the memory footprint and the locality of lookups and iteration.
+ * <p>
  * With all of these definitions in place, a {@link HashMap} is simply an array mapped trie that maps any arbitrary
  * type <code>K</code> to any arbitrary type <code>V</code> by hashing <code>K</code> into an integral value, which is
  * then used to index into the corresponding internal array table space. However, because the integrals are the results
@@ -101,7 +127,13 @@ import static java.lang.String.join;
  * are different but have produced full hash collisions. The presence of collision stacks can materially slow down the
  * typical {@link Map} operations, so a {@link HashingAlgorithm hashing algorithm} offering reasonably good uniformity
  * of distribution from <code>K -&gt; {@link Integer}</code> is important to maintain optimal performance
- * characteristics.
+ * characteristics. Since the trie is indexed by the lowest bits of each hash first, keys whose hashes mostly vary in
+ * their higher bits are best hashed with a {@link HashingAlgorithm#spread() spread} (or
+ * {@link HashingAlgorithm#randomlySeeded() randomly seeded}) {@link HashingAlgorithm}, which leaves the keys
+ * themselves untouched. For maps large enough that full 32-bit collisions are likely regardless of distribution, a
+ * {@link LongHashingAlgorithm} may be used instead, in which case keys whose 32-bit hashes collide are stored in a
+ * nested trie indexed by the upper 32 bits of their 64-bit hashes, leaving collision stacks only for keys whose full
+ * 64-bit hashes collide.
  * <p>
  * Finally, a {@link HashMap} can be configured upon creation with custom {@link EquivalenceRelation equality} and
  * {@link HashingAlgorithm hashing} semantics, obviating the need to rely on
@@ -121,12 +153,9 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
 
     private final EquivalenceRelation<? super K> keyEqRel;
     private final HashingAlgorithm<? super K>    keyHashAlg;
-    private final HAMT<K, V>                     hamt;
+    private final Node<K, V>                     hamt;
 
-    private volatile Natural size;
-    private volatile Integer hashCode;
-
-    private HashMap(EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg, HAMT<K, V> hamt) {
+    private HashMap(EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg, Node<K, V> hamt) {
         this.keyEqRel   = keyEqRel;
         this.keyHashAlg = keyHashAlg;
         this.hamt       = hamt;
@@ -143,7 +172,7 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
      */
     @Override
     public Maybe<V> get(K key) {
-        return maybe(hamt.get(key, keyHashAlg.apply(key), keyEqRel, 0));
+        return maybe(hamt.get(key, keyHash(keyHashAlg, key), keyEqRel, 0));
     }
 
     /**
@@ -158,7 +187,7 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
     @Override
     public HashMap<K, V> put(K key, V value) {
         return new HashMap<>(keyEqRel, keyHashAlg,
-                             hamt.put(key, value, keyHashAlg.apply(key), keyEqRel, keyHashAlg, 0));
+                             hamt.put(key, value, keyHash(keyHashAlg, key), keyEqRel, keyHashAlg, 0));
     }
 
     /**
@@ -172,8 +201,8 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
      */
     @Override
     public HashMap<K, V> remove(K key) {
-        HAMT<K, V> removed = hamt.remove(key, keyHashAlg.apply(key), keyEqRel, 0);
-        return new HashMap<>(keyEqRel, keyHashAlg, removed != null ? removed : rootNode());
+        Node<K, V> removed = hamt.remove(key, keyHash(keyHashAlg, key), keyEqRel, 0);
+        return removed == hamt ? this : new HashMap<>(keyEqRel, keyHashAlg, removed);
     }
 
     /**
@@ -192,7 +221,8 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
      */
     @Override
     public HashSet<K> keys() {
-        return foldLeft((keys, kv) -> keys.add(kv._1()), hashSet(keyEqRel, keyHashAlg), this);
+        return foldLeft((keys, kv) -> keys.add(kv._1()), HashSet.<K>builder(keyEqRel, keyHashAlg), this)
+                .persistent();
     }
 
     /**
@@ -230,15 +260,22 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
      */
     @Override
     public boolean isEmpty() {
-        return Empty.empty(hamt);
+        return hamt.isEmpty();
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link HashMap} with the same {@link EquivalenceRelation} and
+     * {@link HashingAlgorithm} as this {@link HashMap}, the two tries are merged structurally, carrying over whole
+     * sub-tries that are only populated in one of the two {@link HashMap HashMaps}. <code>O(o)</code>.
      */
     @Override
     public HashMap<K, V> merge(Map<Natural, K, V> other, Semigroup<V> semigroup) {
+        if (other instanceof HashMap<?, ?>) {
+            HashMap<K, V> hashMap = (HashMap<K, V>) other;
+            if (sharesHashingWith(hashMap))
+                return union(hashMap, semigroup, false);
+        }
         return (HashMap<K, V>) Map.super.merge(other, semigroup);
     }
 
@@ -253,21 +290,11 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
 
     /**
      * {@inheritDoc}
-     * Amortized <code>O(1)</code>.
+     * The size is maintained by the underlying trie as entries are added and removed. <code>O(1)</code>.
      */
     @Override
-    @SuppressWarnings("DuplicatedCode")
     public Known<Natural> sizeInfo() {
-        Natural size = this.size;
-        if (size == null) {
-            synchronized (this) {
-                size = this.size;
-                if (size == null) {
-                    this.size = size = foldLeft((s, __) -> s.inc(), (Natural) zero(), this);
-                }
-            }
-        }
-        return known(size);
+        return known(atLeastZero(hamt.size()));
     }
 
     /**
@@ -278,6 +305,38 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
         return hamt.iterator();
     }
 
+    /**
+     * Perform <code>action</code> on each key/value pair in this {@link HashMap}, in iteration order, without
+     * allocating a {@link Tuple2} per entry. <code>O(n)</code>.
+     *
+     * @param action the action
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        hamt.forEach(action);
+    }
+
+    /**
+     * Perform <code>action</code> on each key in this {@link HashMap}, in iteration order, without allocating a
+     * {@link Tuple2} per entry. <code>O(n)</code>.
+     *
+     * @param action the action
+     */
+    public void forEachKey(Consumer<? super K> action) {
+        hamt.forEach((k, v) -> action.accept(k));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} splits on the slots of the underlying trie, and is {@link Spliterator#DISTINCT distinct},
+     * {@link Spliterator#IMMUTABLE immutable}, {@link Spliterator#NONNULL non-null}, {@link Spliterator#SIZED sized},
+     * and {@link Spliterator#SUBSIZED subsized}. <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<Tuple2<K, V>> spliterator() {
+        return hamt.spliterator(HList::tuple, hamt.size(),
+                                Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
     /**
      * Determine if <code>other</code> is a {@link HashMap} with the
      * {@link Map.EquivalenceRelations#entries(EquivalenceRelation) same entries} as this {@link HashMap}, using
@@ -296,23 +355,52 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
     }
 
     /**
-     * Compute the corresponding {@link Object#hashCode() hash code} for this {@link HashMap}.
-     * Amortized <code>O(1)</code>.
+     * Compute the corresponding {@link Object#hashCode() hash code} for this {@link HashMap}. Hashes are cached per
+     * node of the underlying trie, so the hash code of a {@link HashMap} derived from another by an update only
+     * recomputes the nodes copied by that update. Amortized <code>O(1)</code>.
      *
      * @return the hash code
      */
     @Override
     public int hashCode() {
-        Integer hashCode = this.hashCode;
-        if (hashCode == null) {
-            synchronized (this) {
-                hashCode = this.hashCode;
-                if (hashCode == null) {
-                    this.hashCode = hashCode = hash(entries(keyHashAlg, objectHashCode()), this);
-                }
-            }
-        }
-        return hashCode;
+        return hamt.hash(keyHashAlg);
+    }
+
+    /**
+     * Create a {@link Builder} populated with the entries of this {@link HashMap}, sharing the same
+     * {@link EquivalenceRelation} and {@link HashingAlgorithm}. This {@link HashMap} is unaffected by any subsequent
+     * modifications made to the {@link Builder}. <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     */
+    public Builder<K, V> transientCopy() {
+        return new Builder<>(keyEqRel, keyHashAlg, hamt);
+    }
+
+    /**
+     * Create a {@link Parallel} view of this {@link HashMap} that performs bulk operations as
+     * {@link java.util.concurrent.ForkJoinTask fork/join tasks} on the {@link ForkJoinPool#commonPool() common pool},
+     * staying sequential for {@link HashMap HashMaps} with fewer than {@link Parallel#DEFAULT_THRESHOLD} entries.
+     * <code>O(1)</code>.
+     *
+     * @return the {@link Parallel} view
+     * @see HashMap#parallel(ForkJoinPool, int)
+     */
+    public Parallel<K, V> parallel() {
+        return parallel(ForkJoinPool.commonPool(), Parallel.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Create a {@link Parallel} view of this {@link HashMap} that performs bulk operations as
+     * {@link java.util.concurrent.ForkJoinTask fork/join tasks} on <code>pool</code>, staying sequential for
+     * {@link HashMap HashMaps} with fewer than <code>threshold</code> entries. <code>O(1)</code>.
+     *
+     * @param pool      the {@link ForkJoinPool}
+     * @param threshold the minimum number of entries for which bulk operations are parallelized
+     * @return the {@link Parallel} view
+     */
+    public Parallel<K, V> parallel(ForkJoinPool pool, int threshold) {
+        return new Parallel<>(this, pool, threshold);
     }
 
     /**
@@ -324,6 +412,36 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
         return "HashMap[" + join(", ", map(into((k, v) -> format("(%s=%s)", k, v)), this)) + "]";
     }
 
+    Spliterator<K> keySpliterator() {
+        return hamt.spliterator((k, v) -> k, hamt.size(),
+                                Spliterator.DISTINCT | Spliterator.IMMUTABLE);
+    }
+
+    boolean sharesHashingWith(HashMap<K, ?> other) {
+        return Objects.equals(keyEqRel, other.keyEqRel) && Objects.equals(keyHashAlg, other.keyHashAlg);
+    }
+
+    HashMap<K, V> union(HashMap<K, V> other, Semigroup<V> semigroup, boolean idempotent) {
+        return withHamt(hamt.union(other.hamt, semigroup, idempotent, keyEqRel, keyHashAlg, 0));
+    }
+
+    <W> HashMap<K, V> intersection(HashMap<K, W> other, Fn2<? super V, ? super W, ? extends V> combine,
+                                   boolean idempotent) {
+        return withHamt(hamt.intersection(other.hamt, combine, idempotent, keyEqRel, keyHashAlg, 0));
+    }
+
+    HashMap<K, V> difference(HashMap<K, ?> other) {
+        return withHamt(hamt.difference(other.hamt, null, keyEqRel, keyHashAlg, 0));
+    }
+
+    <W> HashMap<K, V> difference(HashMap<K, W> other, Fn2<? super V, ? super W, ? extends V> combine) {
+        return withHamt(hamt.difference(other.hamt, combine, keyEqRel, keyHashAlg, 0));
+    }
+
+    private HashMap<K, V> withHamt(Node<K, V> hamt) {
+        return hamt == this.hamt ? this : new HashMap<>(keyEqRel, keyHashAlg, hamt);
+    }
+
     /**
      * Create a {@link HashMap} using the given {@link EquivalenceRelation} and {@link HashingAlgorithm} for its
      * keys, populated by zero or more given entries.
@@ -339,7 +457,7 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
     public static <K, V> HashMap<K, V> hashMap(EquivalenceRelation<? super K> keyEquivalenceRelation,
                                                HashingAlgorithm<? super K> keyHashingAlgorithm,
                                                Tuple2<K, V>... entries) {
-        return hashMap(new HashMap<>(keyEquivalenceRelation, keyHashingAlgorithm, rootNode()), entries);
+        return HashMap.<K, V>builder(keyEquivalenceRelation, keyHashingAlgorithm).putAll(entries).persistent();
     }
 
     /**
@@ -354,14 +472,242 @@ public final class HashMap<K, V> implements Map<Natural, K, V> {
      */
     @SafeVarargs
     public static <K, V> HashMap<K, V> hashMap(Tuple2<K, V>... entries) {
-        @SuppressWarnings("unchecked") HashMap<K, V> empty = (HashMap<K, V>) EMPTY_OBJECT_DEFAULTS;
-        return hashMap(empty, entries);
+        if (entries.length == 0) {
+            @SuppressWarnings("unchecked") HashMap<K, V> empty = (HashMap<K, V>) EMPTY_OBJECT_DEFAULTS;
+            return empty;
+        }
+        return HashMap.<K, V>builder().putAll(entries).persistent();
     }
 
-    @SafeVarargs
-    private static <K, V> HashMap<K, V> hashMap(HashMap<K, V> hashMap, Tuple2<K, V>... entries) {
-        for (Tuple2<K, V> entry : entries)
-            hashMap = entry.into(hashMap::put);
-        return hashMap;
+    /**
+     * Create an empty {@link Builder} using the given {@link EquivalenceRelation} and {@link HashingAlgorithm} for its
+     * keys.
+     *
+     * @param keyEquivalenceRelation the {@link EquivalenceRelation}
+     * @param keyHashingAlgorithm    the {@link HashingAlgorithm}
+     * @param <K>                    the key type
+     * @param <V>                    the value type
+     * @return the {@link Builder}
+     */
+    public static <K, V> Builder<K, V> builder(EquivalenceRelation<? super K> keyEquivalenceRelation,
+                                               HashingAlgorithm<? super K> keyHashingAlgorithm) {
+        return new Builder<>(keyEquivalenceRelation, keyHashingAlgorithm, rootNode());
+    }
+
+    /**
+     * Create an empty {@link Builder} using {@link Objects#equals(Object, Object) Object equality} and
+     * {@link Objects#hashCode(Object) Object hashCode} as the {@link EquivalenceRelation} and {@link HashingAlgorithm},
+     * respectively, for its keys.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the {@link Builder}
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return builder(objectEquals(), objectHashCode());
+    }
+
+    /**
+     * A transient, batch-mutable companion to {@link HashMap}, suitable for efficiently populating a {@link HashMap}
+     * with many entries.
+     * <p>
+     * Whereas every {@link HashMap#put(Object, Object) put} against a {@link HashMap} copies the path from the root of
+     * its trie to the modified node, a {@link Builder} takes ownership of the nodes it creates and subsequently
+     * mutates them in place, only copying nodes that it shares with some other {@link HashMap}. Calling
+     * {@link Builder#persistent() persistent} relinquishes ownership of all nodes created up until that point, freezing
+     * them into a {@link HashMap} in <code>O(1)</code>; the {@link Builder} remains usable afterwards, and will copy
+     * any nodes it has since shared before modifying them again.
+     * <p>
+     * {@link Builder Builders} are not thread-safe, and should not be shared across threads without external
+     * synchronization.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public static final class Builder<K, V> {
+        private final EquivalenceRelation<? super K> keyEqRel;
+        private final HashingAlgorithm<? super K>    keyHashAlg;
+
+        private Node<K, V> hamt;
+        private Object     owner;
+
+        private Builder(EquivalenceRelation<? super K> keyEqRel, HashingAlgorithm<? super K> keyHashAlg,
+                        Node<K, V> hamt) {
+            this.keyEqRel   = keyEqRel;
+            this.keyHashAlg = keyHashAlg;
+            this.hamt       = hamt;
+            this.owner      = new Object();
+        }
+
+        /**
+         * If <code>key</code> is associated to a value inside this {@link Builder}, retrieve
+         * {@link Maybe#just(Object) just} the value it maps to; otherwise, return {@link Maybe#nothing() nothing}.
+         * Amortized <code>O(1)</code>.
+         *
+         * @param key the key
+         * @return {@link Maybe} the value associated to <code>key</code>
+         */
+        public Maybe<V> get(K key) {
+            return maybe(hamt.get(key, keyHash(keyHashAlg, key), keyEqRel, 0));
+        }
+
+        /**
+         * Associate <code>key</code> to <code>value</code>, overriding any value currently associated to
+         * <code>key</code>. Amortized <code>O(1)</code>.
+         *
+         * @param key   the key
+         * @param value the value
+         * @return this {@link Builder}
+         */
+        public Builder<K, V> put(K key, V value) {
+            hamt = hamt.put(key, value, keyHash(keyHashAlg, key), keyEqRel, keyHashAlg, 0, owner);
+            return this;
+        }
+
+        /**
+         * Associate every key in <code>entries</code> to its corresponding value, in iteration order.
+         * <code>O(o)</code>.
+         *
+         * @param entries the entries
+         * @return this {@link Builder}
+         */
+        public Builder<K, V> putAll(Iterable<? extends Tuple2<K, V>> entries) {
+            for (Tuple2<K, V> entry : entries)
+                put(entry._1(), entry._2());
+            return this;
+        }
+
+        /**
+         * Remove the association for <code>key</code>, if there is one. Amortized <code>O(1)</code>.
+         *
+         * @param key the key
+         * @return this {@link Builder}
+         */
+        public Builder<K, V> remove(K key) {
+            hamt = hamt.remove(key, keyHash(keyHashAlg, key), keyEqRel, 0, owner);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link HashMap}. <code>O(1)</code>.
+         *
+         * @return the {@link HashMap}
+         */
+        public HashMap<K, V> persistent() {
+            owner = new Object();
+            return new HashMap<>(keyEqRel, keyHashAlg, hamt);
+        }
+
+        @SafeVarargs
+        private final Builder<K, V> putAll(Tuple2<K, V>... entries) {
+            for (Tuple2<K, V> entry : entries)
+                put(entry._1(), entry._2());
+            return this;
+        }
+    }
+
+    /**
+     * A view of a {@link HashMap} that performs bulk operations in parallel on a {@link ForkJoinPool}.
+     * <p>
+     * The trie underlying a {@link HashMap} partitions its entries by the leading bits of their hashes into up to 32
+     * independent sub-tries, one per top-level slot. Each bulk operation processes those sub-tries as separate
+     * {@link java.util.concurrent.ForkJoinTask fork/join tasks}, and reassembles their results into a single trie in
+     * the same canonical form that the sequential operations would produce. For {@link HashMap HashMaps} with fewer
+     * entries than the configured threshold, the coordination overhead outweighs the benefit, so the operations are
+     * performed sequentially instead.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @see HashMap#parallel()
+     * @see HashMap#parallel(ForkJoinPool, int)
+     */
+    public static final class Parallel<K, V> {
+
+        /**
+         * The default minimum number of entries for which bulk operations are parallelized.
+         */
+        public static final int DEFAULT_THRESHOLD = 1 << 13;
+
+        private final HashMap<K, V> hashMap;
+        private final ForkJoinPool  pool;
+        private final int           threshold;
+
+        private Parallel(HashMap<K, V> hashMap, ForkJoinPool pool, int threshold) {
+            this.hashMap   = hashMap;
+            this.pool      = pool;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Fold the entries of the {@link HashMap} into a single result, folding each sub-trie from
+         * <code>identity</code> with <code>accumulator</code> and combining the partial results with
+         * <code>combiner</code>. The order in which entries are accumulated is unspecified, so
+         * <code>identity</code> should be an identity for <code>combiner</code>, and <code>combiner</code> should be
+         * compatible with <code>accumulator</code>. <code>O(n)</code>.
+         *
+         * @param identity    the identity
+         * @param accumulator the accumulation function
+         * @param combiner    the {@link Semigroup} for combining partial results
+         * @param <B>         the result type
+         * @return the folded result
+         */
+        public <B> B fold(B identity, Fn2<? super B, ? super Tuple2<K, V>, ? extends B> accumulator,
+                          Semigroup<B> combiner) {
+            return sequential(hashMap)
+                   ? foldLeft(accumulator, identity, hashMap)
+                   : hashMap.hamt.fold(identity, accumulator, combiner, pool);
+        }
+
+        /**
+         * Merge <code>other</code> into the {@link HashMap} as per {@link HashMap#merge(Map, Semigroup)}. If
+         * <code>other</code> is a {@link HashMap} with the same {@link EquivalenceRelation} and
+         * {@link HashingAlgorithm}, the sub-tries populated on both sides are merged in parallel; otherwise, the merge
+         * is sequential. <code>O(o)</code>.
+         *
+         * @param other     the other {@link Map}
+         * @param semigroup the {@link Semigroup} for combining values of keys present in both
+         * @return the merged {@link HashMap}
+         */
+        public HashMap<K, V> merge(Map<Natural, K, V> other, Semigroup<V> semigroup) {
+            if (other instanceof HashMap<?, ?>) {
+                HashMap<K, V> otherHashMap = (HashMap<K, V>) other;
+                if (hashMap.sharesHashingWith(otherHashMap))
+                    return union(otherHashMap, semigroup, false);
+            }
+            return hashMap.merge(other, semigroup);
+        }
+
+        /**
+         * Retain only the entries of the {@link HashMap} satisfying <code>predicate</code>. <code>O(n)</code>.
+         *
+         * @param predicate the predicate
+         * @return the filtered {@link HashMap}
+         */
+        public HashMap<K, V> filter(Fn2<? super K, ? super V, ? extends Boolean> predicate) {
+            return hashMap.withHamt(hashMap.hamt.filter(predicate, sequential(hashMap) ? null : pool));
+        }
+
+        /**
+         * Map the values of the {@link HashMap} with <code>fn</code>. Because the keys are unchanged, the resulting
+         * {@link HashMap} shares the shape of the original trie, and no key is re-hashed. <code>O(n)</code>.
+         *
+         * @param fn  the mapping function
+         * @param <W> the new value type
+         * @return the mapped {@link HashMap}
+         */
+        public <W> HashMap<K, W> mapValues(Fn1<? super V, ? extends W> fn) {
+            return new HashMap<>(hashMap.keyEqRel, hashMap.keyHashAlg,
+                                 hashMap.hamt.mapValues(fn, sequential(hashMap) ? null : pool));
+        }
+
+        HashMap<K, V> union(HashMap<K, V> other, Semigroup<V> semigroup, boolean idempotent) {
+            return hashMap.withHamt(hashMap.hamt.union(other.hamt, semigroup, idempotent, hashMap.keyEqRel,
+                                                       hashMap.keyHashAlg, 0,
+                                                       sequential(hashMap) && sequential(other) ? null : pool));
+        }
+
+        private boolean sequential(HashMap<K, ?> hashMap) {
+            return hashMap.hamt.size() < threshold;
+        }
     }
 }
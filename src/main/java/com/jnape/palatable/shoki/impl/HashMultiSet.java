@@ -1,6 +1,7 @@
 package com.jnape.palatable.shoki.impl;
 
 import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.coproduct.CoProduct2;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
 import com.jnape.palatable.lambda.semigroup.Semigroup;
 import com.jnape.palatable.shoki.api.EquivalenceRelation;
@@ -12,12 +13,13 @@ import com.jnape.palatable.shoki.api.SizeInfo.Known;
 
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Spliterator;
 
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Id.id;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
-import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
+import static com.jnape.palatable.shoki.api.Natural.one;
 import static com.jnape.palatable.shoki.api.Natural.zero;
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.HashMap.hashMap;
@@ -33,23 +35,28 @@ import static java.lang.String.join;
  */
 public final class HashMultiSet<A> implements MultiSet<A> {
 
-    private static final HashMultiSet<?> EMPTY_OBJECT_DEFAULTS = new HashMultiSet<>(hashMap());
+    private static final HashMultiSet<?> EMPTY_OBJECT_DEFAULTS = new HashMultiSet<>(hashMap(), zero());
 
     private final HashMap<A, NonZero> multiplicityMap;
+    private final Natural             size;
 
-    private volatile Natural size;
-
-    private HashMultiSet(HashMap<A, NonZero> multiplicityMap) {
+    private HashMultiSet(HashMap<A, NonZero> multiplicityMap, Natural size) {
         this.multiplicityMap = multiplicityMap;
+        this.size            = size;
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link HashMultiSet} with the same {@link EquivalenceRelation} and
+     * {@link HashingAlgorithm} as this {@link HashMultiSet}, the two tries are merged structurally. <code>O(o)</code>.
      */
     @Override
     public HashMultiSet<A> sum(MultiSet<A> other) {
-        return (HashMultiSet<A>) MultiSet.super.sum(other);
+        HashMultiSet<A> hashMultiSet = compatibleHashMultiSet(other);
+        return hashMultiSet != null
+               ? new HashMultiSet<>(multiplicityMap.union(hashMultiSet.multiplicityMap, NonZero::plus, false),
+                                    size.plus(hashMultiSet.size))
+               : (HashMultiSet<A>) MultiSet.super.sum(other);
     }
 
     /**
@@ -67,7 +74,8 @@ public final class HashMultiSet<A> implements MultiSet<A> {
      */
     @Override
     public HashMultiSet<A> inc(A a, NonZero k) {
-        return new HashMultiSet<>(multiplicityMap.put(a, multiplicityMap.get(a).fmap(k::plus).orElse(k)));
+        return new HashMultiSet<>(multiplicityMap.put(a, multiplicityMap.get(a).fmap(k::plus).orElse(k)),
+                                  size.plus(k));
     }
 
     /**
@@ -77,10 +85,9 @@ public final class HashMultiSet<A> implements MultiSet<A> {
     @Override
     public HashMultiSet<A> dec(A a, NonZero k) {
         return multiplicityMap.get(a)
-                .fmap(n -> new HashMultiSet<>(n.minus(k).orElse(zero())
-                                                      .match(zero -> multiplicityMap.remove(a),
-                                                             difference -> multiplicityMap.put(a, difference))
-                ))
+                .fmap(n -> n.minus(k).orElse(zero())
+                        .match(zero -> new HashMultiSet<>(multiplicityMap.remove(a), less(size, n)),
+                               difference -> new HashMultiSet<>(multiplicityMap.put(a, difference), less(size, k))))
                 .orElse(this);
     }
 
@@ -99,7 +106,9 @@ public final class HashMultiSet<A> implements MultiSet<A> {
      */
     @Override
     public HashMultiSet<A> remove(A a) {
-        return new HashMultiSet<>(multiplicityMap.remove(a));
+        return multiplicityMap.get(a)
+                .fmap(n -> new HashMultiSet<>(multiplicityMap.remove(a), less(size, n)))
+                .orElse(this);
     }
 
     /**
@@ -131,19 +140,10 @@ public final class HashMultiSet<A> implements MultiSet<A> {
 
     /**
      * {@inheritDoc}
-     * Amortized <code>O(1)</code>.
+     * The total multiplicity is maintained as elements are added and removed. <code>O(1)</code>.
      */
     @Override
     public Known<Natural> sizeInfo() {
-        Natural size = this.size;
-        if (size == null) {
-            synchronized (this) {
-                size = this.size;
-                if (size == null) {
-                    this.size = size = foldLeft(Natural::plus, (Natural) zero(), multiplicityMap.values());
-                }
-            }
-        }
         return known(size);
     }
 
@@ -153,7 +153,9 @@ public final class HashMultiSet<A> implements MultiSet<A> {
      */
     @Override
     public HashMultiSet<A> tail() {
-        return new HashMultiSet<>(multiplicityMap.tail());
+        return multiplicityMap.head()
+                .fmap(into((a, n) -> new HashMultiSet<>(multiplicityMap.tail(), less(size, n))))
+                .orElse(this);
     }
 
     /**
@@ -167,29 +169,65 @@ public final class HashMultiSet<A> implements MultiSet<A> {
 
     /**
      * {@inheritDoc}
+     * If <code>other</code> is a {@link HashMultiSet} with the same {@link EquivalenceRelation} and
+     * {@link HashingAlgorithm} as this {@link HashMultiSet}, the two tries are merged structurally, only visiting the
+     * slots populated in both, and the size is tallied from the multiplicities of the shared elements.
      * <code>O(n + o)</code>.
      */
     @Override
     public HashMultiSet<A> intersection(MultiSet<A> other) {
-        return (HashMultiSet<A>) MultiSet.super.intersection(other);
+        HashMultiSet<A> hashMultiSet = compatibleHashMultiSet(other);
+        if (hashMultiSet == null)
+            return (HashMultiSet<A>) MultiSet.super.intersection(other);
+
+        Tally               shared       = new Tally();
+        HashMap<A, NonZero> intersection = multiplicityMap.intersection(
+                hashMultiSet.multiplicityMap, (x, y) -> shared.add(min(x, y)), false);
+        return withMultiplicityMap(intersection, shared.total);
     }
 
     /**
      * {@inheritDoc}
+     * If <code>other</code> is a {@link HashMultiSet} with the same {@link EquivalenceRelation} and
+     * {@link HashingAlgorithm} as this {@link HashMultiSet}, the two tries are merged structurally, carrying over
+     * whole sub-tries that are only populated on one side, and the size is adjusted by the multiplicities of the
+     * shared elements.
      * <code>O(n + o)</code>.
      */
     @Override
     public HashMultiSet<A> union(MultiSet<A> other) {
-        return (HashMultiSet<A>) MultiSet.super.union(other);
+        HashMultiSet<A> hashMultiSet = compatibleHashMultiSet(other);
+        if (hashMultiSet == null)
+            return (HashMultiSet<A>) MultiSet.super.union(other);
+
+        Tally               shared = new Tally();
+        HashMap<A, NonZero> union  = multiplicityMap.union(hashMultiSet.multiplicityMap, (x, y) -> {
+            shared.add(min(x, y));
+            return max(x, y);
+        }, false);
+        return withMultiplicityMap(union, less(size.plus(hashMultiSet.size), shared.total));
     }
 
     /**
      * {@inheritDoc}
+     * If <code>other</code> is a {@link HashMultiSet} with the same {@link EquivalenceRelation} and
+     * {@link HashingAlgorithm} as this {@link HashMultiSet}, the two tries are merged structurally, only visiting the
+     * slots populated in this {@link HashMultiSet}, and the size is reduced by the multiplicities of the shared
+     * elements.
      * <code>O(n + o)</code>.
      */
     @Override
     public HashMultiSet<A> difference(MultiSet<A> other) {
-        return (HashMultiSet<A>) MultiSet.super.difference(other);
+        HashMultiSet<A> hashMultiSet = compatibleHashMultiSet(other);
+        if (hashMultiSet == null)
+            return (HashMultiSet<A>) MultiSet.super.difference(other);
+
+        Tally               shared     = new Tally();
+        HashMap<A, NonZero> difference = multiplicityMap.difference(hashMultiSet.multiplicityMap, (x, y) -> {
+            shared.add(min(x, y));
+            return x.minus(y).flatMap(CoProduct2::projectB).orElse(null);
+        });
+        return withMultiplicityMap(difference, less(size, shared.total));
     }
 
     /**
@@ -210,6 +248,19 @@ public final class HashMultiSet<A> implements MultiSet<A> {
         return (HashMultiSet<A>) MultiSet.super.merge(other, semigroup);
     }
 
+    private HashMultiSet<A> compatibleHashMultiSet(MultiSet<A> other) {
+        if (other instanceof HashMultiSet<?>) {
+            HashMultiSet<A> hashMultiSet = (HashMultiSet<A>) other;
+            if (multiplicityMap.sharesHashingWith(hashMultiSet.multiplicityMap))
+                return hashMultiSet;
+        }
+        return null;
+    }
+
+    private HashMultiSet<A> withMultiplicityMap(HashMap<A, NonZero> multiplicityMap, Natural size) {
+        return multiplicityMap == this.multiplicityMap ? this : new HashMultiSet<>(multiplicityMap, size);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -218,6 +269,16 @@ public final class HashMultiSet<A> implements MultiSet<A> {
         return multiplicityMap.iterator();
     }
 
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} covers each distinct element paired with its multiplicity, as per
+     * {@link HashMap#spliterator()}. Amortized <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<Tuple2<A, NonZero>> spliterator() {
+        return multiplicityMap.spliterator();
+    }
+
     /**
      * Returns <code>true</code> if <code>other</code> is a {@link HashMultiSet} and
      * {@link EquivalenceRelation equivalent} to this {@link HashMultiSet} according to the underlying
@@ -243,6 +304,17 @@ public final class HashMultiSet<A> implements MultiSet<A> {
         return multiplicityMap.hashCode();
     }
 
+    /**
+     * Create a {@link Builder} populated with the elements of this {@link HashMultiSet}. This {@link HashMultiSet} is
+     * unaffected by any subsequent modifications made to the {@link Builder}. <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     * @see HashMap#transientCopy()
+     */
+    public Builder<A> transientCopy() {
+        return new Builder<>(multiplicityMap.transientCopy(), size);
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(n)</code>.
@@ -267,13 +339,7 @@ public final class HashMultiSet<A> implements MultiSet<A> {
     public static <A> HashMultiSet<A> hashMultiSet(EquivalenceRelation<? super A> equivalenceRelation,
                                                    HashingAlgorithm<? super A> hashingAlgorithm,
                                                    A... as) {
-        return hashMultiSet(new HashMultiSet<>(hashMap(equivalenceRelation, hashingAlgorithm)), as);
-    }
-
-    private static <A> HashMultiSet<A> hashMultiSet(HashMultiSet<A> hashMultiSet, A[] as) {
-        for (A a : as)
-            hashMultiSet = hashMultiSet.inc(a);
-        return hashMultiSet;
+        return HashMultiSet.<A>builder(equivalenceRelation, hashingAlgorithm).incAll(as).persistent();
     }
 
     /**
@@ -289,6 +355,146 @@ public final class HashMultiSet<A> implements MultiSet<A> {
     public static <A> HashMultiSet<A> hashMultiSet(A... as) {
         @SuppressWarnings("unchecked")
         HashMultiSet<A> emptyObjectDefaults = (HashMultiSet<A>) EMPTY_OBJECT_DEFAULTS;
-        return hashMultiSet(emptyObjectDefaults, as);
+        return as.length == 0
+               ? emptyObjectDefaults
+               : HashMultiSet.<A>builder().incAll(as).persistent();
+    }
+
+    /**
+     * Create an empty {@link Builder} using the given {@link EquivalenceRelation} and {@link HashingAlgorithm}.
+     *
+     * @param equivalenceRelation the {@link EquivalenceRelation}
+     * @param hashingAlgorithm    the {@link HashingAlgorithm}
+     * @param <A>                 the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder(EquivalenceRelation<? super A> equivalenceRelation,
+                                         HashingAlgorithm<? super A> hashingAlgorithm) {
+        return new Builder<>(HashMap.builder(equivalenceRelation, hashingAlgorithm), zero());
+    }
+
+    /**
+     * Create an empty {@link Builder} using {@link Objects#equals(Object, Object) Object equality} and
+     * {@link Objects#hashCode(Object) Object hashCode} as the {@link EquivalenceRelation} and {@link HashingAlgorithm},
+     * respectively.
+     *
+     * @param <A> the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder() {
+        return new Builder<>(HashMap.builder(), zero());
+    }
+
+    private static Natural less(Natural size, Natural k) {
+        return size.minus(k).orElse(zero());
+    }
+
+    private static NonZero min(NonZero x, NonZero y) {
+        return x.compareTo(y) <= 0 ? x : y;
+    }
+
+    private static NonZero max(NonZero x, NonZero y) {
+        return x.compareTo(y) >= 0 ? x : y;
+    }
+
+    /**
+     * A running total of the multiplicities of the elements shared by both sides of a structural merge, from which the
+     * size of the result follows without recounting it.
+     */
+    private static final class Tally {
+        private Natural total = zero();
+
+        private NonZero add(NonZero k) {
+            total = total.plus(k);
+            return k;
+        }
+    }
+
+    /**
+     * A transient, batch-mutable companion to {@link HashMultiSet}, backed by a {@link HashMap.Builder}.
+     *
+     * @param <A> the element type
+     * @see HashMap.Builder
+     */
+    public static final class Builder<A> {
+        private final HashMap.Builder<A, NonZero> multiplicityMapBuilder;
+        private       Natural                     size;
+
+        private Builder(HashMap.Builder<A, NonZero> multiplicityMapBuilder, Natural size) {
+            this.multiplicityMapBuilder = multiplicityMapBuilder;
+            this.size                   = size;
+        }
+
+        /**
+         * Retrieve the current multiplicity of <code>a</code> in this {@link Builder}. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return the multiplicity of <code>a</code>
+         */
+        public Natural get(A a) {
+            return multiplicityMapBuilder.get(a).match(constantly(zero()), id());
+        }
+
+        /**
+         * Increment the multiplicity of <code>a</code> by <code>k</code>. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @param k the amount to increment by
+         * @return this {@link Builder}
+         */
+        public Builder<A> inc(A a, NonZero k) {
+            multiplicityMapBuilder.put(a, multiplicityMapBuilder.get(a).fmap(k::plus).orElse(k));
+            size = size.plus(k);
+            return this;
+        }
+
+        /**
+         * Increment the multiplicity of <code>a</code> by one. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> inc(A a) {
+            return inc(a, one());
+        }
+
+        /**
+         * Increment the multiplicity of every element in <code>as</code> by one. <code>O(o)</code>.
+         *
+         * @param as the elements
+         * @return this {@link Builder}
+         */
+        public Builder<A> incAll(Iterable<? extends A> as) {
+            for (A a : as)
+                inc(a);
+            return this;
+        }
+
+        /**
+         * Remove all occurrences of <code>a</code> from this {@link Builder}. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> remove(A a) {
+            size = multiplicityMapBuilder.get(a).fmap(n -> less(size, n)).orElse(size);
+            multiplicityMapBuilder.remove(a);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link HashMultiSet}. <code>O(1)</code>.
+         *
+         * @return the {@link HashMultiSet}
+         */
+        public HashMultiSet<A> persistent() {
+            return new HashMultiSet<>(multiplicityMapBuilder.persistent(), size);
+        }
+
+        private Builder<A> incAll(A[] as) {
+            for (A a : as)
+                inc(a);
+            return this;
+        }
     }
 }
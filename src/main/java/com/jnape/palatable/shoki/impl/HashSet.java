@@ -3,6 +3,9 @@ package com.jnape.palatable.shoki.impl;
 import com.jnape.palatable.lambda.adt.Maybe;
 import com.jnape.palatable.lambda.adt.Unit;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.lambda.functions.Fn1;
+import com.jnape.palatable.lambda.functions.Fn2;
+import com.jnape.palatable.lambda.semigroup.Semigroup;
 import com.jnape.palatable.shoki.api.EquivalenceRelation;
 import com.jnape.palatable.shoki.api.HashingAlgorithm;
 import com.jnape.palatable.shoki.api.Natural;
@@ -11,8 +14,12 @@ import com.jnape.palatable.shoki.api.SizeInfo.Known;
 
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 import static com.jnape.palatable.lambda.adt.Unit.UNIT;
+import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
 import static com.jnape.palatable.shoki.impl.HashMap.hashMap;
@@ -56,7 +63,7 @@ public final class HashSet<A> implements Set<Natural, A> {
 
     /**
      * {@inheritDoc}
-     * Amortized <code>O(1)</code>.
+     * <code>O(1)</code>.
      */
     @Override
     public Known<Natural> sizeInfo() {
@@ -102,28 +109,49 @@ public final class HashSet<A> implements Set<Natural, A> {
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link HashSet} with the same {@link EquivalenceRelation} and {@link HashingAlgorithm}
+     * as this {@link HashSet}, the two tries are intersected structurally, only visiting the slots populated in both,
+     * and reusing shared sub-tries by reference. <code>O(o)</code>.
      */
     @Override
     public HashSet<A> intersection(Set<Natural, A> other) {
+        if (other instanceof HashSet<?>) {
+            HashSet<A> hashSet = (HashSet<A>) other;
+            if (map.sharesHashingWith(hashSet.map))
+                return withMap(map.intersection(hashSet.map, (x, y) -> x, true));
+        }
         return (HashSet<A>) Set.super.intersection(other);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link HashSet} with the same {@link EquivalenceRelation} and {@link HashingAlgorithm}
+     * as this {@link HashSet}, the two tries are unioned structurally, carrying over whole sub-tries that are only
+     * populated on one side, and reusing shared sub-tries by reference. <code>O(o)</code>.
      */
     @Override
     public HashSet<A> union(Set<Natural, A> other) {
+        if (other instanceof HashSet<?>) {
+            HashSet<A> hashSet = (HashSet<A>) other;
+            if (map.sharesHashingWith(hashSet.map))
+                return withMap(map.union(hashSet.map, (x, y) -> x, true));
+        }
         return (HashSet<A>) Set.super.union(other);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link HashSet} with the same {@link EquivalenceRelation} and {@link HashingAlgorithm}
+     * as this {@link HashSet}, the two tries are subtracted structurally, dropping shared sub-tries without traversing
+     * them. <code>O(o)</code>.
      */
     @Override
     public HashSet<A> difference(Set<Natural, A> other) {
+        if (other instanceof HashSet<?>) {
+            HashSet<A> hashSet = (HashSet<A>) other;
+            if (map.sharesHashingWith(hashSet.map))
+                return withMap(map.difference(hashSet.map));
+        }
         return (HashSet<A>) Set.super.difference(other);
     }
 
@@ -136,6 +164,10 @@ public final class HashSet<A> implements Set<Natural, A> {
         return (HashSet<A>) Set.super.symmetricDifference(other);
     }
 
+    private HashSet<A> withMap(HashMap<A, Unit> map) {
+        return map == this.map ? this : new HashSet<>(map);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -144,6 +176,27 @@ public final class HashSet<A> implements Set<Natural, A> {
         return map(Tuple2::_1, map).iterator();
     }
 
+    /**
+     * {@inheritDoc}
+     * Traverses the backing {@link HashMap} {@link HashMap#forEachKey(Consumer) by key}, without allocating a
+     * {@link Tuple2} per element. <code>O(n)</code>.
+     */
+    @Override
+    public void forEach(Consumer<? super A> action) {
+        map.forEachKey(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} splits on the slots of the trie underlying the backing {@link HashMap}, and is
+     * {@link Spliterator#DISTINCT distinct}, {@link Spliterator#IMMUTABLE immutable}, {@link Spliterator#SIZED sized},
+     * and {@link Spliterator#SUBSIZED subsized}. <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return map.keySpliterator();
+    }
+
     /**
      * Determine if <code>other</code> is a {@link HashSet} with the same elements as this {@link HashSet} (according to
      * the underlying {@link HashMap}). <code>O(n)</code>
@@ -168,6 +221,44 @@ public final class HashSet<A> implements Set<Natural, A> {
         return map.hashCode();
     }
 
+    /**
+     * Create a {@link Builder} populated with the elements of this {@link HashSet}. This {@link HashSet} is unaffected
+     * by any subsequent modifications made to the {@link Builder}. <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     * @see HashMap#transientCopy()
+     */
+    public Builder<A> transientCopy() {
+        return new Builder<>(map.transientCopy());
+    }
+
+    /**
+     * Create a {@link Parallel} view of this {@link HashSet} that performs bulk operations as
+     * {@link java.util.concurrent.ForkJoinTask fork/join tasks} on the {@link ForkJoinPool#commonPool() common pool},
+     * staying sequential for {@link HashSet HashSets} with fewer than {@link HashMap.Parallel#DEFAULT_THRESHOLD}
+     * elements. <code>O(1)</code>.
+     *
+     * @return the {@link Parallel} view
+     * @see HashMap#parallel()
+     */
+    public Parallel<A> parallel() {
+        return new Parallel<>(this, map.parallel());
+    }
+
+    /**
+     * Create a {@link Parallel} view of this {@link HashSet} that performs bulk operations as
+     * {@link java.util.concurrent.ForkJoinTask fork/join tasks} on <code>pool</code>, staying sequential for
+     * {@link HashSet HashSets} with fewer than <code>threshold</code> elements. <code>O(1)</code>.
+     *
+     * @param pool      the {@link ForkJoinPool}
+     * @param threshold the minimum number of elements for which bulk operations are parallelized
+     * @return the {@link Parallel} view
+     * @see HashMap#parallel(ForkJoinPool, int)
+     */
+    public Parallel<A> parallel(ForkJoinPool pool, int threshold) {
+        return new Parallel<>(this, map.parallel(pool, threshold));
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(n)</code>.
@@ -191,7 +282,7 @@ public final class HashSet<A> implements Set<Natural, A> {
     public static <A> HashSet<A> hashSet(EquivalenceRelation<? super A> equivalenceRelation,
                                          HashingAlgorithm<? super A> hashingAlgorithm,
                                          A... as) {
-        return new HashSet<>(backingHashMap(hashMap(equivalenceRelation, hashingAlgorithm), as));
+        return HashSet.<A>builder(equivalenceRelation, hashingAlgorithm).addAll(as).persistent();
     }
 
     /**
@@ -209,12 +300,164 @@ public final class HashSet<A> implements Set<Natural, A> {
         HashSet<A> emptyObjectDefaults = (HashSet<A>) EMPTY_OBJECT_DEFAULTS;
         return as.length == 0
                ? emptyObjectDefaults
-               : new HashSet<>(backingHashMap(hashMap(), as));
+               : HashSet.<A>builder().addAll(as).persistent();
     }
 
-    private static <A> HashMap<A, Unit> backingHashMap(HashMap<A, Unit> hashMap, A[] as) {
-        for (A a : as)
-            hashMap = hashMap.put(a, UNIT);
-        return hashMap;
+    /**
+     * Create an empty {@link Builder} using the given {@link EquivalenceRelation} and {@link HashingAlgorithm}.
+     *
+     * @param equivalenceRelation the {@link EquivalenceRelation}
+     * @param hashingAlgorithm    the {@link HashingAlgorithm}
+     * @param <A>                 the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder(EquivalenceRelation<? super A> equivalenceRelation,
+                                         HashingAlgorithm<? super A> hashingAlgorithm) {
+        return new Builder<>(HashMap.builder(equivalenceRelation, hashingAlgorithm));
+    }
+
+    /**
+     * Create an empty {@link Builder} using {@link Objects#equals(Object, Object) Object equality} and
+     * {@link Objects#hashCode(Object) Object hashCode} as the {@link EquivalenceRelation} and {@link HashingAlgorithm},
+     * respectively.
+     *
+     * @param <A> the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder() {
+        return new Builder<>(HashMap.builder());
+    }
+
+    /**
+     * A transient, batch-mutable companion to {@link HashSet}, backed by a {@link HashMap.Builder}.
+     *
+     * @param <A> the element type
+     * @see HashMap.Builder
+     */
+    public static final class Builder<A> {
+        private final HashMap.Builder<A, Unit> mapBuilder;
+
+        private Builder(HashMap.Builder<A, Unit> mapBuilder) {
+            this.mapBuilder = mapBuilder;
+        }
+
+        /**
+         * <code>True</code> if <code>a</code> is a member of this {@link Builder}; <code>false</code> otherwise.
+         * Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return whether <code>a</code> is a member
+         */
+        public boolean contains(A a) {
+            return mapBuilder.get(a).match(constantly(false), constantly(true));
+        }
+
+        /**
+         * Add <code>a</code> to this {@link Builder}. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> add(A a) {
+            mapBuilder.put(a, UNIT);
+            return this;
+        }
+
+        /**
+         * Add every element in <code>as</code> to this {@link Builder}. <code>O(o)</code>.
+         *
+         * @param as the elements
+         * @return this {@link Builder}
+         */
+        public Builder<A> addAll(Iterable<? extends A> as) {
+            for (A a : as)
+                add(a);
+            return this;
+        }
+
+        /**
+         * Remove <code>a</code> from this {@link Builder}, if present. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> remove(A a) {
+            mapBuilder.remove(a);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link HashSet}. <code>O(1)</code>.
+         *
+         * @return the {@link HashSet}
+         */
+        public HashSet<A> persistent() {
+            return new HashSet<>(mapBuilder.persistent());
+        }
+
+        private Builder<A> addAll(A[] as) {
+            for (A a : as)
+                add(a);
+            return this;
+        }
+    }
+
+    /**
+     * A view of a {@link HashSet} that performs bulk operations in parallel on a {@link ForkJoinPool}, by way of the
+     * {@link HashMap.Parallel parallel view} of its underlying {@link HashMap}.
+     *
+     * @param <A> the element type
+     * @see HashSet#parallel()
+     * @see HashSet#parallel(ForkJoinPool, int)
+     */
+    public static final class Parallel<A> {
+        private final HashSet<A>                hashSet;
+        private final HashMap.Parallel<A, Unit> map;
+
+        private Parallel(HashSet<A> hashSet, HashMap.Parallel<A, Unit> map) {
+            this.hashSet = hashSet;
+            this.map     = map;
+        }
+
+        /**
+         * Fold the elements of the {@link HashSet} into a single result, as per
+         * {@link HashMap.Parallel#fold(Object, Fn2, Semigroup)}. <code>O(n)</code>.
+         *
+         * @param identity    the identity
+         * @param accumulator the accumulation function
+         * @param combiner    the {@link Semigroup} for combining partial results
+         * @param <B>         the result type
+         * @return the folded result
+         */
+        public <B> B fold(B identity, Fn2<? super B, ? super A, ? extends B> accumulator, Semigroup<B> combiner) {
+            return map.fold(identity, (b, kv) -> accumulator.apply(b, kv._1()), combiner);
+        }
+
+        /**
+         * Union the {@link HashSet} with <code>other</code> as per {@link HashSet#union(Set)}, unioning the sub-tries
+         * populated on both sides in parallel if <code>other</code> is a {@link HashSet} with the same
+         * {@link EquivalenceRelation} and {@link HashingAlgorithm}. <code>O(o)</code>.
+         *
+         * @param other the other {@link Set}
+         * @return the union
+         */
+        public HashSet<A> union(Set<Natural, A> other) {
+            if (other instanceof HashSet<?>) {
+                HashSet<A> otherHashSet = (HashSet<A>) other;
+                if (hashSet.map.sharesHashingWith(otherHashSet.map))
+                    return hashSet.withMap(map.union(otherHashSet.map, (x, y) -> x, true));
+            }
+            return hashSet.union(other);
+        }
+
+        /**
+         * Retain only the elements of the {@link HashSet} satisfying <code>predicate</code>. <code>O(n)</code>.
+         *
+         * @param predicate the predicate
+         * @return the filtered {@link HashSet}
+         */
+        public HashSet<A> filter(Fn1<? super A, ? extends Boolean> predicate) {
+            return hashSet.withMap(map.filter((a, __) -> predicate.apply(a)));
+        }
     }
 }
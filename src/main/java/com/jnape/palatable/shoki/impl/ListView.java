@@ -0,0 +1,129 @@
+package com.jnape.palatable.shoki.impl;
+
+import com.jnape.palatable.shoki.api.Collection;
+import com.jnape.palatable.shoki.api.Natural;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only {@link java.util.List} view of a sequential {@link Collection}, delegating {@link #size() size} and
+ * {@link #iterator() iteration} directly to it without copying any elements. Since the underlying {@link Collection}
+ * can only be traversed from the front, {@link #get(int) get} and each step of a {@link ListIterator} backwards are
+ * <code>O(index)</code>, whereas steps forwards are <code>O(1)</code>. Every mutation throws an
+ * {@link UnsupportedOperationException}.
+ *
+ * @param <A> the element type
+ */
+final class ListView<A> extends AbstractList<A> {
+
+    private final Collection<Natural, A> collection;
+
+    ListView(Collection<Natural, A> collection) {
+        this.collection = collection;
+    }
+
+    @Override
+    public A get(int index) {
+        if (index < 0 || index >= size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        return iteratorFrom(index).next();
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(collection);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return collection.isEmpty();
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return collection.iterator();
+    }
+
+    @Override
+    public ListIterator<A> listIterator(int index) {
+        if (index < 0 || index > size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+        return new ListIterator<A>() {
+            private int         cursor = index;
+            private Iterator<A> forwards;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size();
+            }
+
+            @Override
+            public A next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                if (forwards == null)
+                    forwards = iteratorFrom(cursor);
+                cursor++;
+                return forwards.next();
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return cursor > 0;
+            }
+
+            @Override
+            public A previous() {
+                if (!hasPrevious())
+                    throw new NoSuchElementException();
+                forwards = null;
+                return get(--cursor);
+            }
+
+            @Override
+            public int nextIndex() {
+                return cursor;
+            }
+
+            @Override
+            public int previousIndex() {
+                return cursor - 1;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void set(A a) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void add(A a) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * The size of <code>collection</code> as an <code>int</code>, saturating at {@link Integer#MAX_VALUE} as required
+     * by {@link java.util.Collection#size()}.
+     */
+    static int sizeOf(Collection<?, ?> collection) {
+        return (int) Math.min(collection.sizeInfo().getSize().longValue(), Integer.MAX_VALUE);
+    }
+
+    private Iterator<A> iteratorFrom(int index) {
+        Iterator<A> iterator = collection.iterator();
+        for (int i = 0; i < index; i++) {
+            iterator.next();
+        }
+        return iterator;
+    }
+}
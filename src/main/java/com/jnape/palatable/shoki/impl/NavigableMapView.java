@@ -0,0 +1,372 @@
+package com.jnape.palatable.shoki.impl;
+
+import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
+import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
+import static com.jnape.palatable.shoki.impl.ListView.sizeOf;
+
+/**
+ * A read-only {@link NavigableMap} view of a {@link TreeMap}, in either its ascending or descending order, delegating
+ * lookups, navigation, and iteration directly to it without copying any entries. Sub-map views are backed by the
+ * structure-sharing {@link TreeMap#subMap sub-maps} of the {@link TreeMap}, and so are created in
+ * <code>O(log2n)</code>. Every mutation throws an {@link UnsupportedOperationException}.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+final class NavigableMapView<K, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+    private final TreeMap<K, V> treeMap;
+    private final boolean       descending;
+
+    NavigableMapView(TreeMap<K, V> treeMap, boolean descending) {
+        this.treeMap    = treeMap;
+        this.descending = descending;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return treeMap.get((K) key).orElse(null);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean containsKey(Object key) {
+        return treeMap.contains((K) key);
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(treeMap);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return treeMap.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return map(into(NavigableMapView::<K, V>entry),
+                           () -> descending ? treeMap.reverseIterator() : treeMap.iterator()).iterator();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Entry<?, ?>))
+                    return false;
+                Entry<?, ?> entry = (Entry<?, ?>) o;
+                return containsKey(entry.getKey()) && Objects.equals(get(entry.getKey()), entry.getValue());
+            }
+
+            @Override
+            public int size() {
+                return NavigableMapView.this.size();
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return treeMap.isEmpty();
+            }
+        };
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        Comparator<? super K> comparator = treeMap.javaComparator();
+        return descending ? Collections.reverseOrder(comparator) : comparator;
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) {
+        return entry(descending ? treeMap.higher(key) : treeMap.lower(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOf(lowerEntry(key));
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) {
+        return entry(descending ? treeMap.ceiling(key) : treeMap.floor(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOf(floorEntry(key));
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) {
+        return entry(descending ? treeMap.floor(key) : treeMap.ceiling(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOf(ceilingEntry(key));
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) {
+        return entry(descending ? treeMap.lower(key) : treeMap.higher(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOf(higherEntry(key));
+    }
+
+    @Override
+    public Entry<K, V> firstEntry() {
+        return entry(descending ? treeMap.max() : treeMap.min());
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        return entry(descending ? treeMap.min() : treeMap.max());
+    }
+
+    @Override
+    public K firstKey() {
+        return existingKeyOf(firstEntry());
+    }
+
+    @Override
+    public K lastKey() {
+        return existingKeyOf(lastEntry());
+    }
+
+    @Override
+    public Entry<K, V> pollFirstEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NavigableMapView<K, V> descendingMap() {
+        return new NavigableMapView<>(treeMap, !descending);
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        return new KeySet<>(this);
+    }
+
+    @Override
+    public NavigableSet<K> keySet() {
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    @Override
+    public NavigableMapView<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        if (compare(fromKey, toKey) > 0)
+            throw new IllegalArgumentException("fromKey > toKey");
+        return new NavigableMapView<>(descending
+                                      ? treeMap.subMap(toKey, toInclusive, fromKey, fromInclusive)
+                                      : treeMap.subMap(fromKey, fromInclusive, toKey, toInclusive),
+                                      descending);
+    }
+
+    @Override
+    public NavigableMapView<K, V> headMap(K toKey, boolean inclusive) {
+        return new NavigableMapView<>(descending
+                                      ? treeMap.tailMap(toKey, inclusive)
+                                      : treeMap.headMap(toKey, inclusive),
+                                      descending);
+    }
+
+    @Override
+    public NavigableMapView<K, V> tailMap(K fromKey, boolean inclusive) {
+        return new NavigableMapView<>(descending
+                                      ? treeMap.headMap(fromKey, inclusive)
+                                      : treeMap.tailMap(fromKey, inclusive),
+                                      descending);
+    }
+
+    @Override
+    public NavigableMapView<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public NavigableMapView<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public NavigableMapView<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    private int compare(K k1, K k2) {
+        int comparison = treeMap.keyComparator().compare(k1, k2);
+        return descending ? -Integer.signum(comparison) : comparison;
+    }
+
+    private Iterator<K> keyIterator() {
+        return treeMap.keyIterator(descending);
+    }
+
+    private static <K, V> Entry<K, V> entry(K key, V value) {
+        return new SimpleImmutableEntry<>(key, value);
+    }
+
+    private static <K, V> Entry<K, V> entry(Maybe<Tuple2<K, V>> maybeEntry) {
+        return maybeEntry.fmap(into(NavigableMapView::<K, V>entry)).orElse(null);
+    }
+
+    private static <K> K keyOf(Entry<K, ?> entry) {
+        return entry == null ? null : entry.getKey();
+    }
+
+    private static <K> K existingKeyOf(Entry<K, ?> entry) {
+        if (entry == null)
+            throw new NoSuchElementException();
+        return entry.getKey();
+    }
+
+    /**
+     * The read-only {@link NavigableSet} of the keys of a {@link NavigableMapView}, in the same order.
+     *
+     * @param <K> the key type
+     */
+    private static final class KeySet<K> extends AbstractSet<K> implements NavigableSet<K> {
+        private final NavigableMapView<K, ?> map;
+
+        private KeySet(NavigableMapView<K, ?> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return map.keyIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return map.containsKey(o);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return map.isEmpty();
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            return map.comparator();
+        }
+
+        @Override
+        public K lower(K k) {
+            return map.lowerKey(k);
+        }
+
+        @Override
+        public K floor(K k) {
+            return map.floorKey(k);
+        }
+
+        @Override
+        public K ceiling(K k) {
+            return map.ceilingKey(k);
+        }
+
+        @Override
+        public K higher(K k) {
+            return map.higherKey(k);
+        }
+
+        @Override
+        public K first() {
+            return map.firstKey();
+        }
+
+        @Override
+        public K last() {
+            return map.lastKey();
+        }
+
+        @Override
+        public K pollFirst() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public K pollLast() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public NavigableSet<K> descendingSet() {
+            return new KeySet<>(map.descendingMap());
+        }
+
+        @Override
+        public Iterator<K> descendingIterator() {
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public NavigableSet<K> subSet(K fromElement, boolean fromInclusive, K toElement, boolean toInclusive) {
+            return new KeySet<>(map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+        }
+
+        @Override
+        public NavigableSet<K> headSet(K toElement, boolean inclusive) {
+            return new KeySet<>(map.headMap(toElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<K> tailSet(K fromElement, boolean inclusive) {
+            return new KeySet<>(map.tailMap(fromElement, inclusive));
+        }
+
+        @Override
+        public NavigableSet<K> subSet(K fromElement, K toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public NavigableSet<K> headSet(K toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public NavigableSet<K> tailSet(K fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.jnape.palatable.shoki.impl;
+
+import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.functions.Fn0;
+import com.jnape.palatable.shoki.api.Collection;
+import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.OrderedCollection;
+import com.jnape.palatable.shoki.api.Queue;
+import com.jnape.palatable.shoki.api.SizeInfo.Known;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import static com.jnape.palatable.lambda.adt.Maybe.just;
+import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.lambda.functions.builtin.fn1.Downcast.downcast;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
+import static com.jnape.palatable.shoki.api.OrderedCollection.EquivalenceRelations.elementsInOrder;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
+import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+
+/**
+ * A <a href="https://www.cs.cmu.edu/~rwh/students/okasaki.pdf">real-time</a> {@link Queue} offering worst-case
+ * <code>O(1)</code> {@link RealTimeQueue#snoc(Object) snoc}, {@link RealTimeQueue#head() head}, and
+ * {@link RealTimeQueue#tail() tail}, even when persistent versions are reused.
+ * <p>
+ * Like a {@link StrictQueue}, elements are snocced onto a rear {@link StrictStack} and read from a front. Unlike a
+ * {@link StrictQueue}, the front is a memoized, lazily-evaluated stream, and the rear is never reversed all at once:
+ * when the rear grows longer than the front, the two are combined by a lazy rotation that reverses one element of the
+ * rear per element of the front it passes. Every operation also forces one pending step of the most recent rotation,
+ * so that by the time any element reaches the front of the queue, producing it is constant-time work.
+ *
+ * @param <A> the element type
+ * @see StrictQueue
+ */
+public final class RealTimeQueue<A> implements Queue<Natural, A> {
+
+    private static final RealTimeQueue<?> EMPTY = new RealTimeQueue<>(Stream.empty(), 0, strictStack(),
+                                                                      Stream.empty());
+
+    private final Stream<A>      front;
+    private final long           frontSize;
+    private final StrictStack<A> rear;
+    private final Stream<A>      schedule;
+
+    private volatile Integer hashCode;
+
+    private RealTimeQueue(Stream<A> front, long frontSize, StrictStack<A> rear, Stream<A> schedule) {
+        this.front     = front;
+        this.frontSize = frontSize;
+        this.rear      = rear;
+        this.schedule  = schedule;
+    }
+
+    /**
+     * Produce a new {@link RealTimeQueue} instance with <code>a</code> added to the back. Worst-case
+     * <code>O(1)</code>.
+     *
+     * @param a the element
+     * @return the new {@link RealTimeQueue}
+     */
+    @Override
+    public RealTimeQueue<A> snoc(A a) {
+        return exec(front, frontSize, rear.cons(a), schedule);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(k)</code>.
+     */
+    @Override
+    public RealTimeQueue<A> snocAll(Collection<Natural, A> collection) {
+        return (RealTimeQueue<A>) Queue.super.snocAll(collection);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Worst-case <code>O(1)</code>.
+     */
+    @Override
+    public Maybe<A> head() {
+        Cell<A> cell = front.force();
+        return cell == Cell.END ? nothing() : just(cell.head);
+    }
+
+    /**
+     * The remaining elements after removing the head of this {@link RealTimeQueue}, or an empty
+     * {@link RealTimeQueue} if there are no elements. Worst-case <code>O(1)</code>.
+     *
+     * @return the tail of this {@link RealTimeQueue}
+     */
+    @Override
+    public RealTimeQueue<A> tail() {
+        Cell<A> cell = front.force();
+        return cell == Cell.END ? this : exec(cell.tail, frontSize - 1, rear, schedule);
+    }
+
+    /**
+     * Reverse this {@link RealTimeQueue}. <code>O(n)</code>.
+     *
+     * @return this {@link RealTimeQueue}, reversed
+     */
+    @Override
+    public RealTimeQueue<A> reverse() {
+        RealTimeQueue<A> reversed = realTimeQueue();
+        for (A a : rear)
+            reversed = reversed.snoc(a);
+        for (A a : frontStack())
+            reversed = reversed.snoc(a);
+        return reversed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    public Known<Natural> sizeInfo() {
+        return known(atLeastZero(frontSize + rear.saturatedSize()));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    public boolean isEmpty() {
+        return frontSize == 0;
+    }
+
+    /**
+     * Produce an {@link Iterator} of the elements in this {@link RealTimeQueue}, from front to back. The front is
+     * traversed without forcing any more of the pending rotation than necessary; the rear is reversed once the front
+     * is exhausted. <code>O(1)</code> per element of the front, and <code>O(r)</code> to begin iterating the rear.
+     *
+     * @return the {@link Iterator}
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private Stream<A>   front = RealTimeQueue.this.front;
+            private Iterator<A> rear;
+
+            @Override
+            public boolean hasNext() {
+                if (front != null) {
+                    if (front.force() != Cell.END)
+                        return true;
+                    front = null;
+                    rear  = RealTimeQueue.this.rear.reverse().iterator();
+                }
+                return rear.hasNext();
+            }
+
+            @Override
+            public A next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                if (front == null)
+                    return rear.next();
+
+                Cell<A> cell = front.force();
+                front = cell.tail;
+                return cell.head;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} is {@link Spliterator#ORDERED ordered}, {@link Spliterator#IMMUTABLE immutable},
+     * {@link Spliterator#SIZED sized}, and {@link Spliterator#SUBSIZED subsized}. <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return Spliterators.spliterator(iterator(), frontSize + rear.saturatedSize(),
+                                        Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Returns true if <code>other</code> is a {@link RealTimeQueue} with exactly the same elements in the same order
+     * as this {@link RealTimeQueue}, regardless of how far either has been rotated; otherwise, returns false.
+     * <code>O(n)</code>.
+     *
+     * @param other the reference object with which to compare
+     * @return true if the compared to a value-equal {@link RealTimeQueue}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof RealTimeQueue<?> &&
+                equivalent(elementsInOrder(objectEquals()), this, downcast(other));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Amortized <code>O(1)</code>.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        Integer hashCode = this.hashCode;
+        if (hashCode == null) {
+            synchronized (this) {
+                hashCode = this.hashCode;
+                if (hashCode == null) {
+                    this.hashCode = hashCode = hash(
+                            OrderedCollection.HashingAlgorithms.<A, RealTimeQueue<A>>elementsInOrder(
+                                    objectHashCode()),
+                            this);
+                }
+            }
+        }
+        return hashCode;
+    }
+
+    /**
+     * Provide a debug-friendly string representation of this {@link RealTimeQueue}. <code>O(n)</code>
+     *
+     * @return the string representation of this {@link RealTimeQueue}
+     */
+    @Override
+    public String toString() {
+        StringBuilder toString = new StringBuilder("RealTimeQueue[");
+
+        Iterator<A> it = iterator();
+        while (it.hasNext()) {
+            toString.append(it.next());
+            if (it.hasNext())
+                toString.append(", ");
+        }
+
+        return toString.append("]").toString();
+    }
+
+    /**
+     * Create a {@link RealTimeQueue} of zero or more elements, with the elements queued for removal from left to
+     * right. <code>O(n)</code>.
+     *
+     * @param as  the elements to {@link RealTimeQueue#snoc(Object) snoc} from front to back
+     * @param <A> the element type
+     * @return the {@link RealTimeQueue}
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <A> RealTimeQueue<A> realTimeQueue(A... as) {
+        RealTimeQueue<A> queue = (RealTimeQueue<A>) EMPTY;
+        for (A a : as)
+            queue = queue.snoc(a);
+        return queue;
+    }
+
+    private StrictStack<A> frontStack() {
+        StrictStack<A> frontStack = strictStack();
+        for (Cell<A> cell = front.force(); cell != Cell.END; cell = cell.tail.force())
+            frontStack = frontStack.cons(cell.head);
+        return frontStack;
+    }
+
+    /*
+     * The schedule is the suffix of the front that has not yet been forced, and is kept exactly as long as the front
+     * is longer than the rear. Each operation forces one cell of it; once it is exhausted, the rear is one element
+     * longer than the front, and a new rotation is begun.
+     */
+    private static <A> RealTimeQueue<A> exec(Stream<A> front, long frontSize, StrictStack<A> rear,
+                                             Stream<A> schedule) {
+        Cell<A> scheduled = schedule.force();
+        if (scheduled != Cell.END)
+            return new RealTimeQueue<>(front, frontSize, rear, scheduled.tail);
+
+        Stream<A> rotated = rotate(front, rear, Stream.empty());
+        return new RealTimeQueue<>(rotated, frontSize + rear.saturatedSize(), strictStack(), rotated);
+    }
+
+    private static <A> Stream<A> rotate(Stream<A> front, StrictStack<A> rear, Stream<A> accumulated) {
+        return new Stream<>(() -> {
+            Cell<A>   cell  = front.force();
+            Stream<A> moved = Stream.evaluated(new Cell<>(rear.head().orElse(null), accumulated));
+            return cell == Cell.END
+                   ? moved.force()
+                   : new Cell<>(cell.head, rotate(cell.tail, rear.tail(), moved));
+        });
+    }
+
+    /**
+     * A memoized, lazily-evaluated stream of elements, whose {@link Cell} is computed at most once.
+     */
+    private static final class Stream<A> {
+        private static final Stream<?> EMPTY = evaluated(Cell.END);
+
+        private volatile Cell<A>    cell;
+        private          Fn0<Cell<A>> suspension;
+
+        private Stream(Fn0<Cell<A>> suspension) {
+            this.suspension = suspension;
+        }
+
+        private Cell<A> force() {
+            Cell<A> cell = this.cell;
+            if (cell == null) {
+                synchronized (this) {
+                    cell = this.cell;
+                    if (cell == null) {
+                        this.cell  = cell = suspension.apply();
+                        suspension = null;
+                    }
+                }
+            }
+            return cell;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <A> Stream<A> empty() {
+            return (Stream<A>) EMPTY;
+        }
+
+        private static <A> Stream<A> evaluated(Cell<A> cell) {
+            Stream<A> stream = new Stream<>(null);
+            stream.cell = cell;
+            return stream;
+        }
+    }
+
+    private static final class Cell<A> {
+        @SuppressWarnings("rawtypes")
+        private static final Cell END = new Cell<>(null, null);
+
+        private final A         head;
+        private final Stream<A> tail;
+
+        private Cell(A head, Stream<A> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+    }
+}
@@ -1,20 +1,40 @@
 package com.jnape.palatable.shoki.impl;
 
+import com.jnape.palatable.lambda.adt.hlist.HList;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.lambda.functions.Fn2;
+import com.jnape.palatable.lambda.semigroup.Semigroup;
 
+import java.util.ArrayDeque;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.B;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.BB;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.NB;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.R;
-import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
 import static java.util.Collections.emptyIterator;
 
+/**
+ * A persistent <a href="https://www.cs.tufts.edu/~nr/cs257/archive/chris-okasaki/redblack99.pdf">red-black tree</a>,
+ * using Okasaki's balancing for insertion and Germane &amp; Might's double-black nodes for deletion.
+ * <p>
+ * {@link RedBlackTree#insert(Object, Object, Comparator, Object) Insertion} optionally accepts an <code>owner</code>
+ * token. Nodes created during an insertion are tagged with the token they were created under, and any subsequent
+ * insertion presenting the same (non-<code>null</code>) token is permitted to recolor, rotate, and otherwise mutate
+ * those nodes in place rather than copying them. Nodes tagged with a different token, or with no token at all, are
+ * never mutated, so a single owner can perform a batch of insertions without path-copying, as long as the token is
+ * discarded before the resulting tree is shared.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
 interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
     boolean isEmpty();
@@ -29,14 +49,296 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
     RedBlackTree<K, V> insert(K k, V v, Comparator<? super K> comparator);
 
+    RedBlackTree<K, V> insert(K k, V v, Comparator<? super K> comparator, Object owner);
+
     RedBlackTree<K, V> delete(K k, Comparator<? super K> comparator);
 
     RedBlackTree<K, V> deleteMin();
 
+    /**
+     * The number of entries in this {@link RedBlackTree}, maintained per node as the tree is built. <code>O(1)</code>.
+     *
+     * @return the size
+     */
+    int size();
+
+    /**
+     * The number of keys in this {@link RedBlackTree} strictly preceding <code>k</code>, whether or not
+     * <code>k</code> itself is present. <code>O(log2n)</code>.
+     *
+     * @param k          the key
+     * @param comparator the key comparator
+     * @return the rank of <code>k</code>
+     */
+    int rank(K k, Comparator<? super K> comparator);
+
+    /**
+     * The entry at the zero-based <code>index</code> in key order, or <code>null</code> if <code>index</code> is out
+     * of bounds. <code>O(log2n)</code>.
+     *
+     * @param index the index
+     * @return the entry, or <code>null</code>
+     */
+    Tuple2<K, V> select(int index);
+
+    /**
+     * The entry whose key is nearest to <code>k</code> on one side of it: the greatest key preceding <code>k</code> if
+     * <code>above</code> is <code>false</code>, or the least key following it if <code>above</code> is
+     * <code>true</code>, or the entry for <code>k</code> itself if <code>inclusive</code> and present. Returns
+     * <code>null</code> if there is no such entry. <code>O(log2n)</code>.
+     *
+     * @param k          the key
+     * @param above      whether to search for following rather than preceding keys
+     * @param inclusive  whether the entry for <code>k</code> itself qualifies
+     * @param comparator the key comparator
+     * @return the nearest entry, or <code>null</code>
+     */
+    Tuple2<K, V> nearest(K k, boolean above, boolean inclusive, Comparator<? super K> comparator);
+
+    /**
+     * Create an {@link Iterator} over the entries of this {@link RedBlackTree}, projected through
+     * <code>projection</code>, in ascending key order or, if <code>reverse</code> is <code>true</code>, in descending
+     * key order. The {@link Iterator} keeps the pending ancestors of the next entry in an array, so besides the
+     * projection, nothing is allocated per entry.
+     *
+     * @param projection the projection from each entry to an element
+     * @param reverse    whether to iterate in descending key order
+     * @param <R>        the element type
+     * @return the {@link Iterator}
+     */
+    <R> Iterator<R> iterator(Fn2<? super K, ? super V, ? extends R> projection, boolean reverse);
+
+    /**
+     * Produce an {@link Iterator} applying <code>projection</code> to only those entries whose keys fall within
+     * <code>range</code>, in order or, if <code>reverse</code>, in reverse order. Subtrees outside of
+     * <code>range</code> are skipped rather than traversed, so reaching the first entry is <code>O(log2n)</code>.
+     *
+     * @param projection the projection
+     * @param reverse    whether to iterate in reverse order
+     * @param range      the {@link Range} of keys
+     * @param <R>        the projected type
+     * @return the {@link Iterator}
+     */
+    <R> Iterator<R> iterator(Fn2<? super K, ? super V, ? extends R> projection, boolean reverse, Range<K> range);
+
+    /**
+     * Perform <code>action</code> on each entry of this {@link RedBlackTree} in ascending key order.
+     *
+     * @param action the action
+     */
+    void forEach(BiConsumer<? super K, ? super V> action);
+
+    /**
+     * Create a {@link Spliterator} over the entries of this {@link RedBlackTree} in key order, projected through
+     * <code>projection</code>. The {@link Spliterator} splits off the entries preceding the largest right subtree
+     * still pending, and is {@link Spliterator#SIZED} and {@link Spliterator#SUBSIZED}, since the cached size of each
+     * subtree gives the exact number of entries on either side of a split.
+     *
+     * @param projection      the projection from each entry to an element
+     * @param size            the number of entries
+     * @param characteristics the characteristics to report in addition to {@link Spliterator#SIZED} and
+     *                        {@link Spliterator#SUBSIZED}
+     * @param comparator      the {@link Comparator} to report if {@link Spliterator#SORTED}
+     * @param <R>             the element type
+     * @return the {@link Spliterator}
+     */
+    <R> Spliterator<R> spliterator(Fn2<? super K, ? super V, ? extends R> projection, long size, int characteristics,
+                                   Comparator<? super R> comparator);
+
     static <K, V> RedBlackTree<K, V> empty() {
         return Spine.b();
     }
 
+    /**
+     * Build a balanced {@link RedBlackTree} in <code>O(n)</code> from exactly <code>size</code> entries, which must be
+     * supplied in strictly ascending key order. Nodes are laid out as a complete binary tree, with only the nodes on
+     * the deepest, partially filled level colored red.
+     *
+     * @param entries the entries, in strictly ascending key order
+     * @param size    the number of entries
+     * @param <K>     the key type
+     * @param <V>     the value type
+     * @return the {@link RedBlackTree}
+     */
+    static <K, V> RedBlackTree<K, V> fromSorted(Iterator<? extends Tuple2<K, V>> entries, int size) {
+        int redLevel = 0;
+        for (int m = size - 1; m >= 0; m = m / 2 - 1)
+            redLevel++;
+        return Spine.fromSorted(entries, 0, 0, size - 1, redLevel);
+    }
+
+    /**
+     * Join <code>left</code> and <code>right</code> around the entry <code>(k, v)</code>, where every key in
+     * <code>left</code> precedes <code>k</code> and every key in <code>right</code> follows <code>k</code>. Only the
+     * spine of the taller tree is copied, down to the depth at which the black heights of both trees agree, so joining
+     * is <code>O(1 + |h(left) - h(right)|)</code> in the difference between their black heights.
+     *
+     * @param left  the tree of lesser keys
+     * @param k     the key
+     * @param v     the value
+     * @param right the tree of greater keys
+     * @param <K>   the key type
+     * @param <V>   the value type
+     * @return the joined {@link RedBlackTree}
+     */
+    static <K, V> RedBlackTree<K, V> join(RedBlackTree<K, V> left, K k, V v, RedBlackTree<K, V> right) {
+        return Spine.join((Spine<K, V>) left, k, v, (Spine<K, V>) right).blacken();
+    }
+
+    /**
+     * Split <code>tree</code> into the trees of keys preceding and following <code>k</code>, along with the entry
+     * for <code>k</code>, if there is one. Since the black heights of the successively joined trees telescope,
+     * splitting is <code>O(log2n)</code> overall.
+     *
+     * @param tree       the tree
+     * @param k          the key to split around
+     * @param comparator the key comparator
+     * @param <K>        the key type
+     * @param <V>        the value type
+     * @return the {@link Split}
+     */
+    static <K, V> Split<K, V> split(RedBlackTree<K, V> tree, K k, Comparator<? super K> comparator) {
+        return Spine.split((Spine<K, V>) tree, k, comparator);
+    }
+
+    /**
+     * The entries of <code>tree</code> with keys preceding <code>k</code>, and the entry for <code>k</code> itself if
+     * <code>inclusive</code>. <code>O(log2n)</code>, sharing all untouched subtrees with <code>tree</code>, and
+     * returning <code>tree</code> itself if no key exceeds the bound.
+     *
+     * @param tree       the tree
+     * @param k          the upper bound
+     * @param inclusive  whether the entry for <code>k</code> is retained
+     * @param comparator the key comparator
+     * @param <K>        the key type
+     * @param <V>        the value type
+     * @return the head of <code>tree</code>
+     */
+    static <K, V> RedBlackTree<K, V> head(RedBlackTree<K, V> tree, K k, boolean inclusive,
+                                          Comparator<? super K> comparator) {
+        Tuple2<K, V> max = tree.max();
+        if (max == null || withinBound(comparator.compare(max._1(), k), inclusive))
+            return tree;
+        Split<K, V> split = split(tree, k, comparator);
+        return inclusive && split.entry != null
+               ? join(split.left, split.entry._1(), split.entry._2(), empty())
+               : split.left.blacken();
+    }
+
+    /**
+     * The entries of <code>tree</code> with keys following <code>k</code>, and the entry for <code>k</code> itself if
+     * <code>inclusive</code>. <code>O(log2n)</code>, sharing all untouched subtrees with <code>tree</code>, and
+     * returning <code>tree</code> itself if no key precedes the bound.
+     *
+     * @param tree       the tree
+     * @param k          the lower bound
+     * @param inclusive  whether the entry for <code>k</code> is retained
+     * @param comparator the key comparator
+     * @param <K>        the key type
+     * @param <V>        the value type
+     * @return the tail of <code>tree</code>
+     */
+    static <K, V> RedBlackTree<K, V> tail(RedBlackTree<K, V> tree, K k, boolean inclusive,
+                                          Comparator<? super K> comparator) {
+        Tuple2<K, V> min = tree.min();
+        if (min == null || withinBound(comparator.compare(k, min._1()), inclusive))
+            return tree;
+        Split<K, V> split = split(tree, k, comparator);
+        return inclusive && split.entry != null
+               ? join(empty(), split.entry._1(), split.entry._2(), split.right)
+               : split.right.blacken();
+    }
+
+    static boolean withinBound(int comparison, boolean inclusive) {
+        return comparison < 0 || (comparison == 0 && inclusive);
+    }
+
+    /**
+     * The union of <code>tree</code> and <code>other</code>, combining the values of keys present in both with
+     * <code>semigroup</code>. If <code>semigroup</code> is idempotent, subtrees shared by reference are reused without
+     * being traversed.
+     */
+    static <K, V> RedBlackTree<K, V> union(RedBlackTree<K, V> tree, RedBlackTree<K, V> other,
+                                           Semigroup<V> semigroup, boolean idempotent,
+                                           Comparator<? super K> comparator) {
+        return Spine.union((Spine<K, V>) tree, (Spine<K, V>) other, semigroup, idempotent, comparator).blacken();
+    }
+
+    /**
+     * The intersection of <code>tree</code> and <code>other</code>, combining the values of keys present in both with
+     * <code>combine</code>. If <code>combine</code> is idempotent, subtrees shared by reference are reused without
+     * being traversed.
+     */
+    static <K, V, W> RedBlackTree<K, V> intersection(RedBlackTree<K, V> tree, RedBlackTree<K, W> other,
+                                                     Fn2<? super V, ? super W, ? extends V> combine,
+                                                     boolean idempotent, Comparator<? super K> comparator) {
+        return Spine.intersection((Spine<K, V>) tree, (Spine<K, W>) other, combine, idempotent, comparator)
+                .blacken();
+    }
+
+    /**
+     * The keys of <code>tree</code> less the keys of <code>other</code>. If <code>combine</code> is <code>null</code>,
+     * every key present in both is removed; otherwise, <code>combine</code> computes the value retained for each key
+     * present in both, with a <code>null</code> result indicating removal.
+     */
+    static <K, V, W> RedBlackTree<K, V> difference(RedBlackTree<K, V> tree, RedBlackTree<K, W> other,
+                                                   Fn2<? super V, ? super W, ? extends V> combine,
+                                                   Comparator<? super K> comparator) {
+        return Spine.difference((Spine<K, V>) tree, (Spine<K, W>) other, combine, comparator).blacken();
+    }
+
+    /**
+     * The result of {@link RedBlackTree#split(RedBlackTree, Object, Comparator) splitting} a {@link RedBlackTree}
+     * around a key: the trees of preceding and following keys, and the entry for the key itself, or
+     * <code>null</code> if it was absent.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    final class Split<K, V> {
+        final Spine<K, V>  left;
+        final Tuple2<K, V> entry;
+        final Spine<K, V>  right;
+
+        private Split(Spine<K, V> left, Tuple2<K, V> entry, Spine<K, V> right) {
+            this.left  = left;
+            this.entry = entry;
+            this.right = right;
+        }
+    }
+
+    /**
+     * A contiguous range of keys according to some {@link Comparator}, from a lower to an upper bound, each of which
+     * may be inclusive or exclusive.
+     *
+     * @param <K> the key type
+     */
+    final class Range<K> {
+        private final K                     from;
+        private final boolean               fromInclusive;
+        private final K                     to;
+        private final boolean               toInclusive;
+        private final Comparator<? super K> comparator;
+
+        Range(K from, boolean fromInclusive, K to, boolean toInclusive, Comparator<? super K> comparator) {
+            this.from          = from;
+            this.fromInclusive = fromInclusive;
+            this.to            = to;
+            this.toInclusive   = toInclusive;
+            this.comparator    = comparator;
+        }
+
+        boolean precedes(K k) {
+            int comparison = comparator.compare(k, from);
+            return comparison < 0 || (comparison == 0 && !fromInclusive);
+        }
+
+        boolean follows(K k) {
+            int comparison = comparator.compare(k, to);
+            return comparison > 0 || (comparison == 0 && !toInclusive);
+        }
+    }
+
     enum Color {
         NB, R, B, BB;
 
@@ -53,7 +355,7 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
     abstract class Spine<K, V> implements RedBlackTree<K, V> {
 
-        final Color c;
+        Color c;
 
         private Spine(Color c) {
             this.c = c;
@@ -61,9 +363,15 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
         abstract Spine<K, V> blacken();
 
+        abstract Spine<K, V> blacken(Object owner);
+
         abstract Spine<K, V> redder();
 
-        abstract Spine<K, V> ins(K newK, V newV, Comparator<? super K> comparator);
+        abstract Spine<K, V> ins(K newK, V newV, Comparator<? super K> comparator, Object owner);
+
+        final Spine<K, V> ins(K newK, V newV, Comparator<? super K> comparator) {
+            return ins(newK, newV, comparator, null);
+        }
 
         abstract Spine<K, V> del(K k, Comparator<? super K> comparator);
 
@@ -71,12 +379,25 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
         abstract Spine<K, V> removeMax();
 
+        /**
+         * The number of black nodes along the left spine of this tree, cached per node so that joining two trees
+         * only walks the difference in their heights.
+         *
+         * @return the black height
+         */
+        abstract int blackHeight();
+
         @Override
         public abstract Spine<K, V> reverse();
 
         @Override
         public final RedBlackTree<K, V> insert(K k, V v, Comparator<? super K> comparator) {
-            return ins(k, v, comparator).blacken();
+            return insert(k, v, comparator, null);
+        }
+
+        @Override
+        public final RedBlackTree<K, V> insert(K k, V v, Comparator<? super K> comparator, Object owner) {
+            return ins(k, v, comparator, owner).blacken(owner);
         }
 
         @Override
@@ -89,6 +410,224 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
             return removeMin().blacken();
         }
 
+        @Override
+        public final int rank(K k, Comparator<? super K> comparator) {
+            int         rank = 0;
+            Spine<K, V> tree = this;
+            while (tree instanceof Node<?, ?>) {
+                Node<K, V> node       = (Node<K, V>) tree;
+                int        comparison = comparator.compare(k, node.k);
+                if (comparison == 0)
+                    return rank + node.l.size();
+                if (comparison < 0) {
+                    tree = node.l;
+                } else {
+                    rank += node.l.size() + 1;
+                    tree = node.r;
+                }
+            }
+            return rank;
+        }
+
+        @Override
+        public final Tuple2<K, V> select(int index) {
+            Spine<K, V> tree = this;
+            while (tree instanceof Node<?, ?>) {
+                Node<K, V> node     = (Node<K, V>) tree;
+                int        leftSize = node.l.size();
+                if (index == leftSize)
+                    return tuple(node.k, node.v);
+                if (index < leftSize) {
+                    tree = node.l;
+                } else {
+                    index -= leftSize + 1;
+                    tree = node.r;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public final Tuple2<K, V> nearest(K k, boolean above, boolean inclusive, Comparator<? super K> comparator) {
+            Node<K, V>  nearest = null;
+            Spine<K, V> tree    = this;
+            while (tree instanceof Node<?, ?>) {
+                Node<K, V> node       = (Node<K, V>) tree;
+                int        comparison = comparator.compare(k, node.k);
+                if (comparison == 0 && inclusive)
+                    return tuple(node.k, node.v);
+                if (above ? comparison < 0 : comparison > 0) {
+                    nearest = node;
+                    tree    = above ? node.l : node.r;
+                } else {
+                    tree = above ? node.r : node.l;
+                }
+            }
+            return nearest == null ? null : tuple(nearest.k, nearest.v);
+        }
+
+        @Override
+        public final <R> Iterator<R> iterator(Fn2<? super K, ? super V, ? extends R> projection, boolean reverse) {
+            return new TreeIterator<>(this, projection, reverse, null);
+        }
+
+        @Override
+        public final <R> Iterator<R> iterator(Fn2<? super K, ? super V, ? extends R> projection, boolean reverse,
+                                              Range<K> range) {
+            return new TreeIterator<>(this, projection, reverse, range);
+        }
+
+        @Override
+        public final <R> Spliterator<R> spliterator(Fn2<? super K, ? super V, ? extends R> projection, long size,
+                                                    int characteristics, Comparator<? super R> comparator) {
+            TreeSpliterator<K, V, R> spliterator = new TreeSpliterator<>(
+                    new ArrayDeque<>(), projection, size, characteristics | Spliterator.SIZED | Spliterator.SUBSIZED,
+                    comparator);
+            spliterator.pushLeftSpine(this);
+            return spliterator;
+        }
+
+        private static <K, V> Spine<K, V> fromSorted(Iterator<? extends Tuple2<K, V>> entries, int level, int lo,
+                                                     int hi, int redLevel) {
+            if (hi < lo)
+                return b();
+
+            int          mid   = (lo + hi) >>> 1;
+            Spine<K, V>  left  = fromSorted(entries, level + 1, lo, mid - 1, redLevel);
+            Tuple2<K, V> entry = entries.next();
+            Spine<K, V>  right = fromSorted(entries, level + 1, mid + 1, hi, redLevel);
+            return new Node<>(level == redLevel ? R : B, left, entry._1(), entry._2(), right);
+        }
+
+        private static <K, V> Spine<K, V> join(Spine<K, V> left, K k, V v, Spine<K, V> right) {
+            Spine<K, V> l           = left.blacken();
+            Spine<K, V> r           = right.blacken();
+            int         leftHeight  = l.blackHeight();
+            int         rightHeight = r.blackHeight();
+            if (leftHeight > rightHeight) {
+                Node<K, V> joined = joinRight(l, leftHeight, k, v, r, rightHeight);
+                return joined.c == R && joined.r.c == R ? joined.blacken() : joined;
+            }
+            if (rightHeight > leftHeight) {
+                Node<K, V> joined = joinLeft(l, leftHeight, k, v, r, rightHeight);
+                return joined.c == R && joined.l.c == R ? joined.blacken() : joined;
+            }
+            return new Node<>(R, l, k, v, r);
+        }
+
+        private static <K, V> Node<K, V> joinRight(Spine<K, V> left, int leftHeight, K k, V v,
+                                                   Spine<K, V> right, int rightHeight) {
+            if (left.c == B && leftHeight == rightHeight)
+                return new Node<>(R, left, k, v, right);
+
+            Node<K, V> l      = (Node<K, V>) left;
+            Node<K, V> joined = joinRight(l.r, l.c == B ? leftHeight - 1 : leftHeight, k, v, right, rightHeight);
+            if (l.c == B && joined.c == R && joined.r.c == R)
+                return new Node<>(R, new Node<>(B, l.l, l.k, l.v, joined.l), joined.k, joined.v, joined.r.blacken());
+            return new Node<>(l.c, l.l, l.k, l.v, joined);
+        }
+
+        private static <K, V> Node<K, V> joinLeft(Spine<K, V> left, int leftHeight, K k, V v,
+                                                  Spine<K, V> right, int rightHeight) {
+            if (right.c == B && leftHeight == rightHeight)
+                return new Node<>(R, left, k, v, right);
+
+            Node<K, V> r      = (Node<K, V>) right;
+            Node<K, V> joined = joinLeft(left, leftHeight, k, v, r.l, r.c == B ? rightHeight - 1 : rightHeight);
+            if (r.c == B && joined.c == R && joined.l.c == R)
+                return new Node<>(R, joined.l.blacken(), joined.k, joined.v, new Node<>(B, joined.r, r.k, r.v, r.r));
+            return new Node<>(r.c, joined, r.k, r.v, r.r);
+        }
+
+        private static <K, V> Spine<K, V> join(Spine<K, V> left, Spine<K, V> right) {
+            if (left.isEmpty())
+                return right;
+            if (right.isEmpty())
+                return left;
+
+            Split<K, V> last = splitLast((Node<K, V>) left);
+            return join(last.left, last.entry._1(), last.entry._2(), right);
+        }
+
+        private static <K, V> Split<K, V> splitLast(Node<K, V> node) {
+            if (node.r.isEmpty())
+                return new Split<>(node.l, tuple(node.k, node.v), b());
+
+            Split<K, V> last = splitLast((Node<K, V>) node.r);
+            return new Split<>(join(node.l, node.k, node.v, last.left), last.entry, b());
+        }
+
+        private static <K, V> Split<K, V> split(Spine<K, V> tree, K k, Comparator<? super K> comparator) {
+            if (tree.isEmpty())
+                return new Split<>(b(), null, b());
+
+            Node<K, V> node       = (Node<K, V>) tree;
+            int        comparison = comparator.compare(k, node.k);
+            if (comparison == 0)
+                return new Split<>(node.l, tuple(node.k, node.v), node.r);
+
+            if (comparison < 0) {
+                Split<K, V> split = split(node.l, k, comparator);
+                return new Split<>(split.left, split.entry, join(split.right, node.k, node.v, node.r));
+            }
+
+            Split<K, V> split = split(node.r, k, comparator);
+            return new Split<>(join(node.l, node.k, node.v, split.left), split.entry, split.right);
+        }
+
+        private static <K, V> Spine<K, V> union(Spine<K, V> tree, Spine<K, V> other, Semigroup<V> semigroup,
+                                                boolean idempotent, Comparator<? super K> comparator) {
+            if (other.isEmpty() || (idempotent && tree == other))
+                return tree;
+            if (tree.isEmpty())
+                return other;
+
+            Node<K, V>  node  = (Node<K, V>) other;
+            Split<K, V> split = split(tree, node.k, comparator);
+            Spine<K, V> left  = union(split.left, node.l, semigroup, idempotent, comparator);
+            Spine<K, V> right = union(split.right, node.r, semigroup, idempotent, comparator);
+            return split.entry == null
+                   ? join(left, node.k, node.v, right)
+                   : join(left, split.entry._1(), semigroup.apply(split.entry._2(), node.v), right);
+        }
+
+        private static <K, V, W> Spine<K, V> intersection(Spine<K, V> tree, Spine<K, W> other,
+                                                          Fn2<? super V, ? super W, ? extends V> combine,
+                                                          boolean idempotent, Comparator<? super K> comparator) {
+            if (tree.isEmpty() || other.isEmpty())
+                return b();
+            if (idempotent && tree == other)
+                return tree;
+
+            Node<K, W>  node  = (Node<K, W>) other;
+            Split<K, V> split = split(tree, node.k, comparator);
+            Spine<K, V> left  = intersection(split.left, node.l, combine, idempotent, comparator);
+            Spine<K, V> right = intersection(split.right, node.r, combine, idempotent, comparator);
+            return split.entry == null
+                   ? join(left, right)
+                   : join(left, split.entry._1(), combine.apply(split.entry._2(), node.v), right);
+        }
+
+        private static <K, V, W> Spine<K, V> difference(Spine<K, V> tree, Spine<K, W> other,
+                                                        Fn2<? super V, ? super W, ? extends V> combine,
+                                                        Comparator<? super K> comparator) {
+            if (tree.isEmpty() || (combine == null && tree == other))
+                return b();
+            if (other.isEmpty())
+                return tree;
+
+            Node<K, W>  node      = (Node<K, W>) other;
+            Split<K, V> split     = split(tree, node.k, comparator);
+            Spine<K, V> left      = difference(split.left, node.l, combine, comparator);
+            Spine<K, V> right     = difference(split.right, node.r, combine, comparator);
+            V           remaining = split.entry == null || combine == null
+                                    ? null
+                                    : combine.apply(split.entry._2(), node.v);
+            return remaining == null
+                   ? join(left, right)
+                   : join(left, split.entry._1(), remaining, right);
+        }
+
         @SuppressWarnings("unchecked")
         static <K, V> Spine<K, V> b() {
             return (Spine<K, V>) E.B;
@@ -99,18 +638,180 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
             return (Spine<K, V>) E.BB;
         }
 
+        /**
+         * An in-order (or reverse-order) {@link Iterator} over an array-backed stack of the pending ancestors of the
+         * next {@link Node}, which never holds more than the height of the tree (at most <code>2 * log2(n + 1)</code>)
+         * {@link Node Nodes} at once.
+         */
+        private static final class TreeIterator<K, V, R> implements Iterator<R> {
+            private final Fn2<? super K, ? super V, ? extends R> projection;
+            private final boolean                                reverse;
+            private final Range<K>                               range;
+
+            private Node<?, ?>[] pending = new Node<?, ?>[8];
+            private int          depth;
+
+            private TreeIterator(Spine<K, V> root, Fn2<? super K, ? super V, ? extends R> projection,
+                                 boolean reverse, Range<K> range) {
+                this.projection = projection;
+                this.reverse    = reverse;
+                this.range      = range;
+                pushSpine(root);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return depth > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public R next() {
+                if (depth == 0)
+                    throw new NoSuchElementException();
+
+                Node<K, V> next = (Node<K, V>) pending[--depth];
+                pending[depth] = null;
+                pushSpine(reverse ? next.l : next.r);
+                return projection.apply(next.k, next.v);
+            }
+
+            @SuppressWarnings("unchecked")
+            private void pushSpine(Spine<K, V> spine) {
+                while (spine instanceof Node<?, ?>) {
+                    Node<K, V> node = (Node<K, V>) spine;
+                    if (range != null && (reverse ? range.follows(node.k) : range.precedes(node.k))) {
+                        spine = reverse ? node.l : node.r;
+                        continue;
+                    }
+                    if (depth == pending.length)
+                        pending = java.util.Arrays.copyOf(pending, depth * 2);
+                    pending[depth++] = node;
+                    spine = reverse ? node.r : node.l;
+                }
+                if (range != null && depth > 0) {
+                    K next = ((Node<K, V>) pending[depth - 1]).k;
+                    if (reverse ? range.precedes(next) : range.follows(next)) {
+                        java.util.Arrays.fill(pending, 0, depth, null);
+                        depth = 0;
+                    }
+                }
+            }
+        }
+
+        /**
+         * An in-order {@link Spliterator} over a stack of pending {@link Node Nodes}, each of which stands for its own
+         * entry followed by the entries of its right subtree.
+         */
+        private static final class TreeSpliterator<K, V, R> implements Spliterator<R> {
+            private final ArrayDeque<Node<K, V>>                 pending;
+            private final Fn2<? super K, ? super V, ? extends R> projection;
+            private final Comparator<? super R>                  comparator;
+            private final int                                    characteristics;
+
+            private long remaining;
+
+            private TreeSpliterator(ArrayDeque<Node<K, V>> pending, Fn2<? super K, ? super V, ? extends R> projection,
+                                    long remaining, int characteristics, Comparator<? super R> comparator) {
+                this.pending         = pending;
+                this.projection      = projection;
+                this.remaining       = remaining;
+                this.characteristics = characteristics;
+                this.comparator      = comparator;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super R> action) {
+                Node<K, V> next = pending.pollFirst();
+                if (next == null)
+                    return false;
+
+                pushLeftSpine(next.r);
+                remaining--;
+                action.accept(projection.apply(next.k, next.v));
+                return true;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Spliterator<R> trySplit() {
+                Object[] nodes = pending.toArray();
+                int      split = nodes.length - 1;
+                while (split >= 0 && ((Node<K, V>) nodes[split]).r.isEmpty())
+                    split--;
+
+                ArrayDeque<Node<K, V>> prefix     = new ArrayDeque<>();
+                long                   prefixSize = 0;
+                if (split >= 0) {
+                    for (int i = 0; i < split; i++) {
+                        Node<K, V> node = pending.pollFirst();
+                        prefix.addLast(node);
+                        prefixSize += 1 + node.r.size();
+                    }
+                    Node<K, V> node = pending.pollFirst();
+                    prefix.addLast(new Node<>(node.c, b(), node.k, node.v, b()));
+                    prefixSize += 1;
+                    pushLeftSpine(node.r);
+                } else if (nodes.length >= 2) {
+                    for (int i = 0; i < nodes.length / 2; i++)
+                        prefix.addLast(pending.pollFirst());
+                    prefixSize = nodes.length / 2;
+                } else {
+                    return null;
+                }
+
+                remaining -= prefixSize;
+                return new TreeSpliterator<>(prefix, projection, prefixSize, characteristics, comparator);
+            }
+
+            @Override
+            public long estimateSize() {
+                return remaining;
+            }
+
+            @Override
+            public int characteristics() {
+                return characteristics;
+            }
+
+            @Override
+            public Comparator<? super R> getComparator() {
+                if (hasCharacteristics(Spliterator.SORTED))
+                    return comparator;
+                throw new IllegalStateException();
+            }
+
+            private void pushLeftSpine(Spine<K, V> spine) {
+                while (spine instanceof Node<?, ?>) {
+                    Node<K, V> node = (Node<K, V>) spine;
+                    pending.addFirst(node);
+                    spine = node.l;
+                }
+            }
+        }
+
         static final class Node<K, V> extends Spine<K, V> {
-            private final Spine<K, V> l;
-            private final K           k;
-            private final V           v;
-            private final Spine<K, V> r;
+            private final Object      owner;
+            private       Spine<K, V> l;
+            private       K           k;
+            private       V           v;
+            private       Spine<K, V> r;
+            private       int         size;
+            private       int         blackHeight;
 
             Node(Color c, Spine<K, V> l, K k, V v, Spine<K, V> r) {
+                this(c, l, k, v, r, null);
+            }
+
+            Node(Color c, Spine<K, V> l, K k, V v, Spine<K, V> r, Object owner) {
                 super(c);
-                this.l = l;
-                this.k = k;
-                this.v = v;
-                this.r = r;
+                this.l           = l;
+                this.k           = k;
+                this.v           = v;
+                this.r           = r;
+                this.owner       = owner;
+                this.size        = l.size() + 1 + r.size();
+                this.blackHeight = c == B ? l.blackHeight() + 1 : l.blackHeight();
             }
 
             @Override
@@ -120,7 +821,12 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
             @Override
             Node<K, V> blacken() {
-                return c == B ? this : new Node<>(B, l, k, v, r);
+                return blacken(null);
+            }
+
+            @Override
+            Node<K, V> blacken(Object owner) {
+                return c == B ? this : update(B, l, k, v, r, owner);
             }
 
             @Override
@@ -129,14 +835,14 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
             }
 
             @Override
-            Spine<K, V> ins(K newK, V newV, Comparator<? super K> comparator) {
+            Spine<K, V> ins(K newK, V newV, Comparator<? super K> comparator, Object owner) {
                 int comparison = comparator.compare(newK, k);
                 return comparison == 0
-                       ? new Node<>(c, l, newK, newV, r)
+                       ? update(c, l, newK, newV, r, owner)
                        : (comparison < 0
-                          ? new Node<>(c, l.ins(newK, newV, comparator), k, v, r)
-                          : new Node<>(c, l, k, v, r.ins(newK, newV, comparator)))
-                               .balance();
+                          ? update(c, l.ins(newK, newV, comparator, owner), k, v, r, owner)
+                          : update(c, l, k, v, r.ins(newK, newV, comparator, owner), owner))
+                               .balanceInsertion(owner);
             }
 
             @Override
@@ -164,6 +870,16 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
                 return false;
             }
 
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            int blackHeight() {
+                return blackHeight;
+            }
+
             @Override
             public V get(K k, Comparator<? super K> comparator) {
                 return comparator.compare(k, this.k) < 0
@@ -185,42 +901,14 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
 
             @Override
             public Iterator<Tuple2<K, V>> iterator() {
-                return new Iterator<Tuple2<K, V>>() {
-                    private Tuple2<K, V> next;
-                    private StrictStack<Object> queuedLeavesAndNodes = strictStack(Node.this);
-
-                    @Override
-                    public boolean hasNext() {
-                        while (!queuedLeavesAndNodes.isEmpty() && next == null) {
-                            Object nextLeafOrNode = queuedLeavesAndNodes.iterator().next();
-                            queuedLeavesAndNodes = queuedLeavesAndNodes.tail();
-                            if (nextLeafOrNode instanceof Node<?, ?>) {
-                                @SuppressWarnings("unchecked")
-                                Node<K, V> nextNode = (Node<K, V>) nextLeafOrNode;
-                                if (!nextNode.r.isEmpty())
-                                    queuedLeavesAndNodes = queuedLeavesAndNodes.cons(nextNode.r);
-                                queuedLeavesAndNodes = queuedLeavesAndNodes.cons(tuple(nextNode.k, nextNode.v));
-                                if (!nextNode.l.isEmpty())
-                                    queuedLeavesAndNodes = queuedLeavesAndNodes.cons(nextNode.l);
-                            } else {
-                                @SuppressWarnings("unchecked")
-                                Tuple2<K, V> nextLeaf = (Tuple2<K, V>) nextLeafOrNode;
-                                next = nextLeaf;
-                            }
-                        }
-
-                        return next != null;
-                    }
+                return iterator(HList::tuple, false);
+            }
 
-                    @Override
-                    public Tuple2<K, V> next() {
-                        if (!hasNext())
-                            throw new NoSuchElementException();
-                        Tuple2<K, V> next = this.next;
-                        this.next = null;
-                        return next;
-                    }
-                };
+            @Override
+            public void forEach(BiConsumer<? super K, ? super V> action) {
+                l.forEach(action);
+                action.accept(k, v);
+                r.forEach(action);
             }
 
             @Override
@@ -299,6 +987,75 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
                 return new Node<>(c, l, k, v, r);
             }
 
+            private boolean isEditableBy(Object owner) {
+                return owner != null && owner == this.owner;
+            }
+
+            private Node<K, V> update(Color c, Spine<K, V> l, K k, V v, Spine<K, V> r, Object owner) {
+                if (isEditableBy(owner)) {
+                    this.c           = c;
+                    this.l           = l;
+                    this.k           = k;
+                    this.v           = v;
+                    this.r           = r;
+                    this.size        = l.size() + 1 + r.size();
+                    this.blackHeight = c == B ? l.blackHeight() + 1 : l.blackHeight();
+                    return this;
+                }
+                return new Node<>(c, l, k, v, r, owner);
+            }
+
+            private Node<K, V> balanceInsertion(Object owner) {
+                if (c != B)
+                    return this;
+
+                Spine<K, V> left  = l;
+                Spine<K, V> right = r;
+                if (!left.isEmpty()) {
+                    Node<K, V> l = (Node<K, V>) left;
+                    if (l.c == R) {
+                        if (!l.l.isEmpty()) {
+                            Node<K, V> ll = (Node<K, V>) l.l;
+                            if (ll.c == R) {
+                                Node<K, V> newLeft  = ll.update(B, ll.l, ll.k, ll.v, ll.r, owner);
+                                Node<K, V> newRight = update(B, l.r, k, v, right, owner);
+                                return l.update(R, newLeft, l.k, l.v, newRight, owner);
+                            }
+                        }
+                        if (!l.r.isEmpty()) {
+                            Node<K, V> lr = (Node<K, V>) l.r;
+                            if (lr.c == R) {
+                                Node<K, V> newLeft  = l.update(B, l.l, l.k, l.v, lr.l, owner);
+                                Node<K, V> newRight = update(B, lr.r, k, v, right, owner);
+                                return lr.update(R, newLeft, lr.k, lr.v, newRight, owner);
+                            }
+                        }
+                    }
+                }
+                if (!right.isEmpty()) {
+                    Node<K, V> r = (Node<K, V>) right;
+                    if (r.c == R) {
+                        if (!r.l.isEmpty()) {
+                            Node<K, V> rl = (Node<K, V>) r.l;
+                            if (rl.c == R) {
+                                Node<K, V> newLeft  = update(B, left, k, v, rl.l, owner);
+                                Node<K, V> newRight = r.update(B, rl.r, r.k, r.v, r.r, owner);
+                                return rl.update(R, newLeft, rl.k, rl.v, newRight, owner);
+                            }
+                        }
+                        if (!r.r.isEmpty()) {
+                            Node<K, V> rr = (Node<K, V>) r.r;
+                            if (rr.c == R) {
+                                Node<K, V> newLeft  = update(B, left, k, v, r.l, owner);
+                                Node<K, V> newRight = rr.update(B, rr.l, rr.k, rr.v, rr.r, owner);
+                                return r.update(R, newLeft, r.k, r.v, newRight, owner);
+                            }
+                        }
+                    }
+                }
+                return this;
+            }
+
             private Node<K, V> redden() {
                 return c == R ? this : new Node<>(R, l, k, v, r);
             }
@@ -369,14 +1126,19 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
                 return b();
             }
 
+            @Override
+            Spine<K, V> blacken(Object owner) {
+                return b();
+            }
+
             @Override
             Spine<K, V> redder() {
                 return b();
             }
 
             @Override
-            Spine<K, V> ins(K k, V v, Comparator<? super K> comparator) {
-                return new Node<>(R, b(), k, v, b());
+            Spine<K, V> ins(K k, V v, Comparator<? super K> comparator, Object owner) {
+                return new Node<>(R, b(), k, v, b(), owner);
             }
 
             @Override
@@ -399,6 +1161,16 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
                 return true;
             }
 
+            @Override
+            public int size() {
+                return 0;
+            }
+
+            @Override
+            int blackHeight() {
+                return 0;
+            }
+
             @Override
             public V get(K k, Comparator<? super K> comparator) {
                 return null;
@@ -418,6 +1190,10 @@ interface RedBlackTree<K, V> extends Iterable<Tuple2<K, V>> {
             public Iterator<Tuple2<K, V>> iterator() {
                 return emptyIterator();
             }
+
+            @Override
+            public void forEach(BiConsumer<? super K, ? super V> action) {
+            }
         }
     }
 }
@@ -8,7 +8,10 @@ import com.jnape.palatable.shoki.api.SizeInfo.Known;
 import com.jnape.palatable.shoki.api.Stack;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Downcast.downcast;
@@ -16,6 +19,7 @@ import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.arraysHashCode;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
 import static com.jnape.palatable.shoki.api.Natural.zero;
 import static com.jnape.palatable.shoki.api.OrderedCollection.EquivalenceRelations.elementsInOrder;
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
@@ -51,6 +55,18 @@ public abstract class StrictQueue<A> implements Queue<Natural, A>, Stack<Natural
         return (StrictQueue<A>) Queue.super.snocAll(collection);
     }
 
+    /**
+     * View this {@link StrictQueue} as a read-only {@link List} from its front to its back, delegating directly to
+     * this {@link StrictQueue} rather than copying its elements. Iterating forwards is amortized <code>O(1)</code> per
+     * element, but {@link List#get(int) indexing} is <code>O(index)</code>. Any attempted mutation throws an
+     * {@link UnsupportedOperationException}. <code>O(1)</code>.
+     *
+     * @return the {@link List} view
+     */
+    public List<A> asJavaList() {
+        return new ListView<>(this);
+    }
+
     /**
      * Produce a new {@link StrictQueue} instance with <code>a</code> added to the back. <code>O(1)</code>.
      *
@@ -109,6 +125,18 @@ public abstract class StrictQueue<A> implements Queue<Natural, A>, Stack<Natural
     @Override
     public abstract int hashCode();
 
+    /**
+     * {@inheritDoc}
+     * As a linked structure, the {@link Spliterator} splits by buffering batches of elements into arrays, and is
+     * {@link Spliterator#ORDERED ordered}, {@link Spliterator#IMMUTABLE immutable}, {@link Spliterator#SIZED sized},
+     * and {@link Spliterator#SUBSIZED subsized}. Amortized <code>O(1)</code>.
+     */
+    @Override
+    public final Spliterator<A> spliterator() {
+        return Spliterators.spliterator(iterator(), sizeInfo().getSize().longValue(),
+                                        Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
     /**
      * Provide a debug-friendly string representation of this {@link StrictQueue}. <code>O(n)</code>
      *
@@ -201,7 +229,6 @@ public abstract class StrictQueue<A> implements Queue<Natural, A>, Stack<Natural
         private final StrictStack<A> outgoing;
         private final StrictStack<A> incoming;
 
-        private volatile Natural size;
         private volatile Integer hashCode;
 
         private NonEmpty(StrictStack<A> outgoing, StrictStack<A> incoming) {
@@ -244,16 +271,11 @@ public abstract class StrictQueue<A> implements Queue<Natural, A>, Stack<Natural
 
         @Override
         public Known<Natural> sizeInfo() {
-            Natural size = this.size;
-            if (size == null) {
-                synchronized (this) {
-                    size = this.size;
-                    if (size == null) {
-                        this.size = size = outgoing.sizeInfo().getSize().plus(incoming.sizeInfo().getSize());
-                    }
-                }
-            }
-            return known(size);
+            long outgoingSize = outgoing.saturatedSize();
+            long incomingSize = incoming.saturatedSize();
+            return known(outgoingSize <= Long.MAX_VALUE - incomingSize
+                         ? atLeastZero(outgoingSize + incomingSize)
+                         : outgoing.sizeInfo().getSize().plus(incoming.sizeInfo().getSize()));
         }
 
         @Override
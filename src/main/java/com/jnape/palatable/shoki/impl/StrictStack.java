@@ -8,7 +8,10 @@ import com.jnape.palatable.shoki.api.SizeInfo.Known;
 import com.jnape.palatable.shoki.api.Stack;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
@@ -18,6 +21,7 @@ import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
 import static com.jnape.palatable.shoki.api.Natural.zero;
 import static com.jnape.palatable.shoki.api.OrderedCollection.EquivalenceRelations.elementsInOrder;
 import static com.jnape.palatable.shoki.api.OrderedCollection.HashingAlgorithms.elementsInOrder;
@@ -74,11 +78,18 @@ public abstract class StrictStack<A> implements Stack<Natural, A> {
     public abstract Maybe<A> head();
 
     /**
-     * The {@link SizeInfo} of this {@link StrictStack}. Amortized <code>O(1)</code>.
+     * The {@link SizeInfo} of this {@link StrictStack}. <code>O(1)</code>.
      */
     @Override
     public abstract Known<Natural> sizeInfo();
 
+    /**
+     * The number of elements in this {@link StrictStack}, saturating at {@link Long#MAX_VALUE}. <code>O(1)</code>.
+     *
+     * @return the saturated size
+     */
+    abstract long saturatedSize();
+
     /**
      * Returns true if this {@link StrictStack} is empty; otherwise, returns false. <code>O(1)</code>.
      *
@@ -96,6 +107,18 @@ public abstract class StrictStack<A> implements Stack<Natural, A> {
         return (StrictStack<A>) Stack.super.consAll(other);
     }
 
+    /**
+     * View this {@link StrictStack} as a read-only {@link List} from its top to its bottom, delegating directly to this
+     * {@link StrictStack} rather than copying its elements. Iterating forwards is <code>O(1)</code> per element, but
+     * since this {@link StrictStack} is singly-linked, {@link List#get(int) indexing} is <code>O(index)</code>. Any
+     * attempted mutation throws an {@link UnsupportedOperationException}. <code>O(1)</code>.
+     *
+     * @return the {@link List} view
+     */
+    public List<A> asJavaList() {
+        return new ListView<>(this);
+    }
+
     /**
      * Returns true if <code>other</code> is an {@link StrictStack} with exactly the same elements in the same order
      * as this {@link StrictStack}; otherwise, returns false. <code>O(n)</code>.
@@ -144,6 +167,18 @@ public abstract class StrictStack<A> implements Stack<Natural, A> {
     @Override
     public abstract int hashCode();
 
+    /**
+     * {@inheritDoc}
+     * As a linked structure, the {@link Spliterator} splits by buffering batches of elements into arrays, and is
+     * {@link Spliterator#ORDERED ordered}, {@link Spliterator#IMMUTABLE immutable}, {@link Spliterator#SIZED sized},
+     * and {@link Spliterator#SUBSIZED subsized}. <code>O(1)</code>.
+     */
+    @Override
+    public final Spliterator<A> spliterator() {
+        return Spliterators.spliterator(iterator(), saturatedSize(),
+                                        Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
     /**
      * Provide a debug-friendly string representation of this {@link StrictStack}. <code>O(n)</code>
      *
@@ -185,13 +220,23 @@ public abstract class StrictStack<A> implements Stack<Natural, A> {
     private static final class Head<A> extends StrictStack<A> {
         private final A              head;
         private final StrictStack<A> tail;
+        private final long           size;
+        private final Natural        overflowedSize;
 
-        private volatile Natural size;
         private volatile Integer hashCode;
 
         private Head(A head, StrictStack<A> tail) {
             this.head = head;
             this.tail = tail;
+
+            long tailSize = tail.saturatedSize();
+            if (tailSize < Long.MAX_VALUE) {
+                size           = tailSize + 1;
+                overflowedSize = null;
+            } else {
+                size           = Long.MAX_VALUE;
+                overflowedSize = tail.sizeInfo().getSize().inc();
+            }
         }
 
         @Override
@@ -210,18 +255,13 @@ public abstract class StrictStack<A> implements Stack<Natural, A> {
         }
 
         @Override
-        @SuppressWarnings("DuplicatedCode")
         public Known<Natural> sizeInfo() {
-            Natural size = this.size;
-            if (size == null) {
-                synchronized (this) {
-                    size = this.size;
-                    if (size == null) {
-                        this.size = size = foldLeft((s, __) -> s.inc(), (Natural) zero(), this);
-                    }
-                }
-            }
-            return known(size);
+            return known(overflowedSize == null ? atLeastZero(size) : overflowedSize);
+        }
+
+        @Override
+        long saturatedSize() {
+            return size;
         }
 
         @Override
@@ -265,6 +305,11 @@ public abstract class StrictStack<A> implements Stack<Natural, A> {
             return known(zero());
         }
 
+        @Override
+        long saturatedSize() {
+            return 0;
+        }
+
         @Override
         public int hashCode() {
             return 0;
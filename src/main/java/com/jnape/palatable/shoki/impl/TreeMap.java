@@ -1,19 +1,25 @@
 package com.jnape.palatable.shoki.impl;
 
 import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.hlist.HList;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.lambda.functions.Fn2;
 import com.jnape.palatable.lambda.functions.builtin.fn1.Downcast;
 import com.jnape.palatable.lambda.semigroup.Semigroup;
 import com.jnape.palatable.shoki.api.EquivalenceRelation;
 import com.jnape.palatable.shoki.api.Map;
 import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.RandomAccess;
 import com.jnape.palatable.shoki.api.Set;
 import com.jnape.palatable.shoki.api.SizeInfo;
 import com.jnape.palatable.shoki.api.SortedCollection;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
 
 import static com.jnape.palatable.lambda.adt.Maybe.maybe;
 import static com.jnape.palatable.lambda.adt.Try.trying;
@@ -27,10 +33,9 @@ import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
 import static com.jnape.palatable.shoki.api.Map.EquivalenceRelations.entries;
 import static com.jnape.palatable.shoki.api.Map.HashingAlgorithms.entries;
-import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
-import static com.jnape.palatable.shoki.impl.TreeSet.treeSet;
 import static java.lang.String.format;
 import static java.lang.String.join;
 import static java.util.Comparator.naturalOrder;
@@ -77,10 +82,13 @@ import static java.util.Comparator.naturalOrder;
  * @param <V> the value type
  */
 public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection<Natural, Tuple2<K, V>, K> {
+
+    private static final int SORTED_CHARACTERISTICS =
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.IMMUTABLE;
+
     private final Comparator<? super K> keyComparator;
     private final RedBlackTree<K, V>    tree;
 
-    private volatile Natural size;
     private volatile Integer hashCode;
 
     private TreeMap(Comparator<? super K> keyComparator, RedBlackTree<K, V> tree) {
@@ -133,6 +141,106 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
         return maybe(tree.max());
     }
 
+    /**
+     * Retrieve the entry with the greatest key less than or equal to <code>k</code>, if there is one.
+     * <code>O(log2n)</code>.
+     *
+     * @param k the key
+     * @return {@link Maybe} the floor entry
+     */
+    public Maybe<Tuple2<K, V>> floor(K k) {
+        return maybe(tree.nearest(k, false, true, keyComparator));
+    }
+
+    /**
+     * Retrieve the entry with the least key greater than or equal to <code>k</code>, if there is one.
+     * <code>O(log2n)</code>.
+     *
+     * @param k the key
+     * @return {@link Maybe} the ceiling entry
+     */
+    public Maybe<Tuple2<K, V>> ceiling(K k) {
+        return maybe(tree.nearest(k, true, true, keyComparator));
+    }
+
+    /**
+     * Retrieve the entry with the greatest key strictly less than <code>k</code>, if there is one.
+     * <code>O(log2n)</code>.
+     *
+     * @param k the key
+     * @return {@link Maybe} the lower entry
+     */
+    public Maybe<Tuple2<K, V>> lower(K k) {
+        return maybe(tree.nearest(k, false, false, keyComparator));
+    }
+
+    /**
+     * Retrieve the entry with the least key strictly greater than <code>k</code>, if there is one.
+     * <code>O(log2n)</code>.
+     *
+     * @param k the key
+     * @return {@link Maybe} the higher entry
+     */
+    public Maybe<Tuple2<K, V>> higher(K k) {
+        return maybe(tree.nearest(k, true, false, keyComparator));
+    }
+
+    /**
+     * The entries of this {@link TreeMap} with keys less than <code>to</code>, or equal to it if
+     * <code>inclusive</code>. <code>O(log2n)</code>, sharing structure with this {@link TreeMap}.
+     *
+     * @param to        the upper bound
+     * @param inclusive whether the upper bound is inclusive
+     * @return the head {@link TreeMap}
+     */
+    public TreeMap<K, V> headMap(K to, boolean inclusive) {
+        return withTree(RedBlackTree.head(tree, to, inclusive, keyComparator));
+    }
+
+    /**
+     * The entries of this {@link TreeMap} with keys greater than <code>from</code>, or equal to it if
+     * <code>inclusive</code>. <code>O(log2n)</code>, sharing structure with this {@link TreeMap}.
+     *
+     * @param from      the lower bound
+     * @param inclusive whether the lower bound is inclusive
+     * @return the tail {@link TreeMap}
+     */
+    public TreeMap<K, V> tailMap(K from, boolean inclusive) {
+        return withTree(RedBlackTree.tail(tree, from, inclusive, keyComparator));
+    }
+
+    /**
+     * The entries of this {@link TreeMap} with keys between <code>from</code> and <code>to</code>, each bound
+     * inclusive or exclusive as specified; empty if <code>from</code> follows <code>to</code>.
+     * <code>O(log2n)</code>, sharing structure with this {@link TreeMap}.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether the lower bound is inclusive
+     * @param to            the upper bound
+     * @param toInclusive   whether the upper bound is inclusive
+     * @return the sub-{@link TreeMap}
+     */
+    public TreeMap<K, V> subMap(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return withTree(RedBlackTree.head(RedBlackTree.tail(tree, from, fromInclusive, keyComparator),
+                                          to, toInclusive, keyComparator));
+    }
+
+    /**
+     * Lazily iterate the entries of this {@link TreeMap} with keys between <code>from</code> and <code>to</code>, each
+     * bound inclusive or exclusive as specified, without materializing a {@link TreeMap#subMap sub-map}. Each
+     * iteration reaches its first entry in <code>O(log2n)</code> and then proceeds in amortized <code>O(1)</code> per
+     * entry.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether the lower bound is inclusive
+     * @param to            the upper bound
+     * @param toInclusive   whether the upper bound is inclusive
+     * @return the entries in range
+     */
+    public Iterable<Tuple2<K, V>> range(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return range(from, fromInclusive, to, toInclusive, HList::tuple);
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(log2n)</code>.
@@ -162,19 +270,33 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link TreeMap} with the same {@link Comparator} as this {@link TreeMap}, the two
+     * trees are merged by recursively splitting and joining them, which is <code>O(m * log2(n/m + 1))</code> for
+     * <code>m &lt;= n</code>; otherwise, <code>O(o)</code>.
      */
     @Override
     public TreeMap<K, V> merge(Map<Natural, K, V> other, Semigroup<V> semigroup) {
+        if (other instanceof TreeMap<?, ?>) {
+            TreeMap<K, V> treeMap = (TreeMap<K, V>) other;
+            if (sharesOrderingWith(treeMap))
+                return union(treeMap, semigroup, false);
+        }
         return (TreeMap<K, V>) Map.super.merge(other, semigroup);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>keys</code> is a {@link TreeSet} with the same {@link Comparator} as this {@link TreeMap}, the keys are
+     * removed by recursively splitting and joining both trees, which is <code>O(m * log2(n/m + 1))</code> for
+     * <code>m &lt;= n</code>; otherwise, <code>O(o)</code>.
      */
     @Override
     public TreeMap<K, V> removeAll(Set<Natural, K> keys) {
+        if (keys instanceof TreeSet<?>) {
+            TreeMap<K, ?> keyMap = ((TreeSet<K>) keys).backingMap();
+            if (sharesOrderingWith(keyMap))
+                return difference(keyMap);
+        }
         return (TreeMap<K, V>) Map.super.removeAll(keys);
     }
 
@@ -185,7 +307,7 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
      */
     @Override
     public TreeSet<K> keys() {
-        return foldLeft((keys, kv) -> keys.add(kv._1()), treeSet(keyComparator), this);
+        return foldLeft((keys, kv) -> keys.add(kv._1()), TreeSet.<K>builder(keyComparator), this).persistent();
     }
 
     /**
@@ -197,16 +319,19 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
     }
 
     /**
-     * Sort the keys in this {@link TreeMap} according to the given <code>comparator</code>. <code>O(nlogn)</code>.
+     * Sort the keys in this {@link TreeMap} according to the given <code>comparator</code>. <code>O(n)</code> if the
+     * current ordering of the keys is already (or exactly reversed from) the ordering imposed by
+     * <code>comparator</code>; <code>O(nlogn)</code> otherwise.
      *
      * @param comparator the {@link Comparator}
      * @return the updated {@link TreeMap}
+     * @see TreeMap#fromSorted(Comparator, Iterable)
      */
     @Override
     public TreeMap<K, V> sort(Comparator<? super K> comparator) {
         return Objects.equals(keyComparator, comparator)
                ? this
-               : foldLeft((m, kv) -> kv.into(m::put), treeMap(comparator), this);
+               : fromSorted(comparator, this);
     }
 
     /**
@@ -244,20 +369,55 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
 
     /**
      * {@inheritDoc}
-     * Amortized <code>O(1)</code>.
+     * <code>O(1)</code>.
      */
     @Override
     public SizeInfo.Known<Natural> sizeInfo() {
-        Natural size = this.size;
-        if (size == null) {
-            synchronized (this) {
-                size = this.size;
-                if (size == null) {
-                    this.size = size = foldLeft((s, __) -> s.inc(), (Natural) zero(), this);
-                }
-            }
-        }
-        return known(size);
+        return known(atLeastZero(tree.size()));
+    }
+
+    /**
+     * The number of keys in this {@link TreeMap} strictly preceding <code>k</code> according to its ordering
+     * relation, whether or not <code>k</code> itself is present. <code>O(log2n)</code>.
+     *
+     * @param k the key
+     * @return the rank of <code>k</code>
+     */
+    public Natural rank(K k) {
+        return atLeastZero(tree.rank(k, keyComparator));
+    }
+
+    /**
+     * Retrieve the entry at the zero-based <code>index</code> according to this {@link TreeMap TreeMap's} ordering
+     * relation, if <code>index</code> is less than this {@link TreeMap TreeMap's} size. <code>O(log2n)</code>.
+     *
+     * @param index the index
+     * @return {@link Maybe} the entry at <code>index</code>
+     */
+    public Maybe<Tuple2<K, V>> select(Natural index) {
+        return select(index, HList::tuple);
+    }
+
+    /**
+     * View this {@link TreeMap} as a {@link RandomAccess} from zero-based indices to the entries at those indices,
+     * according to its ordering relation. Lookups are <code>O(log2n)</code>; membership is <code>O(1)</code>.
+     *
+     * @return the index-based {@link RandomAccess} view
+     */
+    public RandomAccess<Natural, Maybe<Tuple2<K, V>>> byIndex() {
+        return byIndex(HList::tuple);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The view is a read-only {@link NavigableMap} ordered by this {@link TreeMap TreeMap's} ordering relation, whose
+     * navigation methods and iterators delegate directly to this {@link TreeMap}, and whose sub-map views are backed
+     * by the structure-sharing {@link TreeMap#subMap(Object, boolean, Object, boolean) sub-maps} of this
+     * {@link TreeMap}, created in <code>O(log2n)</code>. <code>O(1)</code>.
+     */
+    @Override
+    public NavigableMap<K, V> asJavaMap() {
+        return new NavigableMapView<>(this, false);
     }
 
     /**
@@ -271,6 +431,41 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
         return tree.iterator();
     }
 
+    /**
+     * Produce an {@link Iterator} of the entries in this {@link TreeMap} in the reverse of its ordering relation,
+     * without building the {@link TreeMap#reverse() reversed} {@link TreeMap}.
+     *
+     * @return the reverse-order {@link Iterator}
+     */
+    public Iterator<Tuple2<K, V>> reverseIterator() {
+        return tree.iterator(HList::tuple, true);
+    }
+
+    /**
+     * Perform <code>action</code> on the key and value of each entry in this {@link TreeMap}, in the order of its
+     * ordering relation, without allocating a {@link Tuple2} per entry. <code>O(n)</code>.
+     *
+     * @param action the action
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        tree.forEach(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} splits on the subtrees of the underlying red-black tree, and is
+     * {@link Spliterator#ORDERED ordered} and {@link Spliterator#SORTED sorted} by key, as well as
+     * {@link Spliterator#DISTINCT distinct}, {@link Spliterator#IMMUTABLE immutable},
+     * {@link Spliterator#NONNULL non-null}, {@link Spliterator#SIZED sized}, and {@link Spliterator#SUBSIZED subsized}.
+     * Amortized <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<Tuple2<K, V>> spliterator() {
+        return tree.spliterator(HList::tuple, tree.size(),
+                                SORTED_CHARACTERISTICS | Spliterator.NONNULL,
+                                Comparator.<Tuple2<K, V>, K>comparing(Tuple2::_1, keyComparator));
+    }
+
     /**
      * Determine if <code>other</code> is a {@link TreeMap} with the same comparison relation and
      * {@link Map.EquivalenceRelations#entries(EquivalenceRelation) same entries} as this {@link TreeMap}, using
@@ -314,6 +509,17 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
         return hashCode;
     }
 
+    /**
+     * Create a {@link Builder} populated with the entries of this {@link TreeMap}, sharing the same
+     * {@link Comparator comparison relation}. This {@link TreeMap} is unaffected by any subsequent modifications made
+     * to the {@link Builder}. <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     */
+    public Builder<K, V> transientCopy() {
+        return new Builder<>(keyComparator, tree);
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(n)</code>.
@@ -323,6 +529,73 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
         return "TreeMap[" + join(", ", map(into((k, v) -> format("(%s=%s)", k, v)), this)) + "]";
     }
 
+    <R> Iterable<R> range(K from, boolean fromInclusive, K to, boolean toInclusive,
+                          Fn2<? super K, ? super V, ? extends R> projection) {
+        RedBlackTree.Range<K> range = new RedBlackTree.Range<>(from, fromInclusive, to, toInclusive, keyComparator);
+        return () -> tree.iterator(projection, false, range);
+    }
+
+    <R> Maybe<R> select(Natural index, Fn2<? super K, ? super V, ? extends R> projection) {
+        return index.longValue() < tree.size()
+               ? maybe(tree.select(index.intValue())).fmap(into(projection))
+               : Maybe.nothing();
+    }
+
+    <R> RandomAccess<Natural, Maybe<R>> byIndex(Fn2<? super K, ? super V, ? extends R> projection) {
+        return new RandomAccess<Natural, Maybe<R>>() {
+            @Override
+            public Maybe<R> get(Natural index) {
+                return select(index, projection);
+            }
+
+            @Override
+            public boolean contains(Natural index) {
+                return index.longValue() < tree.size();
+            }
+        };
+    }
+
+    Iterator<K> keyIterator(boolean reverse) {
+        return tree.iterator((k, v) -> k, reverse);
+    }
+
+    Spliterator<K> keySpliterator() {
+        return tree.spliterator((k, v) -> k, tree.size(), SORTED_CHARACTERISTICS, javaComparator());
+    }
+
+    /**
+     * The key {@link Comparator} as reported by the {@link java.util} collections framework, which is
+     * <code>null</code> for the natural ordering.
+     */
+    Comparator<? super K> javaComparator() {
+        return naturalOrder().equals(keyComparator) ? null : keyComparator;
+    }
+
+    boolean sharesOrderingWith(TreeMap<K, ?> other) {
+        return Objects.equals(keyComparator, other.keyComparator);
+    }
+
+    TreeMap<K, V> union(TreeMap<K, V> other, Semigroup<V> semigroup, boolean idempotent) {
+        return withTree(RedBlackTree.union(tree, other.tree, semigroup, idempotent, keyComparator));
+    }
+
+    <W> TreeMap<K, V> intersection(TreeMap<K, W> other, Fn2<? super V, ? super W, ? extends V> combine,
+                                   boolean idempotent) {
+        return withTree(RedBlackTree.intersection(tree, other.tree, combine, idempotent, keyComparator));
+    }
+
+    TreeMap<K, V> difference(TreeMap<K, ?> other) {
+        return withTree(RedBlackTree.difference(tree, other.tree, null, keyComparator));
+    }
+
+    <W> TreeMap<K, V> difference(TreeMap<K, W> other, Fn2<? super V, ? super W, ? extends V> combine) {
+        return withTree(RedBlackTree.difference(tree, other.tree, combine, keyComparator));
+    }
+
+    private TreeMap<K, V> withTree(RedBlackTree<K, V> tree) {
+        return tree == this.tree ? this : new TreeMap<>(keyComparator, tree);
+    }
+
     /**
      * Create a {@link TreeMap} for some key type <code>K</code> and some value type <code>V</code> using the given
      * {@link Comparator} for its keys comparison relation, populated by zero or more given entries.
@@ -335,7 +608,7 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
      */
     @SafeVarargs
     public static <K, V> TreeMap<K, V> treeMap(Comparator<? super K> keyComparator, Tuple2<K, V>... entries) {
-        return new TreeMap<>(keyComparator, backingTree(keyComparator, entries));
+        return TreeMap.<K, V>builder(keyComparator).putAll(entries).persistent();
     }
 
     /**
@@ -352,11 +625,190 @@ public final class TreeMap<K, V> implements Map<Natural, K, V>, SortedCollection
         return treeMap(naturalOrder(), entries);
     }
 
-    private static <K, V> RedBlackTree<K, V> backingTree(Comparator<? super K> keyComparator, Tuple2<K, V>[] entries) {
-        RedBlackTree<K, V> tree = RedBlackTree.empty();
-        for (Tuple2<K, V> entry : entries) {
-            tree = tree.insert(entry._1(), entry._2(), keyComparator);
+    /**
+     * Create a {@link TreeMap} using the given {@link Comparator} for its keys comparison relation, populated by the
+     * given entries, which are expected to already be sorted by key.
+     * <p>
+     * If the keys of <code>entries</code> are strictly ascending (or strictly descending) according to
+     * <code>keyComparator</code>, the backing tree is built bottom-up in <code>O(n)</code>, without any comparisons
+     * beyond the ones needed to verify the ordering. Otherwise, the entries are inserted one at a time in
+     * <code>O(nlogn)</code>, as per {@link TreeMap#treeMap(Comparator, Tuple2[])}, with later entries winning over
+     * earlier entries with equal keys.
+     *
+     * @param keyComparator the {@link Comparator comparison relation}
+     * @param entries       the entries
+     * @param <K>           the key type
+     * @param <V>           the value type
+     * @return the {@link TreeMap}
+     */
+    public static <K, V> TreeMap<K, V> fromSorted(Comparator<? super K> keyComparator,
+                                                  Iterable<? extends Tuple2<K, V>> entries) {
+        Object[]                          buffer     = new Object[16];
+        int                               size       = 0;
+        boolean                           ascending  = true;
+        boolean                           descending = true;
+        Iterator<? extends Tuple2<K, V>> iterator   = entries.iterator();
+        while (iterator.hasNext() && (ascending || descending)) {
+            Tuple2<K, V> entry = iterator.next();
+            if (size > 0) {
+                @SuppressWarnings("unchecked")
+                int comparison = keyComparator.compare(((Tuple2<K, V>) buffer[size - 1])._1(), entry._1());
+                ascending &= comparison < 0;
+                descending &= comparison > 0;
+            }
+            if (size == buffer.length)
+                buffer = java.util.Arrays.copyOf(buffer, size * 2);
+            buffer[size++] = entry;
+        }
+
+        if (!ascending && !descending) {
+            Builder<K, V> builder = builder(keyComparator);
+            for (int i = 0; i < size; i++) {
+                @SuppressWarnings("unchecked")
+                Tuple2<K, V> entry = (Tuple2<K, V>) buffer[i];
+                builder.put(entry._1(), entry._2());
+            }
+            iterator.forEachRemaining(entry -> builder.put(entry._1(), entry._2()));
+            return builder.persistent();
+        }
+
+        Object[] sorted   = buffer;
+        int      n        = size;
+        boolean  reversed = !ascending;
+        return new TreeMap<>(keyComparator, RedBlackTree.fromSorted(new Iterator<Tuple2<K, V>>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                return i < n;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Tuple2<K, V> next() {
+                return (Tuple2<K, V>) sorted[reversed ? n - 1 - i++ : i++];
+            }
+        }, n));
+    }
+
+    /**
+     * Create an empty {@link Builder} using the given {@link Comparator} for its keys comparison relation.
+     *
+     * @param keyComparator the {@link Comparator comparison relation}
+     * @param <K>           the key type
+     * @param <V>           the value type
+     * @return the {@link Builder}
+     */
+    public static <K, V> Builder<K, V> builder(Comparator<? super K> keyComparator) {
+        return new Builder<>(keyComparator, RedBlackTree.empty());
+    }
+
+    /**
+     * Create an empty {@link Builder} for some {@link Comparable} key type <code>K</code> using
+     * {@link Comparator#naturalOrder() natural ordering} for its keys.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     * @return the {@link Builder}
+     */
+    public static <K extends Comparable<? super K>, V> Builder<K, V> builder() {
+        return builder(naturalOrder());
+    }
+
+    /**
+     * A transient, batch-mutable companion to {@link TreeMap}, suitable for efficiently populating a {@link TreeMap}
+     * with many entries.
+     * <p>
+     * Whereas every {@link TreeMap#put(Object, Object) put} against a {@link TreeMap} copies and rebalances the path
+     * from the root of its tree to the inserted node, a {@link Builder} takes ownership of the nodes it creates and
+     * subsequently recolors and rotates them in place, only copying nodes that it shares with some other
+     * {@link TreeMap}. Calling {@link Builder#persistent() persistent} relinquishes ownership of all nodes created up
+     * until that point, freezing them into a {@link TreeMap} in <code>O(1)</code>; the {@link Builder} remains usable
+     * afterwards, and will copy any nodes it has since shared before modifying them again.
+     * <p>
+     * {@link Builder Builders} are not thread-safe, and should not be shared across threads without external
+     * synchronization.
+     *
+     * @param <K> the key type
+     * @param <V> the value type
+     */
+    public static final class Builder<K, V> {
+        private final Comparator<? super K> keyComparator;
+
+        private RedBlackTree<K, V> tree;
+        private Object             owner;
+
+        private Builder(Comparator<? super K> keyComparator, RedBlackTree<K, V> tree) {
+            this.keyComparator = keyComparator;
+            this.tree          = tree;
+            this.owner         = new Object();
+        }
+
+        /**
+         * If <code>k</code> is associated to a value inside this {@link Builder}, retrieve
+         * {@link Maybe#just(Object) just} the value it maps to; otherwise, return {@link Maybe#nothing() nothing}.
+         * <code>O(log2n)</code>.
+         *
+         * @param k the key
+         * @return {@link Maybe} the value associated to <code>k</code>
+         */
+        public Maybe<V> get(K k) {
+            return maybe(tree.get(k, keyComparator));
+        }
+
+        /**
+         * Associate <code>k</code> to <code>v</code>, overriding any value currently associated to <code>k</code>.
+         * <code>O(log2n)</code>.
+         *
+         * @param k the key
+         * @param v the value
+         * @return this {@link Builder}
+         */
+        public Builder<K, V> put(K k, V v) {
+            tree = tree.insert(k, v, keyComparator, owner);
+            return this;
+        }
+
+        /**
+         * Associate every key in <code>entries</code> to its corresponding value, in iteration order.
+         * <code>O(o * log2(n + o))</code>.
+         *
+         * @param entries the entries
+         * @return this {@link Builder}
+         */
+        public Builder<K, V> putAll(Iterable<? extends Tuple2<K, V>> entries) {
+            for (Tuple2<K, V> entry : entries)
+                put(entry._1(), entry._2());
+            return this;
+        }
+
+        /**
+         * Remove the association for <code>k</code>, if there is one. Unlike {@link Builder#put(Object, Object) put},
+         * removal always copies the path to the removed node. <code>O(log2n)</code>.
+         *
+         * @param k the key
+         * @return this {@link Builder}
+         */
+        public Builder<K, V> remove(K k) {
+            tree = tree.delete(k, keyComparator);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link TreeMap}. <code>O(1)</code>.
+         *
+         * @return the {@link TreeMap}
+         */
+        public TreeMap<K, V> persistent() {
+            owner = new Object();
+            return new TreeMap<>(keyComparator, tree);
+        }
+
+        @SafeVarargs
+        private final Builder<K, V> putAll(Tuple2<K, V>... entries) {
+            for (Tuple2<K, V> entry : entries)
+                put(entry._1(), entry._2());
+            return this;
         }
-        return tree;
     }
 }
@@ -1,26 +1,29 @@
 package com.jnape.palatable.shoki.impl;
 
 import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.coproduct.CoProduct2;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
 import com.jnape.palatable.lambda.semigroup.Semigroup;
 import com.jnape.palatable.shoki.api.EquivalenceRelation;
 import com.jnape.palatable.shoki.api.MultiSet;
 import com.jnape.palatable.shoki.api.Natural;
 import com.jnape.palatable.shoki.api.Natural.NonZero;
+import com.jnape.palatable.shoki.api.RandomAccess;
 import com.jnape.palatable.shoki.api.SizeInfo.Known;
 import com.jnape.palatable.shoki.api.SortedCollection;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Spliterator;
 
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Id.id;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
+import static com.jnape.palatable.shoki.api.Natural.one;
 import static com.jnape.palatable.shoki.api.Natural.zero;
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
-import static com.jnape.palatable.shoki.impl.TreeMap.treeMap;
 import static java.lang.String.format;
 import static java.lang.String.join;
 import static java.util.Comparator.naturalOrder;
@@ -85,11 +88,16 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
 
     /**
      * {@inheritDoc}
-     * <code>O(o)</code>.
+     * If <code>other</code> is a {@link TreeMultiSet} with the same {@link Comparator} as this {@link TreeMultiSet},
+     * the two trees are merged by recursively splitting and joining them, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(o)</code>.
      */
     @Override
     public TreeMultiSet<A> sum(MultiSet<A> other) {
-        return (TreeMultiSet<A>) MultiSet.super.sum(other);
+        TreeMultiSet<A> treeMultiSet = compatibleTreeMultiSet(other);
+        return treeMultiSet != null
+               ? withMultiplicityMap(multiplicityMap.union(treeMultiSet.multiplicityMap, NonZero::plus, false))
+               : (TreeMultiSet<A>) MultiSet.super.sum(other);
     }
 
     /**
@@ -191,6 +199,40 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
         return known(size);
     }
 
+    /**
+     * The number of distinct elements in this {@link TreeMultiSet} strictly preceding <code>a</code> according to its
+     * ordering relation, whether or not <code>a</code> itself is present. <code>O(log2n)</code>.
+     *
+     * @param a the element
+     * @return the rank of <code>a</code>
+     */
+    public Natural rank(A a) {
+        return multiplicityMap.rank(a);
+    }
+
+    /**
+     * Retrieve the distinct element and its multiplicity at the zero-based <code>index</code> according to this
+     * {@link TreeMultiSet TreeMultiSet's} ordering relation, if <code>index</code> is less than the number of distinct
+     * elements. <code>O(log2n)</code>.
+     *
+     * @param index the index
+     * @return {@link Maybe} the element and its multiplicity at <code>index</code>
+     */
+    public Maybe<Tuple2<A, NonZero>> select(Natural index) {
+        return multiplicityMap.select(index);
+    }
+
+    /**
+     * View the distinct elements of this {@link TreeMultiSet} and their multiplicities as a {@link RandomAccess} from
+     * zero-based indices, according to its ordering relation. Lookups are <code>O(log2n)</code>; membership is
+     * <code>O(1)</code>.
+     *
+     * @return the index-based {@link RandomAccess} view
+     */
+    public RandomAccess<Natural, Maybe<Tuple2<A, NonZero>>> byIndex() {
+        return multiplicityMap.byIndex();
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(1)</code>.
@@ -211,29 +253,48 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
 
     /**
      * {@inheritDoc}
-     * <code>O(n + o)</code>.
+     * If <code>other</code> is a {@link TreeMultiSet} with the same {@link Comparator} as this {@link TreeMultiSet},
+     * the intersection is computed by recursively splitting and joining both trees, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(n + o)</code>.
      */
     @Override
     public TreeMultiSet<A> intersection(MultiSet<A> other) {
-        return (TreeMultiSet<A>) MultiSet.super.intersection(other);
+        TreeMultiSet<A> treeMultiSet = compatibleTreeMultiSet(other);
+        return treeMultiSet != null
+               ? withMultiplicityMap(multiplicityMap.intersection(treeMultiSet.multiplicityMap, TreeMultiSet::min,
+                                                                  true))
+               : (TreeMultiSet<A>) MultiSet.super.intersection(other);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(n + o)</code>.
+     * If <code>other</code> is a {@link TreeMultiSet} with the same {@link Comparator} as this {@link TreeMultiSet},
+     * the union is computed by recursively splitting and joining both trees, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(n + o)</code>.
      */
     @Override
     public TreeMultiSet<A> union(MultiSet<A> other) {
-        return (TreeMultiSet<A>) MultiSet.super.union(other);
+        TreeMultiSet<A> treeMultiSet = compatibleTreeMultiSet(other);
+        return treeMultiSet != null
+               ? withMultiplicityMap(multiplicityMap.union(treeMultiSet.multiplicityMap, TreeMultiSet::max, true))
+               : (TreeMultiSet<A>) MultiSet.super.union(other);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(n + o)</code>.
+     * If <code>other</code> is a {@link TreeMultiSet} with the same {@link Comparator} as this {@link TreeMultiSet},
+     * the difference is computed by recursively splitting and joining both trees, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(n + o)</code>.
      */
     @Override
     public TreeMultiSet<A> difference(MultiSet<A> other) {
-        return (TreeMultiSet<A>) MultiSet.super.difference(other);
+        TreeMultiSet<A> treeMultiSet = compatibleTreeMultiSet(other);
+        return treeMultiSet != null
+               ? withMultiplicityMap(multiplicityMap.difference(treeMultiSet.multiplicityMap,
+                                                                (x, y) -> x.minus(y)
+                                                                        .flatMap(CoProduct2::projectB)
+                                                                        .orElse(null)))
+               : (TreeMultiSet<A>) MultiSet.super.difference(other);
     }
 
     /**
@@ -254,6 +315,19 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
         return (TreeMultiSet<A>) MultiSet.super.merge(other, semigroup);
     }
 
+    private TreeMultiSet<A> compatibleTreeMultiSet(MultiSet<A> other) {
+        if (other instanceof TreeMultiSet<?>) {
+            TreeMultiSet<A> treeMultiSet = (TreeMultiSet<A>) other;
+            if (multiplicityMap.sharesOrderingWith(treeMultiSet.multiplicityMap))
+                return treeMultiSet;
+        }
+        return null;
+    }
+
+    private TreeMultiSet<A> withMultiplicityMap(TreeMap<A, NonZero> multiplicityMap) {
+        return multiplicityMap == this.multiplicityMap ? this : new TreeMultiSet<>(multiplicityMap);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -262,6 +336,16 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
         return multiplicityMap.iterator();
     }
 
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} covers each distinct element paired with its multiplicity, in order, as per
+     * {@link TreeMap#spliterator()}. Amortized <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<Tuple2<A, NonZero>> spliterator() {
+        return multiplicityMap.spliterator();
+    }
+
     /**
      * Returns <code>true</code> if <code>other</code> is a {@link TreeMultiSet} and
      * {@link EquivalenceRelation equivalent} to this {@link TreeMultiSet} according to the underlying
@@ -287,6 +371,17 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
         return multiplicityMap.hashCode();
     }
 
+    /**
+     * Create a {@link Builder} populated with the elements of this {@link TreeMultiSet}. This {@link TreeMultiSet} is
+     * unaffected by any subsequent modifications made to the {@link Builder}. <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     * @see TreeMap#transientCopy()
+     */
+    public Builder<A> transientCopy() {
+        return new Builder<>(multiplicityMap.transientCopy());
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(n)</code>.
@@ -308,7 +403,7 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
      */
     @SafeVarargs
     public static <A> TreeMultiSet<A> treeMultiSet(Comparator<? super A> comparator, A... as) {
-        return treeMultiSet(new TreeMultiSet<>(treeMap(comparator)), as);
+        return TreeMultiSet.<A>builder(comparator).incAll(as).persistent();
     }
 
     /**
@@ -325,9 +420,117 @@ public final class TreeMultiSet<A> implements MultiSet<A>, SortedCollection<Natu
         return treeMultiSet(naturalOrder(), as);
     }
 
-    private static <A> TreeMultiSet<A> treeMultiSet(TreeMultiSet<A> treeMultiSet, A[] as) {
-        for (A a : as)
-            treeMultiSet = treeMultiSet.inc(a);
-        return treeMultiSet;
+    /**
+     * Create an empty {@link Builder} using the given {@link Comparator} for its comparison relation.
+     *
+     * @param comparator the {@link Comparator comparison relation}
+     * @param <A>        the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder(Comparator<? super A> comparator) {
+        return new Builder<>(TreeMap.builder(comparator));
+    }
+
+    /**
+     * Create an empty {@link Builder} for some {@link Comparable} element type <code>A</code> using
+     * {@link Comparator#naturalOrder() natural ordering}.
+     *
+     * @param <A> the element type
+     * @return the {@link Builder}
+     */
+    public static <A extends Comparable<? super A>> Builder<A> builder() {
+        return builder(naturalOrder());
+    }
+
+    private static NonZero min(NonZero x, NonZero y) {
+        return x.compareTo(y) <= 0 ? x : y;
+    }
+
+    private static NonZero max(NonZero x, NonZero y) {
+        return x.compareTo(y) >= 0 ? x : y;
+    }
+
+    /**
+     * A transient, batch-mutable companion to {@link TreeMultiSet}, backed by a {@link TreeMap.Builder}.
+     *
+     * @param <A> the element type
+     * @see TreeMap.Builder
+     */
+    public static final class Builder<A> {
+        private final TreeMap.Builder<A, NonZero> multiplicityMapBuilder;
+
+        private Builder(TreeMap.Builder<A, NonZero> multiplicityMapBuilder) {
+            this.multiplicityMapBuilder = multiplicityMapBuilder;
+        }
+
+        /**
+         * Retrieve the current multiplicity of <code>a</code> in this {@link Builder}. <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @return the multiplicity of <code>a</code>
+         */
+        public Natural get(A a) {
+            return multiplicityMapBuilder.get(a).match(constantly(zero()), id());
+        }
+
+        /**
+         * Increment the multiplicity of <code>a</code> by <code>k</code>. <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @param k the amount to increment by
+         * @return this {@link Builder}
+         */
+        public Builder<A> inc(A a, NonZero k) {
+            multiplicityMapBuilder.put(a, multiplicityMapBuilder.get(a).fmap(k::plus).orElse(k));
+            return this;
+        }
+
+        /**
+         * Increment the multiplicity of <code>a</code> by one. <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> inc(A a) {
+            return inc(a, one());
+        }
+
+        /**
+         * Increment the multiplicity of every element in <code>as</code> by one. <code>O(o * log2(n + o))</code>.
+         *
+         * @param as the elements
+         * @return this {@link Builder}
+         */
+        public Builder<A> incAll(Iterable<? extends A> as) {
+            for (A a : as)
+                inc(a);
+            return this;
+        }
+
+        /**
+         * Remove all occurrences of <code>a</code> from this {@link Builder}. <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> remove(A a) {
+            multiplicityMapBuilder.remove(a);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link TreeMultiSet}. <code>O(1)</code>.
+         *
+         * @return the {@link TreeMultiSet}
+         */
+        public TreeMultiSet<A> persistent() {
+            return new TreeMultiSet<>(multiplicityMapBuilder.persistent());
+        }
+
+        private Builder<A> incAll(A[] as) {
+            for (A a : as)
+                inc(a);
+            return this;
+        }
     }
 }
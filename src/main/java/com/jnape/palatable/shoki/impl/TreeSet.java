@@ -4,19 +4,25 @@ import com.jnape.palatable.lambda.adt.Maybe;
 import com.jnape.palatable.lambda.adt.Unit;
 import com.jnape.palatable.lambda.adt.hlist.Tuple2;
 import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.RandomAccess;
 import com.jnape.palatable.shoki.api.Set;
 import com.jnape.palatable.shoki.api.SizeInfo.Known;
 import com.jnape.palatable.shoki.api.SortedCollection;
 
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NavigableSet;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 import static com.jnape.palatable.lambda.adt.Unit.UNIT;
+import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
+import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
-import static com.jnape.palatable.shoki.impl.TreeMap.treeMap;
 import static java.lang.String.join;
+import static java.util.Comparator.naturalOrder;
 
 /**
  * A {@link Set} and {@link SortedCollection} that stores elements internally in a {@link TreeMap}, supporting the same
@@ -99,28 +105,49 @@ public final class TreeSet<A> implements Set<Natural, A>, SortedCollection<Natur
 
     /**
      * {@inheritDoc}
-     * <code>O(log2n * o)</code>.
+     * If <code>other</code> is a {@link TreeSet} with the same {@link Comparator} as this {@link TreeSet}, the
+     * intersection is computed by recursively splitting and joining both trees, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(log2n * o)</code>.
      */
     @Override
     public TreeSet<A> intersection(Set<Natural, A> other) {
+        if (other instanceof TreeSet<?>) {
+            TreeSet<A> treeSet = (TreeSet<A>) other;
+            if (map.sharesOrderingWith(treeSet.map))
+                return withMap(map.intersection(treeSet.map, (x, y) -> x, true));
+        }
         return (TreeSet<A>) Set.super.intersection(other);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(log2n * o)</code>.
+     * If <code>other</code> is a {@link TreeSet} with the same {@link Comparator} as this {@link TreeSet}, the
+     * union is computed by recursively splitting and joining both trees, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(log2n * o)</code>.
      */
     @Override
     public TreeSet<A> union(Set<Natural, A> other) {
+        if (other instanceof TreeSet<?>) {
+            TreeSet<A> treeSet = (TreeSet<A>) other;
+            if (map.sharesOrderingWith(treeSet.map))
+                return withMap(map.union(treeSet.map, (x, y) -> x, true));
+        }
         return (TreeSet<A>) Set.super.union(other);
     }
 
     /**
      * {@inheritDoc}
-     * <code>O(log2n * o)</code>.
+     * If <code>other</code> is a {@link TreeSet} with the same {@link Comparator} as this {@link TreeSet}, the
+     * difference is computed by recursively splitting and joining both trees, which is
+     * <code>O(m * log2(n/m + 1))</code> for <code>m &lt;= n</code>; otherwise, <code>O(log2n * o)</code>.
      */
     @Override
     public TreeSet<A> difference(Set<Natural, A> other) {
+        if (other instanceof TreeSet<?>) {
+            TreeSet<A> treeSet = (TreeSet<A>) other;
+            if (map.sharesOrderingWith(treeSet.map))
+                return withMap(map.difference(treeSet.map));
+        }
         return (TreeSet<A>) Set.super.difference(other);
     }
 
@@ -171,13 +198,159 @@ public final class TreeSet<A> implements Set<Natural, A>, SortedCollection<Natur
 
     /**
      * {@inheritDoc}
-     * Amortized <code>O(1)</code>.
+     * <code>O(1)</code>.
      */
     @Override
     public Known<Natural> sizeInfo() {
         return map.sizeInfo();
     }
 
+    /**
+     * Retrieve the greatest element less than or equal to <code>a</code>, if there is one. <code>O(log2n)</code>.
+     *
+     * @param a the element
+     * @return {@link Maybe} the floor element
+     */
+    public Maybe<A> floor(A a) {
+        return map.floor(a).fmap(Tuple2::_1);
+    }
+
+    /**
+     * Retrieve the least element greater than or equal to <code>a</code>, if there is one. <code>O(log2n)</code>.
+     *
+     * @param a the element
+     * @return {@link Maybe} the ceiling element
+     */
+    public Maybe<A> ceiling(A a) {
+        return map.ceiling(a).fmap(Tuple2::_1);
+    }
+
+    /**
+     * Retrieve the greatest element strictly less than <code>a</code>, if there is one. <code>O(log2n)</code>.
+     *
+     * @param a the element
+     * @return {@link Maybe} the lower element
+     */
+    public Maybe<A> lower(A a) {
+        return map.lower(a).fmap(Tuple2::_1);
+    }
+
+    /**
+     * Retrieve the least element strictly greater than <code>a</code>, if there is one. <code>O(log2n)</code>.
+     *
+     * @param a the element
+     * @return {@link Maybe} the higher element
+     */
+    public Maybe<A> higher(A a) {
+        return map.higher(a).fmap(Tuple2::_1);
+    }
+
+    /**
+     * The elements of this {@link TreeSet} less than <code>to</code>, or equal to it if <code>inclusive</code>.
+     * <code>O(log2n)</code>, sharing structure with this {@link TreeSet}.
+     *
+     * @param to        the upper bound
+     * @param inclusive whether the upper bound is inclusive
+     * @return the head {@link TreeSet}
+     */
+    public TreeSet<A> headSet(A to, boolean inclusive) {
+        return withMap(map.headMap(to, inclusive));
+    }
+
+    /**
+     * The elements of this {@link TreeSet} greater than <code>from</code>, or equal to it if <code>inclusive</code>.
+     * <code>O(log2n)</code>, sharing structure with this {@link TreeSet}.
+     *
+     * @param from      the lower bound
+     * @param inclusive whether the lower bound is inclusive
+     * @return the tail {@link TreeSet}
+     */
+    public TreeSet<A> tailSet(A from, boolean inclusive) {
+        return withMap(map.tailMap(from, inclusive));
+    }
+
+    /**
+     * The elements of this {@link TreeSet} between <code>from</code> and <code>to</code>, each bound inclusive or
+     * exclusive as specified; empty if <code>from</code> follows <code>to</code>. <code>O(log2n)</code>, sharing
+     * structure with this {@link TreeSet}.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether the lower bound is inclusive
+     * @param to            the upper bound
+     * @param toInclusive   whether the upper bound is inclusive
+     * @return the sub-{@link TreeSet}
+     */
+    public TreeSet<A> subSet(A from, boolean fromInclusive, A to, boolean toInclusive) {
+        return withMap(map.subMap(from, fromInclusive, to, toInclusive));
+    }
+
+    /**
+     * Lazily iterate the elements of this {@link TreeSet} between <code>from</code> and <code>to</code>, each bound
+     * inclusive or exclusive as specified, without materializing a {@link TreeSet#subSet sub-set}. Each iteration
+     * reaches its first element in <code>O(log2n)</code>.
+     *
+     * @param from          the lower bound
+     * @param fromInclusive whether the lower bound is inclusive
+     * @param to            the upper bound
+     * @param toInclusive   whether the upper bound is inclusive
+     * @return the elements in range
+     */
+    public Iterable<A> range(A from, boolean fromInclusive, A to, boolean toInclusive) {
+        return map.range(from, fromInclusive, to, toInclusive, (a, unit) -> a);
+    }
+
+    /**
+     * The number of elements in this {@link TreeSet} strictly preceding <code>a</code> according to its ordering
+     * relation, whether or not <code>a</code> itself is present. <code>O(log2n)</code>.
+     *
+     * @param a the element
+     * @return the rank of <code>a</code>
+     */
+    public Natural rank(A a) {
+        return map.rank(a);
+    }
+
+    /**
+     * Retrieve the element at the zero-based <code>index</code> according to this {@link TreeSet TreeSet's} ordering
+     * relation, if <code>index</code> is less than this {@link TreeSet TreeSet's} size. <code>O(log2n)</code>.
+     *
+     * @param index the index
+     * @return {@link Maybe} the element at <code>index</code>
+     */
+    public Maybe<A> select(Natural index) {
+        return map.select(index, (a, unit) -> a);
+    }
+
+    /**
+     * View this {@link TreeSet} as a {@link RandomAccess} from zero-based indices to the elements at those indices,
+     * according to its ordering relation. Lookups are <code>O(log2n)</code>; membership is <code>O(1)</code>.
+     *
+     * @return the index-based {@link RandomAccess} view
+     */
+    public RandomAccess<Natural, Maybe<A>> byIndex() {
+        return map.byIndex((a, unit) -> a);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The view is a read-only {@link NavigableSet} ordered by this {@link TreeSet TreeSet's} ordering relation, whose
+     * navigation methods and iterators delegate directly to the backing {@link TreeMap}, and whose subset views are
+     * backed by structure-sharing {@link TreeSet#subSet(Object, boolean, Object, boolean) subsets}, created in
+     * <code>O(log2n)</code>. <code>O(1)</code>.
+     */
+    @Override
+    public NavigableSet<A> asJavaSet() {
+        return map.asJavaMap().navigableKeySet();
+    }
+
+    TreeMap<A, Unit> backingMap() {
+        return map;
+    }
+
+    private TreeSet<A> withMap(TreeMap<A, Unit> map) {
+        return map == this.map ? this : new TreeSet<>(map);
+    }
+
     /**
      * Produce an {@link Iterator} of the elements in this {@link TreeSet} according to the
      * {@link TreeMap#iterator() iteration} of the backing {@link TreeMap}.
@@ -186,7 +359,40 @@ public final class TreeSet<A> implements Set<Natural, A>, SortedCollection<Natur
      */
     @Override
     public Iterator<A> iterator() {
-        return map(Tuple2::_1, map).iterator();
+        return map.keyIterator(false);
+    }
+
+    /**
+     * Produce an {@link Iterator} of the elements in this {@link TreeSet} in the reverse of its ordering relation,
+     * without building the {@link TreeSet#reverse() reversed} {@link TreeSet}.
+     *
+     * @return the reverse-order {@link Iterator}
+     */
+    public Iterator<A> reverseIterator() {
+        return map.keyIterator(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Elements are visited directly from the backing {@link TreeMap} in order, without allocating an entry per
+     * element. <code>O(n)</code>.
+     */
+    @Override
+    public void forEach(Consumer<? super A> action) {
+        map.forEach((a, unit) -> action.accept(a));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} splits on the subtrees of the red-black tree underlying the backing {@link TreeMap}, and
+     * is {@link Spliterator#ORDERED ordered} and {@link Spliterator#SORTED sorted} by this {@link TreeSet TreeSet's}
+     * {@link TreeSet#comparator() comparator}, as well as {@link Spliterator#DISTINCT distinct},
+     * {@link Spliterator#IMMUTABLE immutable}, {@link Spliterator#SIZED sized}, and
+     * {@link Spliterator#SUBSIZED subsized}. Amortized <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return map.keySpliterator();
     }
 
     /**
@@ -211,6 +417,17 @@ public final class TreeSet<A> implements Set<Natural, A>, SortedCollection<Natur
         return map.hashCode();
     }
 
+    /**
+     * Create a {@link Builder} populated with the elements of this {@link TreeSet}. This {@link TreeSet} is unaffected
+     * by any subsequent modifications made to the {@link Builder}. <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     * @see TreeMap#transientCopy()
+     */
+    public Builder<A> transientCopy() {
+        return new Builder<>(map.transientCopy());
+    }
+
     /**
      * {@inheritDoc}
      * <code>O(n)</code>.
@@ -231,7 +448,7 @@ public final class TreeSet<A> implements Set<Natural, A>, SortedCollection<Natur
      */
     @SafeVarargs
     public static <A> TreeSet<A> treeSet(Comparator<? super A> comparator, A... as) {
-        return new TreeSet<>(backingTreeMap(treeMap(comparator), as));
+        return TreeSet.<A>builder(comparator).addAll(as).persistent();
     }
 
     /**
@@ -245,12 +462,117 @@ public final class TreeSet<A> implements Set<Natural, A>, SortedCollection<Natur
      */
     @SafeVarargs
     public static <A extends Comparable<? super A>> TreeSet<A> treeSet(A... as) {
-        return new TreeSet<>(backingTreeMap(treeMap(), as));
+        return TreeSet.<A>builder().addAll(as).persistent();
+    }
+
+    /**
+     * Create a {@link TreeSet} using the given {@link Comparator}, populated by the given elements, which are expected
+     * to already be sorted. <code>O(n)</code> if the elements are strictly ascending (or strictly descending) according
+     * to <code>comparator</code>; <code>O(n * log2n)</code> otherwise.
+     *
+     * @param comparator the ordering relation
+     * @param as         the elements
+     * @param <A>        the element type
+     * @return the {@link TreeSet}
+     * @see TreeMap#fromSorted(Comparator, Iterable)
+     */
+    public static <A> TreeSet<A> fromSorted(Comparator<? super A> comparator, Iterable<A> as) {
+        return new TreeSet<>(TreeMap.fromSorted(comparator, map(a -> tuple(a, UNIT), as)));
+    }
+
+    /**
+     * Create an empty {@link Builder} using the given {@link Comparator} for its comparison relation.
+     *
+     * @param comparator the {@link Comparator comparison relation}
+     * @param <A>        the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder(Comparator<? super A> comparator) {
+        return new Builder<>(TreeMap.builder(comparator));
+    }
+
+    /**
+     * Create an empty {@link Builder} for some {@link Comparable} element type <code>A</code> using
+     * {@link Comparator#naturalOrder() natural ordering}.
+     *
+     * @param <A> the element type
+     * @return the {@link Builder}
+     */
+    public static <A extends Comparable<? super A>> Builder<A> builder() {
+        return builder(naturalOrder());
     }
 
-    private static <A> TreeMap<A, Unit> backingTreeMap(TreeMap<A, Unit> treeMap, A[] as) {
-        for (A a : as)
-            treeMap = treeMap.put(a, UNIT);
-        return treeMap;
+    /**
+     * A transient, batch-mutable companion to {@link TreeSet}, backed by a {@link TreeMap.Builder}.
+     *
+     * @param <A> the element type
+     * @see TreeMap.Builder
+     */
+    public static final class Builder<A> {
+        private final TreeMap.Builder<A, Unit> mapBuilder;
+
+        private Builder(TreeMap.Builder<A, Unit> mapBuilder) {
+            this.mapBuilder = mapBuilder;
+        }
+
+        /**
+         * <code>True</code> if <code>a</code> is a member of this {@link Builder}; <code>false</code> otherwise.
+         * <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @return whether <code>a</code> is a member
+         */
+        public boolean contains(A a) {
+            return mapBuilder.get(a).match(constantly(false), constantly(true));
+        }
+
+        /**
+         * Add <code>a</code> to this {@link Builder}. <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> add(A a) {
+            mapBuilder.put(a, UNIT);
+            return this;
+        }
+
+        /**
+         * Add every element in <code>as</code> to this {@link Builder}. <code>O(o * log2(n + o))</code>.
+         *
+         * @param as the elements
+         * @return this {@link Builder}
+         */
+        public Builder<A> addAll(Iterable<? extends A> as) {
+            for (A a : as)
+                add(a);
+            return this;
+        }
+
+        /**
+         * Remove <code>a</code> from this {@link Builder}, if present. <code>O(log2n)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> remove(A a) {
+            mapBuilder.remove(a);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link TreeSet}. <code>O(1)</code>.
+         *
+         * @return the {@link TreeSet}
+         */
+        public TreeSet<A> persistent() {
+            return new TreeSet<>(mapBuilder.persistent());
+        }
+
+        private Builder<A> addAll(A[] as) {
+            for (A a : as)
+                add(a);
+            return this;
+        }
     }
 }
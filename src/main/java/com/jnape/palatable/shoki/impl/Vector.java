@@ -0,0 +1,787 @@
+package com.jnape.palatable.shoki.impl;
+
+import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.shoki.api.Collection;
+import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.OrderedCollection;
+import com.jnape.palatable.shoki.api.Queue;
+import com.jnape.palatable.shoki.api.RandomAccess;
+import com.jnape.palatable.shoki.api.SizeInfo.Known;
+import com.jnape.palatable.shoki.api.Stack;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import static com.jnape.palatable.lambda.adt.Maybe.just;
+import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.lambda.functions.builtin.fn1.Downcast.downcast;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.equivalent;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
+import static com.jnape.palatable.shoki.api.OrderedCollection.EquivalenceRelations.elementsInOrder;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
+
+/**
+ * A persistent, indexed sequence that can be used as a {@link Stack}, a {@link Queue}, or a {@link RandomAccess} from
+ * zero-based indices to elements.
+ * <p>
+ * Elements are stored in a <a href="https://infoscience.epfl.ch/record/169879">relaxed radix balanced tree</a> of
+ * 32-element leaves under 32-way branches, followed by a tail buffer of up to 32 elements. Branches whose subtrees
+ * are densely packed are indexed by radix alone; branches produced by {@link Vector#concat(Vector) concatenation} or
+ * {@link Vector#slice(Natural, Natural) slicing} may be relaxed, carrying a table of cumulative subtree sizes that is
+ * consulted during indexing. Because the tree is at most <code>log32n</code> deep, {@link Vector#get(Natural) get},
+ * {@link Vector#update(Natural, Object) update}, and {@link Vector#snoc(Object) snoc} are effectively
+ * <code>O(1)</code>, while {@link Vector#concat(Vector) concat} and {@link Vector#slice(Natural, Natural) slice} are
+ * <code>O(log32n)</code>, sharing all untouched subtrees.
+ *
+ * @param <A> the element type
+ * @see StrictQueue
+ */
+public final class Vector<A> implements RandomAccess<Natural, Maybe<A>>, Stack<Natural, A>, Queue<Natural, A> {
+
+    private static final int       BITS        = 5;
+    private static final int       WIDTH       = 1 << BITS;
+    private static final int       MASK        = WIDTH - 1;
+    private static final int       INVARIANT   = 1;
+    private static final int       EXTRAS      = 2;
+    private static final Object[]  NO_ELEMENTS = new Object[0];
+    private static final Vector<?> EMPTY       = new Vector<>(null, 0, NO_ELEMENTS, 0);
+
+    private final Object   root;
+    private final int      height;
+    private final Object[] tail;
+    private final int      size;
+
+    private volatile Integer hashCode;
+
+    private Vector(Object root, int height, Object[] tail, int size) {
+        this.root   = root;
+        this.height = height;
+        this.tail   = tail;
+        this.size   = size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Effectively <code>O(1)</code>.
+     */
+    @Override
+    public Maybe<A> get(Natural index) {
+        return contains(index) ? just(elementAt(index.intValue())) : nothing();
+    }
+
+    /**
+     * <code>True</code> if <code>index</code> is less than the size of this {@link Vector}; <code>false</code>
+     * otherwise. <code>O(1)</code>.
+     *
+     * @param index the index
+     * @return whether <code>index</code> is in bounds
+     */
+    @Override
+    public boolean contains(Natural index) {
+        return index.longValue() < size;
+    }
+
+    /**
+     * Produce a new {@link Vector} with the element at <code>index</code> replaced by <code>a</code>, or this
+     * {@link Vector} if <code>index</code> is out of bounds. Effectively <code>O(1)</code>.
+     *
+     * @param index the index
+     * @param a     the element
+     * @return the updated {@link Vector}
+     */
+    public Vector<A> update(Natural index, A a) {
+        if (!contains(index))
+            return this;
+
+        int i          = index.intValue();
+        int tailOffset = size - tail.length;
+        if (i >= tailOffset) {
+            Object[] updatedTail = tail.clone();
+            updatedTail[i - tailOffset] = a;
+            return new Vector<>(root, height, updatedTail, size);
+        }
+        return new Vector<>(updated(root, height, i, a), height, tail, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(log32n)</code>.
+     */
+    @Override
+    public Maybe<A> head() {
+        return size == 0 ? nothing() : just(elementAt(0));
+    }
+
+    /**
+     * The remaining elements after removing the head of this {@link Vector}, or an empty {@link Vector} if there are
+     * no elements. <code>O(log32n)</code>.
+     *
+     * @return the tail of this {@link Vector}
+     */
+    @Override
+    public Vector<A> tail() {
+        return size == 0 ? this : drop(1);
+    }
+
+    /**
+     * Produce a new {@link Vector} instance with <code>a</code> added to the back. Effectively <code>O(1)</code>.
+     *
+     * @param a the element
+     * @return the new {@link Vector}
+     */
+    @Override
+    public Vector<A> snoc(A a) {
+        if (tail.length < WIDTH) {
+            Object[] snocced = Arrays.copyOf(tail, tail.length + 1);
+            snocced[tail.length] = a;
+            return new Vector<>(root, height, snocced, size + 1);
+        }
+        return withLeaf(root, height, tail, new Object[]{a}, size + 1);
+    }
+
+    /**
+     * Produce a new {@link Vector} instance with <code>a</code> added to the front, by
+     * {@link Vector#concat(Vector) concatenating} this {@link Vector} onto a singleton. <code>O(log32n)</code>.
+     *
+     * @param a the element
+     * @return the new {@link Vector}
+     */
+    @Override
+    public Vector<A> cons(A a) {
+        return new Vector<A>(null, 0, new Object[]{a}, 1).concat(this);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(k * log32n)</code>.
+     */
+    @Override
+    public Vector<A> consAll(Collection<Natural, A> other) {
+        return (Vector<A>) Stack.super.consAll(other);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If <code>collection</code> is a {@link Vector}, the two are {@link Vector#concat(Vector) concatenated} in
+     * <code>O(log32n)</code>; otherwise, effectively <code>O(k)</code>.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Vector<A> snocAll(Collection<Natural, A> collection) {
+        return collection instanceof Vector<?>
+               ? concat((Vector<A>) collection)
+               : (Vector<A>) Queue.super.snocAll(collection);
+    }
+
+    /**
+     * Produce a new {@link Vector} of the elements of this {@link Vector} followed by the elements of
+     * <code>other</code>, merging and redistributing only the nodes along the seam between the two trees.
+     * <code>O(log32n)</code>.
+     *
+     * @param other the {@link Vector} to append
+     * @return the concatenated {@link Vector}
+     */
+    @SuppressWarnings("unchecked")
+    public Vector<A> concat(Vector<A> other) {
+        if (other.size == 0)
+            return this;
+        if (size == 0)
+            return other;
+
+        if (other.root == null) {
+            Vector<A> concatenated = this;
+            for (Object a : other.tail)
+                concatenated = concatenated.snoc((A) a);
+            return concatenated;
+        }
+
+        Vector<A> left         = withLeaf(root, height, tail, NO_ELEMENTS, size);
+        Branch    joined       = concat(left.root, left.height, other.root, other.height);
+        int       joinedHeight = Math.max(left.height, other.height);
+        return joined.children.length == 1
+               ? new Vector<>(joined.children[0], joinedHeight, other.tail, size + other.size)
+               : new Vector<>(joined, joinedHeight + 1, other.tail, size + other.size);
+    }
+
+    /**
+     * Produce a new {@link Vector} of the elements of this {@link Vector} from <code>fromInclusive</code> up to but
+     * excluding <code>toExclusive</code>, each clamped to the size of this {@link Vector}; empty if
+     * <code>fromInclusive</code> is not less than <code>toExclusive</code>. <code>O(log32n)</code>.
+     *
+     * @param fromInclusive the index of the first element to retain
+     * @param toExclusive   the index following the last element to retain
+     * @return the sliced {@link Vector}
+     */
+    public Vector<A> slice(Natural fromInclusive, Natural toExclusive) {
+        int from = clamp(fromInclusive);
+        int to   = clamp(toExclusive);
+        return from >= to ? vector() : take(to).drop(from);
+    }
+
+    /**
+     * Reverse this {@link Vector}. <code>O(n)</code>.
+     *
+     * @return this {@link Vector}, reversed
+     */
+    @Override
+    public Vector<A> reverse() {
+        Builder<A> reversed = builder();
+        for (int i = size - 1; i >= 0; i--)
+            reversed.snoc(elementAt(i));
+        return reversed.persistent();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    public Known<Natural> sizeInfo() {
+        return known(atLeastZero(size));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <code>O(1)</code>.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Create a {@link Builder} populated with the elements of this {@link Vector}, sharing its tree and copying only
+     * its tail buffer. Subsequent modifications to the {@link Builder} are not reflected in this {@link Vector}.
+     * <code>O(1)</code>.
+     *
+     * @return the {@link Builder}
+     */
+    public Builder<A> transientCopy() {
+        return new Builder<>(root, height, size - tail.length, Arrays.copyOf(tail, WIDTH), tail.length);
+    }
+
+    /**
+     * Produce an {@link Iterator} of the elements in this {@link Vector}, from front to back, descending the tree
+     * once per leaf. Amortized <code>O(1)</code> per element.
+     *
+     * @return the {@link Iterator}
+     */
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private int      index;
+            private Object[] leaf = NO_ELEMENTS;
+            private int      leafStart;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public A next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                if (index - leafStart == leaf.length) {
+                    leaf      = leafContaining(index);
+                    leafStart = index;
+                }
+                return (A) leaf[index++ - leafStart];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * The {@link Spliterator} is {@link Spliterator#ORDERED ordered}, {@link Spliterator#IMMUTABLE immutable},
+     * {@link Spliterator#SIZED sized}, and {@link Spliterator#SUBSIZED subsized}. <code>O(1)</code>.
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Returns true if <code>other</code> is a {@link Vector} with exactly the same elements in the same order as this
+     * {@link Vector}, regardless of how either tree is balanced; otherwise, returns false. <code>O(n)</code>.
+     *
+     * @param other the reference object with which to compare
+     * @return true if the compared to a value-equal {@link Vector}
+     */
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Vector<?> &&
+                equivalent(elementsInOrder(objectEquals()), this, downcast(other));
+    }
+
+    /**
+     * {@inheritDoc}
+     * Amortized <code>O(1)</code>.
+     *
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        Integer hashCode = this.hashCode;
+        if (hashCode == null) {
+            synchronized (this) {
+                hashCode = this.hashCode;
+                if (hashCode == null) {
+                    this.hashCode = hashCode = hash(
+                            OrderedCollection.HashingAlgorithms.<A, Vector<A>>elementsInOrder(objectHashCode()),
+                            this);
+                }
+            }
+        }
+        return hashCode;
+    }
+
+    /**
+     * Provide a debug-friendly string representation of this {@link Vector}. <code>O(n)</code>
+     *
+     * @return the string representation of this {@link Vector}
+     */
+    @Override
+    public String toString() {
+        StringBuilder toString = new StringBuilder("Vector[");
+
+        Iterator<A> it = iterator();
+        while (it.hasNext()) {
+            toString.append(it.next());
+            if (it.hasNext())
+                toString.append(", ");
+        }
+
+        return toString.append("]").toString();
+    }
+
+    /**
+     * Create a {@link Vector} of zero or more elements, in the order given. <code>O(n)</code>.
+     *
+     * @param as  the elements
+     * @param <A> the element type
+     * @return the {@link Vector}
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <A> Vector<A> vector(A... as) {
+        if (as.length == 0)
+            return (Vector<A>) EMPTY;
+
+        Builder<A> builder = builder();
+        for (A a : as)
+            builder.snoc(a);
+        return builder.persistent();
+    }
+
+    /**
+     * Create an empty {@link Builder}.
+     *
+     * @param <A> the element type
+     * @return the {@link Builder}
+     */
+    public static <A> Builder<A> builder() {
+        return new Builder<>(null, 0, 0, new Object[WIDTH], 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private A elementAt(int i) {
+        int tailOffset = size - tail.length;
+        if (i >= tailOffset)
+            return (A) tail[i - tailOffset];
+
+        Object node = root;
+        for (int h = height; h > 0; h--) {
+            Branch branch = (Branch) node;
+            int    shift  = h * BITS;
+            int    child  = branch.childIndex(i, shift);
+            i -= branch.offset(child, shift);
+            node = branch.children[child];
+        }
+        return (A) ((Object[]) node)[i];
+    }
+
+    private Object[] leafContaining(int i) {
+        int tailOffset = size - tail.length;
+        if (i >= tailOffset)
+            return tail;
+
+        Object node = root;
+        for (int h = height; h > 0; h--) {
+            Branch branch = (Branch) node;
+            int    shift  = h * BITS;
+            int    child  = branch.childIndex(i, shift);
+            i -= branch.offset(child, shift);
+            node = branch.children[child];
+        }
+        return (Object[]) node;
+    }
+
+    private int localIndex(int i) {
+        int tailOffset = size - tail.length;
+        if (i >= tailOffset)
+            return i - tailOffset;
+
+        Object node = root;
+        for (int h = height; h > 0; h--) {
+            Branch branch = (Branch) node;
+            int    shift  = h * BITS;
+            int    child  = branch.childIndex(i, shift);
+            i -= branch.offset(child, shift);
+            node = branch.children[child];
+        }
+        return i;
+    }
+
+    private int clamp(Natural index) {
+        return index.longValue() < size ? index.intValue() : size;
+    }
+
+    private Vector<A> take(int n) {
+        if (n == size)
+            return this;
+
+        int tailOffset = size - tail.length;
+        if (n > tailOffset)
+            return new Vector<>(root, height, Arrays.copyOf(tail, n - tailOffset), n);
+
+        Object[] leaf      = leafContaining(n - 1);
+        int      leafStart = n - 1 - localIndex(n - 1);
+        Object[] newTail   = Arrays.copyOf(leaf, n - leafStart);
+        if (leafStart == 0)
+            return new Vector<>(null, 0, newTail, n);
+        return collapsed(truncated(root, height, leafStart), height, newTail, n);
+    }
+
+    private Vector<A> drop(int n) {
+        if (n == 0)
+            return this;
+
+        int tailOffset = size - tail.length;
+        if (n >= tailOffset)
+            return new Vector<>(null, 0, Arrays.copyOfRange(tail, n - tailOffset, tail.length), size - n);
+        return collapsed(dropped(root, height, n), height, tail, size - n);
+    }
+
+    private static <A> Vector<A> collapsed(Object root, int height, Object[] tail, int size) {
+        while (height > 0 && ((Branch) root).children.length == 1) {
+            root = ((Branch) root).children[0];
+            height--;
+        }
+        return new Vector<>(root, height, tail, size);
+    }
+
+    private static <A> Vector<A> withLeaf(Object root, int height, Object[] leaf, Object[] tail, int size) {
+        if (root == null)
+            return new Vector<>(leaf, 0, tail, size);
+
+        Branch appended = height == 0 ? null : appended((Branch) root, height, leaf);
+        return appended != null
+               ? new Vector<>(appended, height, tail, size)
+               : new Vector<>(branch(new Object[]{root, path(height, leaf)}, height + 1), height + 1, tail, size);
+    }
+
+    private static Branch appended(Branch branch, int height, Object[] leaf) {
+        Object[] children = branch.children;
+        int      last     = children.length - 1;
+        if (height > 1) {
+            Branch appended = appended((Branch) children[last], height - 1, leaf);
+            if (appended != null) {
+                Object[] updatedChildren = children.clone();
+                updatedChildren[last] = appended;
+                return branch(updatedChildren, height);
+            }
+        }
+        if (children.length == WIDTH)
+            return null;
+
+        Object[] grownChildren = Arrays.copyOf(children, children.length + 1);
+        grownChildren[children.length] = path(height - 1, leaf);
+        return branch(grownChildren, height);
+    }
+
+    private static Object path(int height, Object[] leaf) {
+        return height == 0 ? leaf : branch(new Object[]{path(height - 1, leaf)}, height);
+    }
+
+    private static Object updated(Object node, int height, int i, Object a) {
+        if (height == 0) {
+            Object[] leaf = ((Object[]) node).clone();
+            leaf[i] = a;
+            return leaf;
+        }
+
+        Branch   branch   = (Branch) node;
+        int      shift    = height * BITS;
+        int      child    = branch.childIndex(i, shift);
+        Object[] children = branch.children.clone();
+        children[child] = updated(children[child], height - 1, i - branch.offset(child, shift), a);
+        return new Branch(children, branch.sizes, branch.size);
+    }
+
+    private static Object truncated(Object node, int height, int count) {
+        if (sizeOf(node) == count)
+            return node;
+        if (height == 0)
+            return Arrays.copyOf((Object[]) node, count);
+
+        Branch   branch   = (Branch) node;
+        int      shift    = height * BITS;
+        int      child    = branch.childIndex(count - 1, shift);
+        Object[] children = Arrays.copyOf(branch.children, child + 1);
+        children[child] = truncated(children[child], height - 1, count - branch.offset(child, shift));
+        return branch(children, height);
+    }
+
+    private static Object dropped(Object node, int height, int count) {
+        if (count == 0)
+            return node;
+        if (height == 0) {
+            Object[] leaf = (Object[]) node;
+            return Arrays.copyOfRange(leaf, count, leaf.length);
+        }
+
+        Branch   branch   = (Branch) node;
+        int      shift    = height * BITS;
+        int      child    = branch.childIndex(count, shift);
+        Object[] children = Arrays.copyOfRange(branch.children, child, branch.children.length);
+        children[0] = dropped(children[0], height - 1, count - branch.offset(child, shift));
+        return branch(children, height);
+    }
+
+    /*
+     * Concatenation follows the RRB-tree algorithm: descend both trees along the seam between them, and on the way
+     * back up, redistribute the nodes adjacent to the seam at each level so that there are at most EXTRAS more of them
+     * than would be needed if they were packed, merging only as many as necessary. The result at each level is a
+     * branch one level taller than its inputs, holding one or two nodes of their height.
+     */
+    private static Branch concat(Object left, int leftHeight, Object right, int rightHeight) {
+        if (leftHeight > rightHeight) {
+            Branch l      = (Branch) left;
+            Branch centre = concat(l.children[l.children.length - 1], leftHeight - 1, right, rightHeight);
+            return rebalanced(seam(l.children, l.children.length - 1, centre, NO_ELEMENTS, 0), leftHeight);
+        }
+        if (leftHeight < rightHeight) {
+            Branch r      = (Branch) right;
+            Branch centre = concat(left, leftHeight, r.children[0], rightHeight - 1);
+            return rebalanced(seam(NO_ELEMENTS, 0, centre, r.children, 1), rightHeight);
+        }
+        if (leftHeight == 0) {
+            Object[] l = (Object[]) left;
+            Object[] r = (Object[]) right;
+            if (l.length + r.length > WIDTH)
+                return branch(new Object[]{l, r}, 1);
+
+            Object[] merged = Arrays.copyOf(l, l.length + r.length);
+            System.arraycopy(r, 0, merged, l.length, r.length);
+            return branch(new Object[]{merged}, 1);
+        }
+
+        Branch l      = (Branch) left;
+        Branch r      = (Branch) right;
+        Branch centre = concat(l.children[l.children.length - 1], leftHeight - 1, r.children[0], rightHeight - 1);
+        return rebalanced(seam(l.children, l.children.length - 1, centre, r.children, 1), leftHeight);
+    }
+
+    private static Object[] seam(Object[] left, int leftLength, Branch centre, Object[] right, int rightFrom) {
+        Object[] seam = new Object[leftLength + centre.children.length + right.length - rightFrom];
+        System.arraycopy(left, 0, seam, 0, leftLength);
+        System.arraycopy(centre.children, 0, seam, leftLength, centre.children.length);
+        System.arraycopy(right, rightFrom, seam, leftLength + centre.children.length, right.length - rightFrom);
+        return seam;
+    }
+
+    private static Branch rebalanced(Object[] seam, int height) {
+        Object[] nodes = redistributed(seam, height - 1);
+        if (nodes.length <= WIDTH)
+            return branch(new Object[]{branch(nodes, height)}, height + 1);
+
+        return branch(new Object[]{
+                branch(Arrays.copyOfRange(nodes, 0, WIDTH), height),
+                branch(Arrays.copyOfRange(nodes, WIDTH, nodes.length), height)}, height + 1);
+    }
+
+    private static Object[] redistributed(Object[] nodes, int height) {
+        int[] slots = new int[nodes.length];
+        int   total = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            slots[i] = slotsOf(nodes[i]);
+            total += slots[i];
+        }
+
+        int optimal = (total + WIDTH - 1) / WIDTH;
+        int length  = nodes.length;
+        if (length <= optimal + EXTRAS)
+            return nodes;
+
+        int i = 0;
+        while (length > optimal + EXTRAS) {
+            while (slots[i] > WIDTH - INVARIANT)
+                i++;
+            int remaining = slots[i];
+            while (remaining > 0) {
+                int filled = Math.min(remaining + slots[i + 1], WIDTH);
+                remaining = remaining + slots[i + 1] - filled;
+                slots[i++] = filled;
+            }
+            System.arraycopy(slots, i + 1, slots, i, length - i - 1);
+            length--;
+            i--;
+        }
+
+        Object[] redistributed = new Object[length];
+        int      node          = 0;
+        int      offset        = 0;
+        for (int k = 0; k < length; k++) {
+            if (offset == 0 && slotsOf(nodes[node]) == slots[k]) {
+                redistributed[k] = nodes[node++];
+                continue;
+            }
+
+            Object[] items  = new Object[slots[k]];
+            int      filled = 0;
+            while (filled < items.length) {
+                Object[] source = itemsOf(nodes[node]);
+                int      moved  = Math.min(items.length - filled, source.length - offset);
+                System.arraycopy(source, offset, items, filled, moved);
+                filled += moved;
+                offset += moved;
+                if (offset == source.length) {
+                    node++;
+                    offset = 0;
+                }
+            }
+            redistributed[k] = height == 0 ? items : branch(items, height);
+        }
+        return redistributed;
+    }
+
+    private static int sizeOf(Object node) {
+        return node instanceof Branch ? ((Branch) node).size : ((Object[]) node).length;
+    }
+
+    private static int slotsOf(Object node) {
+        return itemsOf(node).length;
+    }
+
+    private static Object[] itemsOf(Object node) {
+        return node instanceof Branch ? ((Branch) node).children : (Object[]) node;
+    }
+
+    private static Branch branch(Object[] children, int height) {
+        long    capacity = 1L << (height * BITS);
+        int[]   sizes    = new int[children.length];
+        boolean radix    = true;
+        int     size     = 0;
+        for (int i = 0; i < children.length; i++) {
+            int childSize = sizeOf(children[i]);
+            if (i < children.length - 1 && childSize != capacity)
+                radix = false;
+            size += childSize;
+            sizes[i] = size;
+        }
+        return new Branch(children, radix ? null : sizes, size);
+    }
+
+    /**
+     * An interior node of a {@link Vector}, whose children are either all leaves (<code>Object[]</code> of elements)
+     * or all {@link Branch Branches} of the same height. If every child but the last is full, the branch is indexed
+     * by radix and <code>sizes</code> is <code>null</code>; otherwise, <code>sizes</code> holds the cumulative number
+     * of elements in each child and its predecessors.
+     */
+    private static final class Branch {
+        private final Object[] children;
+        private final int[]    sizes;
+        private final int      size;
+
+        private Branch(Object[] children, int[] sizes, int size) {
+            this.children = children;
+            this.sizes    = sizes;
+            this.size     = size;
+        }
+
+        private int childIndex(int i, int shift) {
+            if (sizes == null)
+                return shift < Integer.SIZE ? (i >>> shift) & MASK : 0;
+
+            int child = shift < Integer.SIZE ? i >>> shift : 0;
+            while (sizes[child] <= i)
+                child++;
+            return child;
+        }
+
+        private int offset(int child, int shift) {
+            return child == 0 ? 0 : sizes == null ? child << shift : sizes[child - 1];
+        }
+    }
+
+    /**
+     * A transient, batch-mutable companion to {@link Vector}, appending into a mutable tail buffer and only pushing
+     * the buffer into the shared tree once it holds a full leaf. Subsequent modifications to a {@link Builder} are
+     * never reflected in the {@link Vector Vectors} it has already produced.
+     *
+     * @param <A> the element type
+     */
+    public static final class Builder<A> {
+        private Object   root;
+        private int      height;
+        private int      treeSize;
+        private Object[] buffer;
+        private int      buffered;
+
+        private Builder(Object root, int height, int treeSize, Object[] buffer, int buffered) {
+            this.root     = root;
+            this.height   = height;
+            this.treeSize = treeSize;
+            this.buffer   = buffer;
+            this.buffered = buffered;
+        }
+
+        /**
+         * Add <code>a</code> to the back of this {@link Builder}. Amortized <code>O(1)</code>.
+         *
+         * @param a the element
+         * @return this {@link Builder}
+         */
+        public Builder<A> snoc(A a) {
+            if (buffered == WIDTH) {
+                Vector<A> pushed = withLeaf(root, height, buffer, NO_ELEMENTS, treeSize + WIDTH);
+                root     = pushed.root;
+                height   = pushed.height;
+                treeSize = pushed.size;
+                buffer   = new Object[WIDTH];
+                buffered = 0;
+            }
+            buffer[buffered++] = a;
+            return this;
+        }
+
+        /**
+         * Add every element in <code>as</code> to the back of this {@link Builder}. Amortized <code>O(k)</code>.
+         *
+         * @param as the elements
+         * @return this {@link Builder}
+         */
+        public Builder<A> snocAll(Iterable<? extends A> as) {
+            for (A a : as)
+                snoc(a);
+            return this;
+        }
+
+        /**
+         * Freeze the current contents of this {@link Builder} into a {@link Vector}. <code>O(1)</code>.
+         *
+         * @return the {@link Vector}
+         */
+        public Vector<A> persistent() {
+            return new Vector<>(root, height, Arrays.copyOf(buffer, buffered), treeSize + buffered);
+        }
+    }
+}
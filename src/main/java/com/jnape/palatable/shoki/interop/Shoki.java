@@ -20,15 +20,18 @@ import java.util.Objects;
 import java.util.SortedMap;
 import java.util.SortedSet;
 
-import static com.jnape.palatable.lambda.functions.Fn2.curried;
+import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
-import static com.jnape.palatable.lambda.functions.builtin.fn2.Into.into;
+import static com.jnape.palatable.lambda.functions.builtin.fn2.Map.map;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
 import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
 import static java.util.Comparator.naturalOrder;
 
 /**
- * Common interoperability methods for translating from built-in Java types to Shoki types.
+ * Common interoperability methods for translating from built-in Java types to Shoki types. Translating in the other
+ * direction requires no copying: see {@link com.jnape.palatable.shoki.api.Collection#asJavaCollection()},
+ * {@link com.jnape.palatable.shoki.api.Set#asJavaSet()}, {@link com.jnape.palatable.shoki.api.Map#asJavaMap()},
+ * {@link StrictStack#asJavaList()}, and {@link StrictQueue#asJavaList()}.
  */
 public final class Shoki {
     private Shoki() {
@@ -93,12 +96,15 @@ public final class Shoki {
      * @return the populated {@link HashMap}
      */
     public static <K, V> HashMap<K, V> hashMap(java.util.Map<K, V> javaMap) {
-        return foldLeft(curried(hm -> into(hm::put)), HashMap.hashMap(), javaMap.entrySet());
+        HashMap.Builder<K, V> builder = HashMap.builder();
+        javaMap.forEach(builder::put);
+        return builder.persistent();
     }
 
     /**
      * Construct a {@link TreeMap} from an input {@link java.util.Map}, using the given {@link Comparator} for its key
-     * comparison relation.
+     * comparison relation. If the input map is an instance of a {@link SortedMap} ordered consistently with
+     * <code>keyComparator</code>, the {@link TreeMap} is built in linear time.
      *
      * @param keyComparator the {@link Comparator}
      * @param javaMap       the input {@link java.util.Map}
@@ -108,7 +114,13 @@ public final class Shoki {
      */
     public static <K, V> TreeMap<K, V> treeMap(Comparator<? super K> keyComparator,
                                                java.util.Map<K, V> javaMap) {
-        return foldLeft(curried(tm -> into(tm::put)), TreeMap.treeMap(keyComparator), javaMap.entrySet());
+        if (javaMap instanceof SortedMap<?, ?>
+                && compatible(keyComparator, ((SortedMap<K, V>) javaMap).comparator()))
+            return TreeMap.fromSorted(keyComparator, map(e -> tuple(e.getKey(), e.getValue()), javaMap.entrySet()));
+
+        TreeMap.Builder<K, V> builder = TreeMap.builder(keyComparator);
+        javaMap.forEach(builder::put);
+        return builder.persistent();
     }
 
     /**
@@ -139,12 +151,13 @@ public final class Shoki {
      * @return the populated {@link HashSet}
      */
     public static <A> HashSet<A> hashSet(Iterable<A> javaIterable) {
-        return foldLeft(HashSet::add, HashSet.hashSet(), javaIterable);
+        return HashSet.<A>builder().addAll(javaIterable).persistent();
     }
 
     /**
      * Construct a {@link TreeSet} from an input {@link Iterable}, using the given {@link Comparator} for its
-     * comparison relation.
+     * comparison relation. If the input iterable is an instance of a {@link SortedSet} ordered consistently with
+     * <code>comparator</code>, the {@link TreeSet} is built in linear time.
      *
      * @param comparator   the {@link Comparator}
      * @param javaIterable the input {@link Iterable}
@@ -152,7 +165,10 @@ public final class Shoki {
      * @return the populated {@link TreeSet}
      */
     public static <A> TreeSet<A> treeSet(Comparator<? super A> comparator, Iterable<A> javaIterable) {
-        return foldLeft(TreeSet::add, TreeSet.treeSet(comparator), javaIterable);
+        return javaIterable instanceof SortedSet<?>
+                       && compatible(comparator, ((SortedSet<A>) javaIterable).comparator())
+               ? TreeSet.fromSorted(comparator, javaIterable)
+               : TreeSet.<A>builder(comparator).addAll(javaIterable).persistent();
     }
 
     /**
@@ -185,10 +201,9 @@ public final class Shoki {
      * @return the populated {@link HashMultiSet}
      */
     public static <A> HashMultiSet<A> hashMultiSet(java.util.Map<A, Integer> javaMap) {
-        return foldLeft(curried(hms -> into((a, k) -> atLeastZero(k).match(constantly(hms),
-                                                                           nonZeroK -> hms.inc(a, nonZeroK)))),
-                        HashMultiSet.hashMultiSet(),
-                        javaMap.entrySet());
+        HashMultiSet.Builder<A> builder = HashMultiSet.builder();
+        javaMap.forEach((a, k) -> atLeastZero(k).match(constantly(builder), nonZeroK -> builder.inc(a, nonZeroK)));
+        return builder.persistent();
     }
 
     /**
@@ -201,7 +216,7 @@ public final class Shoki {
      * @return the populated {@link HashMultiSet}
      */
     public static <A> HashMultiSet<A> hashMultiSet(Iterable<A> javaIterable) {
-        return foldLeft(HashMultiSet::inc, HashMultiSet.hashMultiSet(), javaIterable);
+        return HashMultiSet.<A>builder().incAll(javaIterable).persistent();
     }
 
     /**
@@ -218,10 +233,9 @@ public final class Shoki {
      */
     public static <A> TreeMultiSet<A> treeMultiSet(Comparator<? super A> comparator,
                                                    java.util.Map<A, Integer> javaMap) {
-        return foldLeft(curried(tms -> into((a, k) -> atLeastZero(k).match(constantly(tms),
-                                                                           nonZeroK -> tms.inc(a, nonZeroK)))),
-                        TreeMultiSet.treeMultiSet(comparator),
-                        javaMap.entrySet());
+        TreeMultiSet.Builder<A> builder = TreeMultiSet.builder(comparator);
+        javaMap.forEach((a, k) -> atLeastZero(k).match(constantly(builder), nonZeroK -> builder.inc(a, nonZeroK)));
+        return builder.persistent();
     }
 
     /**
@@ -257,7 +271,7 @@ public final class Shoki {
      */
     public static <A> TreeMultiSet<A> treeMultiSet(Comparator<? super A> comparator,
                                                    Iterable<A> javaIterable) {
-        return foldLeft(TreeMultiSet::inc, TreeMultiSet.treeMultiSet(comparator), javaIterable);
+        return TreeMultiSet.<A>builder(comparator).incAll(javaIterable).persistent();
     }
 
     /**
@@ -278,4 +292,9 @@ public final class Shoki {
                                            : null;
         return treeMultiSet(comparator == null ? naturalOrder() : comparator, javaIterable);
     }
+
+    private static boolean compatible(Comparator<?> comparator, Comparator<?> sortedComparator) {
+        return Objects.equals(comparator, sortedComparator)
+                || (sortedComparator == null && Objects.equals(comparator, naturalOrder()));
+    }
 }
@@ -3,7 +3,12 @@ package com.jnape.palatable.shoki.api;
 import com.jnape.palatable.shoki.testsupport.DefaultMethodsCollection;
 import org.junit.Test;
 
+import java.util.ArrayList;
+
 import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -14,4 +19,29 @@ public class CollectionTest {
         assertTrue(DefaultMethodsCollection.delegate(strictStack()).isEmpty());
         assertFalse(DefaultMethodsCollection.delegate(strictStack(1)).isEmpty());
     }
+
+    @Test
+    public void streams() {
+        assertEquals(asList(1, 2, 3),
+                     DefaultMethodsCollection.delegate(strictStack(1, 2, 3)).stream().collect(toList()));
+        assertEquals(6, DefaultMethodsCollection.delegate(strictStack(1, 2, 3)).parallelStream()
+                .mapToInt(x -> x).sum());
+        assertEquals(3, DefaultMethodsCollection.delegate(strictStack(1, 2, 3)).spliterator().getExactSizeIfKnown());
+    }
+
+    @Test
+    public void asJavaCollection() {
+        java.util.Collection<Integer> javaCollection =
+                DefaultMethodsCollection.delegate(strictStack(1, 2, 3)).asJavaCollection();
+        assertEquals(3, javaCollection.size());
+        assertFalse(javaCollection.isEmpty());
+        assertTrue(javaCollection.contains(2));
+        assertEquals(asList(1, 2, 3), new ArrayList<>(javaCollection));
+        assertTrue(DefaultMethodsCollection.delegate(strictStack()).asJavaCollection().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asJavaCollectionIsReadOnly() {
+        DefaultMethodsCollection.delegate(strictStack(1, 2, 3)).asJavaCollection().add(4);
+    }
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import static com.jnape.palatable.shoki.testsupport.EquivalenceRelationMatcher.e
 import static java.util.Comparator.comparing;
 import static org.hamcrest.CoreMatchers.not;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -21,6 +22,7 @@ public class EquivalenceRelationTest {
         assertThat(1, equivalentTo(new Integer(1), objectEquals));
         assertThat(1, not(equivalentTo("2", objectEquals)));
         assertThat(new Object(), not(equivalentTo(new Object(), objectEquals)));
+        assertSame(objectEquals, EquivalenceRelation.objectEquals());
     }
 
     @Test
@@ -17,7 +17,10 @@ import java.util.Objects;
 
 import static com.jnape.palatable.lambda.functions.builtin.fn1.Constantly.constantly;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hashingAlgorithm;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 import static testsupport.traits.Equivalence.equivalence;
 
 @RunWith(Traits.class)
@@ -71,4 +74,66 @@ public class HashingAlgorithmTest {
     public void discardR() {
         assertEquals((Integer) 2, HashingAlgorithm.objectHashCode().discardR(constantly(1)).apply(2));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void hashIntAgreesWithApply() {
+        HashingAlgorithm<String> length = hashingAlgorithm(String::length);
+        assertEquals(3, length.hashInt("foo"));
+        assertEquals((Integer) 3, length.apply("foo"));
+
+        HashingAlgorithm<String> boxedOnly = String::length;
+        assertEquals(3, boxedOnly.hashInt("foo"));
+
+        Object obj = new Object();
+        assertEquals(Objects.hashCode(obj), HashingAlgorithm.objectHashCode().hashInt(obj));
+        assertEquals(System.identityHashCode(obj), HashingAlgorithm.identityHashCode().hashInt(obj));
+        assertEquals(java.util.Arrays.hashCode(new Integer[]{1, 2}),
+                     HashingAlgorithm.<Integer>arraysHashCode().hashInt(new Integer[]{1, 2}));
+        assertSame(HashingAlgorithm.objectHashCode(), HashingAlgorithm.objectHashCode());
+    }
+
+    @Test
+    public void composedAlgorithmsHashWithoutBoxing() {
+        HashingAlgorithm<String> length = hashingAlgorithm(String::length);
+        assertEquals(3, length.<Integer>contraMap(Integer::toBinaryString).hashInt(5));
+        assertEquals(3, length.<Integer>diMapL(Integer::toBinaryString).hashInt(5));
+        assertEquals(6, length.local(s -> s + s).hashInt("foo"));
+        assertEquals((Integer) 6, length.local(s -> s + s).apply("foo"));
+    }
+
+    @Test
+    public void spreadAppliesMurmur3Finalizer() {
+        HashingAlgorithm<Integer> spread = HashingAlgorithm.<Integer>objectHashCode().spread();
+        assertEquals(0, spread.hashInt(0));
+        assertEquals(0x514e28b7, spread.hashInt(1));
+        assertEquals((Integer) 0x514e28b7, spread.apply(1));
+        assertNotEquals(spread.hashInt(1) & 31, spread.hashInt(1 << 16) & 31);
+    }
+
+    @Test
+    public void seededAlgorithmsDependOnSeed() {
+        HashingAlgorithm<Integer> objectHashCode = HashingAlgorithm.objectHashCode();
+        assertEquals(objectHashCode.spread().hashInt(1 ^ 42), objectHashCode.seeded(42).hashInt(1));
+        assertNotEquals(objectHashCode.seeded(1).hashInt(1), objectHashCode.seeded(2).hashInt(1));
+        assertEquals(objectHashCode.randomlySeeded().hashInt(1), objectHashCode.randomlySeeded().hashInt(1));
+    }
+
+    @Test
+    public void spreadAlgorithmsAreEqualByValue() {
+        HashingAlgorithm<Object> objectHashCode = HashingAlgorithm.objectHashCode();
+        assertEquals(objectHashCode.spread(), objectHashCode.spread());
+        assertEquals(objectHashCode.spread().hashCode(), objectHashCode.spread().hashCode());
+        assertEquals(objectHashCode.randomlySeeded(), objectHashCode.randomlySeeded());
+        assertNotEquals(objectHashCode.seeded(1), objectHashCode.seeded(2));
+        assertNotEquals(objectHashCode.spread(), HashingAlgorithm.identityHashCode().spread());
+    }
+
+    @Test
+    public void compositeCombinesComponentsInOrder() {
+        HashingAlgorithm<String> composite = HashingAlgorithm.composite(
+                HashingAlgorithm.<Integer>objectHashCode().contraMap(String::length),
+                HashingAlgorithm.<Character>objectHashCode().contraMap(s -> s.charAt(0)));
+        assertEquals(java.util.Arrays.hashCode(new Object[]{3, 'f'}), composite.hashInt("foo"));
+        assertEquals(1, HashingAlgorithm.<String>composite().hashInt("foo"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.jnape.palatable.shoki.api;
+
+import org.junit.Test;
+
+import static com.jnape.palatable.shoki.api.LongHashingAlgorithm.charSequenceFnv1a;
+import static com.jnape.palatable.shoki.api.LongHashingAlgorithm.longHashingAlgorithm;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class LongHashingAlgorithmTest {
+
+    @Test
+    public void intHashIsLowerBitsOfLongHash() {
+        LongHashingAlgorithm<Long> identity = longHashingAlgorithm(x -> x);
+        assertEquals(0x9abcdef0L, identity.hashLong(0x123456789abcdef0L) & 0xffffffffL);
+        assertEquals(0x9abcdef0, identity.hashInt(0x123456789abcdef0L));
+        assertEquals((Integer) 0x9abcdef0, identity.apply(0x123456789abcdef0L));
+    }
+
+    @Test
+    public void contraMapAndLocalPreserveLongHash() {
+        LongHashingAlgorithm<Long> identity = longHashingAlgorithm(x -> x);
+        assertEquals(0x100000002L, identity.<String>contraMap(Long::parseLong).hashLong("4294967298"));
+        assertEquals(0x100000002L, identity.<String>diMapL(Long::parseLong).hashLong("4294967298"));
+        assertEquals(0x200000004L, identity.local(x -> x * 2).hashLong(0x100000002L));
+    }
+
+    @Test
+    public void charSequenceFnv1aMatchesReferenceVectors() {
+        assertEquals(0xcbf29ce484222325L, charSequenceFnv1a().hashLong(""));
+        assertEquals(0xaf63dc4c8601ec8cL, charSequenceFnv1a().hashLong("a"));
+        assertEquals(0x85944171f73967e8L, charSequenceFnv1a().hashLong("foobar"));
+        assertSame(charSequenceFnv1a(), charSequenceFnv1a());
+    }
+}
@@ -7,6 +7,8 @@ import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.util.AbstractMap.SimpleEntry;
+
 import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
@@ -17,7 +19,9 @@ import static com.jnape.palatable.shoki.impl.HashSet.hashSet;
 import static com.jnape.palatable.shoki.testsupport.EquivalenceRelationMatcher.equivalentTo;
 import static com.jnape.palatable.shoki.testsupport.HashingAlgorithmMatcher.hashesEquivalentlyTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
@@ -69,6 +73,34 @@ public class MapTest {
                                .removeAll(hashSet("foo", "baz")),
                        equivalentTo(hashMap(tuple("bar", 2)), sameEntries));
         }
+
+        @Test
+        public void asJavaMap() {
+            java.util.Map<String, Integer> javaMap =
+                    DefaultMethodsMap.delegate(hashMap(tuple("foo", 1), tuple("bar", 2))).asJavaMap();
+
+            assertEquals(2, javaMap.size());
+            assertEquals((Integer) 1, javaMap.get("foo"));
+            assertNull(javaMap.get("baz"));
+            assertTrue(javaMap.containsKey("bar"));
+            assertFalse(javaMap.containsKey("baz"));
+            assertTrue(javaMap.containsValue(2));
+            assertTrue(javaMap.entrySet().contains(new SimpleEntry<>("foo", 1)));
+            assertFalse(javaMap.entrySet().contains(new SimpleEntry<>("foo", 2)));
+
+            java.util.Map<String, Integer> expected = new java.util.HashMap<>();
+            expected.put("foo", 1);
+            expected.put("bar", 2);
+            assertEquals(expected, javaMap);
+            assertEquals(javaMap, expected);
+            assertEquals(expected.hashCode(), javaMap.hashCode());
+            assertTrue(DefaultMethodsMap.delegate(hashMap()).asJavaMap().isEmpty());
+        }
+
+        @Test(expected = UnsupportedOperationException.class)
+        public void asJavaMapIsReadOnly() {
+            DefaultMethodsMap.delegate(hashMap(tuple("foo", 1))).asJavaMap().put("bar", 2);
+        }
     }
 
     public static final class EquivalenceRelations {
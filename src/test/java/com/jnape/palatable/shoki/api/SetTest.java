@@ -10,8 +10,12 @@ import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.Set.EquivalenceRelations.sameElements;
 import static com.jnape.palatable.shoki.impl.HashSet.hashSet;
 import static com.jnape.palatable.shoki.testsupport.EquivalenceRelationMatcher.equivalentTo;
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(Enclosed.class)
 public class SetTest {
@@ -78,6 +82,24 @@ public class SetTest {
             assertThat(_14, equivalentTo(_123.symmetricDifference(_234), sameElements()));
             assertThat(_14, equivalentTo(_234.symmetricDifference(_123), sameElements()));
         }
+
+        @Test
+        public void asJavaSet() {
+            java.util.Set<Integer> javaSet = DefaultMethodsSet.delegate(hashSet(1, 2, 3)).asJavaSet();
+
+            assertEquals(3, javaSet.size());
+            assertTrue(javaSet.contains(2));
+            assertFalse(javaSet.contains(4));
+            assertFalse(javaSet.contains("2"));
+            assertEquals(new java.util.HashSet<>(asList(1, 2, 3)), javaSet);
+            assertEquals(new java.util.HashSet<>(asList(1, 2, 3)).hashCode(), javaSet.hashCode());
+            assertTrue(DefaultMethodsSet.delegate(hashSet()).asJavaSet().isEmpty());
+        }
+
+        @Test(expected = UnsupportedOperationException.class)
+        public void asJavaSetIsReadOnly() {
+            DefaultMethodsSet.delegate(hashSet(1, 2, 3)).asJavaSet().add(4);
+        }
     }
 
     public static final class EquivalenceRelations {
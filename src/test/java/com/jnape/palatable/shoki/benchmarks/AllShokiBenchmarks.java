@@ -10,7 +10,12 @@ public final class AllShokiBenchmarks {
         NaturalBenchmark.main(args);
         StrictStackBenchmark.Shoki.main(args);
         StrictQueueBenchmark.Shoki.main(args);
+        StrictQueueBenchmark.Latency.main(args);
+        VectorBenchmark.Shoki.main(args);
+        FingerTreeBenchmark.Shoki.main(args);
         HashMapBenchmark.Shoki.main(args);
+        HashMapBenchmark.Megamorphic.main(args);
+        SpreadHashingBenchmark.Shoki.main(args);
         HashSetBenchmark.Shoki.main(args);
         HashMultiSetBenchmark.Shoki.main(args);
         TreeMapBenchmark.Shoki.main(args);
@@ -0,0 +1,186 @@
+package com.jnape.palatable.shoki.benchmarks;
+
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.Queue;
+import com.jnape.palatable.shoki.api.Stack;
+import com.jnape.palatable.shoki.impl.FingerTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
+import static com.jnape.palatable.shoki.benchmarks.Benchmark.K100;
+import static com.jnape.palatable.shoki.benchmarks.Benchmark.runBenchmarks;
+import static com.jnape.palatable.shoki.benchmarks.QueueOps.snocRangeJDK;
+import static com.jnape.palatable.shoki.benchmarks.QueueOps.snocRangeShoki;
+import static com.jnape.palatable.shoki.benchmarks.StackOps.consRangeJDK;
+import static com.jnape.palatable.shoki.benchmarks.StackOps.consRangeShoki;
+import static com.jnape.palatable.shoki.impl.FingerTree.fingerTree;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+public class FingerTreeBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        Shoki.main(args);
+        Java.main(args);
+    }
+
+    @BenchmarkMode(Throughput)
+    @OutputTimeUnit(MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(5)
+    @OperationsPerInvocation(K100)
+    public static class Shoki {
+
+        @Benchmark
+        public Queue<?, Integer> snoc() {
+            return snocRangeShoki(fingerTree(), K100);
+        }
+
+        @Benchmark
+        public Stack<?, Integer> cons() {
+            return consRangeShoki(fingerTree(), K100);
+        }
+
+        @Benchmark
+        public FingerTree<Integer> tail(State state) {
+            FingerTree<Integer> fingerTree = state.fingerTree;
+            for (int i = 0; i < K100; i++) {
+                fingerTree = fingerTree.tail();
+            }
+            return fingerTree;
+        }
+
+        @Benchmark
+        public FingerTree<Integer> init(State state) {
+            FingerTree<Integer> fingerTree = state.fingerTree;
+            for (int i = 0; i < K100; i++) {
+                fingerTree = fingerTree.init();
+            }
+            return fingerTree;
+        }
+
+        @Benchmark
+        public void get(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.fingerTree.get(state.indices[i]));
+            }
+        }
+
+        @Benchmark
+        public void splitAt(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.fingerTree.splitAt(state.indices[i]));
+            }
+        }
+
+        @Benchmark
+        public FingerTree<Integer> splitAndConcat(State state) {
+            FingerTree<Integer> fingerTree = state.fingerTree;
+            for (int i = 0; i < K100; i++) {
+                Tuple2<FingerTree<Integer>, FingerTree<Integer>> split = fingerTree.splitAt(state.indices[i]);
+                fingerTree = split._2().concat(split._1());
+            }
+            return fingerTree;
+        }
+
+        @Benchmark
+        public void iteration(State state, Blackhole bh) {
+            state.fingerTree.forEach(bh::consume);
+        }
+
+        public static void main(String[] args) throws RunnerException {
+            runBenchmarks(FingerTreeBenchmark.Shoki.class);
+        }
+
+        @org.openjdk.jmh.annotations.State(Scope.Thread)
+        public static class State {
+            FingerTree<Integer> fingerTree;
+            Natural[]           indices;
+
+            @Setup(Level.Invocation)
+            public void doSetup() {
+                fingerTree = fingerTree();
+                indices    = new Natural[K100];
+                for (int i = 0; i < K100; i++) {
+                    fingerTree = fingerTree.snoc(i);
+                    indices[i] = atLeastZero((i * 7_919) % K100);
+                }
+            }
+        }
+    }
+
+    public static class Java {
+
+        public static void main(String[] args) throws RunnerException {
+            ArrayDeque.main(args);
+        }
+
+        @BenchmarkMode(Throughput)
+        @OutputTimeUnit(MICROSECONDS)
+        @Warmup(iterations = 5, time = 1)
+        @Measurement(iterations = 5, time = 1)
+        @Fork(5)
+        @OperationsPerInvocation(K100)
+        public static class ArrayDeque {
+
+            @Benchmark
+            public java.util.Deque<Integer> snoc() {
+                return snocRangeJDK(new java.util.ArrayDeque<>(), K100);
+            }
+
+            @Benchmark
+            public java.util.Deque<Integer> cons() {
+                return consRangeJDK(new java.util.ArrayDeque<>(), K100);
+            }
+
+            @Benchmark
+            public void tail(State javaState, Blackhole bh) {
+                for (int i = 0; i < K100; i++) {
+                    bh.consume(javaState.arrayDeque.pollFirst());
+                }
+            }
+
+            @Benchmark
+            public void init(State javaState, Blackhole bh) {
+                for (int i = 0; i < K100; i++) {
+                    bh.consume(javaState.arrayDeque.pollLast());
+                }
+            }
+
+            @Benchmark
+            public void iteration(State javaState, Blackhole bh) {
+                javaState.arrayDeque.forEach(bh::consume);
+            }
+
+            public static void main(String[] args) throws RunnerException {
+                runBenchmarks(FingerTreeBenchmark.Java.ArrayDeque.class);
+            }
+
+            @org.openjdk.jmh.annotations.State(Scope.Thread)
+            public static class State {
+                java.util.ArrayDeque<Integer> arrayDeque;
+
+                @Setup(Level.Invocation)
+                public void doSetup() {
+                    arrayDeque = new java.util.ArrayDeque<>();
+                    for (int i = 0; i < K100; i++) {
+                        arrayDeque.addLast(i);
+                    }
+                }
+            }
+        }
+    }
+}
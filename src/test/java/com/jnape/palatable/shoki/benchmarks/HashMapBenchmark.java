@@ -1,6 +1,8 @@
 package com.jnape.palatable.shoki.benchmarks;
 
 import com.jnape.palatable.lambda.adt.Unit;
+import com.jnape.palatable.shoki.api.EquivalenceRelation;
+import com.jnape.palatable.shoki.api.HashingAlgorithm;
 import com.jnape.palatable.shoki.impl.HashMap;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -15,9 +17,16 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.RunnerException;
 
+import java.util.Arrays;
+import java.util.List;
+
 import static com.jnape.palatable.lambda.adt.Unit.UNIT;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.comparablyEquals;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
 import static com.jnape.palatable.shoki.benchmarks.Benchmark.K100;
 import static com.jnape.palatable.shoki.benchmarks.Benchmark.runBenchmarks;
+import static java.util.concurrent.ForkJoinPool.commonPool;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static org.openjdk.jmh.annotations.Mode.Throughput;
 
@@ -33,6 +42,7 @@ public class HashMapBenchmark {
 
     public static void main(String[] args) throws RunnerException {
         Shoki.main(args);
+        Megamorphic.main(args);
         Java.main(args);
     }
 
@@ -53,6 +63,33 @@ public class HashMapBenchmark {
             return hashMap;
         }
 
+        @Benchmark
+        public void putNoCollisionsCheckingSize(Blackhole bh) {
+            HashMap<Integer, Unit> hashMap = HashMap.hashMap();
+            for (int i = 0; i < K100; i++) {
+                hashMap = hashMap.put(i, UNIT);
+                bh.consume(hashMap.sizeInfo());
+            }
+        }
+
+        @Benchmark
+        public void putNoCollisionsCheckingHashCode(Blackhole bh) {
+            HashMap<Integer, Unit> hashMap = HashMap.hashMap();
+            for (int i = 0; i < K100; i++) {
+                hashMap = hashMap.put(i, UNIT);
+                bh.consume(hashMap.hashCode());
+            }
+        }
+
+        @Benchmark
+        public HashMap<Integer, Unit> putNoCollisionsTransient() {
+            HashMap.Builder<Integer, Unit> builder = HashMap.builder();
+            for (int i = 0; i < K100; i++) {
+                builder.put(i, UNIT);
+            }
+            return builder.persistent();
+        }
+
         @Benchmark
         @OperationsPerInvocation(N_COLLISIONS)
         public HashMap<Collision, Unit> putFullCollisions() {
@@ -83,6 +120,61 @@ public class HashMapBenchmark {
             state.hashMap.forEach(bh::consume);
         }
 
+        @Benchmark
+        public void iterationForEachEntry(NoCollisionsState state, Blackhole bh) {
+            state.hashMap.forEach((k, v) -> {
+                bh.consume(k);
+                bh.consume(v);
+            });
+        }
+
+        @Benchmark
+        public void iterationForEachKey(NoCollisionsState state, Blackhole bh) {
+            state.hashMap.forEachKey(bh::consume);
+        }
+
+        @Benchmark
+        @OperationsPerInvocation(N_COLLISIONS)
+        public void iterationFullCollisions(FullCollisionsState state, Blackhole bh) {
+            state.hashMap.forEach(bh::consume);
+        }
+
+        @Benchmark
+        public HashMap<Integer, Unit> removeNoCollisions(NoCollisionsState state) {
+            HashMap<Integer, Unit> hashMap = state.hashMap;
+            for (int i = 0; i < K100; i++) {
+                hashMap = hashMap.remove(i);
+            }
+            return hashMap;
+        }
+
+        @Benchmark
+        public void containsKeyMissingNoCollisions(NoCollisionsState state, Blackhole bh) {
+            for (int i = K100; i < K100 * 2; i++) {
+                bh.consume(state.hashMap.contains(i));
+            }
+        }
+
+        @Benchmark
+        public HashMap<Integer, Unit> filterSequential(NoCollisionsState state) {
+            return state.hashMap.parallel(commonPool(), Integer.MAX_VALUE).filter((k, v) -> k % 2 == 0);
+        }
+
+        @Benchmark
+        public HashMap<Integer, Unit> filterParallel(NoCollisionsState state) {
+            return state.hashMap.parallel(commonPool(), 0).filter((k, v) -> k % 2 == 0);
+        }
+
+        @Benchmark
+        public HashMap<Integer, Integer> mapValuesSequential(NoCollisionsState state) {
+            return state.hashMap.parallel(commonPool(), Integer.MAX_VALUE).mapValues(v -> v.hashCode());
+        }
+
+        @Benchmark
+        public HashMap<Integer, Integer> mapValuesParallel(NoCollisionsState state) {
+            return state.hashMap.parallel(commonPool(), 0).mapValues(v -> v.hashCode());
+        }
+
         public static void main(String[] args) throws RunnerException {
             runBenchmarks(HashMapBenchmark.Shoki.class);
         }
@@ -114,6 +206,87 @@ public class HashMapBenchmark {
         }
     }
 
+    /**
+     * Lookups against maps using the default and a custom key relation, measured after the trie's call sites have been
+     * exposed to several distinct {@link EquivalenceRelation}s and {@link HashingAlgorithm}s, as they would be in an
+     * application that builds maps with more than one custom relation.
+     */
+    @BenchmarkMode(Throughput)
+    @OutputTimeUnit(MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(5)
+    @OperationsPerInvocation(K100)
+    public static class Megamorphic {
+
+        @Benchmark
+        public void getDefaultRelation(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.defaultRelation.get(i));
+            }
+        }
+
+        @Benchmark
+        public void getCustomRelation(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.customRelation.get(i));
+            }
+        }
+
+        @Benchmark
+        public HashMap<Integer, Unit> putDefaultRelation() {
+            HashMap<Integer, Unit> hashMap = HashMap.hashMap();
+            for (int i = 0; i < K100; i++) {
+                hashMap = hashMap.put(i, UNIT);
+            }
+            return hashMap;
+        }
+
+        public static void main(String[] args) throws RunnerException {
+            runBenchmarks(HashMapBenchmark.Megamorphic.class);
+        }
+
+        @org.openjdk.jmh.annotations.State(Scope.Thread)
+        public static class State {
+            HashMap<Integer, Unit> defaultRelation;
+            HashMap<Integer, Unit> customRelation;
+
+            @Setup(Level.Trial)
+            public void doSetup() {
+                List<EquivalenceRelation<Integer>> relations = Arrays.asList(
+                        objectEquals(),
+                        comparablyEquals(),
+                        (x, y) -> x.intValue() == y.intValue(),
+                        Integer::equals);
+                List<HashingAlgorithm<Integer>> algorithms = Arrays.asList(
+                        objectHashCode(),
+                        x -> x ^ (x >>> 16),
+                        x -> x * 31,
+                        HashingAlgorithm.<Integer>objectHashCode().<Integer>contraMap(x -> x ^ 1));
+                for (int round = 0; round < 20; round++) {
+                    for (EquivalenceRelation<Integer> relation : relations) {
+                        for (HashingAlgorithm<Integer> algorithm : algorithms) {
+                            HashMap<Integer, Unit> polluting = HashMap.hashMap(relation, algorithm);
+                            for (int i = 0; i < 1_000; i++) {
+                                polluting = polluting.put(i, UNIT);
+                            }
+                            for (int i = 0; i < 1_000; i++) {
+                                polluting.get(i);
+                            }
+                        }
+                    }
+                }
+
+                defaultRelation = HashMap.hashMap();
+                customRelation  = HashMap.hashMap(comparablyEquals(), x -> x ^ (x >>> 16));
+                for (int i = 0; i < K100; i++) {
+                    defaultRelation = defaultRelation.put(i, UNIT);
+                    customRelation  = customRelation.put(i, UNIT);
+                }
+            }
+        }
+    }
+
     public static class Java {
 
         public static void main(String[] args) throws RunnerException {
@@ -207,6 +380,20 @@ public class HashMapBenchmark {
                 state.hashMap.entrySet().forEach(bh::consume);
             }
 
+            @Benchmark
+            public void removeNoCollisions(NoCollisionsState state) {
+                for (int i = 0; i < K100; i++) {
+                    state.hashMap.remove(i);
+                }
+            }
+
+            @Benchmark
+            public void containsKeyMissingNoCollisions(NoCollisionsState state, Blackhole bh) {
+                for (int i = K100; i < K100 * 2; i++) {
+                    bh.consume(state.hashMap.containsKey(i));
+                }
+            }
+
             public static void main(String[] args) throws RunnerException {
                 runBenchmarks(HashMapBenchmark.Java.HashMap.class);
             }
@@ -259,6 +446,20 @@ public class HashMapBenchmark {
                 state.linkedHashMap.entrySet().forEach(bh::consume);
             }
 
+            @Benchmark
+            public void removeNoCollisions(NoCollisionsState state) {
+                for (int i = 0; i < K100; i++) {
+                    state.linkedHashMap.remove(i);
+                }
+            }
+
+            @Benchmark
+            public void containsKeyMissingNoCollisions(NoCollisionsState state, Blackhole bh) {
+                for (int i = K100; i < K100 * 2; i++) {
+                    bh.consume(state.linkedHashMap.containsKey(i));
+                }
+            }
+
             public static void main(String[] args) throws RunnerException {
                 runBenchmarks(HashMapBenchmark.Java.LinkedHashMap.class);
             }
@@ -58,6 +58,21 @@ public class HashSetBenchmark {
             state.hashSet.forEach(bh::consume);
         }
 
+        @Benchmark
+        public HashSet<Integer> unionMostlyShared(State state) {
+            return state.hashSet.union(state.mostlyShared);
+        }
+
+        @Benchmark
+        public HashSet<Integer> intersectionMostlyShared(State state) {
+            return state.hashSet.intersection(state.mostlyShared);
+        }
+
+        @Benchmark
+        public HashSet<Integer> differenceMostlyShared(State state) {
+            return state.hashSet.difference(state.mostlyShared);
+        }
+
         public static void main(String[] args) throws RunnerException {
             runBenchmarks(HashSetBenchmark.Shoki.class);
         }
@@ -65,6 +80,7 @@ public class HashSetBenchmark {
         @org.openjdk.jmh.annotations.State(Scope.Benchmark)
         public static class State {
             HashSet<Integer> hashSet;
+            HashSet<Integer> mostlyShared;
 
             @Setup(Level.Trial)
             public void doSetup() {
@@ -72,6 +88,10 @@ public class HashSetBenchmark {
                 for (int i = 0; i < K100; i++) {
                     hashSet = hashSet.add(i);
                 }
+                mostlyShared = hashSet;
+                for (int i = 0; i < K100 / 100; i++) {
+                    mostlyShared = mostlyShared.remove(i).add(K100 + i);
+                }
             }
         }
     }
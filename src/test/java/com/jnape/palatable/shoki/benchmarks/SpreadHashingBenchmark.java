@@ -0,0 +1,158 @@
+package com.jnape.palatable.shoki.benchmarks;
+
+import com.jnape.palatable.lambda.adt.Unit;
+import com.jnape.palatable.shoki.api.HashingAlgorithm;
+import com.jnape.palatable.shoki.impl.HashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.Arrays;
+
+import static com.jnape.palatable.lambda.adt.Unit.UNIT;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
+import static com.jnape.palatable.shoki.benchmarks.Benchmark.K100;
+import static com.jnape.palatable.shoki.benchmarks.Benchmark.runBenchmarks;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+/**
+ * Lookups against {@link HashMap HashMaps} of keys whose {@link Object#hashCode() hash codes} vary mostly in their
+ * higher bits, hashed as-is and {@link HashingAlgorithm#spread() spread}. Before running, an estimate of the mean and
+ * maximum depth of the trie produced by each key set and {@link HashingAlgorithm} is printed.
+ */
+public class SpreadHashingBenchmark {
+
+    /*
+     * Mirrors of the number of hash bits consumed per level of the trie, and of its depth once every bit is consumed.
+     * The trie itself is not visible from here, so these must be kept in step with it by hand.
+     */
+    private static final int LEVEL_SIZE = 5;
+    private static final int MAX_DEPTH  = 7;
+
+    public static void main(String[] args) throws RunnerException {
+        Shoki.main(args);
+    }
+
+    @BenchmarkMode(Throughput)
+    @OutputTimeUnit(MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(5)
+    @OperationsPerInvocation(K100)
+    public static class Shoki {
+
+        @Benchmark
+        public void getShiftedIds(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.shiftedIds.get(state.shiftedIdKeys[i]));
+            }
+        }
+
+        @Benchmark
+        public void getShiftedIdsSpread(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.shiftedIdsSpread.get(state.shiftedIdKeys[i]));
+            }
+        }
+
+        @Benchmark
+        public void getDoubles(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.doubles.get(state.doubleKeys[i]));
+            }
+        }
+
+        @Benchmark
+        public void getDoublesSpread(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.doublesSpread.get(state.doubleKeys[i]));
+            }
+        }
+
+        public static void main(String[] args) throws RunnerException {
+            State state = new State();
+            state.doSetup();
+            printEstimatedTrieDepths("shifted ids", state.shiftedIdKeys, HashingAlgorithm.objectHashCode());
+            printEstimatedTrieDepths("shifted ids (spread)", state.shiftedIdKeys,
+                                     HashingAlgorithm.objectHashCode().spread());
+            printEstimatedTrieDepths("doubles", state.doubleKeys, HashingAlgorithm.objectHashCode());
+            printEstimatedTrieDepths("doubles (spread)", state.doubleKeys, HashingAlgorithm.objectHashCode().spread());
+            runBenchmarks(SpreadHashingBenchmark.Shoki.class);
+        }
+
+        @org.openjdk.jmh.annotations.State(Scope.Thread)
+        public static class State {
+            Integer[]              shiftedIdKeys;
+            Double[]               doubleKeys;
+            HashMap<Integer, Unit> shiftedIds;
+            HashMap<Integer, Unit> shiftedIdsSpread;
+            HashMap<Double, Unit>  doubles;
+            HashMap<Double, Unit>  doublesSpread;
+
+            @Setup(Level.Trial)
+            public void doSetup() {
+                shiftedIdKeys = new Integer[K100];
+                doubleKeys    = new Double[K100];
+                HashMap.Builder<Integer, Unit> shiftedIds       = HashMap.builder();
+                HashMap.Builder<Integer, Unit> shiftedIdsSpread = HashMap.builder(
+                        objectEquals(), HashingAlgorithm.<Integer>objectHashCode().spread());
+                HashMap.Builder<Double, Unit>  doubles          = HashMap.builder();
+                HashMap.Builder<Double, Unit>  doublesSpread    = HashMap.builder(
+                        objectEquals(), HashingAlgorithm.<Double>objectHashCode().spread());
+                for (int i = 0; i < K100; i++) {
+                    shiftedIdKeys[i] = i << 12;
+                    doubleKeys[i]    = (double) i;
+                    shiftedIds.put(shiftedIdKeys[i], UNIT);
+                    shiftedIdsSpread.put(shiftedIdKeys[i], UNIT);
+                    doubles.put(doubleKeys[i], UNIT);
+                    doublesSpread.put(doubleKeys[i], UNIT);
+                }
+                this.shiftedIds       = shiftedIds.persistent();
+                this.shiftedIdsSpread = shiftedIdsSpread.persistent();
+                this.doubles          = doubles.persistent();
+                this.doublesSpread    = doublesSpread.persistent();
+            }
+        }
+    }
+
+    /*
+     * An estimate computed from the hashes alone, without building or inspecting a trie: a key is stored at the first
+     * level of the trie at which the slice of its hash consumed so far differs from every other key's, so its depth
+     * follows from the longest run of low bits it shares with any other key's hash. Sorting the hashes by their
+     * reversed bits places each next to the hashes sharing the most low bits with it.
+     */
+    private static <A> void printEstimatedTrieDepths(String label, A[] keys,
+                                                     HashingAlgorithm<? super A> hashingAlgorithm) {
+        long[] reversedHashes = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            reversedHashes[i] = Integer.toUnsignedLong(Integer.reverse(hashingAlgorithm.hashInt(keys[i])));
+        }
+        Arrays.sort(reversedHashes);
+
+        long totalDepth = 0;
+        int  maxDepth   = 0;
+        for (int i = 0; i < reversedHashes.length; i++) {
+            int sharedBits = 0;
+            if (i > 0)
+                sharedBits = Long.numberOfLeadingZeros(reversedHashes[i] ^ reversedHashes[i - 1]) - 32;
+            if (i < reversedHashes.length - 1)
+                sharedBits = Math.max(sharedBits,
+                                      Long.numberOfLeadingZeros(reversedHashes[i] ^ reversedHashes[i + 1]) - 32);
+            int depth = Math.min(sharedBits / LEVEL_SIZE + 1, MAX_DEPTH);
+            totalDepth += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+        System.out.printf("%s: estimated mean trie depth %.2f, estimated max trie depth %d%n",
+                          label, (double) totalDepth / keys.length, maxDepth);
+    }
+}
@@ -2,6 +2,7 @@ package com.jnape.palatable.shoki.benchmarks;
 
 import com.jnape.palatable.shoki.api.Queue;
 import com.jnape.palatable.shoki.api.Stack;
+import com.jnape.palatable.shoki.impl.RealTimeQueue;
 import com.jnape.palatable.shoki.impl.StrictQueue;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -24,14 +25,18 @@ import static com.jnape.palatable.shoki.benchmarks.QueueOps.snocRangeJDK;
 import static com.jnape.palatable.shoki.benchmarks.QueueOps.snocRangeShoki;
 import static com.jnape.palatable.shoki.benchmarks.StackOps.consRangeJDK;
 import static com.jnape.palatable.shoki.benchmarks.StackOps.consRangeShoki;
+import static com.jnape.palatable.shoki.impl.RealTimeQueue.realTimeQueue;
 import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.openjdk.jmh.annotations.Mode.SampleTime;
 import static org.openjdk.jmh.annotations.Mode.Throughput;
 
 public class StrictQueueBenchmark {
 
     public static void main(String[] args) throws RunnerException {
         Shoki.main(args);
+        Latency.main(args);
         Java.main(args);
     }
 
@@ -53,6 +58,15 @@ public class StrictQueueBenchmark {
             return consRangeShoki(strictQueue(), K100);
         }
 
+        @Benchmark
+        public void snocCheckingSize(Blackhole bh) {
+            StrictQueue<Integer> strictQueue = StrictQueue.strictQueue();
+            for (int i = 0; i < K100; i++) {
+                strictQueue = strictQueue.snoc(i);
+                bh.consume(strictQueue.sizeInfo());
+            }
+        }
+
         @Benchmark
         public void head(State state, Blackhole bh) {
             for (int i = 0; i < K100; i++) {
@@ -92,6 +106,73 @@ public class StrictQueueBenchmark {
         }
     }
 
+    /**
+     * Per-operation latency distributions, reported as percentiles. Each invocation performs exactly one operation
+     * against a long-lived queue, so the occasional <code>O(n)</code> reversal of a {@link StrictQueue} shows up in
+     * the tail percentiles rather than being averaged away, and can be compared against a {@link RealTimeQueue}. A
+     * queue drained by repeated tails is refilled before the next invocation, outside of the measured operation.
+     */
+    @BenchmarkMode(SampleTime)
+    @OutputTimeUnit(NANOSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(5)
+    public static class Latency {
+
+        private static final int M1 = 1_000_000;
+
+        @Benchmark
+        public StrictQueue<Integer> strictQueueTail(State state) {
+            return state.strictQueue = state.strictQueue.tail();
+        }
+
+        @Benchmark
+        public StrictQueue<Integer> strictQueueSnocThenTail(State state) {
+            return state.strictQueue = state.strictQueue.snoc(state.next++).tail();
+        }
+
+        @Benchmark
+        public RealTimeQueue<Integer> realTimeQueueTail(State state) {
+            return state.realTimeQueue = state.realTimeQueue.tail();
+        }
+
+        @Benchmark
+        public RealTimeQueue<Integer> realTimeQueueSnocThenTail(State state) {
+            return state.realTimeQueue = state.realTimeQueue.snoc(state.next++).tail();
+        }
+
+        public static void main(String[] args) throws RunnerException {
+            runBenchmarks(StrictQueueBenchmark.Latency.class);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <Q extends Queue<?, Integer>> Q snocRange(Q queue) {
+            return (Q) snocRangeShoki(queue, M1);
+        }
+
+        @org.openjdk.jmh.annotations.State(Scope.Thread)
+        public static class State {
+            StrictQueue<Integer>   strictQueue;
+            RealTimeQueue<Integer> realTimeQueue;
+            int                    next;
+
+            @Setup(Level.Iteration)
+            public void doSetup() {
+                strictQueue   = snocRange(strictQueue());
+                realTimeQueue = snocRange(realTimeQueue());
+                next          = M1;
+            }
+
+            @Setup(Level.Invocation)
+            public void refillWhenEmpty() {
+                if (strictQueue.isEmpty())
+                    strictQueue = snocRange(strictQueue());
+                if (realTimeQueue.isEmpty())
+                    realTimeQueue = snocRange(realTimeQueue());
+            }
+        }
+    }
+
     public static class Java {
 
         public static void main(String[] args) throws RunnerException {
@@ -16,8 +16,10 @@ import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.RunnerException;
 
 import static com.jnape.palatable.lambda.adt.Unit.UNIT;
+import static com.jnape.palatable.shoki.api.Natural.abs;
 import static com.jnape.palatable.shoki.benchmarks.Benchmark.K100;
 import static com.jnape.palatable.shoki.benchmarks.Benchmark.runBenchmarks;
+import static java.util.Comparator.naturalOrder;
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static org.openjdk.jmh.annotations.Mode.Throughput;
 
@@ -45,6 +47,20 @@ public class TreeMapBenchmark {
             return treeMap;
         }
 
+        @Benchmark
+        public TreeMap<Integer, Unit> putTransient() {
+            TreeMap.Builder<Integer, Unit> builder = TreeMap.builder();
+            for (int i = 0; i < K100; i++) {
+                builder.put(i, UNIT);
+            }
+            return builder.persistent();
+        }
+
+        @Benchmark
+        public TreeMap<Integer, Unit> fromSorted(State state) {
+            return TreeMap.fromSorted(naturalOrder(), state.treeMap);
+        }
+
         @Benchmark
         public void get(State state, Blackhole bh) {
             for (int i = 0; i < K100; i++) {
@@ -71,6 +87,54 @@ public class TreeMapBenchmark {
             state.treeMap.forEach(bh::consume);
         }
 
+        @Benchmark
+        public void iterationForEachEntry(State state, Blackhole bh) {
+            state.treeMap.forEach((k, v) -> {
+                bh.consume(k);
+                bh.consume(v);
+            });
+        }
+
+        @Benchmark
+        public void reverseIteration(State state, Blackhole bh) {
+            state.treeMap.reverseIterator().forEachRemaining(bh::consume);
+        }
+
+        @Benchmark
+        public void select(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.treeMap.select(abs(i)));
+            }
+        }
+
+        @Benchmark
+        public void rank(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.treeMap.rank(i));
+            }
+        }
+
+        @Benchmark
+        public void floor(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.treeMap.floor(i));
+            }
+        }
+
+        @Benchmark
+        public void rangeWindows(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                state.treeMap.range(i, true, i + 10, false).forEach(bh::consume);
+            }
+        }
+
+        @Benchmark
+        public void subMapWindows(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.treeMap.subMap(i, true, i + 10, false));
+            }
+        }
+
         public static void main(String[] args) throws RunnerException {
             runBenchmarks(TreeMapBenchmark.Shoki.class);
         }
@@ -132,6 +196,25 @@ public class TreeMapBenchmark {
             state.treeMap.entrySet().forEach(bh::consume);
         }
 
+        @Benchmark
+        public void reverseIteration(State state, Blackhole bh) {
+            state.treeMap.descendingMap().entrySet().forEach(bh::consume);
+        }
+
+        @Benchmark
+        public void floor(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.treeMap.floorEntry(i));
+            }
+        }
+
+        @Benchmark
+        public void rangeWindows(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                state.treeMap.subMap(i, true, i + 10, false).entrySet().forEach(bh::consume);
+            }
+        }
+
         public static void main(String[] args) throws RunnerException {
             runBenchmarks(TreeMapBenchmark.Java.class);
         }
@@ -58,6 +58,21 @@ public class TreeSetBenchmark {
             state.treeSet.forEach(bh::consume);
         }
 
+        @Benchmark
+        public TreeSet<Integer> unionSmall(State state) {
+            return state.treeSet.union(state.small);
+        }
+
+        @Benchmark
+        public TreeSet<Integer> intersectionSmall(State state) {
+            return state.treeSet.intersection(state.small);
+        }
+
+        @Benchmark
+        public TreeSet<Integer> differenceSmall(State state) {
+            return state.treeSet.difference(state.small);
+        }
+
         public static void main(String[] args) throws RunnerException {
             runBenchmarks(TreeSetBenchmark.Shoki.class);
         }
@@ -65,6 +80,7 @@ public class TreeSetBenchmark {
         @org.openjdk.jmh.annotations.State(Scope.Benchmark)
         public static class State {
             TreeSet<Integer> treeSet;
+            TreeSet<Integer> small;
 
             @Setup(Level.Trial)
             public void doSetup() {
@@ -72,6 +88,10 @@ public class TreeSetBenchmark {
                 for (int i = 0; i < K100; i++) {
                     treeSet = treeSet.add(i);
                 }
+                small = treeSet();
+                for (int i = 0; i < K100; i += 1_000) {
+                    small = small.add(i + K100 / 2);
+                }
             }
         }
     }
@@ -0,0 +1,183 @@
+package com.jnape.palatable.shoki.benchmarks;
+
+import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.Queue;
+import com.jnape.palatable.shoki.api.Stack;
+import com.jnape.palatable.shoki.impl.Vector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import static com.jnape.palatable.shoki.api.Natural.atLeastZero;
+import static com.jnape.palatable.shoki.benchmarks.Benchmark.K100;
+import static com.jnape.palatable.shoki.benchmarks.Benchmark.runBenchmarks;
+import static com.jnape.palatable.shoki.benchmarks.QueueOps.snocRangeJDK;
+import static com.jnape.palatable.shoki.benchmarks.QueueOps.snocRangeShoki;
+import static com.jnape.palatable.shoki.benchmarks.StackOps.consRangeShoki;
+import static com.jnape.palatable.shoki.impl.Vector.vector;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static org.openjdk.jmh.annotations.Mode.Throughput;
+
+public class VectorBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        Shoki.main(args);
+        Java.main(args);
+    }
+
+    @BenchmarkMode(Throughput)
+    @OutputTimeUnit(MICROSECONDS)
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(5)
+    @OperationsPerInvocation(K100)
+    public static class Shoki {
+
+        @Benchmark
+        public Queue<?, Integer> snoc() {
+            return snocRangeShoki(vector(), K100);
+        }
+
+        @Benchmark
+        public Vector<Integer> snocTransient() {
+            Vector.Builder<Integer> builder = Vector.builder();
+            for (int i = 0; i < K100; i++) {
+                builder.snoc(i);
+            }
+            return builder.persistent();
+        }
+
+        @Benchmark
+        public Stack<?, Integer> cons() {
+            return consRangeShoki(vector(), K100);
+        }
+
+        @Benchmark
+        public void get(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.vector.get(state.indices[i]));
+            }
+        }
+
+        @Benchmark
+        public void getAfterConcat(State state, Blackhole bh) {
+            for (int i = 0; i < K100; i++) {
+                bh.consume(state.concatenated.get(state.indices[i]));
+            }
+        }
+
+        @Benchmark
+        public Vector<Integer> update(State state) {
+            Vector<Integer> vector = state.vector;
+            for (int i = 0; i < K100; i++) {
+                vector = vector.update(state.indices[i], -i);
+            }
+            return vector;
+        }
+
+        @Benchmark
+        public Vector<Integer> tail(State state) {
+            Vector<Integer> vector = state.vector;
+            for (int i = 0; i < K100; i++) {
+                vector = vector.tail();
+            }
+            return vector;
+        }
+
+        @Benchmark
+        public void iteration(State state, Blackhole bh) {
+            state.vector.forEach(bh::consume);
+        }
+
+        public static void main(String[] args) throws RunnerException {
+            runBenchmarks(VectorBenchmark.Shoki.class);
+        }
+
+        @org.openjdk.jmh.annotations.State(Scope.Thread)
+        public static class State {
+            Vector<Integer> vector;
+            Vector<Integer> concatenated;
+            Natural[]       indices;
+
+            @Setup(Level.Invocation)
+            public void doSetup() {
+                vector       = vector();
+                concatenated = vector();
+                indices      = new Natural[K100];
+                for (int i = 0; i < K100; i++) {
+                    vector     = vector.snoc(i);
+                    indices[i] = atLeastZero(i);
+                }
+                for (int i = 0; i < K100; i += 999) {
+                    concatenated = concatenated.concat(vector.slice(indices[i], atLeastZero(i + 999)));
+                }
+            }
+        }
+    }
+
+    public static class Java {
+
+        public static void main(String[] args) throws RunnerException {
+            ArrayList.main(args);
+        }
+
+        @BenchmarkMode(Throughput)
+        @OutputTimeUnit(MICROSECONDS)
+        @Warmup(iterations = 5, time = 1)
+        @Measurement(iterations = 5, time = 1)
+        @Fork(5)
+        @OperationsPerInvocation(K100)
+        public static class ArrayList {
+
+            @Benchmark
+            public java.util.ArrayList<Integer> snoc() {
+                return snocRangeJDK(new java.util.ArrayList<>(), K100);
+            }
+
+            @Benchmark
+            public void get(State javaState, Blackhole bh) {
+                for (int i = 0; i < K100; i++) {
+                    bh.consume(javaState.arrayList.get(i));
+                }
+            }
+
+            @Benchmark
+            public void update(State javaState, Blackhole bh) {
+                for (int i = 0; i < K100; i++) {
+                    bh.consume(javaState.arrayList.set(i, -i));
+                }
+            }
+
+            @Benchmark
+            public void iteration(State javaState, Blackhole bh) {
+                javaState.arrayList.forEach(bh::consume);
+            }
+
+            public static void main(String[] args) throws RunnerException {
+                runBenchmarks(VectorBenchmark.Java.ArrayList.class);
+            }
+
+            @org.openjdk.jmh.annotations.State(Scope.Thread)
+            public static class State {
+                java.util.ArrayList<Integer> arrayList;
+
+                @Setup(Level.Invocation)
+                public void doSetup() {
+                    arrayList = new java.util.ArrayList<>();
+                    for (int i = 0; i < K100; i++) {
+                        arrayList.add(i);
+                    }
+                }
+            }
+        }
+    }
+}
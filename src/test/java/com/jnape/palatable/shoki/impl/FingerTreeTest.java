@@ -0,0 +1,242 @@
+package com.jnape.palatable.shoki.impl;
+
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
+import static com.jnape.palatable.lambda.adt.Maybe.just;
+import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.shoki.api.Natural.abs;
+import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
+import static com.jnape.palatable.shoki.impl.FingerTree.fingerTree;
+import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
+import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static testsupport.matchers.IterableMatcher.iterates;
+
+public class FingerTreeTest {
+
+    @Test
+    public void emptyFingerTree() {
+        FingerTree<Integer> empty = fingerTree();
+        assertTrue(empty.isEmpty());
+        assertEquals(nothing(), empty.head());
+        assertEquals(nothing(), empty.last());
+        assertEquals(nothing(), empty.get(zero()));
+        assertTrue(empty.tail().isEmpty());
+        assertTrue(empty.init().isEmpty());
+        assertEquals(known(zero()), empty.sizeInfo());
+        assertThat(empty, iterates());
+    }
+
+    @Test
+    public void accessAtBothEnds() {
+        FingerTree<Integer> fingerTree = FingerTree.<Integer>fingerTree().snoc(2).snoc(3).cons(1).cons(0);
+        assertThat(fingerTree, iterates(0, 1, 2, 3));
+        assertEquals(just(0), fingerTree.head());
+        assertEquals(just(3), fingerTree.last());
+        assertThat(fingerTree.tail(), iterates(1, 2, 3));
+        assertThat(fingerTree.init(), iterates(0, 1, 2));
+    }
+
+    @Test
+    public void drainingFromEitherEndPreservesOrder() {
+        FingerTree<Integer> fingerTree = range(0, 10_000);
+
+        FingerTree<Integer> fromFront = fingerTree;
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(just(i), fromFront.head());
+            fromFront = fromFront.tail();
+        }
+        assertTrue(fromFront.isEmpty());
+
+        FingerTree<Integer> fromBack = fingerTree;
+        for (int i = 9_999; i >= 0; i--) {
+            assertEquals(just(i), fromBack.last());
+            fromBack = fromBack.init();
+        }
+        assertTrue(fromBack.isEmpty());
+    }
+
+    @Test
+    public void largeFingerTreesIndexEveryElement() {
+        FingerTree<Integer> fingerTree = FingerTree.<Integer>fingerTree();
+        for (int i = 49_999; i >= 0; i--)
+            fingerTree = fingerTree.cons(i);
+        for (int i = 50_000; i < 1_000_000; i++)
+            fingerTree = fingerTree.snoc(i);
+
+        assertEquals(known(abs(1_000_000)), fingerTree.sizeInfo());
+        for (int i = 0; i < 1_000_000; i += 7)
+            assertEquals(just(i), fingerTree.get(abs(i)));
+        assertEquals(nothing(), fingerTree.get(abs(1_000_000)));
+        assertEquals(IntStream.range(0, 1_000_000).boxed().collect(toList()), fingerTree.stream().collect(toList()));
+    }
+
+    @Test
+    public void concat() {
+        assertThat(fingerTree(1, 2).concat(fingerTree(3, 4)), iterates(1, 2, 3, 4));
+        assertThat(fingerTree(1, 2).concat(fingerTree()), iterates(1, 2));
+        assertThat(FingerTree.<Integer>fingerTree().concat(fingerTree(1, 2)), iterates(1, 2));
+        assertEquals(range(0, 1_500), range(0, 1_000).concat(range(1_000, 1_500)));
+        assertThat(fingerTree(1, 2).snocAll(fingerTree(3)), iterates(1, 2, 3));
+        assertThat(fingerTree(1, 2).snocAll(strictQueue(3, 4)), iterates(1, 2, 3, 4));
+        assertThat(fingerTree(4, 5).consAll(strictStack(3, 2, 1)), iterates(1, 2, 3, 4, 5));
+    }
+
+    @Test
+    public void splitAt() {
+        FingerTree<Integer> fingerTree = range(0, 100);
+        for (int i = 0; i <= 100; i++) {
+            Tuple2<FingerTree<Integer>, FingerTree<Integer>> split = fingerTree.splitAt(abs(i));
+            assertEquals(range(0, i), split._1());
+            assertEquals(range(i, 100), split._2());
+            assertEquals(known(abs(i)), split._1().sizeInfo());
+            assertEquals(known(abs(100 - i)), split._2().sizeInfo());
+        }
+
+        assertSame(fingerTree, fingerTree.splitAt(abs(1_000))._1());
+        assertSame(fingerTree, fingerTree.splitAt(zero())._2());
+        assertEquals(range(0, 10), fingerTree.take(abs(10)));
+        assertEquals(range(90, 100), fingerTree.drop(abs(90)));
+    }
+
+    @Test
+    public void randomOperationsAgreeWithArrayList() {
+        Random              random     = new Random(18);
+        List<Integer>       expected   = new ArrayList<>();
+        FingerTree<Integer> fingerTree = fingerTree();
+        for (int step = 0; step < 3_000; step++) {
+            int size = expected.size();
+            switch (random.nextInt(7)) {
+                case 0:
+                    expected.add(step);
+                    fingerTree = fingerTree.snoc(step);
+                    break;
+                case 1:
+                    expected.add(0, step);
+                    fingerTree = fingerTree.cons(step);
+                    break;
+                case 2:
+                    if (size > 0) {
+                        expected.remove(0);
+                        fingerTree = fingerTree.tail();
+                    }
+                    break;
+                case 3:
+                    if (size > 0) {
+                        expected.remove(size - 1);
+                        fingerTree = fingerTree.init();
+                    }
+                    break;
+                case 4: {
+                    int                 length = random.nextInt(200);
+                    FingerTree<Integer> other  = range(step * 10_000, step * 10_000 + length);
+                    for (int i = 0; i < length; i++)
+                        expected.add(step * 10_000 + i);
+                    fingerTree = fingerTree.concat(other);
+                    break;
+                }
+                case 5: {
+                    int                 length = random.nextInt(200);
+                    FingerTree<Integer> other  = range(step * 10_000, step * 10_000 + length);
+                    List<Integer>       front  = new ArrayList<>();
+                    for (int i = 0; i < length; i++)
+                        front.add(step * 10_000 + i);
+                    expected.addAll(0, front);
+                    fingerTree = other.concat(fingerTree);
+                    break;
+                }
+                default:
+                    if (size > 0) {
+                        int                                              i     = random.nextInt(size + 1);
+                        Tuple2<FingerTree<Integer>, FingerTree<Integer>> split = fingerTree.splitAt(abs(i));
+                        assertEquals(known(abs(i)), split._1().sizeInfo());
+                        fingerTree = split._2().concat(split._1());
+                        List<Integer> rotated = new ArrayList<>(expected.subList(i, size));
+                        rotated.addAll(expected.subList(0, i));
+                        expected = rotated;
+                    }
+            }
+
+            assertEquals(known(abs(expected.size())), fingerTree.sizeInfo());
+            if (step % 50 == 0 || expected.size() < 100) {
+                assertEquals(expected, fingerTree.stream().collect(toList()));
+                for (int i = 0; i < expected.size(); i++)
+                    assertEquals(just(expected.get(i)), fingerTree.get(abs(i)));
+            }
+        }
+    }
+
+    @Test
+    public void persistentVersionsAreUnaffectedByDerivedVersions() {
+        FingerTree<Integer> base    = range(0, 20);
+        FingerTree<Integer> consed  = base.cons(-1).cons(-2).cons(-3).cons(-4);
+        FingerTree<Integer> snocced = base.snoc(20).snoc(21).snoc(22).snoc(23);
+        FingerTree<Integer> drained = base.tail().tail().tail().tail().init().init();
+
+        assertEquals(range(0, 20), base);
+        assertThat(consed.take(abs(5)), iterates(-4, -3, -2, -1, 0));
+        assertEquals(range(0, 24), snocced);
+        assertEquals(range(4, 18), drained);
+    }
+
+    @Test
+    public void reverse() {
+        assertThat(fingerTree(1, 2, 3).reverse(), iterates(3, 2, 1));
+        assertEquals(range(0, 1_000), range(0, 1_000).reverse().reverse());
+    }
+
+    @Test
+    public void equalityIsIndependentOfTreeShape() {
+        FingerTree<Integer> snocced      = range(0, 2_000);
+        FingerTree<Integer> concatenated = range(0, 700).concat(range(700, 1_300)).concat(range(1_300, 2_000));
+        FingerTree<Integer> consed       = fingerTree();
+        for (int i = 1_999; i >= 0; i--)
+            consed = consed.cons(i);
+
+        assertEquals(snocced, concatenated);
+        assertEquals(snocced, consed);
+        assertEquals(snocced.hashCode(), concatenated.hashCode());
+        assertEquals(snocced.hashCode(), consed.hashCode());
+        assertNotEquals(snocced, snocced.init());
+        assertNotEquals(fingerTree(1, 2, 3), strictQueue(1, 2, 3));
+    }
+
+    @Test
+    public void streams() {
+        FingerTree<Integer> fingerTree = fingerTree(1, 2, 3);
+
+        assertEquals(asList(1, 2, 3), fingerTree.parallelStream().collect(toList()));
+        assertEquals(0, fingerTree().stream().count());
+
+        Spliterator<Integer> spliterator = fingerTree.spliterator();
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SUBSIZED));
+    }
+
+    @Test
+    public void toStringIsUseful() {
+        assertEquals("FingerTree[1, 2, 3]", fingerTree(1, 2, 3).toString());
+        assertEquals("FingerTree[]", fingerTree().toString());
+    }
+
+    private static FingerTree<Integer> range(int from, int to) {
+        FingerTree<Integer> fingerTree = fingerTree();
+        for (int i = from; i < to; i++)
+            fingerTree = fingerTree.snoc(i);
+        return fingerTree;
+    }
+}
@@ -1,89 +1,64 @@
 package com.jnape.palatable.shoki.impl;
 
-import com.jnape.palatable.lambda.adt.hlist.HList;
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.shoki.api.EquivalenceRelation;
+import com.jnape.palatable.shoki.api.HashingAlgorithm;
+import com.jnape.palatable.shoki.api.LongHashingAlgorithm;
 import com.jnape.palatable.shoki.impl.HAMT.Collision;
-import com.jnape.palatable.shoki.impl.HAMT.Entry;
 import com.jnape.palatable.shoki.impl.HAMT.Node;
+import com.jnape.palatable.shoki.impl.HAMT.SortedCollision;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 
+import java.math.BigDecimal;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.referenceEquals;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hashingAlgorithm;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
+import static com.jnape.palatable.shoki.api.LongHashingAlgorithm.longHashingAlgorithm;
 import static com.jnape.palatable.shoki.impl.Bitmap32.setBit;
+import static com.jnape.palatable.shoki.impl.HAMT.SORTED_COLLISION_THRESHOLD;
 import static com.jnape.palatable.shoki.impl.HAMT.Node.rootNode;
 import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+import static com.jnape.palatable.shoki.testsupport.StubbedHashingAlgorithm.stubbedHashingAlgorithm;
+import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static testsupport.matchers.IterableMatcher.iterates;
 
 @RunWith(Enclosed.class)
 public class HAMTTest {
 
-    public static final class EntryTest {
-
-        private Entry<String, Integer> entry;
-
-        @Before
-        public void setUp() {
-            entry = new Entry<>("foo", 1);
-        }
-
-        @Test
-        public void product() {
-            assertEquals(tuple("foo", 1), entry.into(HList::tuple));
-        }
-
-        @Test
-        public void iteratesKeyValue() {
-            assertThat(entry, iterates(tuple("foo", 1)));
-        }
-
-        @Test
-        public void get() {
-            assertEquals((Integer) 1, entry.get("foo", 0, objectEquals(), 0));
-            assertNull(entry.get("bar", 0, objectEquals(), 0));
-            assertNull(entry.get("foo", 0, (x, y) -> false, 0));
-        }
-
-        @Test
-        public void remove() {
-            assertNull(entry.remove("foo", 0, objectEquals(), 0));
-            assertEquals(entry, entry.remove("bar", 0, objectEquals(), 0));
-            assertEquals(entry, entry.remove("foo", 0, (x, y) -> false, 0));
-        }
-
-        @Test
-        public void put() {
-            assertEquals(new Entry<>("foo", 2),
-                         entry.put("foo", 2, "foo".hashCode(), objectEquals(), objectHashCode(), 0));
-            assertEquals(new Node<>(setBit(setBit(0, "foo".hashCode() & 31),
-                                           "bar".hashCode() & 31),
-                                    new Object[]{new Entry<>("foo", 1), new Entry<>("bar", 2)}),
-                         entry.put("bar", 2, "bar".hashCode(), objectEquals(), objectHashCode(), 0));
-            assertEquals(new Node<>(1,
-                                    new Object[]{new Collision<>("bar".hashCode(),
-                                                                 strictStack(new Entry<>("foo", 1),
-                                                                             new Entry<>("bar", 2)))}),
-                         entry.put("bar", 2, "bar".hashCode(), objectEquals(), objectHashCode(), 30));
-        }
-    }
-
     public static final class CollisionTest {
 
         private Collision<String, Integer> collision;
 
         @Before
         public void setUp() {
-            collision = new Collision<>(0, strictStack(new Entry<>("foo", 1),
-                                                       new Entry<>("bar", 2),
-                                                       new Entry<>("baz", 3)));
+            collision = new Collision<>(0, strictStack(tuple("foo", 1),
+                                                       tuple("bar", 2),
+                                                       tuple("baz", 3)));
         }
 
         @Test
@@ -105,54 +80,44 @@ public class HAMTTest {
 
         @Test
         public void put() {
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("bar", 2),
-                                                        new Entry<>("foo", -1))),
+            assertEquals(new Collision<>(0, strictStack(tuple("baz", 3),
+                                                        tuple("bar", 2),
+                                                        tuple("foo", -1))),
                          collision.put("foo", -1, 0, objectEquals(), objectHashCode(), -1));
 
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("bar", 2),
-                                                        new Entry<>("foo", 1),
-                                                        new Entry<>("qux", 0))),
+            assertEquals(new Collision<>(0, strictStack(tuple("baz", 3),
+                                                        tuple("bar", 2),
+                                                        tuple("foo", 1),
+                                                        tuple("qux", 0))),
                          collision.put("qux", 0, 0, objectEquals(), objectHashCode(), -1));
 
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("bar", 2),
-                                                        new Entry<>("foo", 1),
-                                                        new Entry<>("foo", 0))),
+            assertEquals(new Collision<>(0, strictStack(tuple("baz", 3),
+                                                        tuple("bar", 2),
+                                                        tuple("foo", 1),
+                                                        tuple("foo", 0))),
                          collision.put("foo", 0, 0, (x, y) -> false, objectHashCode(), -1));
         }
 
         @Test
         public void remove() {
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("bar", 2))),
+            assertEquals(new Collision<>(0, strictStack(tuple("baz", 3),
+                                                        tuple("bar", 2))),
                          collision.remove("foo", 0, objectEquals(), 0));
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("foo", 1))),
+            assertEquals(new Collision<>(0, strictStack(tuple("baz", 3),
+                                                        tuple("foo", 1))),
                          collision.remove("bar", 0, objectEquals(), 0));
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("bar", 2),
-                                                        new Entry<>("foo", 1))),
+            assertEquals(new Collision<>(0, strictStack(tuple("bar", 2),
+                                                        tuple("foo", 1))),
                          collision.remove("baz", 0, objectEquals(), 0));
 
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("bar", 2),
-                                                        new Entry<>("foo", 1))),
-                         collision.remove("missing", 0, objectEquals(), 0));
-
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                        new Entry<>("bar", 2),
-                                                        new Entry<>("foo", 1))),
-                         collision.remove("foo", 0, (x, y) -> false, 0));
-
-            assertEquals(collision, collision.remove("foo", -1, objectEquals(), 0));
-
-            assertEquals(new Entry<>("baz", 3),
-                         collision
-                                 .remove("foo", 0, objectEquals(), 0)
-                                 .remove("bar", 0, objectEquals(), 0));
+            assertSame(collision, collision.remove("missing", 0, objectEquals(), 0));
+            assertSame(collision, collision.remove("foo", 0, (x, y) -> false, 0));
+            assertSame(collision, collision.remove("foo", -1, objectEquals(), 0));
+        }
 
-            assertEquals(new Entry<>("baz", 3),
+        @Test
+        public void removingDownToSingleEntryYieldsSingletonNodeForInlining() {
+            assertEquals(objectHashedNode(1, 0, new Object[]{"baz", 3}),
                          collision
                                  .remove("foo", 0, objectEquals(), 0)
                                  .remove("bar", 0, objectEquals(), 0));
@@ -163,10 +128,10 @@ public class HAMTTest {
             assertEquals(new Collision<>(0, strictStack()), new Collision<>(0, strictStack()));
             assertNotEquals(new Collision<>(0, strictStack()),
                             new Collision<>(1, strictStack()));
-            assertEquals(new Collision<>(0, strictStack(new Entry<>("foo", 1))),
-                         new Collision<>(0, strictStack(new Entry<>("foo", 1))));
+            assertEquals(new Collision<>(0, strictStack(tuple("foo", 1))),
+                         new Collision<>(0, strictStack(tuple("foo", 1))));
             assertNotEquals(new Collision<>(0, strictStack()),
-                            new Collision<>(0, strictStack(new Entry<>("foo", 1))));
+                            new Collision<>(0, strictStack(tuple("foo", 1))));
 
             assertNotEquals(new Collision<>(0, strictStack()), new Object());
         }
@@ -180,12 +145,12 @@ public class HAMTTest {
         private static final Integer quux = 0b00_00000_00000_00000_10000_00001_00001;
 
         @Test
-        public void iteratesAllEntries() {
-            assertThat(new Node<>(0, new Object[]{
-                               new Entry<>("foo", 1),
-                               new Node<>(0, new Object[]{new Entry<>("bar", 2)}),
-                               new Collision<>(0, strictStack(new Entry<>("baz", 3),
-                                                              new Entry<>("quux", 4)))}),
+        public void iteratesInlineEntriesBeforeNestedTries() {
+            assertThat(objectHashedNode(1, 0b110, new Object[]{
+                               "foo", 1,
+                               objectHashedNode(1, 0, new Object[]{"bar", 2}),
+                               new Collision<>(0, strictStack(tuple("baz", 3),
+                                                              tuple("quux", 4)))}),
                        iterates(tuple("foo", 1),
                                 tuple("bar", 2),
                                 tuple("baz", 3),
@@ -199,7 +164,7 @@ public class HAMTTest {
 
         @Test
         public void get() {
-            Node<Integer, String> node = new Node<Integer, String>(0, new Object[0])
+            Node<Integer, String> node = Node.<Integer, String>rootNode()
                     .put(foo, "foo", foo, referenceEquals(), objectHashCode(), 0)
                     .put(bar, "bar", bar, referenceEquals(), objectHashCode(), 0)
                     .put(baz, "baz", baz, referenceEquals(), objectHashCode(), 0)
@@ -216,20 +181,28 @@ public class HAMTTest {
 
         @Test
         public void put() {
-            assertEquals(new Node<>(1, new Object[]{new Entry<>(foo, "foo")}),
+            assertEquals(objectHashedNode(1, 0, new Object[]{foo, "foo"}),
                          rootNode().put(foo, "foo", foo, objectEquals(), objectHashCode(), 0));
-            assertEquals(new Node<>(2, new Object[]{new Entry<>(bar, "bar")}),
+            assertEquals(objectHashedNode(2, 0, new Object[]{bar, "bar"}),
                          rootNode().put(bar, "bar", bar, objectEquals(), objectHashCode(), 0));
-            assertEquals(new Node<>(3, new Object[]{new Entry<>(foo, "foo"), new Entry<>(bar, "bar")}),
+            assertEquals(objectHashedNode(3, 0, new Object[]{foo, "foo", bar, "bar"}),
                          rootNode()
                                  .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
                                  .put(bar, "bar", bar, objectEquals(), objectHashCode(), 0));
+            assertEquals(objectHashedNode(3, 0, new Object[]{foo, "foo", bar, "bar"}),
+                         rootNode()
+                                 .put(bar, "bar", bar, objectEquals(), objectHashCode(), 0)
+                                 .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0));
+            assertEquals(objectHashedNode(1, 0, new Object[]{foo, "bar"}),
+                         rootNode()
+                                 .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
+                                 .put(foo, "bar", foo, objectEquals(), objectHashCode(), 0));
 
-            assertEquals(new Node<>(3, new Object[]{
-                                 new Entry<>(foo, "foo"),
-                                 new Node<>(3, new Object[]{
-                                         new Entry<>(bar, "bar"),
-                                         new Entry<>(baz, "baz")
+            assertEquals(objectHashedNode(1, 2, new Object[]{
+                                 foo, "foo",
+                                 objectHashedNode(3, 0, new Object[]{
+                                         bar, "bar",
+                                         baz, "baz"
                                  })}),
                          rootNode()
                                  .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
@@ -237,20 +210,20 @@ public class HAMTTest {
                                  .put(baz, "baz", baz, objectEquals(), objectHashCode(), 0));
 
             assertEquals(
-                    new Node<>(3, new Object[]{
-                            new Entry<>(foo, "foo"),
-                            new Node<>(3, new Object[]{
-                                    new Entry<>(bar, "bar"),
-                                    new Node<>(0b00_00000_00000_00010_00000_00000_00000, new Object[]{
-                                            new Node<>(1, new Object[]{
-                                                    new Node<>(1, new Object[]{
-                                                            new Node<>(1, new Object[]{
-                                                                    new Node<>(1, new Object[]{
+                    objectHashedNode(1, 2, new Object[]{
+                            foo, "foo",
+                            objectHashedNode(1, 2, new Object[]{
+                                    bar, "bar",
+                                    objectHashedNode(0, setBit(0, 0b10000), new Object[]{
+                                            objectHashedNode(0, 1, new Object[]{
+                                                    objectHashedNode(0, 1, new Object[]{
+                                                            objectHashedNode(0, 1, new Object[]{
+                                                                    objectHashedNode(0, 1, new Object[]{
                                                                             new Collision<>(
                                                                                     0b10000_00001_00001,
                                                                                     strictStack(
-                                                                                            new Entry<>(baz, "baz"),
-                                                                                            new Entry<>(quux, "quux")))
+                                                                                            tuple(baz, "baz"),
+                                                                                            tuple(quux, "quux")))
                                                                     })
                                                             })
                                                     })
@@ -264,48 +237,664 @@ public class HAMTTest {
                             .put(quux, "quux", quux, referenceEquals(), objectHashCode(), 0));
         }
 
+        @Test
+        public void putCollidingEntryAtMaxShiftCreatesCollision() {
+            assertEquals(objectHashedNode(0, 1, new Object[]{
+                                 new Collision<>(0, strictStack(tuple("foo", 1), tuple("bar", 2)))}),
+                         new Node<>(1, 0, new Object[]{"foo", 1}, new int[]{0})
+                                 .put("bar", 2, 0, objectEquals(),
+                                      stubbedHashingAlgorithm().stub("foo", 0).stub("bar", 0),
+                                      HAMT.MAX_SHIFT));
+        }
+
         @Test
         public void remove() {
-            assertEquals(Node.<Integer, String>rootNode(),
-                         Node.<Integer, String>rootNode().remove(-1, -1, objectEquals(), 0));
+            Node<Integer, String> empty = rootNode();
+            assertSame(empty, empty.remove(-1, -1, objectEquals(), 0));
 
-            assertEquals(Node.<Integer, String>rootNode(),
-                         Node.<Integer, String>rootNode()
+            assertEquals(empty,
+                         empty
                                  .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
                                  .remove(foo, foo, objectEquals(), 0));
 
-            assertEquals(Node.<Integer, String>rootNode()
-                                 .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0),
-                         Node.<Integer, String>rootNode()
-                                 .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
-                                 .remove(foo, -1, objectEquals(), 0));
+            Node<Integer, String> justFoo = empty.put(foo, "foo", foo, objectEquals(), objectHashCode(), 0);
+            assertSame(justFoo, justFoo.remove(foo, -1, objectEquals(), 0));
 
-            assertEquals(Node.<Integer, String>rootNode()
-                                 .put(bar, "bar", bar, objectEquals(), objectHashCode(), 0),
-                         Node.<Integer, String>rootNode()
+            assertEquals(empty.put(bar, "bar", bar, objectEquals(), objectHashCode(), 0),
+                         empty
                                  .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
                                  .put(bar, "bar", bar, objectEquals(), objectHashCode(), 0)
                                  .remove(foo, foo, objectEquals(), 0));
+        }
 
-            assertEquals(new Node<>(2, new Object[]{
-                                 new Node<>(2, new Object[]{
-                                         new Node<>(0b10_00000_00000_00000, new Object[]{
-                                                 new Node<>(1, new Object[]{
-                                                         new Node<>(1, new Object[]{
-                                                                 new Node<>(1, new Object[]{
-                                                                         new Node<>(1, new Object[]{
-                                                                                 new Entry<>(baz, "baz")
-                                                                         })
-                                                                 })
-                                                         })
-                                                 })
-                                         })
-                                 })
-                         }),
-                         Node.<Integer, String>rootNode()
+        @Test
+        public void ownedNodesAreMutatedInPlace() {
+            Object owner = new Object();
+            Node<Integer, String> owned = Node.<Integer, String>rootNode()
+                    .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0, owner);
+
+            assertSame(owned, owned.put(bar, "bar", bar, objectEquals(), objectHashCode(), 0, owner));
+            assertSame(owned, owned.put(baz, "baz", baz, objectEquals(), objectHashCode(), 0, owner));
+            assertSame(owned, owned.put(foo, "qux", foo, objectEquals(), objectHashCode(), 0, owner));
+            assertSame(owned, owned.remove(baz, baz, objectEquals(), 0, owner));
+
+            assertEquals(objectHashedNode(3, 0, new Object[]{foo, "qux", bar, "bar"}), owned);
+        }
+
+        @Test
+        public void nodesAreNeverMutatedWithoutMatchingOwner() {
+            Object owner = new Object();
+            Node<Integer, String> owned = Node.<Integer, String>rootNode()
+                    .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0, owner);
+            Node<Integer, String> unowned = Node.<Integer, String>rootNode()
+                    .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0);
+
+            assertNotSame(owned, owned.put(bar, "bar", bar, objectEquals(), objectHashCode(), 0, new Object()));
+            assertNotSame(owned, owned.put(bar, "bar", bar, objectEquals(), objectHashCode(), 0));
+            assertNotSame(unowned, unowned.put(bar, "bar", bar, objectEquals(), objectHashCode(), 0, owner));
+            assertNotSame(unowned, unowned.put(bar, "bar", bar, objectEquals(), objectHashCode(), 0, null));
+
+            assertEquals(objectHashedNode(1, 0, new Object[]{foo, "foo"}), owned);
+            assertEquals(objectHashedNode(1, 0, new Object[]{foo, "foo"}), unowned);
+        }
+
+        @Test
+        public void ownedRemovalStillCompactsSubTries() {
+            Object owner = new Object();
+            Node<Integer, String> owned = Node.<Integer, String>rootNode()
+                    .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0, owner)
+                    .put(bar, "bar", bar, objectEquals(), objectHashCode(), 0, owner)
+                    .put(baz, "baz", baz, objectEquals(), objectHashCode(), 0, owner)
+                    .remove(baz, baz, objectEquals(), 0, owner);
+
+            assertEquals(objectHashedNode(3, 0, new Object[]{foo, "foo", bar, "bar"}), owned);
+        }
+
+        @Test
+        public void removeCompactsSingleEntrySubTriesIntoParent() {
+            Node<Integer, String> empty = rootNode();
+            assertEquals(objectHashedNode(setBit(0, 1), 0, new Object[]{baz, "baz"}),
+                         empty
                                  .put(baz, "baz", baz, referenceEquals(), objectHashCode(), 0)
                                  .put(quux, "quux", quux, referenceEquals(), objectHashCode(), 0)
                                  .remove(quux, quux, referenceEquals(), 0));
+
+            assertEquals(objectHashedNode(3, 0, new Object[]{foo, "foo", bar, "bar"}),
+                         empty
+                                 .put(foo, "foo", foo, objectEquals(), objectHashCode(), 0)
+                                 .put(bar, "bar", bar, objectEquals(), objectHashCode(), 0)
+                                 .put(baz, "baz", baz, objectEquals(), objectHashCode(), 0)
+                                 .remove(baz, baz, objectEquals(), 0));
+        }
+
+        @Test
+        public void unionIsStructurallyIdenticalToInsertion() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+            Node<Integer, Integer> ys = spreadNode(400, 1000);
+
+            assertEquals(spreadNode(0, 1000), xs.union(ys, (x, y) -> x, true, objectEquals(), SPREAD, 0));
+            assertEquals(spreadNode(0, 1000), ys.union(xs, (x, y) -> x, true, objectEquals(), SPREAD, 0));
+            assertEquals(xs, xs.union(rootNode(), (x, y) -> x, true, objectEquals(), SPREAD, 0));
+            assertSame(xs, xs.union(xs, (x, y) -> x, true, objectEquals(), SPREAD, 0));
+            assertSame(xs, xs.union(spreadNode(100, 200), (x, y) -> x, true, objectEquals(), SPREAD, 0));
+        }
+
+        @Test
+        public void unionCombinesValuesOfSharedKeys() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+            Node<Integer, Integer> merged = xs.union(spreadNode(400, 1000), Integer::sum, false, objectEquals(),
+                                                     SPREAD, 0);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals((Integer) (i >= 400 && i < 600 ? 2 * i : i),
+                             merged.get(i, SPREAD.apply(i), objectEquals(), 0));
+            }
+            assertNotSame(xs, xs.union(xs, Integer::sum, false, objectEquals(), SPREAD, 0));
+        }
+
+        @Test
+        public void intersectionIsStructurallyIdenticalToInsertion() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+            Node<Integer, Integer> ys = spreadNode(400, 1000);
+
+            assertEquals(spreadNode(400, 600), xs.intersection(ys, (x, y) -> x, true, objectEquals(), SPREAD, 0));
+            assertEquals(spreadNode(400, 600), ys.intersection(xs, (x, y) -> x, true, objectEquals(), SPREAD, 0));
+            assertEquals(rootNode(), xs.intersection(spreadNode(600, 700), (x, y) -> x, true, objectEquals(),
+                                                     SPREAD, 0));
+            assertSame(xs, xs.intersection(xs, (x, y) -> x, true, objectEquals(), SPREAD, 0));
+        }
+
+        @Test
+        public void differenceIsStructurallyIdenticalToRemoval() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+            Node<Integer, Integer> ys = spreadNode(400, 1000);
+
+            assertEquals(spreadNode(0, 400), xs.difference(ys, null, objectEquals(), SPREAD, 0));
+            assertEquals(spreadNode(600, 1000), ys.difference(xs, null, objectEquals(), SPREAD, 0));
+            assertEquals(rootNode(), xs.difference(xs, null, objectEquals(), SPREAD, 0));
+            assertSame(xs, xs.difference(spreadNode(600, 700), null, objectEquals(), SPREAD, 0));
+            assertEquals(spreadNode(0, 600).put(500, -500, SPREAD.apply(500), objectEquals(), SPREAD, 0)
+                                 .remove(450, SPREAD.apply(450), objectEquals(), 0),
+                         xs.difference(spreadNode(450, 451).put(500, 0, SPREAD.apply(500), objectEquals(), SPREAD, 0),
+                                       (x, y) -> x == 500 ? -500 : null, objectEquals(), SPREAD, 0));
+        }
+
+        @Test
+        public void filterIsStructurallyIdenticalToRemoval() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+
+            assertEquals(spreadNode(0, 300), xs.filter((k, v) -> k < 300));
+            assertEquals(rootNode(), xs.filter((k, v) -> false));
+            assertSame(xs, xs.filter((k, v) -> true));
+            assertEquals(spreadNode(0, 300), xs.filter((k, v) -> k < 300, POOL));
+            assertSame(xs, xs.filter((k, v) -> true, POOL));
+        }
+
+        @Test
+        public void mapValuesPreservesStructure() {
+            Node<Integer, Integer> expected = rootNode();
+            for (int i = 0; i < 600; i++) {
+                expected = expected.put(i, -i, SPREAD.apply(i), objectEquals(), SPREAD, 0);
+            }
+
+            assertEquals(expected, spreadNode(0, 600).mapValues(v -> -v));
+            assertEquals(expected, spreadNode(0, 600).mapValues(v -> -v, POOL));
+            assertEquals(rootNode(), Node.<Integer, Integer>rootNode().mapValues(v -> -v, POOL));
+        }
+
+        @Test
+        public void parallelUnionIsStructurallyIdenticalToSequentialUnion() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+            Node<Integer, Integer> ys = spreadNode(400, 1000);
+
+            assertEquals(xs.union(ys, Integer::sum, false, objectEquals(), SPREAD, 0),
+                         xs.union(ys, Integer::sum, false, objectEquals(), SPREAD, 0, POOL));
+            assertSame(xs, xs.union(spreadNode(100, 200), (x, y) -> x, true, objectEquals(), SPREAD, 0, POOL));
+        }
+
+        @Test
+        public void parallelFold() {
+            assertEquals((Integer) (999 * 1000 / 2), spreadNode(0, 1000).fold(0, (acc, kv) -> acc + kv._2(),
+                                                                              Integer::sum, POOL));
+            assertEquals((Integer) 0, Node.<Integer, Integer>rootNode().fold(0, (acc, kv) -> acc + kv._2(),
+                                                                           Integer::sum, POOL));
+        }
+
+        @Test
+        public void iteratesTriesOfMaximumDepth() {
+            HashingAlgorithm<Integer> deep = i -> i < 8 ? (1 << (5 * i)) - 1 : -1;
+            Node<Integer, Integer>    node = rootNode();
+            for (int i = 0; i < 10; i++) {
+                node = node.put(i, i, deep.apply(i), objectEquals(), deep, 0);
+            }
+
+            List<Integer> iterated = new ArrayList<>();
+            node.iterator().forEachRemaining(kv -> iterated.add(kv._1()));
+            iterated.sort(naturalOrder());
+            assertEquals(IntStream.range(0, 10).boxed().collect(toList()), iterated);
+        }
+
+        @Test(expected = NoSuchElementException.class)
+        public void iteratorThrowsWhenExhausted() {
+            Iterator<Tuple2<Integer, Integer>> iterator = spreadNode(0, 1).iterator();
+            iterator.next();
+            iterator.next();
+        }
+
+        @Test
+        public void forEachVisitsEntriesInIterationOrder() {
+            Node<String, Integer> node = objectHashedNode(1, 0b110, new Object[]{
+                    "foo", 1,
+                    objectHashedNode(1, 0, new Object[]{"bar", 2}),
+                    new Collision<>(0, strictStack(tuple("baz", 3),
+                                                   tuple("quux", 4)))});
+            List<Tuple2<String, Integer>> visited = new ArrayList<>();
+            node.forEach((k, v) -> visited.add(tuple(k, v)));
+            assertThat(visited, iterates(tuple("foo", 1), tuple("bar", 2), tuple("baz", 3), tuple("quux", 4)));
+
+            List<Tuple2<Integer, Integer>> iterated = new ArrayList<>();
+            spreadNode(0, 500).iterator().forEachRemaining(iterated::add);
+            List<Tuple2<Integer, Integer>> spreadVisited = new ArrayList<>();
+            spreadNode(0, 500).forEach((k, v) -> spreadVisited.add(tuple(k, v)));
+            assertEquals(iterated, spreadVisited);
+        }
+
+        @Test
+        public void spliteratorSplitsOnSlots() {
+            Spliterator<Integer> spliterator = spreadNode(0, 1000).spliterator((k, v) -> k, 1000,
+                                                                              Spliterator.DISTINCT);
+            assertEquals(1000, spliterator.getExactSizeIfKnown());
+            assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+
+            Spliterator<Integer> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+            assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            assertEquals(1000, prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+
+            long          prefixSize = prefix.getExactSizeIfKnown();
+            List<Integer> keys       = splitAndCollect(prefix);
+            assertEquals(prefixSize, keys.size());
+            keys.addAll(splitAndCollect(spliterator));
+            keys.sort(naturalOrder());
+            assertEquals(IntStream.range(0, 1000).boxed().collect(toList()), keys);
+        }
+
+        @Test
+        public void spliteratorCoversCollisions() {
+            HashingAlgorithm<Integer> collisions = i -> i / 3;
+            Node<Integer, Integer>    node       = rootNode();
+            for (int i = 0; i < 100; i++) {
+                node = node.put(i, i, collisions.apply(i), objectEquals(), collisions, 0);
+            }
+
+            List<Integer> keys = splitAndCollect(node.spliterator((k, v) -> k, 100, 0));
+            keys.sort(naturalOrder());
+            assertEquals(IntStream.range(0, 100).boxed().collect(toList()), keys);
+            assertNull(Node.<Integer, Integer>rootNode().spliterator((k, v) -> k, 0, 0).trySplit());
+        }
+
+        @Test
+        public void sizeIsMaintainedThroughPutsAndRemoves() {
+            Node<Integer, Integer> node = spreadNode(0, 1000);
+            assertEquals(1000, node.size());
+            assertEquals(1000, node.put(500, -500, SPREAD.apply(500), objectEquals(), SPREAD, 0).size());
+            assertEquals(1000, node.remove(1000, SPREAD.apply(1000), objectEquals(), 0).size());
+            for (int i = 0; i < 1000; i += 2) {
+                node = node.remove(i, SPREAD.apply(i), objectEquals(), 0);
+            }
+            assertEquals(500, node.size());
+            assertEquals(0, Node.<Integer, Integer>rootNode().size());
+
+            HashingAlgorithm<Integer> colliding = i -> 0;
+            Node<Integer, Integer>    collided  = rootNode();
+            for (int i = 0; i < 10; i++) {
+                collided = collided.put(i, i, 0, objectEquals(), colliding, 0);
+            }
+            assertEquals(10, collided.size());
+            assertEquals(10, collided.put(5, -5, 0, objectEquals(), colliding, 0).size());
+            assertEquals(9, collided.remove(5, 0, objectEquals(), 0).size());
+        }
+
+        @Test
+        public void sizeIsMaintainedThroughOwnedUpdates() {
+            Object                 owner = new Object();
+            Node<Integer, Integer> owned = rootNode();
+            for (int i = 0; i < 1000; i++) {
+                owned = owned.put(i, i, SPREAD.apply(i), objectEquals(), SPREAD, 0, owner);
+            }
+            assertEquals(1000, owned.size());
+            for (int i = 0; i < 1000; i += 2) {
+                owned = owned.remove(i, SPREAD.apply(i), objectEquals(), 0, owner);
+            }
+            assertEquals(500, owned.size());
+        }
+
+        @Test
+        public void sizeIsMaintainedThroughStructuralOperations() {
+            Node<Integer, Integer> xs = spreadNode(0, 600);
+            Node<Integer, Integer> ys = spreadNode(400, 1000);
+
+            assertEquals(1000, xs.union(ys, Integer::sum, false, objectEquals(), SPREAD, 0).size());
+            assertEquals(1000, xs.union(ys, Integer::sum, false, objectEquals(), SPREAD, 0, POOL).size());
+            assertEquals(200, xs.intersection(ys, (x, y) -> x, true, objectEquals(), SPREAD, 0).size());
+            assertEquals(400, xs.difference(ys, null, objectEquals(), SPREAD, 0).size());
+            assertEquals(300, xs.filter((k, v) -> k < 300).size());
+            assertEquals(600, xs.mapValues(v -> -v).size());
+        }
+
+        @Test
+        public void hashIsCachedPerNodeAndForgottenOnOwnedUpdates() {
+            Node<Integer, Integer> node     = spreadNode(0, 1000);
+            int                    expected = 0;
+            for (int i = 0; i < 1000; i++) {
+                expected += SPREAD.apply(i) ^ i;
+            }
+            assertEquals(expected, node.hash(SPREAD));
+            assertEquals(expected, node.hash(SPREAD));
+            assertEquals(expected - (SPREAD.apply(500) ^ 500) + (SPREAD.apply(500) ^ -500),
+                         node.put(500, -500, SPREAD.apply(500), objectEquals(), SPREAD, 0).hash(SPREAD));
+
+            Object                 owner = new Object();
+            Node<Integer, Integer> owned = rootNode();
+            owned = owned.put(1, 1, SPREAD.apply(1), objectEquals(), SPREAD, 0, owner);
+            assertEquals(SPREAD.apply(1) ^ 1, owned.hash(SPREAD));
+            owned = owned.put(2, 2, SPREAD.apply(2), objectEquals(), SPREAD, 0, owner);
+            assertEquals((SPREAD.apply(1) ^ 1) + (SPREAD.apply(2) ^ 2), owned.hash(SPREAD));
+            assertEquals(0, Node.<Integer, Integer>rootNode().hash(SPREAD));
+
+            HashingAlgorithm<Integer> colliding = i -> 7;
+            Node<Integer, Integer> collided = rootNode();
+            for (int i = 0; i < 3; i++) {
+                collided = collided.put(i, i, 7, objectEquals(), colliding, 0);
+            }
+            assertEquals((7 ^ 0) + (7 ^ 1) + (7 ^ 2), collided.hash(colliding));
+        }
+
+        @Test
+        public void storedKeysAreNeitherRehashedNorComparedToKeysWithDifferentHashes() {
+            int[]                        hashes      = {0};
+            int[]                        comparisons = {0};
+            HashingAlgorithm<Integer>    counting    = i -> {
+                hashes[0]++;
+                return i;
+            };
+            EquivalenceRelation<Integer> comparing   = (x, y) -> {
+                comparisons[0]++;
+                return x.equals(y);
+            };
+
+            Node<Integer, Integer> node  = rootNode();
+            Node<Integer, Integer> other = rootNode();
+            for (int i = 0; i < 1024; i += 32) {
+                node = node.put(i, i, i, comparing, counting, 0);
+                other = other.put(i + 1024, i, i + 1024, comparing, counting, 0);
+            }
+            assertNull(node.get(1024, 1024, comparing, 0));
+            assertSame(node, node.remove(1024, 1024, comparing, 0));
+            assertEquals(64, node.union(other, Integer::sum, false, comparing, counting, 0).size());
+            assertTrue(node.intersection(other, Integer::sum, false, comparing, counting, 0).isEmpty());
+            assertSame(node, node.difference(other, null, comparing, counting, 0));
+            node.hash(counting);
+            assertEquals(0, hashes[0]);
+            assertEquals(0, comparisons[0]);
+
+            assertEquals((Integer) 64, node.get(64, 64, comparing, 0));
+            assertEquals(1, comparisons[0]);
+        }
+
+        private static <A> List<A> splitAndCollect(Spliterator<A> spliterator) {
+            Spliterator<A> prefix = spliterator.trySplit();
+            List<A>        result = prefix == null ? new ArrayList<>() : splitAndCollect(prefix);
+            if (prefix == null)
+                spliterator.forEachRemaining(result::add);
+            else
+                result.addAll(splitAndCollect(spliterator));
+            return result;
+        }
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+        private static final HashingAlgorithm<Integer> SPREAD = i -> i * 0x9E3779B9;
+
+        private static Node<Integer, Integer> spreadNode(int fromInclusive, int toExclusive) {
+            Node<Integer, Integer> node = rootNode();
+            for (int i = fromInclusive; i < toExclusive; i++) {
+                node = node.put(i, i, SPREAD.apply(i), objectEquals(), SPREAD, 0);
+            }
+            return node;
+        }
+    }
+
+    public static final class SortedCollisionTest {
+
+        @Test
+        public void collisionsOfComparableKeysAreSortedAtThreshold() {
+            HAMT<Integer, Integer> collision = collision(0, SORTED_COLLISION_THRESHOLD - 1);
+            assertTrue(collision instanceof Collision<?, ?>);
+
+            HAMT<Integer, Integer> sorted = collision.put(-1, -1, 0, objectEquals(), objectHashCode(), -1);
+            assertTrue(sorted instanceof SortedCollision<?, ?>);
+            assertThat(sorted, iterates(tuple(-1, -1), tuple(0, 0), tuple(1, 1), tuple(2, 2),
+                                        tuple(3, 3), tuple(4, 4), tuple(5, 5), tuple(6, 6)));
+        }
+
+        @Test
+        public void collisionsAreNotSortedForCustomRelationsOrIncomparableKeys() {
+            assertTrue(collision(0, 20).put(20, 20, 0, referenceEquals(), objectHashCode(), -1)
+                               instanceof Collision<?, ?>);
+
+            HAMT<Object, Integer> mixed = new Collision<>(0, strictStack(tuple("foo", 1)));
+            for (int i = 0; i < SORTED_COLLISION_THRESHOLD; i++) {
+                mixed = mixed.put(i, i, 0, objectEquals(), objectHashCode(), -1);
+            }
+            assertTrue(mixed instanceof Collision<?, ?>);
+        }
+
+        @Test
+        public void keysInheritingComparableFromASuperclassAreSorted() {
+            HAMT<Version.Release, Integer> releases = new Collision<>(0, strictStack());
+            for (int i = SORTED_COLLISION_THRESHOLD - 1; i >= 0; i--) {
+                releases = releases.put(new Version.Release(i), i, 0, objectEquals(), objectHashCode(), -1);
+            }
+            assertTrue(releases instanceof SortedCollision<?, ?>);
+            assertEquals((Integer) 3, releases.get(new Version.Release(3), 0, objectEquals(), -1));
+
+            HAMT<Month, Integer> months = new Collision<>(0, strictStack());
+            for (Month month : Month.values()) {
+                months = months.put(month, month.getValue(), 0, objectEquals(), objectHashCode(), -1);
+            }
+            assertTrue(months instanceof SortedCollision<?, ?>);
+            assertEquals((Integer) 3, months.get(Month.MARCH, 0, objectEquals(), -1));
+        }
+
+        @Test
+        public void getPutAndRemove() {
+            HAMT<Integer, Integer> sorted = collision(0, 100);
+            for (int i = 0; i < 100; i++) {
+                assertEquals((Integer) i, sorted.get(i, 0, objectEquals(), -1));
+            }
+            assertNull(sorted.get(100, 0, objectEquals(), -1));
+            assertNull(sorted.get(0, 1, objectEquals(), -1));
+            assertNull(sorted.get(null, 0, objectEquals(), -1));
+
+            HAMT<Integer, Integer> overridden = sorted.put(50, -50, 0, objectEquals(), objectHashCode(), -1);
+            assertEquals((Integer) (-50), overridden.get(50, 0, objectEquals(), -1));
+            assertEquals(100, overridden.size());
+
+            HAMT<Integer, Integer> removed = sorted.remove(50, 0, objectEquals(), -1);
+            assertNull(removed.get(50, 0, objectEquals(), -1));
+            assertEquals(99, removed.size());
+            assertTrue(removed instanceof SortedCollision<?, ?>);
+
+            assertSame(sorted, sorted.remove(100, 0, objectEquals(), -1));
+            assertSame(sorted, sorted.remove(50, 1, objectEquals(), -1));
+        }
+
+        @Test
+        public void customRelationsAndIncomparableKeysAreScannedLinearly() {
+            HAMT<Object, Integer> sorted = new Collision<>(0, strictStack());
+            for (int i = 0; i < 10; i++) {
+                sorted = sorted.put(i, i, 0, objectEquals(), objectHashCode(), -1);
+            }
+            assertEquals((Integer) 5, sorted.get(5, 0, (x, y) -> Objects.equals(x, y), -1));
+            assertNull(sorted.get("5", 0, objectEquals(), -1));
+
+            HAMT<Object, Integer> mixed = sorted.put("foo", -1, 0, objectEquals(), objectHashCode(), -1);
+            assertTrue(mixed instanceof Collision<?, ?>);
+            assertEquals(11, mixed.size());
+            assertEquals((Integer) (-1), mixed.get("foo", 0, objectEquals(), -1));
+            for (int i = 0; i < 10; i++) {
+                assertEquals((Integer) i, mixed.get(i, 0, objectEquals(), -1));
+            }
+        }
+
+        @Test
+        public void keysComparingEqualButNotEqualAreKeptDistinct() {
+            HAMT<BigDecimal, Integer> sorted = new Collision<>(0, strictStack());
+            for (int i = 0; i < SORTED_COLLISION_THRESHOLD; i++) {
+                sorted = sorted.put(new BigDecimal(i), i, 0, objectEquals(), objectHashCode(), -1);
+            }
+            sorted = sorted.put(new BigDecimal("1.0"), 10, 0, objectEquals(), objectHashCode(), -1)
+                    .put(new BigDecimal("1.00"), 100, 0, objectEquals(), objectHashCode(), -1);
+
+            assertTrue(sorted instanceof SortedCollision<?, ?>);
+            assertEquals(SORTED_COLLISION_THRESHOLD + 2, sorted.size());
+            assertEquals((Integer) 1, sorted.get(new BigDecimal("1"), 0, objectEquals(), -1));
+            assertEquals((Integer) 10, sorted.get(new BigDecimal("1.0"), 0, objectEquals(), -1));
+            assertEquals((Integer) 100, sorted.get(new BigDecimal("1.00"), 0, objectEquals(), -1));
+            assertNull(sorted.remove(new BigDecimal("1.0"), 0, objectEquals(), -1)
+                               .get(new BigDecimal("1.0"), 0, objectEquals(), -1));
+        }
+
+        @Test
+        public void removingDownToSingleEntryYieldsSingletonNodeForInlining() {
+            HAMT<Integer, Integer> sorted = collision(0, SORTED_COLLISION_THRESHOLD);
+            for (int i = 1; i < SORTED_COLLISION_THRESHOLD; i++) {
+                sorted = sorted.remove(i, 0, objectEquals(), -1);
+            }
+            assertEquals(objectHashedNode(1, 0, new Object[]{0, 0}), sorted);
+        }
+
+        @Test
+        public void mapValuesAndFilterPreserveOrder() {
+            HAMT<Integer, Integer> sorted = collision(0, 10);
+            assertThat(sorted.mapValues(v -> -v).filter((k, v) -> k % 3 == 0),
+                       iterates(tuple(0, 0), tuple(3, -3), tuple(6, -6), tuple(9, -9)));
+            assertSame(sorted, sorted.filter((k, v) -> true));
+            assertEquals(objectHashedNode(1, 0, new Object[]{5, 5}), sorted.filter((k, v) -> k == 5));
+            assertEquals(rootNode(), sorted.filter((k, v) -> false));
+        }
+
+        @Test
+        public void equalsAndHashCode() {
+            assertEquals(collision(0, 10), collision(0, 10));
+            assertNotEquals(collision(0, 10), collision(0, 11));
+            assertEquals(collision(0, 10).hash(objectHashCode()), collision(0, 10).hash(objectHashCode()));
+        }
+    }
+
+    public static final class ExtensionTest {
+
+        private static final LongHashingAlgorithm<Long> LOWER_BITS_COLLIDE = longHashingAlgorithm(x -> x << 32);
+
+        @Test
+        public void fullIntCollisionsUnderLongHashingAlgorithmAreNotScannedLinearly() {
+            assertTrue(comparisonsToFind(999L, LOWER_BITS_COLLIDE) <= 2);
+            assertEquals(1000, comparisonsToFind(999L, hashingAlgorithm(x -> 0)));
+        }
+
+        @Test
+        public void fullLongCollisionsAreScannedLinearly() {
+            assertEquals(1000, comparisonsToFind(999L, longHashingAlgorithm(x -> 0L)));
+        }
+
+        @Test
+        public void getPutAndRemove() {
+            HAMT<Long, Long> hamt = extended(1000);
+            assertEquals(1000, hamt.size());
+            for (long i = 0; i < 1000; i++) {
+                assertEquals((Long) i, hamt.get(i, 0, objectEquals(), 0));
+            }
+            assertNull(hamt.get(1000L, 0, objectEquals(), 0));
+            assertNull(hamt.get(0L, 1, objectEquals(), 0));
+
+            assertEquals((Long) (-1L), hamt.put(500L, -1L, 0, objectEquals(), LOWER_BITS_COLLIDE, 0)
+                    .get(500L, 0, objectEquals(), 0));
+            assertSame(hamt, hamt.remove(1000L, 0, objectEquals(), 0));
+
+            for (long i = 1; i < 1000; i++) {
+                hamt = hamt.remove(i, 0, objectEquals(), 0);
+            }
+            assertEquals(objectHashedNode(1, 0, new Object[]{0L, 0L}), hamt);
+        }
+
+        @Test
+        public void mapValuesFilterAndHash() {
+            HAMT<Long, Long> hamt = extended(10);
+
+            HAMT<Long, Long> filtered = hamt.mapValues(v -> -v).filter((k, v) -> k % 3 == 0);
+            assertEquals(4, filtered.size());
+            assertEquals((Long) (-9L), filtered.get(9L, 0, objectEquals(), 0));
+            assertEquals(objectHashedNode(1, 0, new Object[]{5L, 5L}), hamt.filter((k, v) -> k == 5));
+            assertEquals(rootNode(), hamt.filter((k, v) -> false));
+
+            int expectedHash = 0;
+            for (long i = 0; i < 10; i++) {
+                expectedHash += Long.hashCode(i);
+            }
+            assertEquals(expectedHash, hamt.hash(LOWER_BITS_COLLIDE));
+            assertEquals(extended(10), extended(10));
+        }
+
+        private static HAMT<Long, Long> extended(int size) {
+            HAMT<Long, Long> hamt = rootNode();
+            for (long i = 0; i < size; i++) {
+                hamt = hamt.put(i, i, 0, objectEquals(), LOWER_BITS_COLLIDE, 0);
+            }
+            return hamt;
+        }
+
+        private static int comparisonsToFind(Long key, HashingAlgorithm<Long> keyHashAlg) {
+            int[]                     comparisons = {0};
+            EquivalenceRelation<Long> counting    = (x, y) -> {
+                comparisons[0]++;
+                return x.equals(y);
+            };
+            HAMT<Long, Long>          hamt        = rootNode();
+            for (long i = 0; i < 1000; i++) {
+                hamt = hamt.put(i, i, keyHashAlg.hashInt(i), counting, keyHashAlg, 0);
+            }
+            comparisons[0] = 0;
+            assertEquals(key, hamt.get(key, keyHashAlg.hashInt(key), counting, 0));
+            return comparisons[0];
+        }
+    }
+
+    public static final class KeyStrategyTest {
+
+        @Test
+        public void defaultRelationsAgreeWithTheirGeneralForm() {
+            assertTrue(HAMT.keysEquivalent(objectEquals(), "foo", new String("foo")));
+            assertTrue(HAMT.<String>keysEquivalent(objectEquals(), null, null));
+            assertEquals("foo".hashCode(), HAMT.keyHash(objectHashCode(), "foo"));
+            assertEquals(0, HAMT.<String>keyHash(objectHashCode(), null));
+        }
+
+        @Test
+        public void customRelationsAreApplied() {
+            String foo = "foo";
+            assertTrue(HAMT.keysEquivalent(referenceEquals(), foo, foo));
+            assertFalse(HAMT.keysEquivalent(referenceEquals(), foo, new String(foo)));
+            assertEquals(3, HAMT.keyHash(String::length, foo));
+            assertEquals(-1, HAMT.keyHash(HashingAlgorithm.<Integer>objectHashCode().<String>contraMap(s -> -1), foo));
+        }
+    }
+
+    /**
+     * A {@link Node} of the given raw <code>table</code>, whose inline keys are hashed with
+     * {@link Objects#hashCode(Object)}.
+     */
+    private static <K, V> Node<K, V> objectHashedNode(int dataMap, int nodeMap, Object[] table) {
+        int[] hashes = new int[Integer.bitCount(dataMap)];
+        for (int dataIndex = 0; dataIndex < hashes.length; dataIndex++) {
+            hashes[dataIndex] = Objects.hashCode(table[2 * dataIndex]);
+        }
+        return new Node<>(dataMap, nodeMap, table, hashes);
+    }
+
+    private static HAMT<Integer, Integer> collision(int from, int to) {
+        HAMT<Integer, Integer> collision = new Collision<>(0, strictStack());
+        for (int i = from; i < to; i++) {
+            collision = collision.put(i, i, 0, objectEquals(), objectHashCode(), -1);
+        }
+        return collision;
+    }
+
+    private static class Version implements Comparable<Version> {
+        private final int number;
+
+        private Version(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public int compareTo(Version other) {
+            return Integer.compare(number, other.number);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Version && number == ((Version) other).number;
+        }
+
+        @Override
+        public int hashCode() {
+            return number;
+        }
+
+        private static final class Release extends Version {
+            private Release(int number) {
+                super(number);
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,26 @@
 package com.jnape.palatable.shoki.impl;
 
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.shoki.api.HashingAlgorithm;
+import com.jnape.palatable.shoki.api.LongHashingAlgorithm;
 import com.jnape.palatable.shoki.testsupport.StubbedHashingAlgorithm;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
 import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.referenceEquals;
+import static com.jnape.palatable.shoki.api.HashingAlgorithm.hash;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.identityHashCode;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.objectHashCode;
+import static com.jnape.palatable.shoki.api.LongHashingAlgorithm.longHashingAlgorithm;
+import static com.jnape.palatable.shoki.api.Map.HashingAlgorithms.entries;
 import static com.jnape.palatable.shoki.api.Natural.abs;
 import static com.jnape.palatable.shoki.api.Natural.one;
 import static com.jnape.palatable.shoki.api.Natural.zero;
@@ -23,6 +34,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static testsupport.matchers.IterableMatcher.isEmpty;
@@ -138,6 +150,56 @@ public class HashMapTest {
         assertEquals(just(1), collision.get("bar"));
     }
 
+    @Test
+    public void keysCollidingOnlyInLowerBitsOfLongHashes() {
+        LongHashingAlgorithm<Integer> lowerBitsCollide = longHashingAlgorithm(x -> (long) x << 32);
+        HashMap<Integer, Integer>     hashMap          = HashMap.hashMap(objectEquals(), lowerBitsCollide);
+        for (int i = 0; i < 1000; i++) {
+            hashMap = hashMap.put(i, i);
+        }
+
+        assertEquals(known(abs(1000)), hashMap.sizeInfo());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(just(i), hashMap.get(i));
+        }
+        assertEquals(hashMap(objectEquals(), lowerBitsCollide, tuple(1, 1), tuple(2, 2)),
+                     hashMap.parallel().filter((k, v) -> k == 1 || k == 2));
+        assertEquals(just(-1), hashMap.merge(hashMap(objectEquals(), lowerBitsCollide, tuple(1, -1)),
+                                             (x, y) -> y).get(1));
+
+        HashMap<Integer, Integer> others = hashMap(objectEquals(), lowerBitsCollide,
+                                                   tuple(1, 1), tuple(2, 2), tuple(1000, 1000));
+        assertEquals(hashMap(objectEquals(), lowerBitsCollide, tuple(1, 2), tuple(2, 4)),
+                     hashMap.intersection(others, Integer::sum, false));
+        assertEquals(known(abs(998)), hashMap.difference(others).sizeInfo());
+        assertEquals(nothing(), hashMap.difference(others).get(1));
+        assertEquals(just(0), hashMap.difference(others, (x, y) -> x - y).get(1));
+
+        HashMap.Builder<Integer, Integer> reversed = HashMap.builder(objectEquals(), lowerBitsCollide);
+        for (int i = 999; i >= 0; i--) {
+            reversed.put(i, i);
+        }
+        assertEquals(reversed.persistent(), hashMap);
+        assertEquals(reversed.persistent().hashCode(), hashMap.hashCode());
+    }
+
+    @Test
+    public void manyFullCollisionsOfComparableKeys() {
+        HashMap<Integer, Integer> collisions = HashMap.<Integer, Integer>hashMap(objectEquals(), x -> 0);
+        for (int i = 999; i >= 0; i--) {
+            collisions = collisions.put(i, i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            collisions = collisions.remove(i);
+        }
+
+        assertEquals(known(abs(500)), collisions.sizeInfo());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 0 ? nothing() : just(i), collisions.get(i));
+        }
+        assertEquals(collisions, collisions.put(1, 1).put(-1, -1).remove(-1));
+    }
+
     @Test
     public void overridingAsPartOfCollision() {
         HashMap<String, Integer> collision = HashMap.<String, Integer>hashMap(
@@ -210,6 +272,21 @@ public class HashMapTest {
         assertEquals(known(zero()), hashMap().put(1, 1).remove(1).sizeInfo());
     }
 
+    @Test
+    public void sizeInfoIsMaintainedAcrossVersions() {
+        HashMap<Integer, Integer> hashMap = hashMap();
+        for (int i = 0; i < 1000; i++) {
+            hashMap = hashMap.put(i, i);
+            assertEquals(known(abs(i + 1)), hashMap.sizeInfo());
+        }
+        assertEquals(known(abs(1000)), hashMap.put(0, -1).sizeInfo());
+        assertEquals(known(abs(1000)), hashMap.remove(1000).sizeInfo());
+        assertEquals(known(abs(999)), hashMap.tail().sizeInfo());
+        assertEquals(known(abs(1500)), hashMap.merge(range(500, 1500), (x, y) -> x).sizeInfo());
+        assertEquals(known(abs(500)), hashMap.removeAll(range(500, 1500).keys()).sizeInfo());
+        assertEquals(known(abs(1000)), hashMap.transientCopy().put(0, 0).remove(1000).persistent().sizeInfo());
+    }
+
     @Test
     public void emptyDetection() {
         assertTrue(hashMap().isEmpty());
@@ -302,6 +379,23 @@ public class HashMapTest {
         assertEquals(hashMap().put(0, 1).put(32, 2).remove(32).hashCode(), hashMap().put(0, 1).hashCode());
     }
 
+    @Test
+    public void hashCodeIsConsistentAcrossDerivedVersions() {
+        HashingAlgorithm<HashMap<Integer, Integer>> entries = entries(objectHashCode(), objectHashCode());
+
+        HashMap<Integer, Integer> hashMap = range(0, 1000);
+        assertEquals(hash(entries, hashMap), hashMap.hashCode());
+        for (int i = 0; i < 1000; i += 7) {
+            hashMap = hashMap.put(i, -i).remove(i + 1);
+            assertEquals(hash(entries, hashMap), hashMap.hashCode());
+        }
+
+        assertEquals(range(0, 500).hashCode(), range(0, 1000).removeAll(range(500, 1000).keys()).hashCode());
+        assertEquals(range(0, 1000).hashCode(), range(0, 500).merge(range(500, 1000), (x, y) -> x).hashCode());
+        assertEquals(range(0, 1000).hashCode(),
+                     range(0, 1000).transientCopy().put(0, 1).put(0, 0).persistent().hashCode());
+    }
+
     @Test
     @SuppressWarnings("UnnecessaryBoxing")
     public void keys() {
@@ -358,4 +452,257 @@ public class HashMapTest {
         assertEquals(nothing(), doubleCollision.remove("foo").get("foo"));
         assertEquals(known(abs(2)), doubleCollision.sizeInfo());
     }
+
+    @Test
+    public void builder() {
+        assertEquals(hashMap(tuple(2, "bar"), tuple(3, "baz")),
+                     HashMap.<Integer, String>builder()
+                             .put(1, "foo")
+                             .put(2, "bar")
+                             .put(3, "qux")
+                             .put(3, "baz")
+                             .remove(1)
+                             .remove(4)
+                             .persistent());
+
+        HashMap.Builder<Integer, String> builder = HashMap.<Integer, String>builder().put(1, "foo");
+        assertEquals(just("foo"), builder.get(1));
+        assertEquals(nothing(), builder.get(2));
+    }
+
+    @Test
+    public void builderWithCustomEquivalenceRelationAndHashingAlgorithm() {
+        HashMap<String, Integer> collisions = HashMap.<String, Integer>builder(
+                objectEquals(),
+                StubbedHashingAlgorithm.<String>stubbedHashingAlgorithm()
+                        .stub("foo", 0b00_00000_00000_00000_00000_00000_00000)
+                        .stub("bar", 0b00_00000_00000_00000_00000_00000_00000)
+                        .stub("baz", 0b01_00000_00000_00000_00000_00000_00000))
+                .put("foo", 1)
+                .put("bar", 2)
+                .put("baz", 3)
+                .remove("bar")
+                .persistent();
+
+        assertEquals(just(1), collisions.get("foo"));
+        assertEquals(nothing(), collisions.get("bar"));
+        assertEquals(just(3), collisions.get("baz"));
+        assertEquals(known(abs(2)), collisions.sizeInfo());
+    }
+
+    @Test
+    public void builderProducesSameHashMapAsSuccessivePuts() {
+        HashMap<Integer, Integer>         persistent = hashMap();
+        HashMap.Builder<Integer, Integer> builder    = HashMap.builder();
+        for (int i = 0; i < 10_000; i++) {
+            persistent = persistent.put(i, i);
+            builder.put(i, i);
+        }
+        assertEquals(persistent, builder.persistent());
+
+        for (int i = 0; i < 10_000; i += 2) {
+            persistent = persistent.remove(i);
+            builder.remove(i);
+        }
+        assertEquals(persistent, builder.persistent());
+    }
+
+    @Test
+    public void persistentIsUnaffectedBySubsequentBuilderModifications() {
+        HashMap.Builder<Integer, String> builder = HashMap.<Integer, String>builder();
+        for (int i = 0; i < 1_000; i++) {
+            builder.put(i, "foo");
+        }
+        HashMap<Integer, String> frozen = builder.persistent();
+
+        for (int i = 0; i < 1_000; i++) {
+            builder.put(i, "bar").put(-i - 1, "baz");
+        }
+        builder.remove(0);
+
+        assertEquals(known(abs(1_000)), frozen.sizeInfo());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(just("foo"), frozen.get(i));
+        }
+        assertEquals(nothing(), frozen.get(-1));
+    }
+
+    @Test
+    public void transientCopyLeavesOriginalUnaffected() {
+        HashMap<Integer, String> original = hashMap();
+        for (int i = 0; i < 1_000; i++) {
+            original = original.put(i, "foo");
+        }
+
+        HashMap<Integer, String> modified = original.transientCopy()
+                .put(0, "bar")
+                .put(1_000, "baz")
+                .remove(1)
+                .persistent();
+
+        assertEquals(just("foo"), original.get(0));
+        assertEquals(just("foo"), original.get(1));
+        assertEquals(nothing(), original.get(1_000));
+        assertEquals(known(abs(1_000)), original.sizeInfo());
+
+        assertEquals(just("bar"), modified.get(0));
+        assertEquals(nothing(), modified.get(1));
+        assertEquals(just("baz"), modified.get(1_000));
+        assertEquals(known(abs(1_000)), modified.sizeInfo());
+    }
+
+    @Test
+    public void merge() {
+        assertEquals(hashMap(), HashMap.<Integer, Integer>hashMap().merge(hashMap(), Integer::sum));
+        assertEquals(hashMap(tuple(1, 1), tuple(2, 4), tuple(3, 3)),
+                     hashMap(tuple(1, 1), tuple(2, 2)).merge(hashMap(tuple(2, 2), tuple(3, 3)), Integer::sum));
+
+        HashMap<Integer, Integer> xs = hashMap(tuple(1, 1), tuple(2, 2));
+        assertEquals(hashMap(tuple(1, 2), tuple(2, 4)), xs.merge(xs, Integer::sum));
+    }
+
+    @Test
+    public void mergeWithCollisions() {
+        HashMap.Builder<Integer, Integer> xs       = HashMap.builder(objectEquals(), i -> i / 3);
+        HashMap.Builder<Integer, Integer> ys       = HashMap.builder(objectEquals(), i -> i / 3);
+        HashMap.Builder<Integer, Integer> expected = HashMap.builder(objectEquals(), i -> i / 3);
+        for (int i = 0; i < 500; i++) {
+            if (i < 300)
+                xs.put(i, i);
+            if (i >= 200)
+                ys.put(i, i);
+            expected.put(i, i >= 200 && i < 300 ? 2 * i : i);
+        }
+
+        assertEquals(expected.persistent(), xs.persistent().merge(ys.persistent(), Integer::sum));
+    }
+
+    @Test
+    public void mergeWithDifferentHashingAlgorithm() {
+        HashMap<Integer, Integer> identityHashMap = HashMap.<Integer, Integer>builder(objectEquals(), i -> 0)
+                .put(2, 2)
+                .put(3, 3)
+                .persistent();
+        assertEquals(hashMap(tuple(1, 1), tuple(2, 4), tuple(3, 3)),
+                     hashMap(tuple(1, 1), tuple(2, 2)).merge(identityHashMap, Integer::sum));
+    }
+
+    @Test
+    public void parallelFold() {
+        HashMap<Integer, Integer> xs = range(0, 10_000);
+        int                       sum = 9_999 * 10_000 / 2;
+
+        assertEquals((Integer) sum, xs.parallel(POOL, 0).fold(0, (acc, kv) -> acc + kv._2(), Integer::sum));
+        assertEquals((Integer) sum, xs.parallel(POOL, Integer.MAX_VALUE).fold(0, (acc, kv) -> acc + kv._2(),
+                                                                             Integer::sum));
+        assertEquals((Integer) 0, HashMap.<Integer, Integer>hashMap().parallel().fold(0, (acc, kv) -> acc + kv._2(),
+                                                                                      Integer::sum));
+    }
+
+    @Test
+    public void parallelMerge() {
+        HashMap<Integer, Integer> xs = range(0, 6_000);
+        HashMap<Integer, Integer> ys = range(4_000, 10_000);
+
+        assertEquals(xs.merge(ys, Integer::sum), xs.parallel(POOL, 0).merge(ys, Integer::sum));
+        assertEquals(xs.merge(ys, Integer::sum), xs.parallel(POOL, Integer.MAX_VALUE).merge(ys, Integer::sum));
+        assertEquals(hashMap(tuple(1, 1), tuple(2, 4), tuple(3, 3)),
+                     hashMap(tuple(1, 1), tuple(2, 2))
+                             .parallel(POOL, 0)
+                             .merge(HashMap.<Integer, Integer>builder(objectEquals(), i -> 0)
+                                            .put(2, 2)
+                                            .put(3, 3)
+                                            .persistent(), Integer::sum));
+    }
+
+    @Test
+    public void parallelMergeWithCollisions() {
+        HashMap.Builder<Integer, Integer> xs = HashMap.builder(objectEquals(), i -> i / 3);
+        HashMap.Builder<Integer, Integer> ys = HashMap.builder(objectEquals(), i -> i / 3);
+        for (int i = 0; i < 500; i++) {
+            if (i < 300)
+                xs.put(i, i);
+            if (i >= 200)
+                ys.put(i, i);
+        }
+
+        assertEquals(xs.persistent().merge(ys.persistent(), Integer::sum),
+                     xs.persistent().parallel(POOL, 0).merge(ys.persistent(), Integer::sum));
+    }
+
+    @Test
+    public void parallelFilter() {
+        HashMap<Integer, Integer> xs = range(0, 10_000);
+
+        assertEquals(range(0, 5_000), xs.parallel(POOL, 0).filter((k, v) -> k < 5_000));
+        assertEquals(range(0, 5_000), xs.parallel(POOL, Integer.MAX_VALUE).filter((k, v) -> k < 5_000));
+        assertEquals(hashMap(), xs.parallel(POOL, 0).filter((k, v) -> false));
+        assertSame(xs, xs.parallel(POOL, 0).filter((k, v) -> true));
+
+        HashMap<Integer, Integer> collisions = HashMap.<Integer, Integer>builder(objectEquals(), i -> i / 3)
+                .put(0, 0)
+                .put(1, 1)
+                .put(2, 2)
+                .put(3, 3)
+                .persistent();
+        assertEquals(hashMap(tuple(1, 1), tuple(3, 3)), collisions.parallel(POOL, 0).filter((k, v) -> k % 2 == 1));
+    }
+
+    @Test
+    public void parallelMapValues() {
+        HashMap.Builder<Integer, String> expected = HashMap.builder();
+        for (int i = 0; i < 10_000; i++) {
+            expected.put(i, String.valueOf(i));
+        }
+
+        assertEquals(expected.persistent(), range(0, 10_000).parallel(POOL, 0).mapValues(String::valueOf));
+        assertEquals(expected.persistent(), range(0, 10_000).parallel(POOL, Integer.MAX_VALUE)
+                .mapValues(String::valueOf));
+        assertEquals(hashMap(tuple(0, "0"), tuple(1, "1"), tuple(2, "2")),
+                     HashMap.<Integer, Integer>builder(objectEquals(), i -> 0)
+                             .put(0, 0)
+                             .put(1, 1)
+                             .put(2, 2)
+                             .persistent()
+                             .parallel(POOL, 0)
+                             .mapValues(String::valueOf));
+    }
+
+    @Test
+    public void streams() {
+        HashMap<Integer, Integer> xs = range(0, 10_000);
+
+        assertEquals(10_000, xs.stream().count());
+        assertEquals(9_999 * 10_000 / 2, xs.parallelStream().mapToInt(Tuple2::_2).sum());
+        assertEquals(0, HashMap.<Integer, Integer>hashMap().parallelStream().count());
+
+        Spliterator<Tuple2<Integer, Integer>> spliterator = xs.spliterator();
+        assertEquals(10_000, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT | Spliterator.IMMUTABLE | Spliterator.NONNULL));
+    }
+    @Test
+    public void forEachWithoutTuples() {
+        HashMap<Integer, Integer> xs = range(0, 1000);
+
+        java.util.Map<Integer, Integer> visited = new java.util.HashMap<>();
+        xs.forEach((k, v) -> visited.put(k, v));
+        assertEquals(1000, visited.size());
+        visited.forEach((k, v) -> assertEquals(k, v));
+
+        List<Integer> keys = new ArrayList<>();
+        xs.forEachKey(keys::add);
+        List<Integer> iteratedKeys = new ArrayList<>();
+        xs.forEach(kv -> iteratedKeys.add(kv._1()));
+        assertEquals(iteratedKeys, keys);
+    }
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static HashMap<Integer, Integer> range(int fromInclusive, int toExclusive) {
+        HashMap.Builder<Integer, Integer> builder = HashMap.builder();
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            builder.put(i, i);
+        }
+        return builder.persistent();
+    }
 }
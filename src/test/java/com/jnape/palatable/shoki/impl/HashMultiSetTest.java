@@ -13,6 +13,7 @@ import static com.jnape.palatable.shoki.api.Natural.one;
 import static com.jnape.palatable.shoki.api.Natural.zero;
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.HashMultiSet.hashMultiSet;
+import static com.jnape.palatable.shoki.impl.HashSet.hashSet;
 import static java.math.BigInteger.TEN;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -120,6 +121,25 @@ public class HashMultiSetTest {
         assertEquals(known(abs(12)), EMPTY.inc("foo", one()).inc("bar", atLeastOne(10)).inc("foo", one()).sizeInfo());
     }
 
+    @Test
+    public void sizeInfoIsMaintainedAcrossUpdates() {
+        HashMultiSet<String> xs = hashMultiSet("a", "a", "b", "c", "c", "c");
+        assertEquals(known(abs(6)), xs.sizeInfo());
+        assertEquals(known(abs(5)), xs.dec("c").sizeInfo());
+        assertEquals(known(abs(3)), xs.dec("c", atLeastOne(5)).sizeInfo());
+        assertEquals(known(abs(6)), xs.dec("d").sizeInfo());
+        assertEquals(known(abs(4)), xs.remove("a").sizeInfo());
+        assertEquals(known(abs(6)), xs.remove("d").sizeInfo());
+        assertEquals(known(zero()), hashMultiSet("a", "a").tail().sizeInfo());
+        assertEquals(known(abs(12)), xs.sum(xs).sizeInfo());
+        assertEquals(known(abs(3)), xs.intersection(hashMultiSet("a", "b", "c", "d")).sizeInfo());
+        assertEquals(known(abs(7)), xs.union(hashMultiSet("d")).sizeInfo());
+        assertEquals(known(abs(4)), xs.difference(hashMultiSet("a", "b")).sizeInfo());
+        assertEquals(known(abs(8)), xs.union(hashMultiSet("a", "c", "d", "d")).sizeInfo());
+        assertEquals(known(abs(2)), xs.difference(hashMultiSet("a", "c", "c", "c", "c")).sizeInfo());
+        assertEquals(known(abs(4)), xs.transientCopy().remove("c").inc("d").persistent().sizeInfo());
+    }
+
     @Test
     public void of() {
         assertEquals(EMPTY.inc("a"), hashMultiSet("a"));
@@ -167,4 +187,89 @@ public class HashMultiSetTest {
                      hashMultiSet("a", "b", "b", "c", "c", "c").toString());
         assertEquals("HashMultiSet[]", hashMultiSet("a").dec("a").toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void builder() {
+        assertEquals(hashMultiSet("a", "b", "b"),
+                     HashMultiSet.<String>builder().inc("a").inc("b", atLeastOne(2)).inc("c").remove("c").persistent());
+        assertEquals(hashMultiSet("a", "b", "a"),
+                     HashMultiSet.<String>builder().incAll(hashSet("a", "b")).inc("a").persistent());
+
+        HashMultiSet.Builder<String> builder = HashMultiSet.<String>builder().inc("a").inc("a");
+        assertEquals(abs(2), builder.get("a"));
+        assertEquals(zero(), builder.get("b"));
+
+        Integer saboteur = 666;
+        HashMultiSet<Integer> identityHashMultiSet = HashMultiSet.<Integer>builder(referenceEquals(),
+                                                                                   identityHashCode())
+                .inc(saboteur)
+                .persistent();
+        assertTrue(identityHashMultiSet.contains(saboteur));
+        assertFalse(identityHashMultiSet.contains(666));
+    }
+
+    @Test
+    public void transientCopy() {
+        HashMultiSet<String> original = hashMultiSet("a", "b");
+        HashMultiSet<String> modified = original.transientCopy().inc("a").remove("b").persistent();
+
+        assertEquals(hashMultiSet("a", "b"), original);
+        assertEquals(hashMultiSet("a", "a"), modified);
+    }
+
+    @Test
+    public void union() {
+        assertEquals(hashMultiSet(), HashMultiSet.<String>hashMultiSet().union(hashMultiSet()));
+        assertEquals(hashMultiSet("a", "a", "b", "c", "c"),
+                     hashMultiSet("a", "a", "b").union(hashMultiSet("a", "c", "c")));
+
+        HashMultiSet<String> xs = hashMultiSet("a", "a", "b");
+        assertSame(xs, xs.union(xs));
+        assertSame(xs, xs.union(hashMultiSet("a", "b")));
+    }
+
+    @Test
+    public void intersection() {
+        assertEquals(hashMultiSet(), hashMultiSet("a", "b").intersection(hashMultiSet("c")));
+        assertEquals(hashMultiSet("a"), hashMultiSet("a", "a", "b").intersection(hashMultiSet("a", "c", "c")));
+
+        HashMultiSet<String> xs = hashMultiSet("a", "a", "b");
+        assertSame(xs, xs.intersection(xs));
+    }
+
+    @Test
+    public void sum() {
+        assertEquals(hashMultiSet("a", "a", "a", "b", "c", "c"),
+                     hashMultiSet("a", "a", "b").sum(hashMultiSet("a", "c", "c")));
+
+        HashMultiSet<String> xs = hashMultiSet("a", "a", "b");
+        assertEquals(hashMultiSet("a", "a", "a", "a", "b", "b"), xs.sum(xs));
+    }
+
+    @Test
+    public void difference() {
+        assertEquals(hashMultiSet("a", "b"), hashMultiSet("a", "a", "b").difference(hashMultiSet("a", "c", "c")));
+        assertEquals(hashMultiSet("c", "c"), hashMultiSet("a", "c", "c").difference(hashMultiSet("a", "a", "b")));
+
+        HashMultiSet<String> xs = hashMultiSet("a", "a", "b");
+        assertEquals(hashMultiSet(), xs.difference(xs));
+    }
+
+    @Test
+    public void multiSetAlgebraWithDifferentHashingAlgorithm() {
+        HashMultiSet<String> identityHashMultiSet = HashMultiSet.<String>builder(referenceEquals(), s -> 0)
+                .inc("a")
+                .inc("c", atLeastOne(2))
+                .persistent();
+        assertEquals(hashMultiSet("a", "a", "b", "c", "c"), hashMultiSet("a", "a", "b").union(identityHashMultiSet));
+        assertEquals(hashMultiSet("a", "b"), hashMultiSet("a", "a", "b").difference(identityHashMultiSet));
+    }
+
+    @Test
+    public void streams() {
+        HashMultiSet<String> multiSet = hashMultiSet("foo", "bar", "foo");
+
+        assertEquals(3, multiSet.parallelStream().mapToInt(kv -> kv._2().intValue()).sum());
+        assertEquals(2, multiSet.spliterator().getExactSizeIfKnown());
+    }
+}
@@ -1,12 +1,22 @@
 package com.jnape.palatable.shoki.impl;
 
+import com.jnape.palatable.shoki.api.HashingAlgorithm;
+import com.jnape.palatable.shoki.api.LongHashingAlgorithm;
 import com.jnape.palatable.shoki.testsupport.DefaultMethodsSet;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.shoki.api.EquivalenceRelation.objectEquals;
 import static com.jnape.palatable.shoki.api.EquivalenceRelation.referenceEquals;
 import static com.jnape.palatable.shoki.api.HashingAlgorithm.identityHashCode;
+import static com.jnape.palatable.shoki.api.LongHashingAlgorithm.longHashingAlgorithm;
 import static com.jnape.palatable.shoki.api.Natural.abs;
 import static com.jnape.palatable.shoki.api.Natural.one;
 import static com.jnape.palatable.shoki.api.Natural.zero;
@@ -14,6 +24,7 @@ import static com.jnape.palatable.shoki.api.Set.EquivalenceRelations.sameElement
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.HashSet.hashSet;
 import static com.jnape.palatable.shoki.testsupport.EquivalenceRelationMatcher.equivalentTo;
+import static java.util.stream.Collectors.toSet;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -157,4 +168,173 @@ public class HashSetTest {
                    equivalentTo(empty.symmetricDifference(empty), sameElements()));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void builder() {
+        assertEquals(hashSet(2, 3), HashSet.<Integer>builder().add(1).add(2).add(3).add(3).remove(1).persistent());
+        assertEquals(hashSet(1, 2, 3), HashSet.<Integer>builder().addAll(hashSet(1, 2, 3)).persistent());
+
+        HashSet.Builder<Integer> builder = HashSet.<Integer>builder().add(1);
+        assertTrue(builder.contains(1));
+        assertFalse(builder.contains(2));
+
+        Integer saboteur = 666;
+        HashSet<Integer> identityHashSet = HashSet.<Integer>builder(referenceEquals(), identityHashCode())
+                .add(saboteur)
+                .persistent();
+        assertTrue(identityHashSet.contains(saboteur));
+        assertFalse(identityHashSet.contains(666));
+    }
+
+    @Test
+    public void transientCopy() {
+        HashSet<Integer> original = hashSet(1, 2, 3);
+        HashSet<Integer> modified = original.transientCopy().add(4).remove(1).persistent();
+
+        assertEquals(hashSet(1, 2, 3), original);
+        assertEquals(hashSet(2, 3, 4), modified);
+    }
+
+    @Test
+    public void setAlgebraWithCollisions() {
+        HashSet.Builder<Integer> xs = HashSet.builder(objectEquals(), i -> i / 3);
+        HashSet.Builder<Integer> ys = HashSet.builder(objectEquals(), i -> i / 3);
+        for (int i = 0; i < 500; i++) {
+            if (i < 300)
+                xs.add(i);
+            if (i >= 200)
+                ys.add(i);
+        }
+
+        HashSet<Integer> left  = xs.persistent();
+        HashSet<Integer> right = ys.persistent();
+        assertEquals(range(0, 500), left.union(right));
+        assertEquals(range(200, 300), left.intersection(right));
+        assertEquals(range(0, 200), left.difference(right));
+        assertEquals(range(300, 500), right.difference(left));
+        assertEquals(range(0, 200).union(range(300, 500)), left.symmetricDifference(right));
+
+        HashingAlgorithm<Integer> fullCollision = x -> 0xF8;
+        assertEquals(hashSet(), range(fullCollision, 0, 2).difference(range(fullCollision, 0, 2)));
+        assertEquals(range(0, 2), range(fullCollision, 0, 2).intersection(range(fullCollision, 0, 2)));
+        assertEquals(range(0, 1), range(fullCollision, 0, 2).difference(range(fullCollision, 1, 3)));
+        assertEquals(range(1, 2), range(fullCollision, 0, 2).intersection(range(fullCollision, 1, 3)));
+        assertEquals(range(0, 10), range(fullCollision, 0, 20).difference(range(fullCollision, 10, 30)));
+        assertEquals(range(10, 20), range(fullCollision, 0, 20).intersection(range(fullCollision, 10, 30)));
+    }
+
+    @Test
+    public void setAlgebraWithKeysCollidingOnlyInLowerBitsOfLongHashes() {
+        LongHashingAlgorithm<Integer> lowerBitsCollide = longHashingAlgorithm(x -> ((long) x << 32) | 0xF8L);
+        HashSet<Integer>              left             = range(lowerBitsCollide, 0, 300);
+        HashSet<Integer>              right            = range(lowerBitsCollide, 200, 500);
+        assertEquals(range(0, 500), left.union(right));
+        assertEquals(range(200, 300), left.intersection(right));
+        assertEquals(range(0, 200), left.difference(right));
+        assertEquals(range(300, 500), right.difference(left));
+        assertEquals(range(0, 200).union(range(300, 500)), left.symmetricDifference(right));
+
+        assertEquals(hashSet(), range(lowerBitsCollide, 0, 2).difference(range(lowerBitsCollide, 0, 2)));
+        assertEquals(range(0, 1), range(lowerBitsCollide, 0, 2).difference(range(lowerBitsCollide, 1, 3)));
+        assertEquals(range(1, 2), range(lowerBitsCollide, 0, 2).intersection(range(lowerBitsCollide, 1, 3)));
+    }
+
+    @Test
+    public void setAlgebraReusesUnchangedSets() {
+        HashSet<Integer> xs = hashSet(1, 2, 3);
+        assertSame(xs, xs.union(xs));
+        assertSame(xs, xs.union(hashSet(1, 2)));
+        assertSame(xs, xs.intersection(xs));
+        assertSame(xs, xs.difference(hashSet(4, 5)));
+    }
+
+    @Test
+    public void setAlgebraReusesUnchangedSetsWithSpreadHashingAlgorithm() {
+        HashSet<Integer> xs = hashSet(objectEquals(), HashingAlgorithm.<Integer>objectHashCode().spread(), 1, 2, 3);
+        HashSet<Integer> ys = hashSet(objectEquals(), HashingAlgorithm.<Integer>objectHashCode().spread(), 1, 2);
+        assertSame(xs, xs.union(ys));
+        assertEquals(hashSet(1, 2), xs.intersection(ys));
+        assertEquals(hashSet(3), xs.difference(ys));
+    }
+
+    @Test
+    public void setAlgebraWithDifferentHashingAlgorithm() {
+        HashSet<Integer> identityHashSet = HashSet.<Integer>builder(referenceEquals(), identityHashCode())
+                .add(2)
+                .add(3)
+                .persistent();
+        assertEquals(hashSet(1, 2, 3), hashSet(1, 2).union(identityHashSet));
+        assertEquals(hashSet(2), hashSet(1, 2).intersection(identityHashSet));
+        assertEquals(hashSet(1), hashSet(1, 2).difference(identityHashSet));
+    }
+
+    @Test
+    public void parallelFold() {
+        assertEquals((Integer) (9_999 * 10_000 / 2),
+                     range(0, 10_000).parallel(POOL, 0).fold(0, Integer::sum, Integer::sum));
+        assertEquals((Integer) 0, HashSet.<Integer>hashSet().parallel().fold(0, Integer::sum, Integer::sum));
+    }
+
+    @Test
+    public void parallelUnion() {
+        HashSet<Integer> xs = range(0, 6_000);
+
+        assertEquals(range(0, 10_000), xs.parallel(POOL, 0).union(range(4_000, 10_000)));
+        assertEquals(xs, xs.parallel(POOL, 0).union(range(1_000, 2_000)));
+        assertSame(xs, xs.parallel(POOL, 0).union(xs));
+        assertEquals(hashSet(1, 2, 3), hashSet(1, 2).parallel(POOL, 0).union(
+                HashSet.<Integer>builder(referenceEquals(), identityHashCode()).add(2).add(3).persistent()));
+    }
+
+    @Test
+    public void parallelFilter() {
+        HashSet<Integer> xs = range(0, 10_000);
+
+        assertEquals(range(0, 5_000), xs.parallel(POOL, 0).filter(x -> x < 5_000));
+        assertEquals(hashSet(), xs.parallel(POOL, 0).filter(x -> false));
+        assertSame(xs, xs.parallel(POOL, 0).filter(x -> true));
+    }
+
+    @Test
+    public void streams() {
+        HashSet<Integer> xs = range(0, 10_000);
+
+        assertEquals(IntStream.range(0, 10_000).boxed().collect(toSet()), xs.parallelStream().collect(toSet()));
+        assertEquals(10_000, xs.stream().distinct().count());
+        assertEquals(0, hashSet().parallelStream().count());
+
+        Spliterator<Integer> spliterator = xs.spliterator();
+        assertEquals(10_000, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT | Spliterator.IMMUTABLE));
+    }
+
+    @Test
+    public void forEachWithoutTuples() {
+        HashSet<Integer> xs = range(0, 1000);
+
+        List<Integer> visited = new ArrayList<>();
+        xs.forEach(visited::add);
+        List<Integer> iterated = new ArrayList<>();
+        xs.iterator().forEachRemaining(iterated::add);
+        assertEquals(iterated, visited);
+    }
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private static HashSet<Integer> range(int fromInclusive, int toExclusive) {
+        HashSet.Builder<Integer> builder = HashSet.builder();
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            builder.add(i);
+        }
+        return builder.persistent();
+    }
+
+    private static HashSet<Integer> range(HashingAlgorithm<? super Integer> hashingAlgorithm, int fromInclusive,
+                                          int toExclusive) {
+        HashSet.Builder<Integer> builder = HashSet.builder(objectEquals(), hashingAlgorithm);
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            builder.add(i);
+        }
+        return builder.persistent();
+    }
+}
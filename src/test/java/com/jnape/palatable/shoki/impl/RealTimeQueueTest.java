@@ -0,0 +1,175 @@
+package com.jnape.palatable.shoki.impl;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+
+import static com.jnape.palatable.lambda.adt.Maybe.just;
+import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.shoki.api.Natural.abs;
+import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
+import static com.jnape.palatable.shoki.impl.RealTimeQueue.realTimeQueue;
+import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
+import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RealTimeQueueTest {
+
+    @Test
+    public void headIfEmptyIsNothing() {
+        assertEquals(nothing(), realTimeQueue().head());
+    }
+
+    @Test
+    public void isEmptyIfEmpty() {
+        assertTrue(realTimeQueue().isEmpty());
+    }
+
+    @Test
+    public void tailIfEmptyIsAlsoEmpty() {
+        assertTrue(realTimeQueue().tail().isEmpty());
+    }
+
+    @Test
+    public void nonEmptyQueueIsNotEmpty() {
+        assertFalse(realTimeQueue().snoc(1).isEmpty());
+    }
+
+    @Test
+    public void nonEmptyQueueIteratesElementsFirstInFirstOut() {
+        RealTimeQueue<Integer> queue = RealTimeQueue.<Integer>realTimeQueue().snoc(1).snoc(2).snoc(3);
+        assertEquals(just(1), queue.head());
+        assertEquals(just(2), queue.tail().head());
+        assertEquals(just(3), queue.tail().tail().head());
+        assertEquals(nothing(), queue.tail().tail().tail().head());
+    }
+
+    @Test
+    public void nonEmptyQueueQueuesIncomingElementsBehindOutgoing() {
+        RealTimeQueue<Integer> outgoingQueued = realTimeQueue(1, 2, 3).tail();
+        RealTimeQueue<Integer> queue          = outgoingQueued.snoc(4).snoc(5);
+
+        assertEquals(just(2), queue.head());
+        assertEquals(just(3), queue.tail().head());
+        assertEquals(just(4), queue.tail().tail().head());
+        assertEquals(just(5), queue.tail().tail().tail().head());
+        assertEquals(nothing(), queue.tail().tail().tail().tail().head());
+    }
+
+    @Test
+    public void persistentVersionsAreUnaffectedBySharedRotations() {
+        RealTimeQueue<Integer> base   = realTimeQueue(1, 2, 3, 4);
+        RealTimeQueue<Integer> left   = base.tail().snoc(5).snoc(6);
+        RealTimeQueue<Integer> right  = base.snoc(-1).tail().tail();
+        RealTimeQueue<Integer> forked = left.tail().tail().tail();
+
+        assertEquals(realTimeQueue(1, 2, 3, 4), base);
+        assertEquals(realTimeQueue(2, 3, 4, 5, 6), left);
+        assertEquals(realTimeQueue(3, 4, -1), right);
+        assertEquals(realTimeQueue(5, 6), forked);
+    }
+
+    @Test
+    public void randomOperationsAgreeWithArrayDeque() {
+        Random                 random   = new Random(17);
+        ArrayDeque<Integer>    expected = new ArrayDeque<>();
+        RealTimeQueue<Integer> queue    = realTimeQueue();
+        for (int step = 0; step < 20_000; step++) {
+            if (random.nextInt(5) < 3) {
+                expected.addLast(step);
+                queue = queue.snoc(step);
+            } else {
+                assertEquals(expected.isEmpty() ? nothing() : just(expected.removeFirst()), queue.head());
+                queue = queue.tail();
+            }
+
+            assertEquals(known(abs(expected.size())), queue.sizeInfo());
+            if (step % 1_000 == 0)
+                assertEquals(new ArrayList<>(expected), queue.stream().collect(toList()));
+        }
+    }
+
+    @Test
+    public void largeQueuesPreserveOrder() {
+        RealTimeQueue<Integer> queue = realTimeQueue();
+        for (int i = 0; i < 1_000_000; i++)
+            queue = queue.snoc(i);
+
+        List<Integer> removed = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            removed.add(queue.head().orElseThrow(AssertionError::new));
+            queue = queue.tail();
+        }
+
+        assertEquals(1_000_000, removed.size());
+        for (int i = 0; i < 1_000_000; i++)
+            assertEquals(i, (int) removed.get(i));
+    }
+
+    @Test
+    public void reverse() {
+        assertEquals(realTimeQueue(3, 2, 1), realTimeQueue(1, 2, 3).reverse());
+        assertEquals(realTimeQueue(5, 4, 3), realTimeQueue(1, 2, 3).tail().snoc(4).snoc(5).tail().reverse());
+        assertEquals(realTimeQueue(1, 2, 3), realTimeQueue(1, 2, 3).reverse().reverse());
+
+        assertEquals(realTimeQueue(1), realTimeQueue(1).reverse());
+        assertEquals(realTimeQueue(), realTimeQueue().reverse());
+    }
+
+    @Test
+    public void sizeInfo() {
+        assertEquals(known(zero()), realTimeQueue().sizeInfo());
+        assertEquals(known(abs(3)), realTimeQueue(1, 2, 3).sizeInfo());
+        assertEquals(known(abs(4)), realTimeQueue(1, 2, 3).snoc(4).sizeInfo());
+        assertEquals(known(abs(4)), realTimeQueue(1, 2, 3).snoc(4).reverse().sizeInfo());
+        assertEquals(known(abs(2)), realTimeQueue(1, 2, 3).tail().sizeInfo());
+        assertEquals(known(zero()), realTimeQueue(1).tail().sizeInfo());
+    }
+
+    @Test
+    public void equalsAndHashCode() {
+        assertEquals(realTimeQueue(), realTimeQueue());
+        assertEquals(realTimeQueue(1, 2, 3), realTimeQueue(1, 2, 3));
+        assertEquals(realTimeQueue(1, 2, 3), realTimeQueue(0, 1).snoc(2).tail().snoc(3));
+        assertNotEquals(realTimeQueue(1), realTimeQueue(2));
+        assertNotEquals(realTimeQueue(1), new Object());
+        assertNotEquals(realTimeQueue(1, 2, 3), strictQueue(1, 2, 3));
+
+        assertEquals(realTimeQueue().hashCode(), realTimeQueue().hashCode());
+        assertEquals(realTimeQueue(1, 2, 3).hashCode(), realTimeQueue(0, 1).snoc(2).tail().snoc(3).hashCode());
+        assertNotEquals(realTimeQueue(1, 2, 3).hashCode(), realTimeQueue(3, 2, 1).hashCode());
+    }
+
+    @Test
+    public void toStringImplementation() {
+        assertEquals("RealTimeQueue[]", realTimeQueue().toString());
+        assertEquals("RealTimeQueue[1, 2, 3]", realTimeQueue(1, 2, 3).toString());
+    }
+
+    @Test
+    public void snocAll() {
+        assertEquals(realTimeQueue(1, 2, 3, 4, 5), realTimeQueue(1, 2).snocAll(strictStack(3, 4, 5)));
+    }
+
+    @Test
+    public void streams() {
+        RealTimeQueue<Integer> queue = realTimeQueue(1, 2, 3);
+
+        assertEquals(asList(1, 2, 3), queue.parallelStream().collect(toList()));
+        assertEquals(0, realTimeQueue().stream().count());
+
+        Spliterator<Integer> spliterator = queue.spliterator();
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SUBSIZED));
+    }
+}
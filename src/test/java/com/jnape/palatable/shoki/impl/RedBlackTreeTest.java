@@ -1,12 +1,24 @@
 package com.jnape.palatable.shoki.impl;
 
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.shoki.impl.RedBlackTree.Range;
 import com.jnape.palatable.shoki.impl.RedBlackTree.Spine.Node;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.runner.RunWith;
 import testsupport.matchers.IterableMatcher;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+
 import static com.jnape.palatable.lambda.adt.hlist.HList.tuple;
+import static com.jnape.palatable.lambda.functions.builtin.fn2.ToCollection.toCollection;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.B;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.BB;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.NB;
@@ -14,9 +26,12 @@ import static com.jnape.palatable.shoki.impl.RedBlackTree.Color.R;
 import static com.jnape.palatable.shoki.impl.RedBlackTree.Spine.E;
 import static java.util.Arrays.asList;
 import static java.util.Comparator.naturalOrder;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static testsupport.matchers.IterableMatcher.iterates;
@@ -136,6 +151,44 @@ public class RedBlackTreeTest {
             assertEquals(b(2, 2, r(3, 4)), b(2, 2, r(3, 3)).ins(3, 4, naturalOrder()));
         }
 
+        @Test
+        public void ownedInsertionProducesSameTreeAsPersistentInsertion() {
+            Object                         owner      = new Object();
+            RedBlackTree<Integer, Integer> owned      = RedBlackTree.empty();
+            RedBlackTree<Integer, Integer> persistent = RedBlackTree.empty();
+            for (int i : asList(5, 3, 8, 1, 4, 7, 9, 2, 6, 0, 15, 11, 13, 12, 14, 10, 3, 8)) {
+                owned      = owned.insert(i, i * 2, naturalOrder(), owner);
+                persistent = persistent.insert(i, i * 2, naturalOrder());
+                assertEquals(persistent, owned);
+            }
+        }
+
+        @Test
+        public void ownedInsertionMutatesOwnedNodesInPlace() {
+            Object                         owner = new Object();
+            RedBlackTree<Integer, Integer> owned = RedBlackTree.<Integer, Integer>empty()
+                    .insert(1, 1, naturalOrder(), owner);
+
+            assertSame(owned, owned.insert(1, 2, naturalOrder(), owner));
+            assertEquals(b(1, 2), owned);
+        }
+
+        @Test
+        public void ownedInsertionNeverMutatesUnownedNodes() {
+            RedBlackTree<Integer, Integer> shared = b(r(0, 0), 1, 1, r(2, 2));
+
+            RedBlackTree<Integer, Integer> inserted = shared.insert(3, 3, naturalOrder(), new Object());
+            assertEquals(b(b(r(0, 0), 1, 1), 2, 2, b(3, 3)), inserted);
+            assertEquals(b(r(0, 0), 1, 1, r(2, 2)), shared);
+
+            Object                         owner = new Object();
+            RedBlackTree<Integer, Integer> owned = RedBlackTree.<Integer, Integer>empty()
+                    .insert(1, 1, naturalOrder(), owner);
+            assertNotSame(owned, owned.insert(1, 2, naturalOrder(), new Object()));
+            assertNotSame(owned, owned.insert(1, 2, naturalOrder()));
+            assertEquals(b(1, 1), owned);
+        }
+
         @Test
         public void del() {
             assertEquals(RedBlackTree.Spine.<Integer, Integer>bb(),
@@ -310,6 +363,349 @@ public class RedBlackTreeTest {
         }
     }
 
+    public static class FromSorted {
+
+        @Test
+        public void smallTreesAreCompleteWithDeepestLevelRed() {
+            assertEquals(RedBlackTree.empty(), RedBlackTree.fromSorted(entries(0), 0));
+            assertEquals(b(0, 0), RedBlackTree.fromSorted(entries(1), 1));
+            assertEquals(b(0, 0, r(1, 1)), RedBlackTree.fromSorted(entries(2), 2));
+            assertEquals(b(b(0, 0), 1, 1, b(2, 2)), RedBlackTree.fromSorted(entries(3), 3));
+            assertEquals(b(b(0, 0), 1, 1, b(2, 2, r(3, 3))), RedBlackTree.fromSorted(entries(4), 4));
+            assertEquals(b(b(0, 0, r(1, 1)), 2, 2, b(3, 3, r(4, 4))), RedBlackTree.fromSorted(entries(5), 5));
+        }
+
+        @Test
+        public void largeTreesBehaveLikeInsertedTrees() {
+            int                            n        = 1_000;
+            RedBlackTree<Integer, Integer> inserted = RedBlackTree.empty();
+            for (int i = 0; i < n; i++) {
+                inserted = inserted.insert(i, i, naturalOrder());
+            }
+
+            RedBlackTree<Integer, Integer> built = RedBlackTree.fromSorted(entries(n), n);
+            assertEquals(toCollection(ArrayList::new, inserted), toCollection(ArrayList::new, built));
+
+            for (int i = 0; i < n; i += 3) {
+                built = built.delete(i, naturalOrder());
+                inserted = inserted.delete(i, naturalOrder());
+            }
+            assertEquals(toCollection(ArrayList::new, inserted.insert(n, n, naturalOrder())),
+                         toCollection(ArrayList::new, built.insert(n, n, naturalOrder())));
+        }
+
+        private static Iterator<Tuple2<Integer, Integer>> entries(int n) {
+            return IntStream.range(0, n).mapToObj(i -> tuple(i, i)).iterator();
+        }
+    }
+
+    public static class JoinAndSplit {
+
+        @Test
+        public void joinRebalancesAlongTheSpineOfTheTallerTree() {
+            assertEquals(b(1, 1), RedBlackTree.join(RedBlackTree.empty(), 1, 1, RedBlackTree.empty()));
+            assertEquals(b(0, 0, r(1, 1)), RedBlackTree.join(b(0, 0), 1, 1, RedBlackTree.empty()));
+            assertEquals(b(r(0, 0), 1, 1), RedBlackTree.join(RedBlackTree.empty(), 0, 0, b(1, 1)));
+            assertEquals(b(b(0, 0), 1, 1, r(b(2, 2), 3, 3, b(4, 4))),
+                         RedBlackTree.join(b(b(0, 0), 1, 1, b(2, 2)), 3, 3, b(4, 4)));
+            assertEquals(b(r(b(0, 0), 1, 1, b(2, 2)), 3, 3, b(4, 4)),
+                         RedBlackTree.join(b(0, 0), 1, 1, b(b(2, 2), 3, 3, b(4, 4))));
+        }
+
+        @Test
+        public void joinMaintainsCachedBlackHeights() {
+            assertEquals(0, RedBlackTree.Spine.b().blackHeight());
+            assertEquals(1, r(b(0, 0), 1, 1, b(2, 2)).blackHeight());
+            assertEquals(2, b(b(0, 0), 1, 1, b(2, 2)).blackHeight());
+            assertEquals(2, ((RedBlackTree.Spine<Integer, Integer>) RedBlackTree.join(b(b(0, 0), 1, 1, b(2, 2)), 3, 3,
+                                                                                     b(4, 4))).blackHeight());
+            assertEquals(3, ((RedBlackTree.Spine<Integer, Integer>) RedBlackTree.join(b(b(0, 0), 1, 1, b(2, 2)), 3, 3,
+                                                                                     b(b(4, 4), 5, 5, b(6, 6))))
+                    .blackHeight());
+        }
+
+        @Test
+        public void splitAroundPresentAndAbsentKeys() {
+            RedBlackTree<Integer, Integer> tree = evens(0, 20);
+
+            RedBlackTree.Split<Integer, Integer> present = RedBlackTree.split(tree, 10, naturalOrder());
+            assertEquals(entries(evens(0, 10)), entries(present.left));
+            assertEquals(tuple(10, 10), present.entry);
+            assertEquals(entries(evens(12, 20)), entries(present.right));
+
+            RedBlackTree.Split<Integer, Integer> absent = RedBlackTree.split(tree, 11, naturalOrder());
+            assertEquals(entries(evens(0, 12)), entries(absent.left));
+            assertNull(absent.entry);
+            assertEquals(entries(evens(12, 20)), entries(absent.right));
+        }
+
+        @Test
+        public void setAlgebraAgreesWithInsertionAndDeletion() {
+            RedBlackTree<Integer, Integer> xs = evens(0, 1_000);
+            RedBlackTree<Integer, Integer> ys = RedBlackTree.empty();
+            for (int i = 500; i < 1_500; i += 3) {
+                ys = ys.insert(i, -i, naturalOrder());
+            }
+
+            RedBlackTree<Integer, Integer> union        = xs;
+            RedBlackTree<Integer, Integer> intersection = RedBlackTree.empty();
+            RedBlackTree<Integer, Integer> difference   = xs;
+            for (Tuple2<Integer, Integer> y : ys) {
+                Integer x = xs.get(y._1(), naturalOrder());
+                union = union.insert(y._1(), x == null ? y._2() : x + y._2(), naturalOrder());
+                if (x != null)
+                    intersection = intersection.insert(y._1(), x, naturalOrder());
+                difference = difference.delete(y._1(), naturalOrder());
+            }
+
+            assertEquals(entries(union), entries(RedBlackTree.union(xs, ys, Integer::sum, false, naturalOrder())));
+            assertEquals(entries(intersection),
+                         entries(RedBlackTree.intersection(xs, ys, (x, y) -> x, true, naturalOrder())));
+            assertEquals(entries(difference),
+                         entries(RedBlackTree.difference(xs, ys, null, naturalOrder())));
+
+            RedBlackTree<Integer, Integer> joined = RedBlackTree.union(xs, ys, Integer::sum, false, naturalOrder());
+            for (int i = 0; i < 1_500; i += 7) {
+                joined = joined.delete(i, naturalOrder());
+                union = union.delete(i, naturalOrder());
+            }
+            assertEquals(entries(union), entries(joined));
+        }
+
+        @Test
+        public void setAlgebraReusesSharedTrees() {
+            RedBlackTree<Integer, Integer> xs = evens(0, 100);
+            assertSame(xs, RedBlackTree.union(xs, xs, (x, y) -> x, true, naturalOrder()));
+            assertSame(xs, RedBlackTree.union(xs, RedBlackTree.empty(), (x, y) -> x, true, naturalOrder()));
+            assertSame(xs, RedBlackTree.intersection(xs, xs, (x, y) -> x, true, naturalOrder()));
+            assertTrue(RedBlackTree.difference(xs, xs, null, naturalOrder()).isEmpty());
+        }
+
+        private static RedBlackTree<Integer, Integer> evens(int fromInclusive, int toExclusive) {
+            RedBlackTree<Integer, Integer> tree = RedBlackTree.empty();
+            for (int i = fromInclusive; i < toExclusive; i += 2) {
+                tree = tree.insert(i, i, naturalOrder());
+            }
+            return tree;
+        }
+
+        private static ArrayList<Tuple2<Integer, Integer>> entries(RedBlackTree<Integer, Integer> tree) {
+            return toCollection(ArrayList::new, tree);
+        }
+    }
+
+    public static class Splitting {
+
+        @Test
+        public void splitsPreserveEncounterOrder() {
+            RedBlackTree<Integer, Integer> tree = RedBlackTree.fromSorted(
+                    IntStream.range(0, 1000).mapToObj(i -> tuple(i, i)).iterator(), 1000);
+            Spliterator<Integer> spliterator = tree.spliterator((k, v) -> k, 1000, Spliterator.SORTED,
+                                                                naturalOrder());
+            assertEquals(1000, spliterator.getExactSizeIfKnown());
+            assertEquals(naturalOrder(), spliterator.getComparator());
+
+            assertEquals(IntStream.range(0, 1000).boxed().collect(toList()), splitAndCollect(spliterator));
+        }
+
+        @Test
+        public void splitsKeepExactSizes() {
+            RedBlackTree<Integer, Integer> tree = RedBlackTree.fromSorted(
+                    IntStream.range(0, 100).mapToObj(i -> tuple(i, i)).iterator(), 100);
+            Spliterator<Integer> spliterator = tree.spliterator((k, v) -> k, 100, 0, null);
+            assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+            Spliterator<Integer> prefix = spliterator.trySplit();
+            assertTrue(prefix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+            assertEquals(100, prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+            assertEquals(prefix.getExactSizeIfKnown(), count(prefix));
+
+            Spliterator<Integer> secondPrefix = spliterator.trySplit();
+            assertTrue(spliterator.tryAdvance(x -> {
+            }));
+            assertEquals(secondPrefix.getExactSizeIfKnown(), count(secondPrefix));
+            assertEquals(spliterator.getExactSizeIfKnown(), count(spliterator));
+        }
+
+        private static long count(Spliterator<?> spliterator) {
+            long[] count = {0};
+            spliterator.forEachRemaining(x -> count[0]++);
+            return count[0];
+        }
+
+        @Test
+        public void emptyTree() {
+            Spliterator<Integer> spliterator = RedBlackTree.<Integer, Integer>empty()
+                    .spliterator((k, v) -> k, 0, 0, null);
+            assertNull(spliterator.trySplit());
+            assertFalse(spliterator.tryAdvance(x -> {
+                throw new AssertionError();
+            }));
+        }
+
+        private static <A> List<A> splitAndCollect(Spliterator<A> spliterator) {
+            Spliterator<A> prefix = spliterator.trySplit();
+            List<A>        result = prefix == null ? new ArrayList<>() : splitAndCollect(prefix);
+            if (prefix == null)
+                spliterator.forEachRemaining(result::add);
+            else
+                result.addAll(splitAndCollect(spliterator));
+            return result;
+        }
+    }
+
+    public static class Iteration {
+
+        @Test
+        public void iteratesLargeTreesInBothDirections() {
+            RedBlackTree<Integer, Integer> tree = RedBlackTree.fromSorted(
+                    IntStream.range(0, 10_000).mapToObj(i -> tuple(i, -i)).iterator(), 10_000);
+
+            List<Integer> ascending = new ArrayList<>();
+            tree.iterator((k, v) -> k + v, false).forEachRemaining(ascending::add);
+            assertEquals(Collections.nCopies(10_000, 0), ascending);
+
+            List<Integer> descending = new ArrayList<>();
+            tree.iterator((k, v) -> k, true).forEachRemaining(descending::add);
+            assertEquals(IntStream.range(0, 10_000).map(i -> 9_999 - i).boxed().collect(toList()), descending);
+        }
+
+        @Test
+        public void iteratorThrowsWhenExhausted() {
+            Iterator<Integer> iterator = RedBlackTree.<Integer, Integer>empty().iterator((k, v) -> k, true);
+            assertFalse(iterator.hasNext());
+            try {
+                iterator.next();
+                throw new AssertionError("expected NoSuchElementException");
+            } catch (NoSuchElementException expected) {
+            }
+        }
+
+        @Test
+        public void forEachVisitsEntriesInOrder() {
+            RedBlackTree<Integer, String> tree = RedBlackTree.fromSorted(
+                    IntStream.range(0, 100).mapToObj(i -> tuple(i, String.valueOf(i))).iterator(), 100);
+
+            List<Tuple2<Integer, String>> visited = new ArrayList<>();
+            tree.forEach((k, v) -> visited.add(tuple(k, v)));
+            assertThat(visited, IterableMatcher.iterates(toCollection(ArrayList::new, tree).toArray(new Tuple2[0])));
+        }
+    }
+
+    public static class OrderStatistics {
+
+        @Test
+        public void sizeRankAndSelectTrackInsertsAndDeletes() {
+            Random                         random   = new Random(42);
+            Object                         owner    = new Object();
+            java.util.TreeSet<Integer>     expected = new java.util.TreeSet<>();
+            RedBlackTree<Integer, Integer> tree     = RedBlackTree.empty();
+            for (int i = 0; i < 2_000; i++) {
+                int k = random.nextInt(500);
+                if (random.nextInt(3) == 0) {
+                    expected.remove(k);
+                    tree = tree.delete(k, naturalOrder());
+                } else {
+                    expected.add(k);
+                    tree = i % 2 == 0 ? tree.insert(k, -k, naturalOrder()) : tree.insert(k, -k, naturalOrder(), owner);
+                }
+                assertEquals(expected.size(), tree.size());
+            }
+
+            List<Integer> keys = new ArrayList<>(expected);
+            for (int i = 0; i < keys.size(); i++) {
+                assertEquals(tuple(keys.get(i), -keys.get(i)), tree.select(i));
+                assertEquals(i, tree.rank(keys.get(i), naturalOrder()));
+            }
+            for (int k = -1; k <= 500; k++) {
+                assertEquals(expected.headSet(k).size(), tree.rank(k, naturalOrder()));
+            }
+            assertNull(tree.select(-1));
+            assertNull(tree.select(keys.size()));
+        }
+
+        @Test
+        public void emptyTreeHasNoOrderStatistics() {
+            RedBlackTree<Integer, Integer> empty = RedBlackTree.empty();
+            assertEquals(0, empty.size());
+            assertEquals(0, empty.rank(1, naturalOrder()));
+            assertNull(empty.select(0));
+        }
+    }
+
+    public static class Navigation {
+
+        private static final java.util.TreeMap<Integer, Integer> EXPECTED = new java.util.TreeMap<>();
+        private static final RedBlackTree<Integer, Integer>      TREE;
+
+        static {
+            Random                         random = new Random(7);
+            RedBlackTree<Integer, Integer> tree   = RedBlackTree.empty();
+            for (int i = 0; i < 300; i++) {
+                int k = random.nextInt(1_000) * 2;
+                EXPECTED.put(k, -k);
+                tree = tree.insert(k, -k, naturalOrder());
+            }
+            TREE = tree;
+        }
+
+        private static Tuple2<Integer, Integer> entry(java.util.Map.Entry<Integer, Integer> entry) {
+            return entry == null ? null : tuple(entry.getKey(), entry.getValue());
+        }
+
+        private static List<Integer> keys(Iterator<Integer> iterator) {
+            List<Integer> keys = new ArrayList<>();
+            iterator.forEachRemaining(keys::add);
+            return keys;
+        }
+
+        @Test
+        public void nearestAgreesWithNavigableMap() {
+            for (int k = -1; k <= 2_000; k++) {
+                assertEquals(entry(EXPECTED.floorEntry(k)), TREE.nearest(k, false, true, naturalOrder()));
+                assertEquals(entry(EXPECTED.ceilingEntry(k)), TREE.nearest(k, true, true, naturalOrder()));
+                assertEquals(entry(EXPECTED.lowerEntry(k)), TREE.nearest(k, false, false, naturalOrder()));
+                assertEquals(entry(EXPECTED.higherEntry(k)), TREE.nearest(k, true, false, naturalOrder()));
+            }
+        }
+
+        @Test
+        public void headAndTailAgreeWithNavigableMap() {
+            for (int k = -1; k <= 2_000; k += 7) {
+                for (boolean inclusive : new boolean[]{true, false}) {
+                    RedBlackTree<Integer, Integer> head = RedBlackTree.head(TREE, k, inclusive, naturalOrder());
+                    RedBlackTree<Integer, Integer> tail = RedBlackTree.tail(TREE, k, inclusive, naturalOrder());
+                    assertEquals(new ArrayList<>(EXPECTED.headMap(k, inclusive).keySet()),
+                                 keys(head.iterator((key, value) -> key, false)));
+                    assertEquals(new ArrayList<>(EXPECTED.tailMap(k, inclusive).keySet()),
+                                 keys(tail.iterator((key, value) -> key, false)));
+                    assertEquals(EXPECTED.headMap(k, inclusive).size(), head.size());
+                    assertEquals(EXPECTED.tailMap(k, inclusive).size(), tail.size());
+                }
+            }
+        }
+
+        @Test
+        public void rangeIteratorsAgreeWithNavigableMapInBothDirections() {
+            for (int from = -1; from <= 2_000; from += 97) {
+                for (int to = from - 50; to <= 2_000; to += 131) {
+                    for (boolean fromInclusive : new boolean[]{true, false}) {
+                        for (boolean toInclusive : new boolean[]{true, false}) {
+                            Range<Integer> range = new Range<>(from, fromInclusive, to, toInclusive, naturalOrder());
+                            List<Integer> expected = to < from
+                                                     ? new ArrayList<>()
+                                                     : new ArrayList<>(EXPECTED.subMap(from, fromInclusive,
+                                                                                       to, toInclusive).keySet());
+                            assertEquals(expected, keys(TREE.iterator((key, value) -> key, false, range)));
+                            Collections.reverse(expected);
+                            assertEquals(expected, keys(TREE.iterator((key, value) -> key, true, range)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     public static class Empty {
 
         @Test
@@ -2,10 +2,18 @@ package com.jnape.palatable.shoki.impl;
 
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Spliterator;
+
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.shoki.api.Natural.abs;
+import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
 import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -74,6 +82,23 @@ public class StrictQueueTest {
         assertEquals(strictQueue(), strictQueue().reverse());
     }
 
+    @Test
+    public void sizeInfo() {
+        assertEquals(known(zero()), strictQueue().sizeInfo());
+        assertEquals(known(abs(3)), strictQueue(1, 2, 3).sizeInfo());
+        assertEquals(known(abs(4)), strictQueue(1, 2, 3).snoc(4).sizeInfo());
+        assertEquals(known(abs(4)), strictQueue(1, 2, 3).snoc(4).reverse().sizeInfo());
+        assertEquals(known(abs(3)), strictQueue(1).snoc(2).snoc(3).sizeInfo());
+        assertEquals(known(abs(2)), strictQueue(1).snoc(2).snoc(3).tail().sizeInfo());
+        assertEquals(known(zero()), strictQueue(1).tail().sizeInfo());
+
+        StrictQueue<Integer> queue = strictQueue();
+        for (int i = 0; i < 10_000; i++) {
+            queue = queue.snoc(i);
+            assertEquals(known(abs(i + 1)), queue.sizeInfo());
+        }
+    }
+
     @Test
     public void equalsAndHashCode() {
         assertEquals(strictQueue(), strictQueue());
@@ -101,4 +126,27 @@ public class StrictQueueTest {
     public void snocAll() {
         assertEquals(strictQueue(1, 2, 3, 4, 5), strictQueue(1, 2).snocAll(strictStack(3, 4, 5)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void streams() {
+        StrictQueue<Integer> queue = strictQueue(1, 2, 3);
+
+        assertEquals(asList(1, 2, 3), queue.parallelStream().collect(toList()));
+        assertEquals(0, strictQueue().stream().count());
+
+        Spliterator<Integer> spliterator = queue.spliterator();
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SUBSIZED));
+    }
+
+    @Test
+    public void asJavaList() {
+        List<Integer> javaList = strictQueue(1, 2).snoc(3).cons(0).asJavaList();
+
+        assertEquals(asList(0, 1, 2, 3), javaList);
+        assertEquals(4, javaList.size());
+        assertEquals((Integer) 3, javaList.get(3));
+        assertEquals(3, javaList.lastIndexOf(3));
+        assertTrue(strictQueue().asJavaList().isEmpty());
+    }
+}
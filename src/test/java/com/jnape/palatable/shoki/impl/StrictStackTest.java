@@ -2,11 +2,20 @@ package com.jnape.palatable.shoki.impl;
 
 import org.junit.Test;
 
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Spliterator;
+
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
 import static com.jnape.palatable.lambda.functions.builtin.fn2.Replicate.replicate;
 import static com.jnape.palatable.lambda.functions.builtin.fn3.FoldLeft.foldLeft;
+import static com.jnape.palatable.shoki.api.Natural.abs;
+import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.StrictStack.strictStack;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
@@ -73,6 +82,18 @@ public class StrictStackTest {
         assertEquals(strictStack().cons(3).cons(2).cons(1), strictStack(1, 2, 3));
     }
 
+    @Test
+    public void sizeInfo() {
+        assertEquals(known(zero()), strictStack().sizeInfo());
+        assertEquals(known(abs(3)), strictStack(1, 2, 3).sizeInfo());
+        assertEquals(known(abs(2)), strictStack(1, 2, 3).tail().sizeInfo());
+        assertEquals(known(abs(4)), strictStack(1, 2, 3).cons(0).sizeInfo());
+
+        StrictStack<Integer> xs = foldLeft(StrictStack::cons, strictStack(), replicate(10_000, 1));
+        assertEquals(known(abs(10_000)), xs.sizeInfo());
+        assertEquals(known(abs(10_000)), xs.reverse().sizeInfo());
+    }
+
     @Test
     public void stackSafeEqualsAndHashCode() {
         StrictStack<Integer> xs = foldLeft(StrictStack::cons, strictStack(), replicate(10_000, 1));
@@ -87,4 +108,49 @@ public class StrictStackTest {
         assertEquals("StrictStack[]", strictStack().toString());
         assertEquals("StrictStack[1, 2, 3]", strictStack(1, 2, 3).toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void streams() {
+        StrictStack<Integer> stack = strictStack(1, 2, 3);
+
+        assertEquals(asList(1, 2, 3), stack.parallelStream().collect(toList()));
+        assertEquals(0, strictStack().stream().count());
+
+        Spliterator<Integer> spliterator = stack.spliterator();
+        assertEquals(3, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SUBSIZED));
+    }
+
+    @Test
+    public void asJavaList() {
+        List<Integer> javaList = strictStack(1, 2, 3).asJavaList();
+
+        assertEquals(asList(1, 2, 3), javaList);
+        assertEquals(asList(1, 2, 3).hashCode(), javaList.hashCode());
+        assertEquals(3, javaList.size());
+        assertEquals((Integer) 2, javaList.get(1));
+        assertEquals(2, javaList.indexOf(3));
+        assertEquals(asList(2, 3), javaList.subList(1, 3));
+        assertTrue(strictStack().asJavaList().isEmpty());
+
+        ListIterator<Integer> listIterator = javaList.listIterator(1);
+        assertEquals((Integer) 2, listIterator.next());
+        assertEquals((Integer) 2, listIterator.previous());
+        assertEquals((Integer) 1, listIterator.previous());
+        assertFalse(listIterator.hasPrevious());
+        assertEquals((Integer) 1, listIterator.next());
+        assertEquals((Integer) 2, listIterator.next());
+        assertEquals((Integer) 3, listIterator.next());
+        assertFalse(listIterator.hasNext());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void asJavaListIndexOutOfBounds() {
+        strictStack(1, 2, 3).asJavaList().get(3);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asJavaListIsReadOnly() {
+        strictStack(1, 2, 3).asJavaList().add(4);
+    }
+}
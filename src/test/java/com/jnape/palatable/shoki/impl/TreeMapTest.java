@@ -1,13 +1,22 @@
 package com.jnape.palatable.shoki.impl;
 
+import com.jnape.palatable.lambda.adt.Maybe;
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
+import com.jnape.palatable.shoki.api.Natural;
+import com.jnape.palatable.shoki.api.RandomAccess;
 import com.jnape.palatable.shoki.testsupport.traits.MapTraits;
 import com.jnape.palatable.traitor.annotations.TestTraits;
 import com.jnape.palatable.traitor.runners.Traits;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.NavigableMap;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
@@ -19,12 +28,15 @@ import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
 import static com.jnape.palatable.shoki.impl.TreeMap.treeMap;
 import static com.jnape.palatable.shoki.impl.TreeSet.treeSet;
+import static java.util.Arrays.asList;
 import static java.util.Comparator.comparing;
 import static java.util.Comparator.naturalOrder;
 import static java.util.Comparator.reverseOrder;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -201,4 +213,280 @@ public class TreeMapTest {
                             tuple("e", 5),
                             tuple("f", 6)));
     }
+
+    @Test
+    public void builder() {
+        assertEquals(treeMap(tuple(2, "bar"), tuple(3, "baz")),
+                     TreeMap.<Integer, String>builder()
+                             .put(3, "qux")
+                             .put(1, "foo")
+                             .put(2, "bar")
+                             .put(3, "baz")
+                             .remove(1)
+                             .remove(4)
+                             .persistent());
+
+        TreeMap.Builder<Integer, String> builder = TreeMap.<Integer, String>builder(reverseOrder()).put(1, "foo");
+        assertEquals(just("foo"), builder.get(1));
+        assertEquals(nothing(), builder.get(2));
+        assertThat(builder.put(2, "bar").persistent(), iterates(tuple(2, "bar"), tuple(1, "foo")));
+    }
+
+    @Test
+    public void persistentIsUnaffectedBySubsequentBuilderModifications() {
+        TreeMap.Builder<Integer, Integer> builder = TreeMap.builder();
+        TreeMap<Integer, Integer>         expected = treeMap();
+        for (int i = 0; i < 1_000; i++) {
+            builder.put(i, i);
+            expected = expected.put(i, i);
+        }
+        TreeMap<Integer, Integer> frozen = builder.persistent();
+
+        for (int i = 0; i < 1_000; i++) {
+            builder.put(i, -i).put(-i - 1, i);
+        }
+
+        assertEquals(expected, frozen);
+        assertEquals(known(abs(2_000)), builder.persistent().sizeInfo());
+    }
+
+    @Test
+    public void transientCopyLeavesOriginalUnaffected() {
+        TreeMap<Integer, String> original = treeMap(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz"));
+        TreeMap<Integer, String> modified = original.transientCopy()
+                .put(0, "qux")
+                .put(2, "quux")
+                .remove(3)
+                .persistent();
+
+        assertEquals(treeMap(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz")), original);
+        assertEquals(treeMap(tuple(0, "qux"), tuple(1, "foo"), tuple(2, "quux")), modified);
+    }
+
+    @Test
+    public void fromSortedAscending() {
+        TreeMap<Integer, String> treeMap = TreeMap.fromSorted(
+                naturalOrder(), asList(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz")));
+        assertEquals(treeMap(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz")), treeMap);
+        assertEquals(known(abs(3)), treeMap.sizeInfo());
+    }
+
+    @Test
+    public void fromSortedDescending() {
+        assertThat(TreeMap.fromSorted(naturalOrder(), asList(tuple(3, "baz"), tuple(2, "bar"), tuple(1, "foo"))),
+                   iterates(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz")));
+    }
+
+    @Test
+    public void fromSortedFallsBackToInsertionForUnsortedEntries() {
+        assertThat(TreeMap.fromSorted(naturalOrder(), asList(tuple(2, "bar"), tuple(1, "foo"), tuple(3, "baz"),
+                                                             tuple(1, "qux"), tuple(0, "quux"))),
+                   iterates(tuple(0, "quux"), tuple(1, "qux"), tuple(2, "bar"), tuple(3, "baz")));
+    }
+
+    @Test
+    public void fromSortedLargeInput() {
+        TreeMap<Integer, Integer> expected = treeMap();
+        java.util.List<Tuple2<Integer, Integer>> entries = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            expected = expected.put(i, i);
+            entries.add(tuple(i, i));
+        }
+
+        TreeMap<Integer, Integer> treeMap = TreeMap.fromSorted(naturalOrder(), entries);
+        assertEquals(expected, treeMap);
+        assertEquals(expected.remove(500).put(1_000, 1_000), treeMap.remove(500).put(1_000, 1_000));
+        assertEquals(expected.reverse(), TreeMap.fromSorted(reverseOrder(), entries));
+    }
+
+    @Test
+    public void sortReverseOrderedMapInLinearTime() {
+        TreeMap<Integer, String> treeMap = treeMap(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz"));
+        assertThat(treeMap.sort(reverseOrder()), iterates(tuple(3, "baz"), tuple(2, "bar"), tuple(1, "foo")));
+        assertThat(treeMap.sort(reverseOrder()).sort(naturalOrder()),
+                   iterates(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz")));
+    }
+
+    @Test
+    public void merge() {
+        assertEquals(treeMap(tuple(1, 1), tuple(2, 4), tuple(3, 3)),
+                     treeMap(tuple(1, 1), tuple(2, 2)).merge(treeMap(tuple(2, 2), tuple(3, 3)), Integer::sum));
+        assertEquals(treeMap(tuple(1, 1), tuple(2, 4), tuple(3, 3)),
+                     treeMap(tuple(1, 1), tuple(2, 2)).merge(treeMap(reverseOrder(), tuple(2, 2), tuple(3, 3)),
+                                                             Integer::sum));
+
+        TreeMap<Integer, Integer> xs = treeMap(tuple(1, 1), tuple(2, 2));
+        assertEquals(treeMap(tuple(1, 2), tuple(2, 4)), xs.merge(xs, Integer::sum));
+    }
+
+    @Test
+    public void removeAll() {
+        TreeMap<Integer, String> treeMap = treeMap(tuple(1, "foo"), tuple(2, "bar"), tuple(3, "baz"));
+        assertEquals(treeMap(tuple(1, "foo"), tuple(3, "baz")), treeMap.removeAll(treeSet(2, 4)));
+        assertEquals(treeMap(tuple(1, "foo"), tuple(3, "baz")),
+                     treeMap.removeAll(TreeSet.<Integer>treeSet(reverseOrder(), 2, 4)));
+        assertEquals(treeMap(), treeMap.removeAll(treeSet(1, 2, 3)));
+        assertSame(treeMap, treeMap.removeAll(treeSet()));
+    }
+
+    @Test
+    public void streams() {
+        TreeMap.Builder<Integer, Integer> builder = TreeMap.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.put(i, -i);
+        }
+        TreeMap<Integer, Integer> xs = builder.persistent();
+
+        assertEquals(IntStream.range(0, 1000).boxed().collect(toList()),
+                     xs.parallelStream().map(Tuple2::_1).collect(toList()));
+        assertEquals(0, TreeMap.<Integer, Integer>treeMap().stream().count());
+
+        Spliterator<Tuple2<Integer, Integer>> spliterator = xs.spliterator();
+        assertEquals(1000, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                                                          | Spliterator.IMMUTABLE | Spliterator.NONNULL));
+        assertTrue(spliterator.getComparator().compare(tuple(1, 0), tuple(2, -1)) < 0);
+    }
+
+    @Test
+    public void reverseIterator() {
+        TreeMap<String, Integer> treeMap = treeMap(tuple("b", 2), tuple("a", 1), tuple("c", 3));
+        assertThat(treeMap::reverseIterator, iterates(tuple("c", 3), tuple("b", 2), tuple("a", 1)));
+        assertThat(treeMap.reverse()::reverseIterator, iterates(tuple("a", 1), tuple("b", 2), tuple("c", 3)));
+        assertFalse(TreeMap.<String, Integer>treeMap().reverseIterator().hasNext());
+    }
+
+    @Test
+    public void forEachWithoutTuples() {
+        ArrayList<Tuple2<String, Integer>> visited = new ArrayList<>();
+        treeMap(tuple("b", 2), tuple("a", 1), tuple("c", 3)).forEach((k, v) -> visited.add(tuple(k, v)));
+        assertEquals(asList(tuple("a", 1), tuple("b", 2), tuple("c", 3)), visited);
+    }
+
+    @Test
+    public void sizeInfoIsMaintainedAcrossVersions() {
+        TreeMap<Integer, Integer> treeMap = TreeMap.<Integer, Integer>treeMap().put(2, 2).put(1, 1).put(3, 3);
+        assertEquals(known(abs(3)), treeMap.sizeInfo());
+        assertEquals(known(abs(3)), treeMap.put(2, 20).sizeInfo());
+        assertEquals(known(abs(2)), treeMap.remove(1).sizeInfo());
+        assertEquals(known(abs(3)), treeMap.remove(4).sizeInfo());
+        assertEquals(known(abs(4)), treeMap.merge(TreeMap.<Integer, Integer>treeMap().put(3, 3).put(5, 5),
+                                                  Integer::sum).sizeInfo());
+        assertEquals(known(abs(4)), treeMap.transientCopy().put(0, 0).put(1, 10).persistent().sizeInfo());
+    }
+
+    @Test
+    public void rankAndSelect() {
+        TreeMap<String, Integer> treeMap = treeMap(tuple("b", 2), tuple("d", 4), tuple("a", 1));
+        assertEquals(zero(), treeMap.rank("a"));
+        assertEquals(one(), treeMap.rank("b"));
+        assertEquals(abs(2), treeMap.rank("c"));
+        assertEquals(abs(3), treeMap.rank("e"));
+        assertEquals(just(tuple("a", 1)), treeMap.select(zero()));
+        assertEquals(just(tuple("d", 4)), treeMap.select(abs(2)));
+        assertEquals(nothing(), treeMap.select(abs(3)));
+        assertEquals(just(tuple("d", 4)), treeMap.reverse().select(zero()));
+        assertEquals(nothing(), TreeMap.<String, Integer>treeMap().select(zero()));
+    }
+
+    @Test
+    public void byIndex() {
+        RandomAccess<Natural, Maybe<Tuple2<String, Integer>>> byIndex =
+                treeMap(tuple("b", 2), tuple("a", 1)).byIndex();
+        assertTrue(byIndex.contains(one()));
+        assertFalse(byIndex.contains(abs(2)));
+        assertEquals(just(tuple("b", 2)), byIndex.get(one()));
+        assertEquals(nothing(), byIndex.get(abs(2)));
+    }
+
+    @Test
+    public void navigation() {
+        TreeMap<Integer, String> treeMap = treeMap(tuple(1, "one"), tuple(3, "three"), tuple(5, "five"));
+        assertEquals(just(tuple(3, "three")), treeMap.floor(3));
+        assertEquals(just(tuple(3, "three")), treeMap.floor(4));
+        assertEquals(nothing(), treeMap.floor(0));
+        assertEquals(just(tuple(3, "three")), treeMap.ceiling(2));
+        assertEquals(nothing(), treeMap.ceiling(6));
+        assertEquals(just(tuple(1, "one")), treeMap.lower(3));
+        assertEquals(just(tuple(5, "five")), treeMap.higher(3));
+        assertEquals(nothing(), treeMap.higher(5));
+        assertEquals(just(tuple(5, "five")), treeMap.reverse().floor(4));
+    }
+
+    @Test
+    public void rangeViews() {
+        TreeMap<Integer, String> treeMap = treeMap(tuple(1, "one"), tuple(3, "three"), tuple(5, "five"),
+                                                   tuple(7, "seven"));
+        assertEquals(treeMap(tuple(1, "one"), tuple(3, "three")), treeMap.headMap(5, false));
+        assertEquals(treeMap(tuple(1, "one"), tuple(3, "three"), tuple(5, "five")), treeMap.headMap(5, true));
+        assertEquals(treeMap(tuple(5, "five"), tuple(7, "seven")), treeMap.tailMap(4, false));
+        assertEquals(treeMap(tuple(7, "seven")), treeMap.tailMap(5, false));
+        assertEquals(treeMap(tuple(3, "three"), tuple(5, "five")), treeMap.subMap(3, true, 7, false));
+        assertEquals(treeMap(), treeMap.subMap(7, true, 1, true));
+        assertEquals(known(abs(2)), treeMap.subMap(2, true, 6, true).sizeInfo());
+        assertSame(treeMap, treeMap.headMap(8, false));
+    }
+
+    @Test
+    public void range() {
+        TreeMap<Integer, String> treeMap = treeMap(tuple(1, "one"), tuple(3, "three"), tuple(5, "five"),
+                                                   tuple(7, "seven"));
+        assertThat(treeMap.range(3, false, 7, true), iterates(tuple(5, "five"), tuple(7, "seven")));
+        assertThat(treeMap.range(2, true, 6, true), iterates(tuple(3, "three"), tuple(5, "five")));
+        assertThat(treeMap.range(8, true, 9, true), iterates());
+        assertThat(treeMap.reverse().range(7, true, 3, true),
+                   iterates(tuple(7, "seven"), tuple(5, "five"), tuple(3, "three")));
+    }
+
+    @Test
+    public void asJavaMapIsNavigableView() {
+        TreeMap<Integer, String> treeMap = treeMap(tuple(1, "one"), tuple(3, "three"), tuple(5, "five"),
+                                                   tuple(7, "seven"));
+        NavigableMap<Integer, String> javaMap = treeMap.asJavaMap();
+
+        java.util.TreeMap<Integer, String> expected = new java.util.TreeMap<>();
+        treeMap.forEach(expected::put);
+        assertEquals(expected, javaMap);
+        assertEquals(expected.hashCode(), javaMap.hashCode());
+        assertEquals(asList(1, 3, 5, 7), new ArrayList<>(javaMap.keySet()));
+        assertEquals(asList("one", "three", "five", "seven"), new ArrayList<>(javaMap.values()));
+
+        assertEquals("three", javaMap.get(3));
+        assertNull(javaMap.get(4));
+        assertTrue(javaMap.containsKey(7));
+        assertNull(javaMap.comparator());
+        assertEquals(new SimpleImmutableEntry<>(3, "three"), javaMap.floorEntry(4));
+        assertEquals((Integer) 5, javaMap.ceilingKey(4));
+        assertEquals((Integer) 1, javaMap.lowerKey(3));
+        assertNull(javaMap.higherKey(7));
+        assertEquals((Integer) 1, javaMap.firstKey());
+        assertEquals(new SimpleImmutableEntry<>(7, "seven"), javaMap.lastEntry());
+
+        assertEquals(expected.headMap(5), javaMap.headMap(5));
+        assertEquals(expected.tailMap(3, false), javaMap.tailMap(3, false));
+        assertEquals(expected.subMap(2, 6), javaMap.subMap(2, 6));
+        assertEquals(new ArrayList<>(expected.descendingMap().entrySet()),
+                     new ArrayList<>(javaMap.descendingMap().entrySet()));
+        assertEquals(expected.descendingMap().floorKey(4), javaMap.descendingMap().floorKey(4));
+        assertEquals(expected.descendingMap().headMap(3, true), javaMap.descendingMap().headMap(3, true));
+        assertEquals(new ArrayList<>(expected.descendingMap().subMap(7, false, 1, true).keySet()),
+                     new ArrayList<>(javaMap.descendingMap().subMap(7, false, 1, true).keySet()));
+        assertEquals(asList(7, 5, 3, 1), new ArrayList<>(javaMap.descendingKeySet()));
+        assertEquals(asList(3, 5), new ArrayList<>(javaMap.navigableKeySet().subSet(2, 6)));
+
+        NavigableMap<Integer, String> reversed = TreeMap.<Integer, String>treeMap(reverseOrder()).asJavaMap();
+        assertTrue(reversed.comparator().compare(1, 2) > 0);
+        assertTrue(javaMap.descendingMap().comparator().compare(1, 2) > 0);
+        assertEquals(0, TreeMap.<Integer, String>treeMap().asJavaMap().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void asJavaMapIsReadOnly() {
+        treeMap(tuple(1, "one")).asJavaMap().pollFirstEntry();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void asJavaMapRejectsInvertedSubMapBounds() {
+        treeMap(tuple(1, "one")).asJavaMap().subMap(5, 1);
+    }
 }
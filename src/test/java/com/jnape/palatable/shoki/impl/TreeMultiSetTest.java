@@ -1,8 +1,10 @@
 package com.jnape.palatable.shoki.impl;
 
+import com.jnape.palatable.lambda.adt.hlist.Tuple2;
 import org.junit.Test;
 
 import java.util.Comparator;
+import java.util.Spliterator;
 
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
@@ -15,7 +17,9 @@ import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.TreeMultiSet.treeMultiSet;
 import static com.jnape.palatable.shoki.impl.TreeSet.treeSet;
 import static java.math.BigInteger.TEN;
+import static java.util.Arrays.asList;
 import static java.util.Collections.reverseOrder;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
@@ -193,4 +197,74 @@ public class TreeMultiSetTest {
         assertEquals(treeSet(reverseOrder(), 1, 2, 3),
                      treeMultiSet(reverseOrder(), 1, 1, 2, 2, 3, 3, 3, 3).unique());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void builder() {
+        assertEquals(treeMultiSet("a", "b", "b"),
+                     TreeMultiSet.<String>builder().inc("a").inc("b", atLeastOne(2)).inc("c").remove("c").persistent());
+        assertEquals(treeMultiSet("a", "b", "a"),
+                     TreeMultiSet.<String>builder().incAll(treeSet("a", "b")).inc("a").persistent());
+
+        TreeMultiSet.Builder<String> builder = TreeMultiSet.<String>builder(reverseOrder()).inc("a").inc("a");
+        assertEquals(abs(2), builder.get("a"));
+        assertEquals(zero(), builder.get("b"));
+        assertThat(builder.inc("b").persistent(), iterates(tuple("b", one()), tuple("a", atLeastOne(2))));
+    }
+
+    @Test
+    public void transientCopy() {
+        TreeMultiSet<String> original = treeMultiSet("a", "b");
+        TreeMultiSet<String> modified = original.transientCopy().inc("a").remove("b").persistent();
+
+        assertEquals(treeMultiSet("a", "b"), original);
+        assertEquals(treeMultiSet("a", "a"), modified);
+    }
+
+    @Test
+    public void union() {
+        assertEquals(treeMultiSet("a", "a", "b", "c", "c"),
+                     treeMultiSet("a", "a", "b").union(treeMultiSet("a", "c", "c")));
+        assertEquals(treeMultiSet("a", "a", "b", "c", "c"),
+                     treeMultiSet("a", "a", "b").union(TreeMultiSet.treeMultiSet(reverseOrder(), "a", "c", "c")));
+    }
+
+    @Test
+    public void intersection() {
+        assertEquals(treeMultiSet("a"), treeMultiSet("a", "a", "b").intersection(treeMultiSet("a", "c", "c")));
+        assertEquals(EMPTY, treeMultiSet("a", "b").intersection(treeMultiSet("c")));
+    }
+
+    @Test
+    public void sum() {
+        assertEquals(treeMultiSet("a", "a", "a", "b", "c", "c"),
+                     treeMultiSet("a", "a", "b").sum(treeMultiSet("a", "c", "c")));
+    }
+
+    @Test
+    public void difference() {
+        assertEquals(treeMultiSet("a", "b"), treeMultiSet("a", "a", "b").difference(treeMultiSet("a", "c", "c")));
+        assertEquals(treeMultiSet("c", "c"), treeMultiSet("a", "c", "c").difference(treeMultiSet("a", "a", "b")));
+
+        TreeMultiSet<String> xs = treeMultiSet("a", "a", "b");
+        assertEquals(EMPTY, xs.difference(xs));
+    }
+
+    @Test
+    public void streams() {
+        TreeMultiSet<String> multiSet = treeMultiSet("foo", "bar", "foo");
+
+        assertEquals(asList("bar", "foo"), multiSet.parallelStream().map(Tuple2::_1).collect(toList()));
+        assertTrue(multiSet.spliterator().hasCharacteristics(Spliterator.SORTED));
+    }
+
+    @Test
+    public void rankAndSelectOverDistinctElements() {
+        TreeMultiSet<String> treeMultiSet = treeMultiSet("b", "a", "b", "c");
+        assertEquals(one(), treeMultiSet.rank("b"));
+        assertEquals(abs(2), treeMultiSet.rank("c"));
+        assertEquals(just(tuple("b", atLeastOne(2))), treeMultiSet.select(one()));
+        assertEquals(nothing(), treeMultiSet.select(abs(3)));
+        assertEquals(just(tuple("c", one())), treeMultiSet.byIndex().get(abs(2)));
+        assertFalse(treeMultiSet.byIndex().contains(abs(3)));
+    }
+}
@@ -4,7 +4,10 @@ import com.jnape.palatable.shoki.testsupport.DefaultMethodsSet;
 import org.junit.Test;
 import testsupport.matchers.IterableMatcher;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.Spliterator;
 
 import static com.jnape.palatable.lambda.adt.Maybe.just;
 import static com.jnape.palatable.lambda.adt.Maybe.nothing;
@@ -15,10 +18,13 @@ import static com.jnape.palatable.shoki.api.Set.EquivalenceRelations.sameElement
 import static com.jnape.palatable.shoki.api.SizeInfo.known;
 import static com.jnape.palatable.shoki.impl.TreeSet.treeSet;
 import static com.jnape.palatable.shoki.testsupport.EquivalenceRelationMatcher.equivalentTo;
+import static java.util.Arrays.asList;
 import static java.util.Collections.reverseOrder;
+import static java.util.stream.Collectors.toList;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static testsupport.matchers.IterableMatcher.iterates;
@@ -187,4 +193,140 @@ public class TreeSetTest {
         assertThat(treeSet(1, 2, 3), iterates(1, 2, 3));
         assertThat(treeSet(reverseOrder(), 1, 2, 3), iterates(3, 2, 1));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void builder() {
+        assertEquals(treeSet(2, 3), TreeSet.<Integer>builder().add(3).add(1).add(2).add(3).remove(1).persistent());
+        assertEquals(treeSet(1, 2, 3), TreeSet.<Integer>builder().addAll(treeSet(3, 2, 1)).persistent());
+
+        TreeSet.Builder<Integer> builder = TreeSet.<Integer>builder(reverseOrder()).add(1);
+        assertTrue(builder.contains(1));
+        assertFalse(builder.contains(2));
+        assertThat(builder.add(2).add(3).persistent(), iterates(3, 2, 1));
+    }
+
+    @Test
+    public void transientCopy() {
+        TreeSet<Integer> original = treeSet(1, 2, 3);
+        TreeSet<Integer> modified = original.transientCopy().add(4).remove(1).persistent();
+
+        assertEquals(treeSet(1, 2, 3), original);
+        assertEquals(treeSet(2, 3, 4), modified);
+    }
+
+    @Test
+    public void fromSorted() {
+        assertEquals(treeSet(1, 2, 3), TreeSet.fromSorted(Comparator.<Integer>naturalOrder(), asList(1, 2, 3)));
+        assertEquals(treeSet(1, 2, 3), TreeSet.fromSorted(Comparator.<Integer>naturalOrder(), asList(3, 2, 1)));
+        assertEquals(treeSet(1, 2, 3), TreeSet.fromSorted(Comparator.<Integer>naturalOrder(), asList(2, 3, 1, 2)));
+        assertThat(TreeSet.fromSorted(reverseOrder(), asList(1, 2, 3)), iterates(3, 2, 1));
+    }
+
+    @Test
+    public void setAlgebraOverLargeSets() {
+        TreeSet<Integer> xs = range(0, 3_000, 2);
+        TreeSet<Integer> ys = range(1_000, 5_000, 3);
+
+        TreeSet.Builder<Integer> union        = xs.transientCopy();
+        TreeSet.Builder<Integer> intersection = TreeSet.builder();
+        TreeSet.Builder<Integer> difference   = xs.transientCopy();
+        for (Integer y : ys) {
+            union.add(y);
+            if (xs.contains(y))
+                intersection.add(y);
+            difference.remove(y);
+        }
+
+        assertEquals(union.persistent(), xs.union(ys));
+        assertEquals(intersection.persistent(), xs.intersection(ys));
+        assertEquals(difference.persistent(), xs.difference(ys));
+        assertEquals(xs.union(ys).difference(xs.intersection(ys)), xs.symmetricDifference(ys));
+    }
+
+    @Test
+    public void setAlgebraWithDifferentComparator() {
+        assertThat(treeSet(1, 2, 3).union(treeSet(reverseOrder(), 3, 4)), iterates(1, 2, 3, 4));
+        assertThat(treeSet(1, 2, 3).intersection(treeSet(reverseOrder(), 3, 4)), iterates(3));
+        assertThat(treeSet(1, 2, 3).difference(treeSet(reverseOrder(), 3, 4)), iterates(1, 2));
+    }
+
+    private static TreeSet<Integer> range(int fromInclusive, int toExclusive, int step) {
+        TreeSet.Builder<Integer> builder = TreeSet.builder();
+        for (int i = fromInclusive; i < toExclusive; i += step) {
+            builder.add(i);
+        }
+        return builder.persistent();
+    }
+
+    @Test
+    public void streams() {
+        TreeSet<Integer> xs = TreeSet.fromSorted(Comparator.<Integer>naturalOrder(), asList(0, 1, 2, 3, 4, 5, 6, 7));
+
+        assertEquals(asList(0, 1, 2, 3, 4, 5, 6, 7), xs.parallelStream().collect(toList()));
+        assertEquals(asList(7, 6, 5, 4, 3, 2, 1, 0),
+                     treeSet(reverseOrder(), 0, 1, 2, 3, 4, 5, 6, 7).parallelStream().collect(toList()));
+        assertEquals(0, treeSet().stream().count());
+
+        Spliterator<Integer> spliterator = xs.spliterator();
+        assertEquals(8, spliterator.getExactSizeIfKnown());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT
+                                                          | Spliterator.IMMUTABLE));
+        assertNull(spliterator.getComparator());
+        assertEquals(reverseOrder(), treeSet(reverseOrder(), 1, 2).spliterator().getComparator());
+    }
+
+    @Test
+    public void reverseIterator() {
+        assertThat(treeSet(2, 1, 3)::reverseIterator, iterates(3, 2, 1));
+        assertThat(treeSet(reverseOrder(), 2, 1, 3)::reverseIterator, iterates(1, 2, 3));
+        assertFalse(treeSet().reverseIterator().hasNext());
+    }
+
+    @Test
+    public void forEachWithoutTuples() {
+        ArrayList<Integer> visited = new ArrayList<>();
+        treeSet(2, 1, 3).forEach(visited::add);
+        assertEquals(asList(1, 2, 3), visited);
+    }
+
+    @Test
+    public void rankAndSelect() {
+        TreeSet<String> treeSet = treeSet("b", "d", "a");
+        assertEquals(zero(), treeSet.rank("a"));
+        assertEquals(abs(2), treeSet.rank("c"));
+        assertEquals(just("b"), treeSet.select(one()));
+        assertEquals(nothing(), treeSet.select(abs(3)));
+        assertEquals(just("d"), treeSet.byIndex().get(abs(2)));
+        assertFalse(treeSet.byIndex().contains(abs(3)));
+    }
+
+    @Test
+    public void navigationAndRanges() {
+        TreeSet<Integer> treeSet = treeSet(1, 3, 5, 7);
+        assertEquals(just(3), treeSet.floor(4));
+        assertEquals(just(5), treeSet.ceiling(4));
+        assertEquals(just(1), treeSet.lower(3));
+        assertEquals(nothing(), treeSet.higher(7));
+        assertEquals(treeSet(1, 3), treeSet.headSet(5, false));
+        assertEquals(treeSet(5, 7), treeSet.tailSet(5, true));
+        assertEquals(treeSet(3, 5), treeSet.subSet(2, true, 5, true));
+        assertThat(treeSet.range(1, false, 7, false), iterates(3, 5));
+    }
+
+    @Test
+    public void asJavaSetIsNavigableView() {
+        NavigableSet<Integer> javaSet = treeSet(1, 3, 5, 7).asJavaSet();
+
+        assertEquals(new java.util.TreeSet<>(asList(1, 3, 5, 7)), javaSet);
+        assertEquals(asList(1, 3, 5, 7), new ArrayList<>(javaSet));
+        assertTrue(javaSet.contains(5));
+        assertFalse(javaSet.contains(4));
+        assertEquals((Integer) 3, javaSet.floor(4));
+        assertEquals((Integer) 5, javaSet.higher(3));
+        assertEquals((Integer) 7, javaSet.last());
+        assertEquals(asList(3, 5), new ArrayList<>(javaSet.subSet(3, true, 5, true)));
+        assertEquals(asList(7, 5, 3, 1), new ArrayList<>(javaSet.descendingSet()));
+        assertEquals(asList(5, 3, 1), new ArrayList<>(javaSet.descendingSet().tailSet(6)));
+        assertTrue(TreeSet.<Integer>treeSet().asJavaSet().isEmpty());
+    }
+}
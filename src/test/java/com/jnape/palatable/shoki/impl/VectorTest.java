@@ -0,0 +1,214 @@
+package com.jnape.palatable.shoki.impl;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.jnape.palatable.lambda.adt.Maybe.just;
+import static com.jnape.palatable.lambda.adt.Maybe.nothing;
+import static com.jnape.palatable.shoki.api.Natural.abs;
+import static com.jnape.palatable.shoki.api.Natural.zero;
+import static com.jnape.palatable.shoki.api.SizeInfo.known;
+import static com.jnape.palatable.shoki.impl.StrictQueue.strictQueue;
+import static com.jnape.palatable.shoki.impl.Vector.vector;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static testsupport.matchers.IterableMatcher.iterates;
+
+public class VectorTest {
+
+    @Test
+    public void emptyVector() {
+        Vector<Integer> empty = vector();
+        assertTrue(empty.isEmpty());
+        assertEquals(nothing(), empty.head());
+        assertEquals(nothing(), empty.get(zero()));
+        assertFalse(empty.contains(zero()));
+        assertTrue(empty.tail().isEmpty());
+        assertEquals(known(zero()), empty.sizeInfo());
+        assertThat(empty, iterates());
+    }
+
+    @Test
+    public void snocAppendsToTheBack() {
+        Vector<Integer> vector = Vector.<Integer>vector().snoc(1).snoc(2).snoc(3);
+        assertThat(vector, iterates(1, 2, 3));
+        assertEquals(just(1), vector.head());
+        assertEquals(just(3), vector.get(abs(2)));
+        assertEquals(nothing(), vector.get(abs(3)));
+        assertEquals(known(abs(3)), vector.sizeInfo());
+    }
+
+    @Test
+    public void consPrependsToTheFront() {
+        assertThat(vector(2, 3).cons(1).cons(0), iterates(0, 1, 2, 3));
+    }
+
+    @Test
+    public void tailRemovesTheFront() {
+        assertThat(vector(1, 2, 3).tail(), iterates(2, 3));
+        assertTrue(vector(1).tail().isEmpty());
+    }
+
+    @Test
+    public void updateReplacesElementsInBounds() {
+        Vector<Integer> vector = vector(1, 2, 3);
+        assertThat(vector.update(abs(1), 20), iterates(1, 20, 3));
+        assertThat(vector, iterates(1, 2, 3));
+        assertSame(vector, vector.update(abs(3), 40));
+    }
+
+    @Test
+    public void concat() {
+        assertThat(vector(1, 2).concat(vector(3, 4)), iterates(1, 2, 3, 4));
+        assertThat(vector(1, 2).concat(vector()), iterates(1, 2));
+        assertThat(Vector.<Integer>vector().concat(vector(1, 2)), iterates(1, 2));
+        assertThat(vector(1, 2).snocAll(vector(3)), iterates(1, 2, 3));
+        assertThat(vector(1, 2).snocAll(strictQueue(3, 4)), iterates(1, 2, 3, 4));
+    }
+
+    @Test
+    public void sliceClampsToBounds() {
+        Vector<Integer> vector = vector(0, 1, 2, 3, 4);
+        assertThat(vector.slice(abs(1), abs(3)), iterates(1, 2));
+        assertThat(vector.slice(abs(3), abs(10)), iterates(3, 4));
+        assertThat(vector.slice(abs(3), abs(3)), iterates());
+        assertThat(vector.slice(abs(4), abs(2)), iterates());
+        assertThat(vector.slice(zero(), abs(5)), iterates(0, 1, 2, 3, 4));
+    }
+
+    @Test
+    public void reverse() {
+        assertThat(vector(1, 2, 3).reverse(), iterates(3, 2, 1));
+        assertEquals(range(0, 1_000).reverse().reverse(), range(0, 1_000));
+    }
+
+    @Test
+    public void equalityIsIndependentOfTreeShape() {
+        Vector<Integer> snocced = range(0, 2_000);
+        Vector<Integer> concatenated = range(0, 700).concat(range(700, 1_300)).concat(range(1_300, 2_000));
+        Vector<Integer> consed = vector();
+        for (int i = 1_999; i >= 0; i--)
+            consed = consed.cons(i);
+
+        assertEquals(snocced, concatenated);
+        assertEquals(snocced, consed);
+        assertEquals(snocced.hashCode(), concatenated.hashCode());
+        assertEquals(snocced.hashCode(), consed.hashCode());
+        assertNotEquals(snocced, snocced.update(abs(1_000), -1));
+        assertNotEquals(vector(1, 2, 3), strictQueue(1, 2, 3));
+    }
+
+    @Test
+    public void largeVectorsIndexEveryElement() {
+        Vector<Integer> vector = range(0, 100_000);
+        assertEquals(known(abs(100_000)), vector.sizeInfo());
+        for (int i = 0; i < 100_000; i++)
+            assertEquals(just(i), vector.get(abs(i)));
+        assertEquals(IntStream.range(0, 100_000).boxed().collect(toList()), vector.stream().collect(toList()));
+    }
+
+    @Test
+    public void randomOperationsAgreeWithArrayList() {
+        Random          random   = new Random(16);
+        List<Integer>   expected = new ArrayList<>();
+        Vector<Integer> vector   = vector();
+        for (int step = 0; step < 3_000; step++) {
+            int size = expected.size();
+            switch (random.nextInt(7)) {
+                case 0:
+                    expected.add(step);
+                    vector = vector.snoc(step);
+                    break;
+                case 1:
+                    expected.add(0, step);
+                    vector = vector.cons(step);
+                    break;
+                case 2:
+                    if (size > 0) {
+                        int i = random.nextInt(size);
+                        expected.set(i, -step);
+                        vector = vector.update(abs(i), -step);
+                    }
+                    break;
+                case 3: {
+                    int             length = random.nextInt(2_000);
+                    Vector<Integer> other  = range(step * 10_000, step * 10_000 + length);
+                    for (int i = 0; i < length; i++)
+                        expected.add(step * 10_000 + i);
+                    vector = vector.concat(other);
+                    break;
+                }
+                case 4: {
+                    int             length = random.nextInt(2_000);
+                    Vector<Integer> other  = range(step * 10_000, step * 10_000 + length);
+                    List<Integer>   front  = new ArrayList<>();
+                    for (int i = 0; i < length; i++)
+                        front.add(step * 10_000 + i);
+                    expected.addAll(0, front);
+                    vector = other.concat(vector);
+                    break;
+                }
+                case 5:
+                    if (size > 0) {
+                        int from = random.nextInt(size);
+                        int to   = from + random.nextInt(size - from + 1);
+                        if (to - from < 100)
+                            to = size;
+                        expected = new ArrayList<>(expected.subList(from, to));
+                        vector = vector.slice(abs(from), abs(to));
+                    }
+                    break;
+                default:
+                    if (size > 0) {
+                        expected.remove(0);
+                        vector = vector.tail();
+                    }
+            }
+
+            assertEquals(known(abs(expected.size())), vector.sizeInfo());
+            if (step % 50 == 0 || expected.size() < 100) {
+                assertEquals(expected, vector.stream().collect(toList()));
+                for (int i = 0; i < expected.size(); i++)
+                    assertEquals(just(expected.get(i)), vector.get(abs(i)));
+            }
+        }
+    }
+
+    @Test
+    public void builderDoesNotAffectPersistedVectors() {
+        Vector.Builder<Integer> builder = Vector.builder();
+        for (int i = 0; i < 40; i++)
+            builder.snoc(i);
+        Vector<Integer> first = builder.persistent();
+        builder.snocAll(asList(40, 41));
+        assertEquals(range(0, 40), first);
+        assertEquals(range(0, 42), builder.persistent());
+
+        Vector.Builder<Integer> copy = first.transientCopy().snoc(-1);
+        assertEquals(range(0, 40), first);
+        assertEquals(range(0, 40).snoc(-1), copy.persistent());
+    }
+
+    @Test
+    public void toStringIsUseful() {
+        assertEquals("Vector[1, 2, 3]", vector(1, 2, 3).toString());
+        assertEquals("Vector[]", vector().toString());
+    }
+
+    private static Vector<Integer> range(int from, int to) {
+        Vector.Builder<Integer> builder = Vector.builder();
+        for (int i = from; i < to; i++)
+            builder.snoc(i);
+        return builder.persistent();
+    }
+}